@@ -0,0 +1,69 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of f(x,y) = x·y + x² - sqrt(y)/(x+3) + (x-y)³ at 1024 boxes of
+ * width 0.1: with Interval and with AffineForm. (The sums of the widths of
+ * the enclosures are returned)
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class AffineFormBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private static final Interval THREE = new Interval( 3. );
+
+    private Interval[] x, y;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 21 );
+        x = new Interval[SIZE];
+        y = new Interval[SIZE];
+        for( int i=0; i<SIZE; i++ ) {
+            final double a = random.nextDouble()*2.-1., b = 0.5+random.nextDouble();
+            x[i] = new Interval( a, a+0.1 );
+            y[i] = new Interval( b, b+0.1 );
+        }
+    }
+
+    @Benchmark
+    public double interval() {
+        double width = 0.;
+        for( int i=0; i<SIZE; i++ ) {
+            width += x[i].mult( y[i] ).add( x[i].sq() ).subtract( y[i].sqrt().divide( x[i].add( THREE ) ) )
+                    .add( x[i].subtract( y[i] ).pow( 3 ) ).width();
+        }
+        return width;
+    }
+
+    @Benchmark
+    public double affine() {
+        double width = 0.;
+        for( int i=0; i<SIZE; i++ ) {
+            final AffineForm a = AffineForm.of( x[i] ), b = AffineForm.of( y[i] );
+            width += a.mult( b ).add( a.sq() ).subtract( b.sqrt().divide( a.add( 3. ) ) )
+                    .add( a.subtract( b ).pow( 3 ) ).toInterval().width();
+        }
+        return width;
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GeneralizedInterval.compactIntervals on several input distributions:
+ * <ul>
+ * <li>sorted: already sorted disjoint intervals (nothing to merge),</li>
+ * <li>random: shuffled intervals of random positions and widths,</li>
+ * <li>adversarial: reverse sorted chain of overlapping intervals, which all
+ * merge into a single one (worst case for in list removals).</li>
+ * </ul>
+ * The list is copied before each compaction (compactIntervals works in place).
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class CompactIntervalsBenchmark {
+
+    @Param( { "100", "10000" } )
+    public int size;
+
+    @Param( { "sorted", "random", "adversarial" } )
+    public String distribution;
+
+    private List<Interval> intervals;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        intervals = new ArrayList<>( size );
+        switch( distribution ) {
+            case "sorted":
+                for( int i=0; i<size; i++ )
+                    intervals.add( new Interval( 2.*i, 2.*i+1. ) );
+                break;
+            case "random":
+                for( int i=0; i<size; i++ ) {
+                    double min = size*random.nextDouble();
+                    intervals.add( new Interval( min, min+2.*random.nextDouble() ) );
+                }
+                Collections.shuffle( intervals, random );
+                break;
+            case "adversarial":
+                for( int i=size-1; i>=0; i-- )
+                    intervals.add( new Interval( i, i+1.5 ) );
+                break;
+            default:
+                throw new IllegalArgumentException( distribution );
+        }
+    }
+
+    @Benchmark
+    public List<Interval> compactIntervals() {
+        List<Interval> list = new ArrayList<>( intervals );
+        GeneralizedInterval.compactIntervals( list );
+        return list;
+    }
+}
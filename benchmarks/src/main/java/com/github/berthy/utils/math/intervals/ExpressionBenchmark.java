@@ -0,0 +1,94 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of f(x,y) = (x+y)²·(x+y)³ - sqrt(x²+2)/(y²+1) + x·y at 4096
+ * points: with Interval objects, with a CompiledExpression point by point,
+ * and with a CompiledExpression over IntervalArrays.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class ExpressionBenchmark {
+
+    private static final int SIZE = 4096;
+
+    private static final Interval TWO = new Interval( 2. );
+
+    private Interval[] x, y;
+    private double[] xMin, xMax;
+    private IntervalArray[] inputs, outputs;
+    private CompiledExpression.Evaluator evaluator;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 19 );
+        x = new Interval[SIZE];
+        y = new Interval[SIZE];
+        for( int i=0; i<SIZE; i++ ) {
+            x[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            y[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+        }
+        inputs = new IntervalArray[]{ new IntervalArray( x ), new IntervalArray( y ) };
+        outputs = new IntervalArray[]{ new IntervalArray( SIZE ) };
+        xMin = new double[2];
+        xMax = new double[2];
+
+        final ExpressionBuilder builder = new ExpressionBuilder();
+        final Expression a = builder.variable( 0 ), b = builder.variable( 1 );
+        final Expression s = a.add( b );
+        final Expression f = s.sq().mult( s.pow( 3 ) )
+                .subtract( a.sq().add( 2. ).sqrt().divide( b.sq().add( 1. ) ) )
+                .add( a.mult( b ) );
+        evaluator = builder.compile( f ).newEvaluator();
+    }
+
+    @Benchmark
+    public double interval() {
+        double sum = 0.;
+        for( int i=0; i<SIZE; i++ ) {
+            final Interval s = x[i].add( y[i] );
+            sum += s.sq().mult( s.pow( 3 ) )
+                    .subtract( x[i].sq().add( TWO ).sqrt().divide( y[i].sq().add( Interval.ONE ) ) )
+                    .add( x[i].mult( y[i] ) ).getMaxBound();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double compiled_point() {
+        double sum = 0.;
+        for( int i=0; i<SIZE; i++ ) {
+            xMin[0] = x[i].getMinBound();
+            xMax[0] = x[i].getMaxBound();
+            xMin[1] = y[i].getMinBound();
+            xMax[1] = y[i].getMaxBound();
+            evaluator.evaluate( xMin, xMax );
+            sum += evaluator.getMaxBound( 0 );
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public IntervalArray compiled_batch() {
+        evaluator.evaluate( inputs, outputs );
+        return outputs[0];
+    }
+}
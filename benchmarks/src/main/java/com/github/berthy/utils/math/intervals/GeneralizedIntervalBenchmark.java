@@ -0,0 +1,132 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.Arithmetic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GeneralizedInterval operations, for several numbers of components.
+ *
+ * The operands are made of disjoint components separated by random gaps,
+ * so that the cross products (add, mult, divide) partly merge.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class GeneralizedIntervalBenchmark {
+
+    @Param( { "1", "10", "100", "1000" } )
+    public int components;
+
+    private GeneralizedInterval x, y, divisor;
+    private Interval interval;
+
+    private static final Interval ONE_TENTH = new Interval( 0.09, 0.11 );
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        x = generate( random, -100., components );
+        y = generate( random, -95., components );
+        divisor = generate( random, 1., components );
+        interval = new Interval( 0., 10. );
+    }
+
+    /**
+     * @return a generalized interval of n disjoint components starting at start
+     */
+    static GeneralizedInterval generate( Random random, double start, int n ) {
+        List<Interval> list = new ArrayList<>();
+        double min = start;
+        for( int i=0; i<n; i++ ) {
+            double max = min + 0.5 + random.nextDouble();
+            list.add( new Interval( min, max ) );
+            min = max + 0.5 + random.nextDouble();
+        }
+        return new GeneralizedInterval( list );
+    }
+
+    @Benchmark
+    public GeneralizedInterval put() {
+        return x.put( interval );
+    }
+
+    @Benchmark
+    public GeneralizedInterval union() {
+        return x.union( y );
+    }
+
+    @Benchmark
+    public GeneralizedInterval intersection() {
+        return x.intersection( y );
+    }
+
+    @Benchmark
+    public Arithmetic add() {
+        return x.add( y );
+    }
+
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Arithmetic add_allThreads() {
+        return x.add( y );
+    }
+
+    @Benchmark
+    public GeneralizedInterval parallelAdd() {
+        return x.parallelAdd( y );
+    }
+
+    @Benchmark
+    public Arithmetic mult() {
+        return x.mult( y );
+    }
+
+    @Benchmark
+    public GeneralizedInterval parallelMult() {
+        return x.parallelMult( y );
+    }
+
+    /**
+     * mult with a budget of 10 components (hull merging)
+     */
+    @Benchmark
+    public GeneralizedInterval mult_bounded() {
+        return x.mult( y, 10 );
+    }
+
+    /**
+     * Iterated x = x * y + y: the component count blows up without a budget.
+     */
+    @Benchmark
+    public GeneralizedInterval multAdd_iterated_bounded() {
+        GeneralizedInterval result = x;
+        for( int i=0; i<4; i++ )
+            result = result.mult( ONE_TENTH, 10 ).add( y, 10 );
+        return result;
+    }
+
+    @Benchmark
+    public Arithmetic divide() {
+        return x.divide( divisor );
+    }
+}
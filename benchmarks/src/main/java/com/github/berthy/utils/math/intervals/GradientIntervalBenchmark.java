@@ -0,0 +1,62 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of f(x,y) = x·y + x² - y/(x+3) with Interval, and with its
+ * gradient: GradientInterval with new objects, and with reused buffers.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class GradientIntervalBenchmark {
+
+    private static final Interval THREE = new Interval( 3. );
+
+    private Interval x, y;
+    private GradientInterval gx, gy, three, t0, t1, t2;
+
+    @Setup
+    public void setup() {
+        x = new Interval( 1., 2. );
+        y = new Interval( -1., 0.5 );
+        gx = GradientInterval.variable( x, 0, 2 );
+        gy = GradientInterval.variable( y, 1, 2 );
+        three = GradientInterval.constant( THREE, 2 );
+        t0 = new GradientInterval( 2 );
+        t1 = new GradientInterval( 2 );
+        t2 = new GradientInterval( 2 );
+    }
+
+    @Benchmark
+    public Interval interval() {
+        return x.mult( y ).add( x.sq() ).subtract( y.divide( x.add( THREE ) ) );
+    }
+
+    @Benchmark
+    public GradientInterval gradient() {
+        return gx.mult( gy ).add( gx.sq() ).subtract( gy.divide( gx.add( three ) ) );
+    }
+
+    @Benchmark
+    public GradientInterval gradient_inPlace() {
+        gx.mult( gy, t0 ).add( gx.sq( t1 ), t0 );
+        gy.divide( gx.add( three, t1 ), t2 );
+        return t0.subtract( t2, t0 );
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Propagation of 2000 random constraints x·y + z² + sqrt(t) in [ v-0.01, v+0.01 ]
+ * over 1000 variables in [ 0, 2 ] (v is the value at a random point of
+ * [ 0.5, 1.5 ]^1000).
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class HC4ContractorBenchmark {
+
+    private static final int VARIABLES = 1000, CONSTRAINTS = 2000;
+
+    private HC4Contractor.Propagator propagator;
+    private double[] xMin, xMax;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 23 );
+        final double[] solution = new double[VARIABLES];
+        for( int i=0; i<VARIABLES; i++ )
+            solution[i] = 0.5 + random.nextDouble();
+
+        final ExpressionBuilder builder = new ExpressionBuilder();
+        final Expression[] constraints = new Expression[CONSTRAINTS];
+        final Interval[] ranges = new Interval[CONSTRAINTS];
+        for( int c=0; c<CONSTRAINTS; c++ ) {
+            final int x = random.nextInt( VARIABLES ), y = random.nextInt( VARIABLES );
+            final int z = random.nextInt( VARIABLES ), t = random.nextInt( VARIABLES );
+            constraints[c] = builder.variable( x ).mult( builder.variable( y ) ).add( builder.variable( z ).sq() )
+                    .add( builder.variable( t ).sqrt() );
+            final double v = solution[x]*solution[y] + solution[z]*solution[z] + Math.sqrt( solution[t] );
+            ranges[c] = new Interval( v-0.01, v+0.01 );
+        }
+        propagator = new HC4Contractor( constraints, ranges, 0.01 ).newPropagator();
+        xMin = new double[VARIABLES];
+        xMax = new double[VARIABLES];
+    }
+
+    @Benchmark
+    public int hc4() {
+        Arrays.fill( xMin, 0. );
+        Arrays.fill( xMax, 2. );
+        propagator.contract( xMin, xMax );
+        return propagator.getRevisionCount();
+    }
+}
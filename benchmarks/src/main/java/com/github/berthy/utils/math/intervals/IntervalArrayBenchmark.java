@@ -0,0 +1,75 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IntervalArray bulk operations, written into a preallocated result array.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalArrayBenchmark {
+
+    @Param( { "1024", "1048576" } )
+    public int size;
+
+    private IntervalArray x, y, divisors, result;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        x = new IntervalArray( size );
+        y = new IntervalArray( size );
+        divisors = new IntervalArray( size );
+        result = new IntervalArray( size );
+        for( int i=0; i<size; i++ ) {
+            x.set( i, random.nextGaussian(), random.nextGaussian() );
+            y.set( i, random.nextGaussian(), random.nextGaussian() );
+            double c = 0.1 + random.nextDouble();
+            double sign = random.nextBoolean() ? 1. : -1.;
+            divisors.set( i, sign*c, sign*(c+random.nextDouble()) );
+        }
+    }
+
+    @Benchmark
+    public IntervalArray add() {
+        return x.add( y, result );
+    }
+
+    @Benchmark
+    public IntervalArray subtract() {
+        return x.subtract( y, result );
+    }
+
+    @Benchmark
+    public IntervalArray mult() {
+        return x.mult( y, result );
+    }
+
+    @Benchmark
+    public IntervalArray divide() {
+        return x.divide( divisors, result );
+    }
+
+    @Benchmark
+    public IntervalArray sq() {
+        return x.sq( result );
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scalar Interval operations, over an array of random intervals.
+ * (Scores are per array of SIZE operations)
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class IntervalBenchmark {
+
+    private final static int SIZE = 1024;
+
+    private Interval[] x, y, divisors;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        x = new Interval[SIZE];
+        y = new Interval[SIZE];
+        divisors = new Interval[SIZE];
+        for( int i=0; i<SIZE; i++ ) {
+            x[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            y[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            // zero must not be included in divisors
+            double c = 0.1 + random.nextDouble();
+            double sign = random.nextBoolean() ? 1. : -1.;
+            divisors[i] = new Interval( sign*c, sign*(c+random.nextDouble()) );
+        }
+    }
+
+    @Benchmark
+    public void add( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].add( y[i] ) );
+    }
+
+    @Benchmark
+    public void subtract( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].subtract( y[i] ) );
+    }
+
+    @Benchmark
+    public void mult( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].mult( y[i] ) );
+    }
+
+    @Benchmark
+    @Threads( Threads.MAX )
+    public void mult_allThreads( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].mult( y[i] ) );
+    }
+
+    @Benchmark
+    public void divide( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].divide( divisors[i] ) );
+    }
+
+    @Benchmark
+    public void sq( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].sq() );
+    }
+
+    @Benchmark
+    public void pow( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].pow( 3 ) );
+    }
+
+    @Benchmark
+    public void intersection( Blackhole bh ) {
+        for( int i=0; i<SIZE; i++ )
+            bh.consume( x[i].intersection( y[i] ) );
+    }
+
+    /**
+     * acc = acc + x * y on immutable intervals (two objects per step)
+     */
+    @Benchmark
+    public Interval dotProduct() {
+        Interval acc = Interval.ZERO;
+        for( int i=0; i<SIZE; i++ )
+            acc = acc.add( x[i].mult( y[i] ) );
+        return acc;
+    }
+
+    /**
+     * acc = acc + x * y on an IntervalAccumulator
+     */
+    @Benchmark
+    public Interval dotProduct_accumulator() {
+        IntervalAccumulator acc = new IntervalAccumulator();
+        for( int i=0; i<SIZE; i++ )
+            acc.fma( x[i], y[i] );
+        return acc.toInterval();
+    }
+}
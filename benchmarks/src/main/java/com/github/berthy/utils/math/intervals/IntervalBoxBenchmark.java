@@ -0,0 +1,62 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bisection of an IntervalBox, compared with the bisection of an Interval[].
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalBoxBenchmark {
+
+    @Param( { "4", "64" } )
+    public int dimension;
+
+    private IntervalBox box;
+    private Interval[] intervals;
+
+    @Setup
+    public void setup() {
+        intervals = new Interval[dimension];
+        for( int i=0; i<dimension; i++ )
+            intervals[i] = new Interval( -1. - i, 1. + i );
+        box = new IntervalBox( intervals );
+    }
+
+    @Benchmark
+    public IntervalBox[] bisect() {
+        return box.bisect();
+    }
+
+    @Benchmark
+    public Interval[][] bisect_intervalArray() {
+        int widest = 0;
+        for( int i=1; i<intervals.length; i++ ) {
+            if( intervals[i].width() > intervals[widest].width() )
+                widest = i;
+        }
+        final Interval x = intervals[widest];
+        final Interval[] left = intervals.clone();
+        final Interval[] right = intervals.clone();
+        left[widest] = new Interval( x.getMinBound(), x.mid() );
+        right[widest] = new Interval( x.mid(), x.getMaxBound() );
+        return new Interval[][]{ left, right };
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IntervalCodec encoding and decoding of a generalized interval, compared
+ * with toString().
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalCodecBenchmark {
+
+    @Param( { "10", "1000" } )
+    public int size;
+
+    private GeneralizedInterval x;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        List<Interval> intervals = new ArrayList<>();
+        for( int i=0; i<size; i++ ) {
+            double min = 1000.*random.nextGaussian();
+            intervals.add( new Interval( min, min + random.nextDouble() ) );
+        }
+        x = new GeneralizedInterval( intervals );
+        buffer = ByteBuffer.allocateDirect( (int)IntervalCodec.encodedSize( x ) );
+    }
+
+    @Benchmark
+    public String toString_() {
+        return x.toString();
+    }
+
+    @Benchmark
+    public ByteBuffer write() {
+        buffer.clear();
+        IntervalCodec.write( buffer, x );
+        return buffer;
+    }
+
+    @Benchmark
+    public GeneralizedInterval read() {
+        buffer.clear();
+        IntervalCodec.write( buffer, x );
+        buffer.flip();
+        return IntervalCodec.readGeneralizedInterval( buffer );
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray view() {
+        buffer.clear();
+        IntervalCodec.write( buffer, x );
+        buffer.flip();
+        return IntervalCodec.view( buffer );
+    }
+}
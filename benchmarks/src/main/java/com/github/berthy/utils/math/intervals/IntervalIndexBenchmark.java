@@ -0,0 +1,83 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IntervalIndex queries, against a linear scan with Interval.intersects.
+ *
+ * The intervals are short (length < 10) and spread over [0, size], so a
+ * query matches a few intervals.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class IntervalIndexBenchmark {
+
+    @Param( { "1000", "1000000" } )
+    public int size;
+
+    private Interval[] intervals;
+    private IntervalIndex index;
+    private double[] points;
+    private Interval query;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        intervals = new Interval[size];
+        for( int i=0; i<size; i++ ) {
+            double min = size*random.nextDouble();
+            intervals[i] = new Interval( min, min + 10.*random.nextDouble() );
+        }
+        index = new IntervalIndex( intervals );
+        points = new double[1000];
+        for( int i=0; i<points.length; i++ )
+            points[i] = size*random.nextDouble();
+        query = new Interval( size/2., size/2. + 20. );
+    }
+
+    @Benchmark
+    public int[] overlapping() {
+        return index.overlapping( query );
+    }
+
+    @Benchmark
+    public int overlapping_scan() {
+        int count = 0;
+        for( Interval interval : intervals ) {
+            if( interval.intersects( query ) )
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * 1000 stabbing queries.
+     */
+    @Benchmark
+    public int[][] containing_batch() {
+        return index.containing( points );
+    }
+
+    @Benchmark
+    public IntervalIndex build() {
+        return new IntervalIndex( intervals );
+    }
+}
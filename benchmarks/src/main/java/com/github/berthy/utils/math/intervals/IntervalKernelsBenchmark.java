@@ -0,0 +1,84 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scalar versus vector (jdk.incubator.vector) interval kernels.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalKernelsBenchmark {
+
+    @Param( { "scalar", "vector" } )
+    public String kernels;
+
+    @Param( { "1024", "1048576" } )
+    public int size;
+
+    private IntervalKernels instance;
+    private double[] xMin, xMax, yMin, yMax, dMin, dMax, rMin, rMax;
+
+    @Setup
+    public void setup() {
+        instance = "vector".equals( kernels ) ? IntervalKernels.vectorKernels() : ScalarIntervalKernels.INSTANCE;
+        if( instance == null )
+            throw new IllegalStateException( "jdk.incubator.vector is not available" );
+        Random random = new Random( 42 );
+        xMin = new double[size]; xMax = new double[size];
+        yMin = new double[size]; yMax = new double[size];
+        dMin = new double[size]; dMax = new double[size];
+        rMin = new double[size]; rMax = new double[size];
+        for( int i=0; i<size; i++ ) {
+            double a = random.nextGaussian(), b = random.nextGaussian();
+            xMin[i] = Math.min( a, b ); xMax[i] = Math.max( a, b );
+            a = random.nextGaussian(); b = random.nextGaussian();
+            yMin[i] = Math.min( a, b ); yMax[i] = Math.max( a, b );
+            // zero must not be included in divisors
+            double c = 0.1 + random.nextDouble();
+            double sign = random.nextBoolean() ? 1. : -1.;
+            dMin[i] = Math.min( sign*c, sign*(c+1.) ); dMax[i] = Math.max( sign*c, sign*(c+1.) );
+        }
+    }
+
+    @Benchmark
+    public double[] add() {
+        instance.add( xMin, xMax, yMin, yMax, rMin, rMax, 0, size );
+        return rMin;
+    }
+
+    @Benchmark
+    public double[] subtract() {
+        instance.subtract( xMin, xMax, yMin, yMax, rMin, rMax, 0, size );
+        return rMin;
+    }
+
+    @Benchmark
+    public double[] mult() {
+        instance.mult( xMin, xMax, yMin, yMax, rMin, rMax, 0, size );
+        return rMin;
+    }
+
+    @Benchmark
+    public double[] divide() {
+        instance.divide( xMin, xMax, dMin, dMax, rMin, rMax, 0, size );
+        return rMin;
+    }
+}
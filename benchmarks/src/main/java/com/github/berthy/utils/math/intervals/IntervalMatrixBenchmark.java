@@ -0,0 +1,91 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * n×n interval matrix products: naive Interval[][] product, blocked
+ * IntervalMatrix product (sequential and parallel), and the enclosure of a
+ * diagonally dominant n×n interval system.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalMatrixBenchmark {
+
+    @Param( { "256" } )
+    private int n;
+
+    private Interval[][] x, y;
+    private IntervalMatrix a, b;
+    private IntervalArray rhs;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 24 );
+        x = new Interval[n][n];
+        y = new Interval[n][n];
+        for( int i=0; i<n; i++ ) {
+            for( int j=0; j<n; j++ ) {
+                final double m = i == j ? n : random.nextDouble()*2.-1.;
+                x[i][j] = new Interval( m-0.001, m+0.001 );
+                y[i][j] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            }
+        }
+        a = new IntervalMatrix( x );
+        b = new IntervalMatrix( y );
+        rhs = new IntervalArray( n );
+        for( int i=0; i<n; i++ )
+            rhs.set( i, random.nextDouble(), random.nextDouble() );
+    }
+
+    @Benchmark
+    public Interval[][] naiveMult() {
+        final Interval[][] result = new Interval[n][n];
+        for( int i=0; i<n; i++ ) {
+            for( int j=0; j<n; j++ ) {
+                Interval s = Interval.ZERO;
+                for( int k=0; k<n; k++ )
+                    s = s.add( x[i][k].mult( y[k][j] ) );
+                result[i][j] = s;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public IntervalMatrix blockedMult() {
+        return a.mult( b );
+    }
+
+    @Benchmark
+    public IntervalMatrix parallelMult() {
+        return a.parallelMult( b );
+    }
+
+    @Benchmark
+    public IntervalArray gaussSeidel() {
+        return new IntervalLinearSolver( IntervalLinearSolver.Method.GAUSS_SEIDEL, 1e-12, 20 ).solve( a, rhs );
+    }
+
+    @Benchmark
+    public IntervalArray krawczyk() {
+        return new IntervalLinearSolver( IntervalLinearSolver.Method.KRAWCZYK, 1e-12, 20 ).solve( a, rhs );
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of a degree 16 polynomial over 4096 intervals of the given
+ * width in [ -1, 1 ]: naive sum of c_i·x.pow( i ), batch Horner and batch
+ * range. (The sums of the widths of the enclosures are returned)
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class IntervalPolynomialBenchmark {
+
+    private static final int SIZE = 4096, DEGREE = 16;
+
+    @Param( { "0.001", "0.1" } )
+    private double width;
+
+    private IntervalPolynomial polynomial;
+    private double[] coefficients;
+    private Interval[] intervals;
+    private IntervalArray x, result;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 25 );
+        coefficients = new double[DEGREE+1];
+        for( int i=0; i<=DEGREE; i++ )
+            coefficients[i] = random.nextGaussian();
+        polynomial = new IntervalPolynomial( coefficients );
+        intervals = new Interval[SIZE];
+        for( int i=0; i<SIZE; i++ ) {
+            final double a = random.nextDouble()*( 2.-width )-1.;
+            intervals[i] = new Interval( a, a+width );
+        }
+        x = new IntervalArray( intervals );
+        result = new IntervalArray( SIZE );
+    }
+
+    private static double width( IntervalArray r ) {
+        double width = 0.;
+        for( int i=0; i<r.size(); i++ )
+            width += r.getMaxBound( i )-r.getMinBound( i );
+        return width;
+    }
+
+    @Benchmark
+    public double naive() {
+        double width = 0.;
+        for( Interval interval : intervals ) {
+            Interval s = new Interval( coefficients[0] );
+            for( int i=1; i<=DEGREE; i++ )
+                s = s.add( interval.pow( i ).mult( coefficients[i] ) );
+            width += s.width();
+        }
+        return width;
+    }
+
+    @Benchmark
+    public double horner() {
+        return width( polynomial.horner( x, result ) );
+    }
+
+    @Benchmark
+    public double range() {
+        return width( polynomial.range( x, result ) );
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * OffHeapIntervalArray bulk operations and reductions, written into a
+ * preallocated direct result array. (Compare with IntervalArrayBenchmark)
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class OffHeapIntervalArrayBenchmark {
+
+    @Param( { "1024", "1048576" } )
+    public int size;
+
+    private OffHeapIntervalArray x, y, divisors, result;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        x = OffHeapIntervalArray.allocate( size );
+        y = OffHeapIntervalArray.allocate( size );
+        divisors = OffHeapIntervalArray.allocate( size );
+        result = OffHeapIntervalArray.allocate( size );
+        for( int i=0; i<size; i++ ) {
+            x.set( i, random.nextGaussian(), random.nextGaussian() );
+            y.set( i, random.nextGaussian(), random.nextGaussian() );
+            double c = 0.1 + random.nextDouble();
+            double sign = random.nextBoolean() ? 1. : -1.;
+            divisors.set( i, sign*c, sign*(c+random.nextDouble()) );
+        }
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray add() {
+        return x.add( y, result );
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray subtract() {
+        return x.subtract( y, result );
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray mult() {
+        return x.mult( y, result );
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray divide() {
+        return x.divide( divisors, result );
+    }
+
+    @Benchmark
+    public OffHeapIntervalArray sq() {
+        return x.sq( result );
+    }
+
+    @Benchmark
+    public Interval hull() {
+        return x.hull();
+    }
+}
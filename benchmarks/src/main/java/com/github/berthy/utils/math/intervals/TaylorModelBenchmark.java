@@ -0,0 +1,73 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of f(x,y) = x·y + x² - sqrt(y)/(x+3) + (x-y)³ at 256 boxes of
+ * width 0.02: with Interval and with TaylorModels of the given order. (The
+ * sums of the widths of the enclosures are returned)
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@State( Scope.Thread )
+public class TaylorModelBenchmark {
+
+    private static final int SIZE = 256;
+
+    private static final Interval THREE = new Interval( 3. );
+
+    @Param( { "2", "4" } )
+    private int order;
+
+    private IntervalBox[] boxes;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 22 );
+        boxes = new IntervalBox[SIZE];
+        for( int i=0; i<SIZE; i++ ) {
+            final double a = random.nextDouble()*2.-1., b = 0.5+random.nextDouble();
+            boxes[i] = new IntervalBox( new Interval( a, a+0.02 ), new Interval( b, b+0.02 ) );
+        }
+    }
+
+    @Benchmark
+    public double interval() {
+        double width = 0.;
+        for( IntervalBox box : boxes ) {
+            final Interval x = box.get( 0 ), y = box.get( 1 );
+            width += x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( THREE ) ) )
+                    .add( x.subtract( y ).pow( 3 ) ).width();
+        }
+        return width;
+    }
+
+    @Benchmark
+    public double taylor() {
+        double width = 0.;
+        for( IntervalBox box : boxes ) {
+            final TaylorModel[] v = TaylorModel.variables( box, order );
+            final TaylorModel x = v[0], y = v[1];
+            width += x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( 3. ) ) )
+                    .add( x.subtract( y ).pow( 3 ) ).toInterval().width();
+        }
+        return width;
+    }
+}
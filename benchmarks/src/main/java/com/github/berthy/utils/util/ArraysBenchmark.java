@@ -0,0 +1,59 @@
+package com.github.berthy.utils.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * util.Arrays.min and max.
+ *
+ * @author Bertrand COTE
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ArraysBenchmark {
+
+    @Param( { "4", "1024", "1048576" } )
+    public int size;
+
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random( 42 );
+        values = new double[size];
+        for( int i=0; i<size; i++ )
+            values[i] = random.nextGaussian();
+    }
+
+    @Benchmark
+    public double min() {
+        return Arrays.min( values );
+    }
+
+    @Benchmark
+    public double max() {
+        return Arrays.max( values );
+    }
+
+    @Benchmark
+    @Threads( Threads.MAX )
+    public double min_allThreads() {
+        return Arrays.min( values );
+    }
+}
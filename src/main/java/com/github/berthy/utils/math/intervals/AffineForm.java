@@ -0,0 +1,561 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.Arithmetic;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Affine arithmetic.
+ *
+ * An affine form x̂ = x0 + x1 ε1 + ... + xk εk represents a quantity whose
+ * uncertainty comes from the noise symbols εi, unknown values of [ -1, 1 ].
+ * The forms built from the same noise symbols are correlated: x̂ - x̂ is
+ * exactly zero, and x̂ × x̂ is tighter than the square of the interval
+ * [ x0 - Σ|xi|, x0 + Σ|xi| ]. (The dependency problem of Interval)
+ *
+ * The linear operations are exact on the noise symbols. The non linear ones
+ * (mult, reciprocal, sqrt) are linear approximations plus a new noise symbol
+ * bounding the approximation error. The rounding errors of each operation
+ * are computed exactly (error free transformations) and added to a new
+ * noise symbol as well.
+ *
+ * The noise symbols are stored as sorted primitive arrays (ids and
+ * coefficients). The number of terms of a form is capped: when an operation
+ * produces more terms, the smallest ones are condensed into one new noise
+ * symbol (the form loses some correlation, but stays an enclosure).
+ *
+ * Here AffineForms are unmutable objects.
+ *
+ * @author Bertrand COTE
+ */
+public class AffineForm implements Arithmetic {
+
+    /**
+     * Default maximum number of noise terms of a form.
+     */
+    public static final int DEFAULT_MAX_TERMS = 32;
+
+    /**
+     * Ids of the noise symbols created by all forms.
+     */
+    private static final AtomicLong SYMBOLS = new AtomicLong();
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final double center;
+
+    /**
+     * Noise symbols (sorted ids) and their coefficients (never zero).
+     */
+    private final long[] symbols;
+    private final double[] coefficients;
+
+    /**
+     * Maximum number of noise terms of the results of the operations.
+     */
+    private final int maxTerms;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor for a constant.
+     *
+     * @param value value of the constant
+     */
+    public AffineForm( double value ) {
+        this( value, new long[0], new double[0], DEFAULT_MAX_TERMS );
+    }
+
+    /**
+     * Constructor from checked arrays. (The arrays are not copied)
+     */
+    private AffineForm( double center, long[] symbols, double[] coefficients, int maxTerms ) {
+        this.center = center;
+        this.symbols = symbols;
+        this.coefficients = coefficients;
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * @param x interval
+     * @return the form mid(x) + rad(x) ε, with a new noise symbol ε
+     */
+    public static AffineForm of( Interval x ) {
+        return of( x, DEFAULT_MAX_TERMS );
+    }
+
+    /**
+     * @param x interval
+     * @param maxTerms maximum number of noise terms of the results of the
+     * operations on this form (>= 1)
+     * @return the form mid(x) + rad(x) ε, with a new noise symbol ε
+     * @throws IllegalArgumentException if maxTerms < 1
+     */
+    public static AffineForm of( Interval x, int maxTerms ) {
+        if( maxTerms < 1 )
+            throw new IllegalArgumentException( "maxTerms must be >= 1: " + maxTerms );
+        final double a = x.getMinBound(), b = x.getMaxBound();
+        final double center = a + 0.5*( b - a );
+        // radius rounded up: [ center - radius, center + radius ] contains x
+        final double radius = Math.nextUp( Math.max( center - a, b - center ) );
+        if( a == b )
+            return new AffineForm( a, new long[0], new double[0], maxTerms );
+        return new AffineForm( center, new long[]{ SYMBOLS.incrementAndGet() }, new double[]{ radius }, maxTerms );
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public double getCenter() {
+        return center;
+    }
+
+    /**
+     * @return the number of noise terms
+     */
+    public int size() {
+        return this.symbols.length;
+    }
+
+    public int getMaxTerms() {
+        return maxTerms;
+    }
+
+    /**
+     * @return Σ|xi| (rounded up)
+     */
+    public double radius() {
+        double radius = 0.;
+        for( double coefficient : this.coefficients )
+            radius += Math.abs( coefficient );
+        // rounding errors of the sum: less than n ulps
+        return Math.nextUp( radius*( 1. + this.coefficients.length*0x1p-52 ) );
+    }
+
+    /**
+     * @return [ x0 - Σ|xi|, x0 + Σ|xi| ], the range of the form
+     */
+    public Interval toInterval() {
+        if( this.symbols.length == 0 )
+            return new Interval( this.center );
+        final double radius = this.radius();
+        return new Interval( Math.nextDown( this.center - radius ), Math.nextUp( this.center + radius ) );
+    }
+
+    /**
+     * @return a form with the same terms and another maximum number of terms
+     */
+    public AffineForm withMaxTerms( int maxTerms ) {
+        if( maxTerms < 1 )
+            throw new IllegalArgumentException( "maxTerms must be >= 1: " + maxTerms );
+        return condense( this.center, this.symbols, this.coefficients, this.symbols.length, 0., maxTerms );
+    }
+
+    // =========================================================================
+    // ========== Arithmetic ===================================================
+    // =========================================================================
+
+    // ---------- zero, one ----------
+
+    @Override
+    public AffineForm zero() {
+        return new AffineForm( 0., new long[0], new double[0], this.maxTerms );
+    }
+
+    /**
+     * @return true if the form is the constant zero
+     */
+    @Override
+    public boolean isZero() {
+        return this.center == 0. && this.symbols.length == 0;
+    }
+
+    @Override
+    public AffineForm one() {
+        return new AffineForm( 1., new long[0], new double[0], this.maxTerms );
+    }
+
+    /**
+     * @return true if the form is the constant one
+     */
+    @Override
+    public boolean isOne() {
+        return this.center == 1. && this.symbols.length == 0;
+    }
+
+    // ---------- add, subtract ----------
+
+    @Override
+    public AffineForm add( Arithmetic other ) {
+        return this.linear( 1., (AffineForm)other, 1., 0., 0. );
+    }
+
+    public AffineForm add( double d ) {
+        final double center = this.center + d;
+        return condense( center, this.symbols, this.coefficients, this.symbols.length,
+                         Math.abs( twoSumError( this.center, d, center ) ), this.maxTerms );
+    }
+
+    @Override
+    public AffineForm subtract( Arithmetic other ) {
+        return this.linear( 1., (AffineForm)other, -1., 0., 0. );
+    }
+
+    public AffineForm subtract( double d ) {
+        return this.add( -d );
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * Multiplication: x̂ŷ = x0y0 + Σ( x0yi + y0xi ) εi + Σ|xi| Σ|yi| εnew
+     *
+     * @param other multiplier
+     * @return this × other
+     */
+    @Override
+    public AffineForm mult( Arithmetic other ) {
+        final AffineForm y = (AffineForm)other;
+        if( y.symbols.length == 0 )
+            return this.mult( y.center );
+        if( this.symbols.length == 0 )
+            return y.mult( this.center );
+        if( y == this )
+            return this.sq();
+        // y0 x̂ + x0 ŷ counts x0y0 twice
+        final double product = this.center*y.center;
+        final double error = Math.abs( Math.fma( this.center, y.center, -product ) )
+                             + Math.nextUp( this.radius()*y.radius() );
+        return this.linear( y.center, y, this.center, -product, error );
+    }
+
+    public AffineForm mult( double d ) {
+        return this.affine( d, 0., 0. );
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * Division: x̂ × ( 1/ŷ ), with the min-range approximation of 1/ŷ.
+     *
+     * @param other division
+     * @return this ÷ other
+     * @throws ArithmeticException if zero is included in other's range
+     */
+    @Override
+    public AffineForm divide( Arithmetic other ) {
+        final AffineForm y = (AffineForm)other;
+        if( y.symbols.length == 0 )
+            return this.divide( y.center );
+        return this.mult( y.reciprocal() );
+    }
+
+    public AffineForm divide( double d ) {
+        if( d == 0. )
+            throw new ArithmeticException( "Divide by zero exception.");
+        return this.mult( new AffineForm( d, new long[0], new double[0], this.maxTerms ).reciprocal() );
+    }
+
+    /**
+     * Min-range approximation of 1/x̂ over the range [ a, b ] of x̂ (a > 0):
+     * 1/x ≈ -x/b² + ζ ± δ.
+     *
+     * @return 1/this
+     * @throws ArithmeticException if zero is included in the range
+     */
+    public AffineForm reciprocal() {
+        final Interval range = this.toInterval();
+        double a = range.getMinBound(), b = range.getMaxBound();
+        if( a<=0. && b>=0. )
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        if( this.symbols.length == 0 ) {
+            // constant: 1/c ± ulp, or exact (powers of two)
+            final double r = 1./this.center;
+            final double error = Math.fma( r, this.center, -1. ) == 0. ? 0. : Math.ulp( r );
+            return condense( r, new long[0], new double[0], 0, error, this.maxTerms );
+        }
+        final boolean negative = b < 0.;
+        if( negative ) {
+            final double t = a;
+            a = -b;
+            b = -t;
+        }
+        // 1/x - αx is decreasing on [ a, b ] with α = -1/b²
+        final double alpha = -1./( b*b );
+        final double dMax = Math.nextUp( Math.nextUp( 1./a ) - alpha*a ), dMin = Math.nextDown( Math.nextDown( 1./b ) - alpha*b );
+        final double zeta = 0.5*( dMin + dMax );
+        final double delta = Math.nextUp( Math.max( dMax - zeta, zeta - dMin ) );
+        // negative range: 1/x = -1/(-x) ≈ αx - ζ ± δ
+        return this.affine( alpha, negative ? -zeta : zeta, delta );
+    }
+
+    // ---------- sq, sqrt, pow ----------
+
+    /**
+     * Square function: x̂² = x0² + 2x0 Σxi εi + ( Σxi εi )², with
+     * ( Σxi εi )² in [ 0, r² ]: x0² + r²/2 + 2x0 Σxi εi ± r²/2.
+     *
+     * @return this²
+     */
+    public AffineForm sq() {
+        if( this.symbols.length == 0 )
+            return this.mult( this.center );
+        final double r = this.radius();
+        final double half = Math.nextUp( 0.5*Math.nextUp( r*r ) );
+        // 2x0 x̂ + ( r²/2 - x0² ) ± r²/2
+        final double product = this.center*this.center;
+        final double zeta = half - product;
+        final double error = Math.abs( Math.fma( this.center, this.center, -product ) )
+                             + Math.abs( twoSumError( half, -product, zeta ) );
+        return this.affine( 2.*this.center, zeta, Math.nextUp( half + error ) );
+    }
+
+    /**
+     * Min-range approximation of √x̂ over the range [ a, b ] of x̂:
+     * √x ≈ x/(2√b) + ζ ± δ. (The range is clipped to [ 0, +Inf ): a lower
+     * bound rounded below 0 does not give NaN. Same as Interval.sqrt() when
+     * the range is negative or [ 0, 0 ])
+     *
+     * @return √this
+     */
+    public AffineForm sqrt() {
+        final Interval range = this.toInterval();
+        final double a = Math.max( range.getMinBound(), 0. ), b = range.getMaxBound();
+        if( b < 0. )
+            return of( range.sqrt(), this.maxTerms );
+        if( b == 0. )
+            return new AffineForm( 0. ).withMaxTerms( this.maxTerms );
+        // √x - αx is increasing on [ a, b ] with α = 1/(2√b)
+        final double sqrtB = Math.sqrt( b );
+        final double alpha = 0.5/sqrtB;
+        final double dMin = Math.nextDown( Math.nextDown( Math.sqrt( a ) ) - alpha*a );
+        final double dMax = Math.nextUp( Math.nextUp( sqrtB ) - alpha*b );
+        final double zeta = 0.5*( dMin + dMax );
+        final double delta = Math.nextUp( Math.max( dMax - zeta, zeta - dMin ) );
+        return this.affine( alpha, zeta, delta );
+    }
+
+    /**
+     * Compute this^n with n integer, by repeated squaring.
+     *
+     * @param n power
+     * @return this^n
+     * @throws ArithmeticException if n<0 and zero is included in the range
+     */
+    @Override
+    public AffineForm pow( int n ) {
+        if( n < 0 )
+            return this.pow( -n ).reciprocal();
+        AffineForm result = this.one(), square = this;
+        for( int k=n; k>0; k>>=1 ) {
+            if( ( k&1 ) == 1 )
+                result = result.isOne() ? square : result.mult( square );
+            if( k > 1 )
+                square = square.sq();
+        }
+        return result;
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + Double.hashCode( this.center );
+        hash = 41 * hash + Arrays.hashCode( this.symbols );
+        hash = 41 * hash + Arrays.hashCode( this.coefficients );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final AffineForm other = (AffineForm) obj;
+        if (Double.doubleToLongBits(this.center) != Double.doubleToLongBits(other.center)) return false;
+        if (!Arrays.equals(this.symbols, other.symbols)) return false;
+        if (!Arrays.equals(this.coefficients, other.coefficients)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation: center and terms.
+     *
+     * @return the string representation
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( this.center );
+        for( int i=0; i<this.symbols.length; i++ ) {
+            sb.append( this.coefficients[i] < 0. ? " - " : " + " )
+              .append( Math.abs( this.coefficients[i] ) ).append( "ε" ).append( this.symbols[i] );
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * @return α x̂ + β ŷ + shift ± error (merge of the sorted terms)
+     */
+    private AffineForm linear( double alpha, AffineForm y, double beta, double shift, double error ) {
+        final AffineForm x = this;
+        final double cx = alpha*x.center, cy = beta*y.center;
+        final double sum = cx + cy, center = sum + shift;
+        error += Math.abs( Math.fma( alpha, x.center, -cx ) ) + Math.abs( Math.fma( beta, y.center, -cy ) )
+                 + Math.abs( twoSumError( cx, cy, sum ) ) + Math.abs( twoSumError( sum, shift, center ) );
+
+        // number of distinct symbols, plus one for the error term
+        int m = x.symbols.length + y.symbols.length + 1;
+        for( int i=0, j=0; i < x.symbols.length && j < y.symbols.length; ) {
+            if( x.symbols[i] == y.symbols[j] ) {
+                m--;
+                i++;
+                j++;
+            } else if( x.symbols[i] < y.symbols[j] ) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        final long[] symbols = new long[m];
+        final double[] coefficients = new double[m];
+        // products by ±1 are exact
+        final boolean exact = Math.abs( alpha ) == 1. && Math.abs( beta ) == 1.;
+        int i = 0, j = 0, n = 0;
+        while( i < x.symbols.length && j < y.symbols.length ) {
+            final long sx = x.symbols[i], sy = y.symbols[j];
+            final double c;
+            if( sx == sy ) {
+                final double p = alpha*x.coefficients[i], q = beta*y.coefficients[j];
+                c = p + q;
+                error += Math.abs( twoSumError( p, q, c ) );
+                if( !exact )
+                    error += Math.abs( Math.fma( alpha, x.coefficients[i], -p ) ) + Math.abs( Math.fma( beta, y.coefficients[j], -q ) );
+                i++;
+                j++;
+            } else if( sx < sy ) {
+                c = alpha*x.coefficients[i];
+                if( !exact )
+                    error += Math.abs( Math.fma( alpha, x.coefficients[i], -c ) );
+                i++;
+            } else {
+                c = beta*y.coefficients[j];
+                if( !exact )
+                    error += Math.abs( Math.fma( beta, y.coefficients[j], -c ) );
+                j++;
+            }
+            if( c != 0. ) {
+                symbols[n] = Math.min( sx, sy );
+                coefficients[n++] = c;
+            }
+        }
+        for( ; i < x.symbols.length; i++ ) {
+            final double c = alpha*x.coefficients[i];
+            error += Math.abs( Math.fma( alpha, x.coefficients[i], -c ) );
+            if( c != 0. ) {
+                symbols[n] = x.symbols[i];
+                coefficients[n++] = c;
+            }
+        }
+        for( ; j < y.symbols.length; j++ ) {
+            final double c = beta*y.coefficients[j];
+            error += Math.abs( Math.fma( beta, y.coefficients[j], -c ) );
+            if( c != 0. ) {
+                symbols[n] = y.symbols[j];
+                coefficients[n++] = c;
+            }
+        }
+        return condense( center, symbols, coefficients, n, error, this.maxTerms );
+    }
+
+    /**
+     * @return α x̂ + ζ ± δ (the approximations of the non linear functions)
+     */
+    private AffineForm affine( double alpha, double zeta, double delta ) {
+        final double product = alpha*this.center;
+        final double center = product + zeta;
+        double error = delta + Math.abs( Math.fma( alpha, this.center, -product ) )
+                       + Math.abs( twoSumError( product, zeta, center ) );
+        final long[] symbols = new long[this.symbols.length + 1];
+        final double[] coefficients = new double[symbols.length];
+        int n = 0;
+        for( int i=0; i<this.symbols.length; i++ ) {
+            final double c = alpha*this.coefficients[i];
+            error += Math.abs( Math.fma( alpha, this.coefficients[i], -c ) );
+            if( c != 0. ) {
+                symbols[n] = this.symbols[i];
+                coefficients[n++] = c;
+            }
+        }
+        return condense( center, symbols, coefficients, n, error, this.maxTerms );
+    }
+
+    /**
+     * @return the form center + Σ coefficients[i] ε_symbols[i] (i < n) ±
+     * error, with at most maxTerms terms: the error and the smallest terms
+     * are condensed into a new noise symbol. (The arrays may be used by the
+     * form, and the error is stored in place when they have n+1 elements)
+     */
+    private static AffineForm condense( double center, long[] symbols, double[] coefficients, int n, double error, int maxTerms ) {
+        final int terms = n + ( error > 0. ? 1 : 0 );
+        if( terms > maxTerms ) {
+            // keeps the maxTerms-1 largest terms
+            final Integer[] order = new Integer[n];
+            for( int i=0; i<n; i++ )
+                order[i] = i;
+            final double[] c = coefficients;
+            Arrays.sort( order, ( p, q ) -> Double.compare( Math.abs( c[q] ), Math.abs( c[p] ) ) );
+            final boolean[] kept = new boolean[n];
+            for( int k=0; k<maxTerms-1; k++ )
+                kept[order[k]] = true;
+            final long[] keptSymbols = new long[maxTerms];
+            final double[] keptCoefficients = new double[maxTerms];
+            int m = 0;
+            for( int i=0; i<n; i++ ) {
+                if( kept[i] ) {
+                    keptSymbols[m] = symbols[i];
+                    keptCoefficients[m++] = coefficients[i];
+                } else {
+                    error = Math.nextUp( error + Math.abs( coefficients[i] ) );
+                }
+            }
+            symbols = keptSymbols;
+            coefficients = keptCoefficients;
+            n = m;
+        }
+        if( error > 0. ) {
+            // the new symbol is the greatest id: the arrays stay sorted
+            final long[] s = symbols.length == n+1 ? symbols : Arrays.copyOf( symbols, n+1 );
+            final double[] c = coefficients.length == n+1 ? coefficients : Arrays.copyOf( coefficients, n+1 );
+            s[n] = SYMBOLS.incrementAndGet();
+            c[n] = Math.nextUp( error );
+            return new AffineForm( center, s, c, maxTerms );
+        }
+        if( n != symbols.length )
+            return new AffineForm( center, Arrays.copyOf( symbols, n ), Arrays.copyOf( coefficients, n ), maxTerms );
+        return new AffineForm( center, symbols, coefficients, maxTerms );
+    }
+
+    /**
+     * @return the rounding error of s = a + b: a + b - s (exact, TwoSum)
+     */
+    private static double twoSumError( double a, double b, double s ) {
+        final double bb = s - a;
+        return ( a - ( s - bb ) ) + ( b - bb );
+    }
+}
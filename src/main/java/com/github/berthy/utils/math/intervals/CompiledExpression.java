@@ -0,0 +1,561 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.intervals.Expression.Operator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interval expressions compiled into a register program.
+ *
+ * Each node of the expressions (see ExpressionBuilder) is evaluated once, in
+ * topological order, into a register: a pair of primitive bounds. The
+ * registers of the intermediate results are reused once their last reader
+ * is evaluated, so the program needs about as many registers as the width
+ * of the graph, not as its number of nodes.
+ *
+ * The program is run by an Evaluator, which owns the registers: a compiled
+ * expression is immutable and can be shared by threads, each thread using
+ * its own Evaluator. An Evaluator evaluates either one point (one interval
+ * per variable), or batches of points stored in IntervalArrays. For one
+ * point, the instructions are bound into one MethodHandle: once it is hot,
+ * the JIT compiles it as one method, without dispatch between the
+ * instructions. The batches are cut into blocks, and each instruction is
+ * applied to a whole block with the kernels of IntervalArray (SIMD for add,
+ * subtract, mult and divide). Both evaluations do not allocate.
+ *
+ * The results are the ones of the Interval methods applied in the same
+ * order.
+ *
+ * @author Bertrand COTE
+ */
+public final class CompiledExpression {
+
+    /**
+     * Number of points of a block of the batch evaluation.
+     */
+    static final int BLOCK_SIZE = 256;
+
+    /**
+     * Operator codes of the instructions.
+     */
+    private static final int ADD = 0, SUBTRACT = 1, MULT = 2, DIVIDE = 3, SQ = 4, SQRT = 5, POW = 6;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final int registerCount;
+
+    /**
+     * Highest variable index + 1.
+     */
+    private final int variableCount;
+
+    /**
+     * Variables: index of the variable, register.
+     */
+    private final int[] variables, variableRegisters;
+
+    /**
+     * Constants: bounds, register.
+     */
+    private final double[] constantMins, constantMaxs;
+    private final int[] constantRegisters;
+
+    /**
+     * Instructions: operator (see code(Operator)), operand registers (right
+     * is -1 for the unary operators), exponent of POW, target register.
+     */
+    private final int[] operators, lefts, rights, exponents, targets;
+
+    /**
+     * Instructions of the evaluation of one point: ( double[] min, double[] max )void
+     */
+    private final MethodHandle pointProgram;
+
+    /**
+     * Copies the variables into their registers, then runs pointProgram:
+     * ( double[] xMin, double[] xMax, double[] min, double[] max )void
+     */
+    private final MethodHandle pointEvaluation;
+
+    /**
+     * Instructions of the batch evaluation.
+     */
+    private final BlockInstruction[] blockInstructions;
+
+    private final int[] outputRegisters;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param program the nodes to evaluate, in topological order
+     * @param outputs the nodes of the results
+     */
+    CompiledExpression( List<Expression> program, Expression[] outputs ) {
+
+        final int size = program.size();
+        int variableLeaves = 0, constantLeaves = 0, maxVariable = -1;
+        for( Expression node : program ) {
+            if( node.getOperator() == Operator.VARIABLE ) {
+                variableLeaves++;
+                maxVariable = Math.max( maxVariable, node.getIndex() );
+            } else if( node.getOperator() == Operator.CONSTANT ) {
+                constantLeaves++;
+            }
+        }
+        this.variableCount = maxVariable+1;
+        this.variables = new int[variableLeaves];
+        this.variableRegisters = new int[variableLeaves];
+        this.constantMins = new double[constantLeaves];
+        this.constantMaxs = new double[constantLeaves];
+        this.constantRegisters = new int[constantLeaves];
+        final int instructions = size - variableLeaves - constantLeaves;
+        this.operators = new int[instructions];
+        this.lefts = new int[instructions];
+        this.rights = new int[instructions];
+        this.exponents = new int[instructions];
+        this.targets = new int[instructions];
+
+        // rank of each node in the program, and rank of its last reader
+        // (the outputs are read after the program)
+        final int[] rank = new int[program.get( size-1 ).getId()+1];
+        for( int k=0; k<size; k++ )
+            rank[program.get( k ).getId()] = k;
+        final int[] lastUse = new int[size];
+        for( int k=0; k<size; k++ ) {
+            final Expression node = program.get( k );
+            if( node.getLeft() != null )
+                lastUse[rank[node.getLeft().getId()]] = k;
+            if( node.getRight() != null )
+                lastUse[rank[node.getRight().getId()]] = k;
+        }
+        for( Expression output : outputs )
+            lastUse[rank[output.getId()]] = Integer.MAX_VALUE;
+
+        // register allocation: the leaves keep their registers, the results
+        // of the instructions release them after their last reader (which may
+        // write its result into it)
+        final int[] register = new int[size];
+        final int[] free = new int[size];
+        int freeCount = 0, registers = 0, v = 0, c = 0, i = 0;
+        for( int k=0; k<size; k++ ) {
+            final Expression node = program.get( k );
+            switch( node.getOperator() ) {
+                case VARIABLE:
+                    register[k] = registers++;
+                    this.variables[v] = node.getIndex();
+                    this.variableRegisters[v++] = register[k];
+                    break;
+                case CONSTANT:
+                    register[k] = registers++;
+                    this.constantMins[c] = node.getConstant().getMinBound();
+                    this.constantMaxs[c] = node.getConstant().getMaxBound();
+                    this.constantRegisters[c++] = register[k];
+                    break;
+                default:
+                    final Expression left = node.getLeft(), right = node.getRight();
+                    this.operators[i] = code( node.getOperator() );
+                    this.lefts[i] = register[rank[left.getId()]];
+                    this.rights[i] = right == null ? -1 : register[rank[right.getId()]];
+                    this.exponents[i] = this.operators[i] == POW ? node.getExponent() : 0;
+                    if( isInstruction( left ) && lastUse[rank[left.getId()]] == k )
+                        free[freeCount++] = this.lefts[i];
+                    if( right != null && right != left && isInstruction( right ) && lastUse[rank[right.getId()]] == k )
+                        free[freeCount++] = this.rights[i];
+                    register[k] = freeCount > 0 ? free[--freeCount] : registers++;
+                    this.targets[i++] = register[k];
+            }
+        }
+        this.registerCount = registers;
+
+        final MethodHandle[] pointInstructions = new MethodHandle[instructions];
+        for( int k=0; k<instructions; k++ )
+            pointInstructions[k] = pointInstruction( this.operators[k], this.lefts[k], this.rights[k], this.exponents[k], this.targets[k] );
+        this.pointProgram = sequence( pointInstructions, 0, instructions, POINT_INSTRUCTION );
+        final MethodHandle[] loads = new MethodHandle[variableLeaves];
+        for( int k=0; k<variableLeaves; k++ )
+            loads[k] = MethodHandles.insertArguments( LOAD_POINT, 0, this.variables[k], this.variableRegisters[k] );
+        this.pointEvaluation = MethodHandles.foldArguments( MethodHandles.dropArguments( this.pointProgram, 0, double[].class, double[].class ),
+                                                            sequence( loads, 0, variableLeaves, POINT_EVALUATION ) );
+
+        this.blockInstructions = new BlockInstruction[instructions];
+        for( int k=0; k<instructions; k++ )
+            this.blockInstructions[k] = blockInstruction( this.operators[k], this.lefts[k], this.rights[k], this.exponents[k], this.targets[k] );
+
+        this.outputRegisters = new int[outputs.length];
+        for( int k=0; k<outputs.length; k++ )
+            this.outputRegisters[k] = register[rank[outputs[k].getId()]];
+    }
+
+    private static int code( Operator operator ) {
+        switch( operator ) {
+            case ADD:       return ADD;
+            case SUBTRACT:  return SUBTRACT;
+            case MULT:      return MULT;
+            case DIVIDE:    return DIVIDE;
+            case SQ:        return SQ;
+            case SQRT:      return SQRT;
+            case POW:       return POW;
+            default:        throw new IllegalArgumentException( "not an instruction: " + operator );
+        }
+    }
+
+    private static boolean isInstruction( Expression node ) {
+        return node.getLeft() != null;
+    }
+
+    // ---------- point instructions ----------
+
+    /**
+     * ( double[] min, double[] max )void
+     */
+    private static final MethodType POINT_INSTRUCTION = MethodType.methodType( void.class, double[].class, double[].class );
+
+    /**
+     * ( double[] xMin, double[] xMax, double[] min, double[] max )void
+     */
+    private static final MethodType POINT_EVALUATION = MethodType.methodType( void.class, double[].class, double[].class, double[].class, double[].class );
+
+    private static final MethodHandle LOAD_POINT, ADD_POINT, SUBTRACT_POINT, MULT_POINT, DIVIDE_POINT, SQ_POINT, SQRT_POINT, POW_POINT;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        // ( l, r, t, min, max ), ( l, t, min, max ) and ( v, t, xMin, xMax, min, max )
+        final MethodType binary = POINT_INSTRUCTION.insertParameterTypes( 0, int.class, int.class, int.class );
+        final MethodType unary = POINT_INSTRUCTION.insertParameterTypes( 0, int.class, int.class );
+        try {
+            LOAD_POINT = lookup.findStatic( CompiledExpression.class, "load", POINT_EVALUATION.insertParameterTypes( 0, int.class, int.class ) );
+            ADD_POINT = lookup.findStatic( CompiledExpression.class, "add", binary );
+            SUBTRACT_POINT = lookup.findStatic( CompiledExpression.class, "subtract", binary );
+            MULT_POINT = lookup.findStatic( CompiledExpression.class, "mult", binary );
+            DIVIDE_POINT = lookup.findStatic( CompiledExpression.class, "divide", binary );
+            SQ_POINT = lookup.findStatic( CompiledExpression.class, "sq", unary );
+            SQRT_POINT = lookup.findStatic( CompiledExpression.class, "sqrt", unary );
+            POW_POINT = lookup.findStatic( CompiledExpression.class, "pow", binary ); // ( l, n, t, min, max )
+        } catch( NoSuchMethodException | IllegalAccessException e ) {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+    private static void load( int v, int t, double[] xMin, double[] xMax, double[] min, double[] max ) {
+        min[t] = xMin[v];
+        max[t] = xMax[v];
+    }
+
+    private static void add( int l, int r, int t, double[] min, double[] max ) {
+        Rounding.set( min, max, t, min[l]+min[r], max[l]+max[r] );
+    }
+
+    private static void subtract( int l, int r, int t, double[] min, double[] max ) {
+        Rounding.set( min, max, t, min[l]-max[r], max[l]-min[r] );
+    }
+
+    private static void mult( int l, int r, int t, double[] min, double[] max ) {
+        final double a = min[l], b = max[l], c = min[r], d = max[r];
+        Rounding.set( min, max, t, Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+    }
+
+    private static void divide( int l, int r, int t, double[] min, double[] max ) {
+        final double a = min[l], b = max[l], c = min[r], d = max[r];
+        if( c<=0. && d>=0. )
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        Rounding.set( min, max, t, Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
+    }
+
+    private static void sq( int l, int t, double[] min, double[] max ) {
+        IntervalArray.setSq( min[l], max[l], min, max, t );
+    }
+
+    private static void sqrt( int l, int t, double[] min, double[] max ) {
+        Rounding.set( min, max, t, Math.sqrt( min[l] ), Math.sqrt( max[l] ) );
+    }
+
+    private static void pow( int l, int n, int t, double[] min, double[] max ) {
+        IntervalArray.setPow( min[l], max[l], n, min, max, t );
+    }
+
+    /**
+     * @return the instruction bound to its registers: ( double[] min, double[] max )void
+     */
+    private static MethodHandle pointInstruction( int operator, int l, int r, int n, int t ) {
+        switch( operator ) {
+            case ADD:       return MethodHandles.insertArguments( ADD_POINT, 0, l, r, t );
+            case SUBTRACT:  return MethodHandles.insertArguments( SUBTRACT_POINT, 0, l, r, t );
+            case MULT:      return MethodHandles.insertArguments( MULT_POINT, 0, l, r, t );
+            case DIVIDE:    return MethodHandles.insertArguments( DIVIDE_POINT, 0, l, r, t );
+            case SQ:        return MethodHandles.insertArguments( SQ_POINT, 0, l, t );
+            case SQRT:      return MethodHandles.insertArguments( SQRT_POINT, 0, l, t );
+            default:        return MethodHandles.insertArguments( POW_POINT, 0, l, n, t );
+        }
+    }
+
+    /**
+     * Runs the instructions [ from, to ) in order. (A balanced tree of
+     * foldArguments: its depth is log2 of the number of instructions)
+     */
+    private static MethodHandle sequence( MethodHandle[] instructions, int from, int to, MethodType type ) {
+        if( to-from == 0 )
+            return MethodHandles.empty( type );
+        if( to-from == 1 )
+            return instructions[from];
+        final int middle = ( from+to ) >>> 1;
+        return MethodHandles.foldArguments( sequence( instructions, middle, to, type ), sequence( instructions, from, middle, type ) );
+    }
+
+    // ---------- block instructions ----------
+
+    /**
+     * Instruction applied to the n first points of the block registers.
+     */
+    private interface BlockInstruction {
+        void run( double[][] min, double[][] max, int n );
+    }
+
+    /**
+     * One small class per operator: the calls of the batch evaluator are
+     * not inlined into one large method, which would exceed the inlining
+     * budget of the JIT (the SIMD kernels would not be compiled to vector
+     * instructions any more).
+     */
+    private static BlockInstruction blockInstruction( int operator, int l, int r, int n, int t ) {
+        switch( operator ) {
+            case ADD:
+                return ( min, max, size ) -> IntervalKernels.INSTANCE.add( min[l], max[l], min[r], max[r], min[t], max[t], 0, size );
+            case SUBTRACT:
+                return ( min, max, size ) -> IntervalKernels.INSTANCE.subtract( min[l], max[l], min[r], max[r], min[t], max[t], 0, size );
+            case MULT:
+                return ( min, max, size ) -> IntervalKernels.INSTANCE.mult( min[l], max[l], min[r], max[r], min[t], max[t], 0, size );
+            case DIVIDE:
+                return ( min, max, size ) -> IntervalKernels.INSTANCE.divide( min[l], max[l], min[r], max[r], min[t], max[t], 0, size );
+            case SQ:
+                return ( min, max, size ) -> {
+                    for( int j=0; j<size; j++ )
+                        IntervalArray.setSq( min[l][j], max[l][j], min[t], max[t], j );
+                };
+            case SQRT:
+                return ( min, max, size ) -> {
+                    for( int j=0; j<size; j++ )
+                        Rounding.set( min[t], max[t], j, Math.sqrt( min[l][j] ), Math.sqrt( max[l][j] ) );
+                };
+            default:
+                return ( min, max, size ) -> {
+                    for( int j=0; j<size; j++ )
+                        IntervalArray.setPow( min[l][j], max[l][j], n, min[t], max[t], j );
+                };
+        }
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the number of variables (highest variable index + 1)
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public int getOutputCount() {
+        return outputRegisters.length;
+    }
+
+    public int getRegisterCount() {
+        return registerCount;
+    }
+
+    /**
+     * @return the number of nodes which are not leaves
+     */
+    public int getInstructionCount() {
+        return operators.length;
+    }
+
+    // =========================================================================
+    // ========== Evaluation ===================================================
+    // =========================================================================
+
+    /**
+     * @return a new evaluator of this program
+     */
+    public Evaluator newEvaluator() {
+        return new Evaluator();
+    }
+
+    /**
+     * Evaluates the first output. (Allocates an Evaluator: use newEvaluator()
+     * for repeated evaluations)
+     *
+     * @param x the variables
+     * @return the value of the first output
+     */
+    public Interval evaluate( Interval... x ) {
+        final double[] xMin = new double[x.length], xMax = new double[x.length];
+        for( int i=0; i<x.length; i++ ) {
+            xMin[i] = x[i].getMinBound();
+            xMax[i] = x[i].getMaxBound();
+        }
+        final Evaluator evaluator = this.newEvaluator();
+        evaluator.evaluate( xMin, xMax );
+        return evaluator.get( 0 );
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledExpression[ variables=" + this.variableCount + ", instructions=" + this.operators.length
+                + ", registers=" + this.registerCount + ", outputs=" + this.outputRegisters.length + " ]";
+    }
+
+    // =========================================================================
+    // ========== Evaluator ====================================================
+    // =========================================================================
+
+    /**
+     * Runs the program of a CompiledExpression. (Not thread safe)
+     */
+    public final class Evaluator {
+
+        /**
+         * Registers of the evaluation of one point.
+         */
+        private final double[] min, max;
+
+        /**
+         * Registers of the batch evaluation (one block each), allocated by the
+         * first batch.
+         */
+        private double[][] blockMin, blockMax;
+
+        private Evaluator() {
+            this.min = new double[registerCount];
+            this.max = new double[registerCount];
+            for( int c=0; c<constantRegisters.length; c++ ) {
+                this.min[constantRegisters[c]] = constantMins[c];
+                this.max[constantRegisters[c]] = constantMaxs[c];
+            }
+        }
+
+        // ---------- one point ----------
+
+        /**
+         * Evaluates the outputs, read with get(int), getMinBound(int) and
+         * getMaxBound(int).
+         *
+         * @param xMin minimum bounds of the variables
+         * @param xMax maximum bounds of the variables
+         * @throws IllegalArgumentException if there are less bounds than variables
+         * @throws ArithmeticException if a divisor includes zero, or for a
+         * negative power of an interval including zero
+         */
+        public void evaluate( double[] xMin, double[] xMax ) {
+            if( xMin.length < variableCount || xMax.length < variableCount )
+                throw new IllegalArgumentException( "expected " + variableCount + " variables" );
+            try {
+                pointEvaluation.invokeExact( xMin, xMax, this.min, this.max );
+            } catch( RuntimeException | Error e ) {
+                throw e;
+            } catch( Throwable e ) {
+                throw new IllegalStateException( e );
+            }
+        }
+
+        /**
+         * Evaluates the outputs over box. (See evaluate(double[], double[]))
+         *
+         * @param box the variables
+         */
+        public void evaluate( IntervalBox box ) {
+            if( box.dimension() < variableCount )
+                throw new IllegalArgumentException( "expected " + variableCount + " variables" );
+            for( int v=0; v<variables.length; v++ ) {
+                this.min[variableRegisters[v]] = box.getMinBound( variables[v] );
+                this.max[variableRegisters[v]] = box.getMaxBound( variables[v] );
+            }
+            this.run();
+        }
+
+        private void run() {
+            try {
+                pointProgram.invokeExact( this.min, this.max );
+            } catch( RuntimeException | Error e ) {
+                throw e;
+            } catch( Throwable e ) {
+                throw new IllegalStateException( e );
+            }
+        }
+
+        public double getMinBound( int output ) {
+            return this.min[outputRegisters[output]];
+        }
+
+        public double getMaxBound( int output ) {
+            return this.max[outputRegisters[output]];
+        }
+
+        /**
+         * @param output index of the output
+         * @return the value of the output at the last evaluated point
+         */
+        public Interval get( int output ) {
+            return new Interval( this.getMinBound( output ), this.getMaxBound( output ) );
+        }
+
+        // ---------- batch ----------
+
+        /**
+         * Evaluates the outputs at each point of a batch: outputs[k][j] is
+         * the value of the k-th output for the variables inputs[0][j],
+         * inputs[1][j], ...
+         *
+         * @param inputs one array per variable, all of the same size
+         * @param outputs one array per output, of the same size as the inputs
+         * (may be inputs)
+         * @throws IllegalArgumentException if the number or the sizes of the
+         * arrays do not match
+         * @throws ArithmeticException if a divisor includes zero, or for a
+         * negative power of an interval including zero
+         */
+        public void evaluate( IntervalArray[] inputs, IntervalArray[] outputs ) {
+            if( inputs.length < variableCount )
+                throw new IllegalArgumentException( "expected " + variableCount + " variables" );
+            if( outputs.length != outputRegisters.length )
+                throw new IllegalArgumentException( "expected " + outputRegisters.length + " outputs" );
+            final int size = outputs[0].size();
+            for( IntervalArray output : outputs )
+                IntervalArray.checkLength( size, output.size() );
+            for( int v=0; v<variables.length; v++ )
+                IntervalArray.checkLength( size, inputs[variables[v]].size() );
+
+            if( this.blockMin == null ) {
+                this.blockMin = new double[registerCount][BLOCK_SIZE];
+                this.blockMax = new double[registerCount][BLOCK_SIZE];
+                for( int c=0; c<constantRegisters.length; c++ ) {
+                    Arrays.fill( this.blockMin[constantRegisters[c]], constantMins[c] );
+                    Arrays.fill( this.blockMax[constantRegisters[c]], constantMaxs[c] );
+                }
+            }
+            final double[][] min = this.blockMin, max = this.blockMax;
+
+            for( int from=0; from<size; from+=BLOCK_SIZE ) {
+                final int n = Math.min( BLOCK_SIZE, size-from );
+                for( int v=0; v<variables.length; v++ ) {
+                    final IntervalArray input = inputs[variables[v]];
+                    System.arraycopy( input.minBounds(), from, min[variableRegisters[v]], 0, n );
+                    System.arraycopy( input.maxBounds(), from, max[variableRegisters[v]], 0, n );
+                }
+                for( BlockInstruction instruction : blockInstructions )
+                    instruction.run( min, max, n );
+                for( int k=0; k<outputs.length; k++ ) {
+                    System.arraycopy( min[outputRegisters[k]], 0, outputs[k].minBounds(), from, n );
+                    System.arraycopy( max[outputRegisters[k]], 0, outputs[k].maxBounds(), from, n );
+                }
+            }
+        }
+    }
+}
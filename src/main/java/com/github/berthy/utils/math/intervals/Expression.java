@@ -0,0 +1,198 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Node of an interval expression, created by an ExpressionBuilder.
+ *
+ * An Expression is immutable. Its builder shares the common subexpressions:
+ * two identical expressions of one builder are the same object, so the
+ * expressions form a directed acyclic graph. The id of a node is greater than
+ * the ids of its operands.
+ *
+ * @author Bertrand COTE
+ */
+public final class Expression {
+
+    /**
+     * Operators of the nodes.
+     */
+    public enum Operator {
+        VARIABLE, CONSTANT, ADD, SUBTRACT, MULT, DIVIDE, SQ, SQRT, POW
+    }
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final ExpressionBuilder builder;
+
+    private final int id;
+
+    private final Operator operator;
+
+    /**
+     * Operands (null when unused).
+     */
+    private final Expression left, right;
+
+    /**
+     * Index of a VARIABLE, or exponent of a POW.
+     */
+    private final int parameter;
+
+    /**
+     * Value of a CONSTANT (null otherwise).
+     */
+    private final Interval constant;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    Expression( ExpressionBuilder builder, int id, Operator operator,
+                Expression left, Expression right, int parameter, Interval constant ) {
+        this.builder = builder;
+        this.id = id;
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.parameter = parameter;
+        this.constant = constant;
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public ExpressionBuilder getBuilder() {
+        return builder;
+    }
+
+    /**
+     * @return the creation rank of this node in its builder
+     */
+    public int getId() {
+        return id;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the operand of a unary operator, the left operand of a binary
+     * operator, null otherwise
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the right operand of a binary operator, null otherwise
+     */
+    public Expression getRight() {
+        return right;
+    }
+
+    /**
+     * @return the index of a VARIABLE
+     * @throws IllegalStateException if this is not a VARIABLE
+     */
+    public int getIndex() {
+        if( this.operator != Operator.VARIABLE )
+            throw new IllegalStateException( "not a variable: " + this );
+        return parameter;
+    }
+
+    /**
+     * @return the exponent of a POW
+     * @throws IllegalStateException if this is not a POW
+     */
+    public int getExponent() {
+        if( this.operator != Operator.POW )
+            throw new IllegalStateException( "not a power: " + this );
+        return parameter;
+    }
+
+    /**
+     * @return the value of a CONSTANT
+     * @throws IllegalStateException if this is not a CONSTANT
+     */
+    public Interval getConstant() {
+        if( this.operator != Operator.CONSTANT )
+            throw new IllegalStateException( "not a constant: " + this );
+        return constant;
+    }
+
+    // =========================================================================
+    // ========== Operators ====================================================
+    // =========================================================================
+
+    // (Shortcuts for the methods of the builder)
+
+    public Expression add( Expression other ) {
+        return this.builder.add( this, other );
+    }
+
+    public Expression add( double d ) {
+        return this.builder.add( this, this.builder.constant( d ) );
+    }
+
+    public Expression subtract( Expression other ) {
+        return this.builder.subtract( this, other );
+    }
+
+    public Expression subtract( double d ) {
+        return this.builder.subtract( this, this.builder.constant( d ) );
+    }
+
+    public Expression mult( Expression other ) {
+        return this.builder.mult( this, other );
+    }
+
+    public Expression mult( double d ) {
+        return this.builder.mult( this, this.builder.constant( d ) );
+    }
+
+    public Expression divide( Expression other ) {
+        return this.builder.divide( this, other );
+    }
+
+    public Expression divide( double d ) {
+        return this.builder.divide( this, this.builder.constant( d ) );
+    }
+
+    public Expression sq() {
+        return this.builder.sq( this );
+    }
+
+    public Expression sqrt() {
+        return this.builder.sqrt( this );
+    }
+
+    public Expression pow( int n ) {
+        return this.builder.pow( this, n );
+    }
+
+    // =========================================================================
+    // ========== Object methods ===============================================
+    // =========================================================================
+
+    // (equals and hashCode are the ones of Object: equal nodes of one builder
+    // are the same object)
+
+    @Override
+    public String toString() {
+        switch( this.operator ) {
+            case VARIABLE:  return "x" + this.parameter;
+            case CONSTANT:  return this.constant.getMinBound() == this.constant.getMaxBound()
+                                    ? Double.toString( this.constant.getMinBound() ) : this.constant.toString();
+            case ADD:       return "(" + this.left + " + " + this.right + ")";
+            case SUBTRACT:  return "(" + this.left + " - " + this.right + ")";
+            case MULT:      return "(" + this.left + " * " + this.right + ")";
+            case DIVIDE:    return "(" + this.left + " / " + this.right + ")";
+            case SQ:        return "sq(" + this.left + ")";
+            case SQRT:      return "sqrt(" + this.left + ")";
+            default:        return "pow(" + this.left + ", " + this.parameter + ")";
+        }
+    }
+}
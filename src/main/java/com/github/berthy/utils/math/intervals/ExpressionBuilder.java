@@ -0,0 +1,213 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.intervals.Expression.Operator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factory of interval expressions, which shares their common subexpressions.
+ *
+ * Each node is looked up in a table (operator, operands, parameter) before
+ * it is created: building twice the same subexpression returns the same
+ * node. The operands of the commutative operators (add, mult) are ordered,
+ * so x+y and y+x are one node. Only the structure is compared: (x+y)+z and
+ * x+(y+z) are different nodes, their interval values are not always equal.
+ *
+ * The expressions are compiled into a CompiledExpression, which evaluates
+ * them without allocation.
+ *
+ * An ExpressionBuilder is not thread safe.
+ *
+ * @author Bertrand COTE
+ */
+public final class ExpressionBuilder {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * The nodes, by id.
+     */
+    private final List<Expression> nodes = new ArrayList<>();
+
+    private final Map<Key, Expression> table = new HashMap<>();
+
+    // =========================================================================
+    // ========== Leaves =======================================================
+    // =========================================================================
+
+    /**
+     * @param index index of the variable (>= 0)
+     * @return the variable x[index]
+     * @throws IllegalArgumentException if index < 0
+     */
+    public Expression variable( int index ) {
+        if( index < 0 )
+            throw new IllegalArgumentException( "index must be >= 0: " + index );
+        return this.node( Operator.VARIABLE, null, null, index, null );
+    }
+
+    /**
+     * @param value value of the constant
+     * @return the constant [ value, value ]
+     */
+    public Expression constant( double value ) {
+        return this.constant( new Interval( value ) );
+    }
+
+    /**
+     * @param value value of the constant
+     * @return the constant value
+     */
+    public Expression constant( Interval value ) {
+        return this.node( Operator.CONSTANT, null, null, 0, value );
+    }
+
+    // =========================================================================
+    // ========== Operators ====================================================
+    // =========================================================================
+
+    public Expression add( Expression a, Expression b ) {
+        return a.getId() <= b.getId() ? this.node( Operator.ADD, a, b, 0, null )
+                                      : this.node( Operator.ADD, b, a, 0, null );
+    }
+
+    public Expression subtract( Expression a, Expression b ) {
+        return this.node( Operator.SUBTRACT, a, b, 0, null );
+    }
+
+    public Expression mult( Expression a, Expression b ) {
+        return a.getId() <= b.getId() ? this.node( Operator.MULT, a, b, 0, null )
+                                      : this.node( Operator.MULT, b, a, 0, null );
+    }
+
+    public Expression divide( Expression a, Expression b ) {
+        return this.node( Operator.DIVIDE, a, b, 0, null );
+    }
+
+    public Expression sq( Expression a ) {
+        return this.node( Operator.SQ, a, null, 0, null );
+    }
+
+    public Expression sqrt( Expression a ) {
+        return this.node( Operator.SQRT, a, null, 0, null );
+    }
+
+    public Expression pow( Expression a, int n ) {
+        return this.node( Operator.POW, a, null, n, null );
+    }
+
+    // =========================================================================
+    // ========== Compilation ==================================================
+    // =========================================================================
+
+    /**
+     * @return the number of distinct nodes built
+     */
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Compiles expressions of this builder. (Only the nodes reachable from
+     * outputs are evaluated)
+     *
+     * @param outputs expressions to evaluate (at least one)
+     * @return the compiled expressions
+     * @throws IllegalArgumentException if no output is given or if an output
+     * was built by another builder
+     */
+    public CompiledExpression compile( Expression... outputs ) {
+        if( outputs.length == 0 )
+            throw new IllegalArgumentException( "no output" );
+        for( Expression output : outputs )
+            this.check( output );
+
+        // reachable nodes (the ids are a topological order)
+        final boolean[] reachable = new boolean[this.nodes.size()];
+        for( Expression output : outputs )
+            reachable[output.getId()] = true;
+        for( int id=reachable.length-1; id>=0; id-- ) {
+            if( reachable[id] ) {
+                final Expression node = this.nodes.get( id );
+                if( node.getLeft() != null )
+                    reachable[node.getLeft().getId()] = true;
+                if( node.getRight() != null )
+                    reachable[node.getRight().getId()] = true;
+            }
+        }
+        final List<Expression> program = new ArrayList<>();
+        for( int id=0; id<reachable.length; id++ ) {
+            if( reachable[id] )
+                program.add( this.nodes.get( id ) );
+        }
+        return new CompiledExpression( program, outputs );
+    }
+
+    // =========================================================================
+    // ========== Hash consing =================================================
+    // =========================================================================
+
+    private Expression node( Operator operator, Expression left, Expression right, int parameter, Interval constant ) {
+        if( left != null )
+            this.check( left );
+        if( right != null )
+            this.check( right );
+        final Key key = new Key( operator, left, right, parameter, constant );
+        Expression node = this.table.get( key );
+        if( node == null ) {
+            node = new Expression( this, this.nodes.size(), operator, left, right, parameter, constant );
+            this.nodes.add( node );
+            this.table.put( key, node );
+        }
+        return node;
+    }
+
+    private void check( Expression e ) {
+        if( e.getBuilder() != this )
+            throw new IllegalArgumentException( "expression of another builder: " + e );
+    }
+
+    /**
+     * Structure of a node: operator, operand ids, parameter, constant bounds.
+     */
+    private static final class Key {
+
+        final Operator operator;
+        final int left, right, parameter;
+        final long min, max;
+
+        Key( Operator operator, Expression left, Expression right, int parameter, Interval constant ) {
+            this.operator = operator;
+            this.left = left == null ? -1 : left.getId();
+            this.right = right == null ? -1 : right.getId();
+            this.parameter = parameter;
+            this.min = constant == null ? 0L : Double.doubleToLongBits( constant.getMinBound() );
+            this.max = constant == null ? 0L : Double.doubleToLongBits( constant.getMaxBound() );
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 41 * hash + this.operator.hashCode();
+            hash = 41 * hash + this.left;
+            hash = 41 * hash + this.right;
+            hash = 41 * hash + this.parameter;
+            hash = 41 * hash + Long.hashCode( this.min );
+            hash = 41 * hash + Long.hashCode( this.max );
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if( !( obj instanceof Key ) )
+                return false;
+            final Key other = (Key)obj;
+            return this.operator == other.operator && this.left == other.left && this.right == other.right
+                    && this.parameter == other.parameter && this.min == other.min && this.max == other.max;
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.github.berthy.utils.math.intervals;
 
 import com.github.berthy.utils.math.Arithmetic;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
- *
+ * Generalized interval: union of disjoint intervals.
+ * 
+ * The intervals (components) are stored in one sorted array of interleaved
+ * bounds: { min0, max0, min1, max1, ... } with max(i) < min(i+1). All the
+ * methods work directly on this array: no Interval object is kept per
+ * component.
+ * 
+ * Here GeneralizedIntervals are unmutable objects.
+ * 
  * @author Bertrand COTE
  */
 public class GeneralizedInterval implements Arithmetic {
@@ -24,23 +33,27 @@ public class GeneralizedInterval implements Arithmetic {
      */
     public static final GeneralizedInterval ONE = new GeneralizedInterval( Interval.ONE );
     
+    private static final double[] EMPTY = new double[0];
+    
     // =========================================================================
     // ========== class variables ==============================================
     // =========================================================================
     
-    private List<Interval> intervals;
+    /**
+     * Sorted and disjoint intervals' bounds: { min0, max0, min1, max1, ... }
+     */
+    private final double[] bounds;
     
     // =========================================================================
     // ========== Constructors =================================================
     // =========================================================================
     
     public GeneralizedInterval() {
-        this.intervals = new ArrayList<>();
+        this( EMPTY );
     }
     
     public GeneralizedInterval( Interval interval ) {
-        this();
-        this.intervals.add( interval );
+        this( new double[]{ interval.getMinBound(), interval.getMaxBound() } );
     }
     
     public GeneralizedInterval( double minBound, double maxBound ) {
@@ -52,9 +65,86 @@ public class GeneralizedInterval implements Arithmetic {
      * @param intervals
      */
     public GeneralizedInterval( List<Interval> intervals ) {
-        this();
-        this.intervals.addAll( intervals );
-        GeneralizedInterval.compactIntervals( this.intervals );
+        this( compact( intervals ) );
+    }
+    
+    /**
+     * Constructor from sorted and compacted bounds. (The array is not copied)
+     * 
+     * @param bounds { min0, max0, min1, max1, ... } with max(i) < min(i+1)
+     */
+    private GeneralizedInterval( double[] bounds ) {
+        this.bounds = bounds;
+    }
+    
+    /**
+     * Generalized interval from sorted and compacted bounds, checked. (The
+     * array is not copied)
+     * 
+     * @param bounds { min0, max0, min1, max1, ... } with max(i) < min(i+1)
+     * @return the generalized interval
+     * @throws IllegalArgumentException if the bounds are not sorted and compacted
+     */
+    static GeneralizedInterval ofBounds( double[] bounds ) {
+        if( bounds.length % 2 != 0 )
+            throw new IllegalArgumentException( "odd number of bounds" );
+        for( int i=0; i<bounds.length; i+=2 ) {
+            if( !( bounds[i] <= bounds[i+1] ) || ( i > 0 && !( bounds[i-1] < bounds[i] ) ) )
+                throw new IllegalArgumentException( "bounds are not sorted and disjoint at interval " + i/2 );
+        }
+        return bounds.length == 0 ? new GeneralizedInterval() : new GeneralizedInterval( bounds );
+    }
+    
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+    
+    /**
+     * @return the number of (disjoint) intervals of the generalized interval
+     */
+    public int size() {
+        return this.bounds.length/2;
+    }
+    
+    /**
+     * Intervals are sorted: getInterval( i ).getMaxBound() < getInterval( i+1 ).getMinBound()
+     * 
+     * @param index
+     * @return the index-th interval of the generalized interval
+     */
+    public Interval getInterval( int index ) {
+        checkIndex( index );
+        return new Interval( this.bounds[2*index], this.bounds[2*index+1] );
+    }
+    
+    /**
+     * @param index
+     * @return the minimum bound of the index-th interval
+     */
+    public double getMinBound( int index ) {
+        checkIndex( index );
+        return this.bounds[2*index];
+    }
+    
+    /**
+     * @param index
+     * @return the maximum bound of the index-th interval
+     */
+    public double getMaxBound( int index ) {
+        checkIndex( index );
+        return this.bounds[2*index+1];
+    }
+    
+    /**
+     * @return the bounds { min0, max0, min1, max1, ... } (not copied: must not be modified)
+     */
+    double[] bounds() {
+        return this.bounds;
+    }
+    
+    private void checkIndex( int index ) {
+        if( index < 0 || index >= this.size() )
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + this.size() );
     }
     
     // =========================================================================
@@ -65,24 +155,18 @@ public class GeneralizedInterval implements Arithmetic {
      * Put a new interval into the the generalized interval.
      * If the new interval intersects others intervals, it is united to those ones.
      * 
-     * @param interval 
-     * @return  
+     * @param interval
+     * @return
      */
     public GeneralizedInterval put( Interval interval ) {
-        
-        List<Interval> resultIntervals = new ArrayList<>();
-        
-        resultIntervals.addAll( this.intervals );
-        resultIntervals.add( interval );
-        
-        return new GeneralizedInterval( resultIntervals );
+        return this.union( new GeneralizedInterval( interval ) );
     }
     
     /**
      * Remove an interval form tthe generalized interval.
      * 
      * @param interval
-     * @return 
+     * @return
      */
     public GeneralizedInterval remove( Interval interval ) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -92,105 +176,372 @@ public class GeneralizedInterval implements Arithmetic {
     // ========== union and intersection =======================================
     // =========================================================================
     
+    /**
+     * Union of two generalized intervals.
+     * 
+     * Both components lists are sorted and compacted, so they are merged in
+     * one pass: O(n+m).
+     * 
+     * @param other
+     * @return this ∪ other
+     */
     public GeneralizedInterval union( GeneralizedInterval other ) {
         
         if( other == null )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
+        final double[] x = this.bounds;
+        final double[] y = other.bounds;
+        final double[] result = new double[x.length + y.length];
+        int size = 0;
         
-        resultIntervals.addAll( this.intervals );
-        resultIntervals.addAll( other.intervals );
+        int i = 0, j = 0;
+        while( i < x.length || j < y.length ) {
+            
+            // next component in minBound order (this first on ties, like a stable sort)
+            final double min, max;
+            if( j == y.length || ( i < x.length && Double.compare( x[i], y[j] ) <= 0 ) ) {
+                min = x[i];
+                max = x[i+1];
+                i += 2;
+            } else {
+                min = y[j];
+                max = y[j+1];
+                j += 2;
+            }
+            
+            if( size > 0 && intersects( result[size-2], result[size-1], min, max ) ) {
+                result[size-2] = Math.min( result[size-2], min );
+                result[size-1] = Math.max( result[size-1], max );
+            } else {
+                result[size++] = min;
+                result[size++] = max;
+            }
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return new GeneralizedInterval( trim( result, size ) );
     }
     
+    /**
+     * Intersection of two generalized intervals.
+     * 
+     * Both components lists are sorted and compacted, so they are scanned
+     * with two cursors: O(n+m). The components of the result are the non
+     * empty intersections of one component of each list; they are found in
+     * order and are disjoint, so the result needs no compaction.
+     * 
+     * @param other
+     * @return this ∩ other
+     */
     public GeneralizedInterval intersection( GeneralizedInterval other ) {
         
         if( other == null )
             return null;
         
-        List<Interval> resultIntervals = new ArrayList<>();
+        final double[] x = this.bounds;
+        final double[] y = other.bounds;
+        final double[] result = new double[Math.max( x.length + y.length - 2, 0 )];
+        int size = 0;
         
-        this.intervals.stream().forEach((Interval intervalThis) -> {
-            other.intervals.stream().forEach((Interval intervalOther) -> {
-                Interval inter = intervalThis.intersection( intervalOther );
-                if( inter != null) {
-                    resultIntervals.add(inter);
-                }
-            });
-        });
+        int i = 0, j = 0;
+        while( i < x.length && j < y.length ) {
+            
+            if( intersects( x[i], x[i+1], y[j], y[j+1] ) ) {
+                result[size++] = Math.max( x[i], y[j] );
+                result[size++] = Math.min( x[i+1], y[j+1] );
+            }
+            
+            // the component ending first cannot intersect the next component of the other list
+            if( x[i+1] < y[j+1] ) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return new GeneralizedInterval( trim( result, size ) );
+    }
+    
+    /**
+     * Same test as Interval.intersects.
+     * 
+     * @return true if [a, b] and [c, d] have a common range
+     */
+    private static boolean intersects( double a, double b, double c, double d ) {
+        return Math.max( a, c ) <= Math.min( b, d );
     }
     
     // =========================================================================
     
     /**
-     * Sorts all intervals (based on the minBound value)
+     * Sorts the intervals (based on the minBound value) and unites the ones
+     * which intersect.
      * 
+     * @param list intervals (modified in place)
      */
-    private void sort() {
-        this.intervals.sort( 
-                (Object o1, Object o2) -> Double.compare( ((Interval)o1).getMinBound(), ((Interval)o2).getMinBound() )
-        );
+    public static void compactIntervals( List<Interval> list ) {
+        
+        final double[] compacted = compact( list );
+        
+        list.clear();
+        for( int i=0; i<compacted.length; i+=2 )
+            list.add( new Interval( compacted[i], compacted[i+1] ) );
     }
     
-    public static void compactIntervals( List<Interval> list ) {
+    /**
+     * @return the sorted and compacted bounds of the intervals
+     */
+    private static double[] compact( List<Interval> list ) {
+        
+        final int n = list.size();
+        final double[] minBounds = new double[n];
+        final double[] maxBounds = new double[n];
+        for( int i=0; i<n; i++ ) {
+            minBounds[i] = list.get( i ).getMinBound();
+            maxBounds[i] = list.get( i ).getMaxBound();
+        }
+        
+        return compact( minBounds, maxBounds, n );
+    }
+    
+    /**
+     * Union of the intervals [ minBounds[i], maxBounds[i] ], i < n.
+     * 
+     * The minimum and maximum bounds are sorted separately, then swept in
+     * order, counting the intervals which are open: a component ends when
+     * this count falls to zero. (Two intervals with a common bound are
+     * united, like with Interval.intersects)
+     * 
+     * O(n.log(n)), without any Interval object. The arrays are sorted in place.
+     * 
+     * @param minBounds intervals' minimum bounds
+     * @param maxBounds intervals' maximum bounds (maxBounds[i] >= minBounds[i])
+     * @param n number of intervals
+     * @return the sorted and compacted bounds { min0, max0, min1, max1, ... }
+     */
+    static double[] compact( double[] minBounds, double[] maxBounds, int n ) {
         
-        list.sort( 
-            (Object o1, Object o2) -> 
-                Double.compare( ((Interval)o1).getMinBound(), ((Interval)o2).getMinBound() )
-        );
+        Arrays.sort( minBounds, 0, n );
+        Arrays.sort( maxBounds, 0, n );
         
-        int i = 0;
-         while( i<list.size()-1 ) {
+        final double[] result = new double[2*n];
+        int size = 0;
+        
+        int i = 0, j = 0;
+        while( i < n ) {
             
-            while( i<list.size()-1 && list.get( i ).intersects( list.get(i+1) ) ) {
-                Interval united = list.get( i ).union( list.get(i+1) );
-                list.set( i, united );
-                list.remove( i+1 );
+            // a new component starts at minBounds[i]
+            final double min = minBounds[i++];
+            int open = 1;
+            while( open > 0 ) {
+                if( i < n && minBounds[i] <= maxBounds[j] ) {
+                    i++;
+                    open++;
+                } else {
+                    j++;
+                    open--;
+                }
             }
             
-            i++;
+            result[size++] = min;
+            result[size++] = maxBounds[j-1];
         }
+        
+        return trim( result, size );
     }
-
+    
+    private static double[] trim( double[] array, int length ) {
+        return array.length == length ? array : Arrays.copyOf( array, length );
+    }
+    
     // =========================================================================
     // ========== Arithmetic ===================================================
     // =========================================================================
     
-    // ---------- add ----------
-    
-    @Override
-    public Arithmetic add( Arithmetic other ) {
+    /**
+     * Intervals' bounds of a cross product, before compaction.
+     */
+    private static final class Components {
         
-        if( other.isZero() )
-            return this;
+        final double[] minBounds, maxBounds;
+        int size;
+        
+        Components( int capacity ) {
+            this.minBounds = new double[capacity];
+            this.maxBounds = new double[capacity];
+        }
         
-        List<Interval> resultIntervals = new ArrayList<>();
+        /**
+         * Adds a component. (Bounds are swapped like in Interval's constructor,
+         * then rounded like Interval's arithmetic: see Rounding)
+         */
+        void add( double minBound, double maxBound ) {
+            Rounding.set( this.minBounds, this.maxBounds, this.size++, minBound, maxBound );
+        }
+        
+        GeneralizedInterval compact() {
+            return new GeneralizedInterval( GeneralizedInterval.compact( this.minBounds, this.maxBounds, this.size ) );
+        }
+    }
+    
+    /**
+     * @return other as a GeneralizedInterval
+     * @throws IllegalArgumentException if other is not instance of Interval or GeneralizedInterval
+     */
+    private static GeneralizedInterval toGeneralizedInterval( Arithmetic other ) {
         
         if( other instanceof GeneralizedInterval ) {
-            
-            GeneralizedInterval otherGeneralized = (GeneralizedInterval)other;
-            
-            this.intervals.stream().forEach((Interval intervalThis) -> {
-                otherGeneralized.intervals.stream().forEach((Interval intervalOther) -> {
-                    resultIntervals.add( intervalThis.add( intervalOther ) );
-                });
-            });
-            
+            return (GeneralizedInterval)other;
         } else if( other instanceof Interval ) {
+            return new GeneralizedInterval( (Interval)other );
+        } else {
+            throw new IllegalArgumentException( "other is not instance of Interval or GeneralizedInterval" );
+        }
+    }
+    
+    // ---------- Minkowski sum ----------
+    
+    /**
+     * Minkowski sum of two sorted and compacted bounds arrays.
+     * 
+     * For a component x(i), the sums x(i) + y(0), x(i) + y(1), ... come in
+     * increasing minimum bound order, because y is sorted. So the sums are
+     * produced in sorted order by a heap of cursors (one per component of the
+     * smaller operand) and merged as they come: the n.m sums are never stored,
+     * and the memory is O(min(n, m) + output).
+     * 
+     * O(n.m.log(min(n, m))). Same result, bit for bit, as the compaction of
+     * all the sums.
+     * 
+     * @return the sorted and compacted bounds of x + y
+     */
+    private static double[] sum( double[] x, double[] y ) {
+        
+        // the cursors are on the smaller operand (a + c == c + a)
+        final double[] outer = x.length <= y.length ? x : y;
+        final double[] inner = x.length <= y.length ? y : x;
+        
+        final int n = outer.length/2;
+        final int m = inner.length/2;
+        if( n == 0 )
+            return EMPTY;
+        
+        if( !isFinite( outer ) && !isFinite( inner ) ) {
+            // +inf + -inf gives NaN, which breaks the order of the sums of a cursor
+            Components result = new Components( Math.multiplyExact( n, m ) );
+            for( int i=0; i<outer.length; i+=2 ) {
+                for( int j=0; j<inner.length; j+=2 ) {
+                    result.add( outer[i]+inner[j], outer[i+1]+inner[j+1] );
+                }
+            }
+            return GeneralizedInterval.compact( result.minBounds, result.maxBounds, result.size );
+        }
+        
+        // heap of cursors (i: outer component, j: inner component), ordered by key = minimum bound of the sum
+        final double[] keys = new double[n];
+        final int[] outerIndexes = new int[n];
+        final int[] innerIndexes = new int[n];
+        for( int i=0; i<n; i++ ) {
+            keys[i] = Rounding.down( outer[2*i] + inner[0] );
+            outerIndexes[i] = i;
+        }
+        int heapSize = n;
+        // already a heap: the keys are sorted
+        
+        double[] result = new double[2*Math.max( n, m )];
+        int size = 0;
+        
+        while( heapSize > 0 ) {
             
-            GeneralizedInterval otherGeneralizedInterval = new GeneralizedInterval( (Interval)other );
-            return this.add( otherGeneralizedInterval );
+            final int i = outerIndexes[0];
+            final int j = innerIndexes[0];
+            final double min = keys[0];
+            final double max = Rounding.up( outer[2*i+1] + inner[2*j+1] );
             
-        } else {
+            // merge with the last component of the result
+            if( size > 0 && min <= result[size-1] ) {
+                result[size-1] = Math.max( result[size-1], max );
+            } else {
+                if( size == result.length )
+                    result = Arrays.copyOf( result, 2*size );
+                result[size++] = min;
+                result[size++] = max;
+            }
             
-            throw new IllegalArgumentException( "other is not instance of Interval or GeneralizedInterval" );
+            // next sum of the cursor, or removal of the cursor
+            if( j+1 < m ) {
+                keys[0] = Rounding.down( outer[2*i] + inner[2*j+2] );
+                innerIndexes[0] = j+1;
+            } else {
+                heapSize--;
+                keys[0] = keys[heapSize];
+                outerIndexes[0] = outerIndexes[heapSize];
+                innerIndexes[0] = innerIndexes[heapSize];
+            }
+            siftDown( keys, outerIndexes, innerIndexes, heapSize );
+        }
+        
+        return trim( result, size );
+    }
+    
+    /**
+     * Moves the root of the heap down to its place.
+     */
+    private static void siftDown( double[] keys, int[] outerIndexes, int[] innerIndexes, int heapSize ) {
+        
+        final double key = keys[0];
+        final int outerIndex = outerIndexes[0];
+        final int innerIndex = innerIndexes[0];
+        
+        int k = 0;
+        int child;
+        while( ( child = 2*k+1 ) < heapSize ) {
+            if( child+1 < heapSize && Double.compare( keys[child+1], keys[child] ) < 0 )
+                child++;
+            if( Double.compare( key, keys[child] ) <= 0 )
+                break;
+            keys[k] = keys[child];
+            outerIndexes[k] = outerIndexes[child];
+            innerIndexes[k] = innerIndexes[child];
+            k = child;
+        }
+        keys[k] = key;
+        outerIndexes[k] = outerIndex;
+        innerIndexes[k] = innerIndex;
+    }
+    
+    /**
+     * @return the sorted and compacted bounds of -x
+     */
+    private static double[] negate( double[] x ) {
+        final double[] result = new double[x.length];
+        for( int i=0; i<x.length; i+=2 ) {
+            result[x.length-2-i] = -x[i+1];
+            result[x.length-1-i] = -x[i];
+        }
+        return result;
+    }
+    
+    /**
+     * @return true if all the bounds are finite
+     */
+    private static boolean isFinite( double[] x ) {
+        for( double bound : x ) {
+            if( !Double.isFinite( bound ) )
+                return false;
         }
+        return true;
+    }
+    
+    // ---------- add ----------
+    
+    @Override
+    public Arithmetic add( Arithmetic other ) {
         
-        return new GeneralizedInterval( resultIntervals );
+        if( other.isZero() )
+            return this;
+        
+        return new GeneralizedInterval( sum( this.bounds, toGeneralizedInterval( other ).bounds ) );
     }
     
     public Arithmetic add( double d ) {
@@ -198,45 +549,25 @@ public class GeneralizedInterval implements Arithmetic {
         if( d == 0. )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
-        this.intervals.stream().forEach((Interval interval) -> {
-            resultIntervals.add( interval.add( d ) );
-        });
+        final double[] x = this.bounds;
+        Components result = new Components( x.length/2 );
+        for( int i=0; i<x.length; i+=2 ) {
+            result.add( x[i]+d, x[i+1]+d );
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     // ---------- subtract ----------
-
+    
     @Override
     public Arithmetic subtract( Arithmetic other ) {
         
         if( other.isZero() )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
-        
-        if( other instanceof GeneralizedInterval ) {
-            
-            GeneralizedInterval otherGeneralized = (GeneralizedInterval)other;
-            
-            this.intervals.stream().forEach((Interval intervalThis) -> {
-                otherGeneralized.intervals.stream().forEach((Interval intervalOther) -> {
-                    resultIntervals.add( intervalThis.subtract( intervalOther ) );
-                });
-            });
-            
-        } else if( other instanceof Interval ) {
-            
-            GeneralizedInterval otherGeneralizedInterval = new GeneralizedInterval( (Interval)other );
-            return this.subtract( otherGeneralizedInterval );
-            
-        } else {
-            
-            throw new IllegalArgumentException( "other is not instance of Interval or GeneralizedInterval" );
-        }
-        
-        return new GeneralizedInterval( resultIntervals );
+        // x - y = x + (-y), bit for bit: a - d == a + (-d)
+        return new GeneralizedInterval( sum( this.bounds, negate( toGeneralizedInterval( other ).bounds ) ) );
     }
     
     public Arithmetic subtract( double d ) {
@@ -244,45 +575,35 @@ public class GeneralizedInterval implements Arithmetic {
         if( d == 0. )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
-        this.intervals.stream().forEach((Interval interval) -> {
-            resultIntervals.add( interval.subtract( d ) );
-        });
+        final double[] x = this.bounds;
+        Components result = new Components( x.length/2 );
+        for( int i=0; i<x.length; i+=2 ) {
+            result.add( x[i]-d, x[i+1]-d );
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     // ---------- mult ----------
-
+    
     @Override
     public Arithmetic mult( Arithmetic other ) {
         
         if( other.isOne() )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
+        final double[] x = this.bounds;
+        final double[] y = toGeneralizedInterval( other ).bounds;
         
-        if( other instanceof GeneralizedInterval ) {
-            
-            GeneralizedInterval otherGeneralized = (GeneralizedInterval)other;
-            
-            this.intervals.stream().forEach((Interval intervalThis) -> {
-                otherGeneralized.intervals.stream().forEach((Interval intervalOther) -> {
-                    resultIntervals.add( intervalThis.mult( intervalOther ) );
-                });
-            });
-            
-        } else if( other instanceof Interval ) {
-            
-            GeneralizedInterval otherGeneralizedInterval = new GeneralizedInterval( (Interval)other );
-            return this.mult( otherGeneralizedInterval );
-            
-        } else {
-            
-            throw new IllegalArgumentException( "other is not instance of Interval or GeneralizedInterval" );
+        Components result = new Components( Math.multiplyExact( x.length/2, y.length/2 ) );
+        for( int i=0; i<x.length; i+=2 ) {
+            for( int j=0; j<y.length; j+=2 ) {
+                final double a = x[i], b = x[i+1], c = y[j], d = y[j+1];
+                result.add( Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+            }
         }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     public Arithmetic mult( double d ) {
@@ -290,16 +611,17 @@ public class GeneralizedInterval implements Arithmetic {
         if( d == 1. )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
-        this.intervals.stream().forEach((Interval interval) -> {
-            resultIntervals.add( interval.mult( d ) );
-        });
+        final double[] x = this.bounds;
+        Components result = new Components( x.length/2 );
+        for( int i=0; i<x.length; i+=2 ) {
+            result.add( x[i]*d, x[i+1]*d );
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     // ---------- divide ----------
-
+    
     @Override
     public Arithmetic divide( Arithmetic other ) {
         
@@ -309,116 +631,85 @@ public class GeneralizedInterval implements Arithmetic {
         if( other.isOne() )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
+        final double[] x = this.bounds;
+        final double[] y = toGeneralizedInterval( other ).bounds;
         
-        if( other instanceof GeneralizedInterval ) {
-            
-            GeneralizedInterval otherGeneralized = (GeneralizedInterval)other;
-            
-            for(Interval intervalThis : this.intervals ) {
-                for(Interval intervalOther : otherGeneralized.intervals ) {
+        // at most two components per pair
+        Components result = new Components( Math.multiplyExact( x.length, y.length/2 ) );
+        for( int i=0; i<x.length; i+=2 ) {
+            for( int j=0; j<y.length; j+=2 ) {
+                
+                final double a = x[i], b = x[i+1], c = y[j], d = y[j+1];
+                
+                if( c<=0. && d>=0. ) {
+                    
+                    // [a, b] ÷ [c, d] = [min(a ÷ c, a ÷ d, b ÷ c, b ÷ d), max(a ÷ c, a ÷ d, b ÷ c, b ÷ d)]
+                    // when 0 is not in [c, d].
+                    //
+                    // If 0 is in [c, d]:
+                    //
+                    //      If 0 not in [a, b]:
+                    //
+                    //      [a, b] ÷ [c, d] = [a, b] ÷ { [c, -0], [0+, d] }
+                    //
+                    //      [a, b] ÷ [c, 0-] = [min(a ÷ c, a ÷ -0, b ÷ c, b ÷ -0), max(a ÷ c, a ÷ -0, b ÷ c, b ÷ -0)]
+                    //
+                    //              a<0, b<0 ==> [min(a ÷ c, +Inf, b ÷ c, +Inf), max(a ÷ c, +Inf, b ÷ c, +Inf)]
+                    //                       ==> [min(a ÷ c, b ÷ c), +Inf]
+                    //
+                    //              a>0, b>0 ==> [min(a ÷ c, -Inf, b ÷ c, -Inf), max(a ÷ c, -Inf, b ÷ c, -Inf)]
+                    //                       ==> [-Inf, max(a ÷ c, b ÷ c)]
+                    //
+                    //      [a, b] ÷ [0+, d] = [min(a ÷ 0+, a ÷ d, b ÷ 0+, b ÷ d), max(a ÷ 0+, a ÷ d, b ÷ 0+, b ÷ d)]
+                    //
+                    //              a<0, b<0 ==> [min(-Inf, a ÷ d, -Inf, b ÷ d), max(-Inf, a ÷ d, -Inf, b ÷ d)]
+                    //                       ==> [-Inf, max(a ÷ d, b ÷ d)]
+                    //
+                    //              a>0, b>0 ==> [min(+Inf, a ÷ d, +Inf, b ÷ d), max(+Inf, a ÷ d, +Inf, b ÷ d)]
+                    //                       ==> [min(a ÷ d, b ÷ d), +Inf]
+                    //
+                    //      If 0 in [a, b]:
+                    //
+                    //      [a, b] ÷ [c, d] = { [a, -0], [0+, b] } ÷ { [c, -0], [0+, d] }
+                    //
+                    //          [a, -0] ÷ [c, -0] = [min(a ÷ c, +Inf,  0, 1), max(a ÷ c, +Inf,  0, 1)] = [0, +Inf]
+                    //          [a, -0] ÷ [0+, d] = [min(-Inf, a ÷ d, -1, 0), max(-Inf, a ÷ d, -1, 0)] = [-Inf, 0]
+                    //          [0+, b] ÷ [c, -0] = [min(0, -1, b ÷ c, -Inf), max(0, -1, b ÷ c, -Inf)] = [-Inf, 0]
+                    //          [0+, b] ÷ [0+, d] = [min(1,  0, +Inf, b ÷ d), max(1,  0, +Inf, b ÷ d)] = [0, +Inf]
+                    //
+                    //
+                    // finally if 0 is in [c, d]:
+                    //
+                    //      a<0, b<0 ==> [a, b] ÷ [c, d] = { [-Inf, max (a ÷ d, b ÷ d)], [min (a ÷ c, b ÷ c), +Inf] }
+                    //
+                    //      a>0, b>0 ==> [a, b] ÷ [c, d] = { [-Inf, max (a ÷ c, b ÷ c)], [min (a ÷ d, b ÷ d), +Inf] }
+                    //
+                    //      a<0, b>0 ==> [a, b] ÷ [c, d] = { [-Inf, +Inf] }
+                    //
                     
-                    if( intervalOther.zeroElementOfThis() ) {
+                    if( a < 0 && b < 0 ) {
                         
-                        // [a, b] ÷ [c, d] = [min(a ÷ c, a ÷ d, b ÷ c, b ÷ d), max(a ÷ c, a ÷ d, b ÷ c, b ÷ d)]
-                        // when 0 is not in [c, d].
-                        //
-                        // If 0 is in [c, d]:
-                        //
-                        //      If 0 not in [a, b]:
-                        //
-                        //      [a, b] ÷ [c, d] = [a, b] ÷ { [c, -0], [0+, d] }
-                        //
-                        //      [a, b] ÷ [c, 0-] = [min(a ÷ c, a ÷ -0, b ÷ c, b ÷ -0), max(a ÷ c, a ÷ -0, b ÷ c, b ÷ -0)]
-                        //
-                        //              a<0, b<0 ==> [min(a ÷ c, +Inf, b ÷ c, +Inf), max(a ÷ c, +Inf, b ÷ c, +Inf)]
-                        //                       ==> [min(a ÷ c, b ÷ c), +Inf]
-                        //
-                        //              a>0, b>0 ==> [min(a ÷ c, -Inf, b ÷ c, -Inf), max(a ÷ c, -Inf, b ÷ c, -Inf)]
-                        //                       ==> [-Inf, max(a ÷ c, b ÷ c)]
-                        //
-                        //otherGeneralized.intervals
-                        //      [a, b] ÷ [0+, d] = [min(a ÷ 0+, a ÷ d, b ÷ 0+, b ÷ d), max(a ÷ 0+, a ÷ d, b ÷ 0+, b ÷ d)]
-                        //
-                        //              a<0, b<0 ==> [min(-Inf, a ÷ d, -Inf, b ÷ d), max(-Inf, a ÷ d, -Inf, b ÷ d)]
-                        //                       ==> [-Inf, max(a ÷ d, b ÷ d)]
-                        //
-                        //              a>0, b>0 ==> [min(+Inf, a ÷ d, +Inf, b ÷ d), max(+Inf, a ÷ d, +Inf, b ÷ d)]
-                        //                       ==> [min(a ÷ d, b ÷ d), +Inf]
-                        //
-                        //      If 0 in [a, b]:
-                        //
-                        //      [a, b] ÷ [c, d] = { [a, -0], [0+, b] } ÷ { [c, -0], [0+, d] }
-                        //
-                        //          [a, -0] ÷ [c, -0] = [min(a ÷ c, +Inf,  0, 1), max(a ÷ c, +Inf,  0, 1)] = [0, +Inf]
-                        //          [a, -0] ÷ [0+, d] = [min(-Inf, a ÷ d, -1, 0), max(-Inf, a ÷ d, -1, 0)] = [-Inf, 0]
-                        //          [0+, b] ÷ [c, -0] = [min(0, -1, b ÷ c, -Inf), max(0, -1, b ÷ c, -Inf)] = [-Inf, 0]
-                        //          [0+, b] ÷ [0+, d] = [min(1,  0, +Inf, b ÷ d), max(1,  0, +Inf, b ÷ d)] = [0, +Inf]
-                        //
-                        //
-                        // finally if 0 is in [c, d]:
-                        //
-                        //      a<0, b<0 ==> [a, b] ÷ [c, d] = { [-Inf, max (a ÷ d, b ÷ d)], [min (a ÷ c, b ÷ c), +Inf] }
-                        //
-                        //      a>0, b>0 ==> [a, b] ÷ [c, d] = { [-Inf, max (a ÷ c, b ÷ c)], [min (a ÷ d, b ÷ d), +Inf] }
-                        //
-                        //      a<0, b>0 ==> [a, b] ÷ [c, d] = { [-Inf, +Inf] }
-                        //
+                        result.add( Double.NEGATIVE_INFINITY, Math.max( a/d, b/d ) );
+                        result.add( Math.min( a/c, b/c ), Double.POSITIVE_INFINITY );
                         
-                        if( intervalThis.getMinBound() < 0 && intervalThis.getMaxBound() < 0 ) {
-                            
-                            resultIntervals.add( new Interval( Double.NEGATIVE_INFINITY, 
-                                                               Math.max( intervalThis.getMinBound()/intervalOther.getMaxBound(), 
-                                                                         intervalThis.getMaxBound()/intervalOther.getMaxBound()
-                                                                       ) 
-                                                             ) 
-                                                );
-                            resultIntervals.add( new Interval( Math.min( intervalThis.getMinBound()/intervalOther.getMinBound(), 
-                                                                         intervalThis.getMaxBound()/intervalOther.getMinBound()
-                                                                       ),
-                                                               Double.POSITIVE_INFINITY
-                                                             ) 
-                                                );
-                             
-                        } else if( intervalThis.getMinBound() > 0 && intervalThis.getMaxBound() > 0 ) {
-                            
-                            resultIntervals.add( new Interval( Double.NEGATIVE_INFINITY, 
-                                                               Math.max( intervalThis.getMinBound()/intervalOther.getMinBound(), 
-                                                                         intervalThis.getMaxBound()/intervalOther.getMinBound()
-                                                                       ) 
-                                                             ) 
-                                                );
-                            resultIntervals.add( new Interval( Math.min( intervalThis.getMinBound()/intervalOther.getMaxBound(), 
-                                                                         intervalThis.getMaxBound()/intervalOther.getMaxBound()
-                                                                       ),
-                                                               Double.POSITIVE_INFINITY
-                                                             ) 
-                                                );
-                             
-                        }  else { // here intervalThis.getMinBound() < 0 && intervalThis.getMaxBound() > 0
-                            
-                            return new GeneralizedInterval( new Interval( Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY ) );
-                        }
+                    } else if( a > 0 && b > 0 ) {
                         
-                    } else {
+                        result.add( Double.NEGATIVE_INFINITY, Math.max( a/c, b/c ) );
+                        result.add( Math.min( a/d, b/d ), Double.POSITIVE_INFINITY );
                         
-                        resultIntervals.add( intervalThis.divide( intervalOther ) );
+                    }  else { // here a < 0 && b > 0
+                        
+                        return new GeneralizedInterval( Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY );
                     }
                     
+                } else {
+                    
+                    result.add( Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
                 }
             }
-            
-        } else if( other instanceof Interval ) {
-            
-            GeneralizedInterval otherGeneralizedInterval = new GeneralizedInterval( (Interval)other );
-            return this.mult( otherGeneralizedInterval );
-            
-        } else {
-            
-            throw new IllegalArgumentException( "other is not instance of Interval or GeneralizedInterval" );
         }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     public Arithmetic divide( double d ) {
@@ -429,56 +720,332 @@ public class GeneralizedInterval implements Arithmetic {
         if( d == 1. )
             return this;
         
-        List<Interval> resultIntervals = new ArrayList<>();
-        this.intervals.stream().forEach((Interval interval) -> {
-            resultIntervals.add( interval.divide( d ) );
-        });
+        final double[] x = this.bounds;
+        Components result = new Components( x.length/2 );
+        for( int i=0; i<x.length; i+=2 ) {
+            result.add( x[i]/d, x[i+1]/d );
+        }
         
-        return new GeneralizedInterval( resultIntervals );
+        return result.compact();
     }
     
     // ---------- zero ----------
-
+    
     @Override
     public Arithmetic zero() {
         return GeneralizedInterval.ZERO;
     }
-
+    
     @Override
     public boolean isZero() {
         return this.equals(GeneralizedInterval.ZERO );
     }
     
     // ---------- one ----------
-
+    
     @Override
     public Arithmetic one() {
         return GeneralizedInterval.ONE;
     }
-
+    
     @Override
     public boolean isOne() {
         return this.equals(GeneralizedInterval.ONE );
     }
     
     // ---------- pow ----------
-
+    
     @Override
     public Arithmetic pow( int n ) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
     
+    // =========================================================================
+    // ========== Parallel arithmetic ==========================================
+    // =========================================================================
+    
+    /**
+     * Number of pairs of intervals below which a cross product is computed
+     * sequentially.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+    
+    private enum Operator { ADD, SUBTRACT, MULT, DIVIDE }
+    
+    /**
+     * Cross product of the intervals [from, to) of x with y.
+     * 
+     * (A ∪ B) op y = (A op y) ∪ (B op y): the intervals of x are split in two
+     * halves until a chunk has less than PARALLEL_THRESHOLD pairs, the chunks
+     * are computed (and compacted) in parallel, and the partial results are
+     * united.
+     */
+    private static final class CrossProductTask extends RecursiveTask<GeneralizedInterval> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Operator operator;
+        private final GeneralizedInterval x, y;
+        private final int from, to;
+        
+        CrossProductTask( Operator operator, GeneralizedInterval x, GeneralizedInterval y, int from, int to ) {
+            this.operator = operator;
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected GeneralizedInterval compute() {
+            
+            if( to-from == 1 || (long)(to-from)*y.size() <= PARALLEL_THRESHOLD ) {
+                GeneralizedInterval chunk = new GeneralizedInterval( Arrays.copyOfRange( x.bounds, 2*from, 2*to ) );
+                return apply( operator, chunk, y );
+            }
+            
+            final int middle = (from+to) >>> 1;
+            CrossProductTask left = new CrossProductTask( operator, x, y, from, middle );
+            CrossProductTask right = new CrossProductTask( operator, x, y, middle, to );
+            left.fork();
+            GeneralizedInterval rightResult = right.compute();
+            return left.join().union( rightResult );
+        }
+    }
+    
+    private static GeneralizedInterval apply( Operator operator, GeneralizedInterval x, GeneralizedInterval y ) {
+        switch( operator ) {
+            case ADD:       return (GeneralizedInterval)x.add( y );
+            case SUBTRACT:  return (GeneralizedInterval)x.subtract( y );
+            case MULT:      return (GeneralizedInterval)x.mult( y );
+            default:        return (GeneralizedInterval)x.divide( y );
+        }
+    }
+    
+    private GeneralizedInterval parallel( Operator operator, Arithmetic other, ForkJoinPool pool ) {
+        
+        final GeneralizedInterval y = toGeneralizedInterval( other );
+        if( (long)this.size()*y.size() <= PARALLEL_THRESHOLD )
+            return apply( operator, this, y );
+        
+        return pool.invoke( new CrossProductTask( operator, this, y, 0, this.size() ) );
+    }
+    
+    // ---------- add ----------
+    
+    /**
+     * this + other, computed in the common ForkJoinPool for large cross products.
+     * (Same result as add)
+     * 
+     * @param other
+     * @return this + other
+     */
+    public GeneralizedInterval parallelAdd( Arithmetic other ) {
+        return this.parallelAdd( other, ForkJoinPool.commonPool() );
+    }
+    
+    /**
+     * this + other, computed in pool for large cross products. (Same result as add)
+     * 
+     * @param other
+     * @param pool
+     * @return this + other
+     */
+    public GeneralizedInterval parallelAdd( Arithmetic other, ForkJoinPool pool ) {
+        return this.parallel( Operator.ADD, other, pool );
+    }
+    
+    // ---------- subtract ----------
+    
+    /**
+     * this - other, computed in the common ForkJoinPool for large cross products.
+     * (Same result as subtract)
+     * 
+     * @param other
+     * @return this - other
+     */
+    public GeneralizedInterval parallelSubtract( Arithmetic other ) {
+        return this.parallelSubtract( other, ForkJoinPool.commonPool() );
+    }
+    
+    /**
+     * this - other, computed in pool for large cross products. (Same result as subtract)
+     * 
+     * @param other
+     * @param pool
+     * @return this - other
+     */
+    public GeneralizedInterval parallelSubtract( Arithmetic other, ForkJoinPool pool ) {
+        return this.parallel( Operator.SUBTRACT, other, pool );
+    }
+    
+    // ---------- mult ----------
+    
+    /**
+     * this * other, computed in the common ForkJoinPool for large cross products.
+     * (Same result as mult)
+     * 
+     * @param other
+     * @return this * other
+     */
+    public GeneralizedInterval parallelMult( Arithmetic other ) {
+        return this.parallelMult( other, ForkJoinPool.commonPool() );
+    }
+    
+    /**
+     * this * other, computed in pool for large cross products. (Same result as mult)
+     * 
+     * @param other
+     * @param pool
+     * @return this * other
+     */
+    public GeneralizedInterval parallelMult( Arithmetic other, ForkJoinPool pool ) {
+        return this.parallel( Operator.MULT, other, pool );
+    }
+    
+    // ---------- divide ----------
+    
+    /**
+     * this / other, computed in the common ForkJoinPool for large cross products.
+     * (Same result as divide)
+     * 
+     * @param other
+     * @return this / other
+     */
+    public GeneralizedInterval parallelDivide( Arithmetic other ) {
+        return this.parallelDivide( other, ForkJoinPool.commonPool() );
+    }
+    
+    /**
+     * this / other, computed in pool for large cross products. (Same result as divide)
+     * 
+     * @param other
+     * @param pool
+     * @return this / other
+     */
+    public GeneralizedInterval parallelDivide( Arithmetic other, ForkJoinPool pool ) {
+        return this.parallel( Operator.DIVIDE, other, pool );
+    }
+    
+    // =========================================================================
+    // ========== Component budget =============================================
+    // =========================================================================
+    
+    /**
+     * Hull merging: closes the smallest gaps between consecutive intervals
+     * until at most maxComponents intervals are left. (On equal gaps the
+     * leftmost ones are closed first)
+     * 
+     * The result contains this: it is a sound, but less tight, enclosure.
+     * 
+     * @param maxComponents maximum number of intervals of the result (>= 1)
+     * @return this if it has at most maxComponents intervals, else the merged generalized interval
+     * @throws IllegalArgumentException if maxComponents < 1
+     */
+    public GeneralizedInterval reduce( int maxComponents ) {
+        
+        if( maxComponents < 1 )
+            throw new IllegalArgumentException( "maxComponents must be >= 1: " + maxComponents );
+        
+        final int n = this.size();
+        if( n <= maxComponents )
+            return this;
+        
+        // gaps[i]: gap between the intervals i and i+1
+        final double[] gaps = new double[n-1];
+        for( int i=0; i<n-1; i++ )
+            gaps[i] = this.bounds[2*i+2] - this.bounds[2*i+1];
+        
+        // the gapsToClose smallest gaps are the ones < threshold, plus some == threshold
+        int gapsToClose = n - maxComponents;
+        final double[] sortedGaps = gaps.clone();
+        Arrays.sort( sortedGaps );
+        final double threshold = sortedGaps[gapsToClose-1];
+        int equalsToClose = gapsToClose;
+        for( int i=0; i<gapsToClose; i++ ) {
+            if( Double.compare( sortedGaps[i], threshold ) < 0 )
+                equalsToClose--;
+        }
+        
+        final double[] result = new double[2*maxComponents];
+        int size = 0;
+        result[size++] = this.bounds[0];
+        for( int i=0; i<n-1; i++ ) {
+            final int comparison = Double.compare( gaps[i], threshold );
+            if( comparison < 0 || ( comparison == 0 && equalsToClose-- > 0 ) ) {
+                continue; // gap closed: the interval i+1 is merged with the interval i
+            }
+            result[size++] = this.bounds[2*i+1];
+            result[size++] = this.bounds[2*i+2];
+        }
+        result[size++] = this.bounds[2*n-1];
+        
+        return new GeneralizedInterval( result );
+    }
+    
+    // ---------- add ----------
+    
+    /**
+     * this + other, with at most maxComponents intervals. (See reduce)
+     * 
+     * @param other
+     * @param maxComponents maximum number of intervals of the result (>= 1)
+     * @return an enclosure of this + other
+     */
+    public GeneralizedInterval add( Arithmetic other, int maxComponents ) {
+        return ((GeneralizedInterval)this.add( other )).reduce( maxComponents );
+    }
+    
+    // ---------- subtract ----------
+    
+    /**
+     * this - other, with at most maxComponents intervals. (See reduce)
+     * 
+     * @param other
+     * @param maxComponents maximum number of intervals of the result (>= 1)
+     * @return an enclosure of this - other
+     */
+    public GeneralizedInterval subtract( Arithmetic other, int maxComponents ) {
+        return ((GeneralizedInterval)this.subtract( other )).reduce( maxComponents );
+    }
+    
+    // ---------- mult ----------
+    
+    /**
+     * this * other, with at most maxComponents intervals. (See reduce)
+     * 
+     * @param other
+     * @param maxComponents maximum number of intervals of the result (>= 1)
+     * @return an enclosure of this * other
+     */
+    public GeneralizedInterval mult( Arithmetic other, int maxComponents ) {
+        return ((GeneralizedInterval)this.mult( other )).reduce( maxComponents );
+    }
+    
+    // ---------- divide ----------
+    
+    /**
+     * this / other, with at most maxComponents intervals. (See reduce)
+     * 
+     * @param other
+     * @param maxComponents maximum number of intervals of the result (>= 1)
+     * @return an enclosure of this / other
+     */
+    public GeneralizedInterval divide( Arithmetic other, int maxComponents ) {
+        return ((GeneralizedInterval)this.divide( other )).reduce( maxComponents );
+    }
+    
     // =========================================================================
     // ========== hashCode and equals ==========================================
     // =========================================================================
-
+    
     @Override
     public int hashCode() {
         int hash = 5;
-        hash = 17 * hash + Objects.hashCode(this.intervals);
+        hash = 17 * hash + Arrays.hashCode(this.bounds);
         return hash;
     }
-
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -486,14 +1053,8 @@ public class GeneralizedInterval implements Arithmetic {
         if (getClass() != obj.getClass()) return false;
         
         final GeneralizedInterval other = (GeneralizedInterval) obj;
-        if( this.intervals.size() != other.intervals.size() )
-            return false;
-        for( int i=0; i<this.intervals.size(); i++ ) {
-            if( !this.intervals.get(i).equals( other.intervals.get(i) ) )
-                return false;
-        }
-        
-        return true;
+        // same comparison of the bounds as Interval.equals (Double.doubleToLongBits)
+        return Arrays.equals( this.bounds, other.bounds );
     }
     
     // =========================================================================
@@ -510,9 +1071,9 @@ public class GeneralizedInterval implements Arithmetic {
         StringBuilder sb = new StringBuilder();
         
         sb.append( "{ " );
-        for( int i=0; i<this.intervals.size(); i++ ) {
-            sb.append( this.intervals.get(i) );
-            if( i<this.intervals.size()-1 )
+        for( int i=0; i<this.bounds.length; i+=2 ) {
+            sb.append( "[ " ).append( this.bounds[i] ).append( ", " ).append( this.bounds[i+1] ).append( " ]" );
+            if( i<this.bounds.length-2 )
                 sb.append( ", " );
         }
         sb.append( " }" );
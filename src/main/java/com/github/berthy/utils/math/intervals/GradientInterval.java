@@ -0,0 +1,598 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.Arithmetic;
+
+/**
+ * Interval with the enclosure of its gradient (forward mode automatic
+ * differentiation).
+ *
+ * The value of a function f of n variables over a box is computed with
+ * interval arithmetic, and the partial derivatives ∂f/∂x_i over the box are
+ * propagated with it by the chain rule:
+ *   (u ± w)' = u' ± w'
+ *   (u × w)' = w × u' + u × w'
+ *   (u ÷ w)' = ( u' - (u ÷ w) × w' ) ÷ w
+ *   (u²)'    = 2u × u'
+ *   (√u)'    = u' ÷ 2√u
+ *   (uⁿ)'    = n uⁿ⁻¹ × u'
+ * The variables are created with variable( x, i, n ) (gradient e_i), and the
+ * constants with constant( c, n ) (gradient 0).
+ *
+ * The value and the gradient are stored as primitive bounds. Like
+ * IntervalArray, a GradientInterval is mutable: the Arithmetic methods return
+ * a new object, and the methods with a result parameter write into a caller
+ * supplied GradientInterval (which may be one of the operands), so a
+ * computation can reuse its gradient buffers and run without allocation.
+ *
+ * @author Bertrand COTE
+ */
+public class GradientInterval implements Arithmetic {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Value's minimum and maximum bounds.
+     * The property minBound <= maxBound is always true.
+     */
+    private double minBound, maxBound;
+
+    /**
+     * Partial derivatives' minimum and maximum bounds.
+     */
+    private final double[] minGradient, maxGradient;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor for the constant [ 0., 0. ] of n variables.
+     *
+     * @param dimension number of variables
+     */
+    public GradientInterval( int dimension ) {
+        if( dimension < 0 )
+            throw new IllegalArgumentException( "negative dimension" );
+        this.minGradient = new double[dimension];
+        this.maxGradient = new double[dimension];
+    }
+
+    /**
+     * Constructor from a value and a gradient. (The gradient is copied)
+     *
+     * @param value value
+     * @param gradient partial derivatives
+     */
+    public GradientInterval( Interval value, Interval... gradient ) {
+        this( gradient.length );
+        this.minBound = value.getMinBound();
+        this.maxBound = value.getMaxBound();
+        for( int i=0; i<gradient.length; i++ ) {
+            this.minGradient[i] = gradient[i].getMinBound();
+            this.maxGradient[i] = gradient[i].getMaxBound();
+        }
+    }
+
+    /**
+     * @param x interval of the variable
+     * @param index index of the variable
+     * @param dimension number of variables
+     * @return the variable x_index: value x, gradient e_index
+     */
+    public static GradientInterval variable( Interval x, int index, int dimension ) {
+        final GradientInterval result = constant( x, dimension );
+        result.minGradient[index] = 1.;
+        result.maxGradient[index] = 1.;
+        return result;
+    }
+
+    /**
+     * @param c value of the constant
+     * @param dimension number of variables
+     * @return the constant c: gradient 0
+     */
+    public static GradientInterval constant( Interval c, int dimension ) {
+        final GradientInterval result = new GradientInterval( dimension );
+        result.minBound = c.getMinBound();
+        result.maxBound = c.getMaxBound();
+        return result;
+    }
+
+    /**
+     * @param box intervals of the variables
+     * @return the variables x_0, ..., x_n-1 of box
+     */
+    public static GradientInterval[] variables( IntervalBox box ) {
+        final GradientInterval[] x = new GradientInterval[box.dimension()];
+        for( int i=0; i<x.length; i++ )
+            x[i] = variable( box.get( i ), i, x.length );
+        return x;
+    }
+
+    // =========================================================================
+    // ========== Getters and setters ==========================================
+    // =========================================================================
+
+    /**
+     * @return the number of variables
+     */
+    public int dimension() {
+        return this.minGradient.length;
+    }
+
+    public double getMinBound() {
+        return minBound;
+    }
+
+    public double getMaxBound() {
+        return maxBound;
+    }
+
+    /**
+     * @return the value
+     */
+    public Interval getValue() {
+        return new Interval( this.minBound, this.maxBound );
+    }
+
+    public double getDerivativeMinBound( int i ) {
+        return this.minGradient[i];
+    }
+
+    public double getDerivativeMaxBound( int i ) {
+        return this.maxGradient[i];
+    }
+
+    /**
+     * @param i index of the variable
+     * @return ∂f/∂x_i
+     */
+    public Interval getDerivative( int i ) {
+        return new Interval( this.minGradient[i], this.maxGradient[i] );
+    }
+
+    /**
+     * @return the partial derivatives
+     */
+    public IntervalBox getGradient() {
+        return new IntervalBox( this.minGradient, this.maxGradient );
+    }
+
+    /**
+     * Copies other into this.
+     *
+     * @param other value and gradient to copy
+     * @return this
+     */
+    public GradientInterval set( GradientInterval other ) {
+        checkDimension( this, other );
+        this.minBound = other.minBound;
+        this.maxBound = other.maxBound;
+        System.arraycopy( other.minGradient, 0, this.minGradient, 0, this.dimension() );
+        System.arraycopy( other.maxGradient, 0, this.maxGradient, 0, this.dimension() );
+        return this;
+    }
+
+    // =========================================================================
+    // ========== Arithmetic ===================================================
+    // =========================================================================
+
+    // ---------- zero, one ----------
+
+    @Override
+    public GradientInterval zero() {
+        return new GradientInterval( this.dimension() );
+    }
+
+    /**
+     * Checks if the value and the gradient are zero, with the global
+     * tolerance of Interval.
+     *
+     * @return true if this is zero
+     */
+    @Override
+    public boolean isZero() {
+        if( !this.getValue().isZero() )
+            return false;
+        for( int i=0; i<this.dimension(); i++ ) {
+            if( !this.getDerivative( i ).isZero() )
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public GradientInterval one() {
+        return constant( Interval.ONE, this.dimension() );
+    }
+
+    /**
+     * Checks if the value is one and the gradient zero, with the global
+     * tolerance of Interval.
+     *
+     * @return true if this is one
+     */
+    @Override
+    public boolean isOne() {
+        if( !this.getValue().isOne() )
+            return false;
+        for( int i=0; i<this.dimension(); i++ ) {
+            if( !this.getDerivative( i ).isZero() )
+                return false;
+        }
+        return true;
+    }
+
+    // ---------- add ----------
+
+    @Override
+    public GradientInterval add( Arithmetic other ) {
+        return this.add( (GradientInterval)other, new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * @param other addition
+     * @param result receives this + other (may be this or other)
+     * @return result
+     */
+    public GradientInterval add( GradientInterval other, GradientInterval result ) {
+        checkDimension( this, other, result );
+        final double a = this.minBound+other.minBound, b = this.maxBound+other.maxBound;
+        result.minBound = Rounding.down( a );
+        result.maxBound = Rounding.up( b );
+        for( int i=0; i<this.dimension(); i++ )
+            Rounding.set( result.minGradient, result.maxGradient, i,
+                          this.minGradient[i]+other.minGradient[i], this.maxGradient[i]+other.maxGradient[i] );
+        return result;
+    }
+
+    /**
+     * @param d addition
+     * @return this + d
+     */
+    public GradientInterval add( double d ) {
+        final GradientInterval result = new GradientInterval( this.dimension() ).set( this );
+        result.setValue( this.minBound+d, this.maxBound+d );
+        return result;
+    }
+
+    // ---------- subtract ----------
+
+    @Override
+    public GradientInterval subtract( Arithmetic other ) {
+        return this.subtract( (GradientInterval)other, new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * @param other subtract
+     * @param result receives this - other (may be this or other)
+     * @return result
+     */
+    public GradientInterval subtract( GradientInterval other, GradientInterval result ) {
+        checkDimension( this, other, result );
+        final double a = this.minBound-other.maxBound, b = this.maxBound-other.minBound;
+        result.minBound = Rounding.down( a );
+        result.maxBound = Rounding.up( b );
+        for( int i=0; i<this.dimension(); i++ )
+            Rounding.set( result.minGradient, result.maxGradient, i,
+                          this.minGradient[i]-other.maxGradient[i], this.maxGradient[i]-other.minGradient[i] );
+        return result;
+    }
+
+    /**
+     * @param d subtract
+     * @return this - d
+     */
+    public GradientInterval subtract( double d ) {
+        return this.add( -d );
+    }
+
+    // ---------- mult ----------
+
+    @Override
+    public GradientInterval mult( Arithmetic other ) {
+        return this.mult( (GradientInterval)other, new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * @param other multiplier
+     * @param result receives this × other (may be this or other)
+     * @return result
+     */
+    public GradientInterval mult( GradientInterval other, GradientInterval result ) {
+        checkDimension( this, other, result );
+        final double a = this.minBound, b = this.maxBound, c = other.minBound, d = other.maxBound;
+        for( int i=0; i<this.dimension(); i++ ) {
+            // w × u'_i + u × w'_i
+            final double p = this.minGradient[i], q = this.maxGradient[i], r = other.minGradient[i], s = other.maxGradient[i];
+            result.minGradient[i] = Rounding.down( Rounding.down( productMin( c, d, p, q ) ) + Rounding.down( productMin( a, b, r, s ) ) );
+            result.maxGradient[i] = Rounding.up( Rounding.up( productMax( c, d, p, q ) ) + Rounding.up( productMax( a, b, r, s ) ) );
+        }
+        result.setValue( Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+        return result;
+    }
+
+    /**
+     * @param d multiplier
+     * @return this × d
+     */
+    public GradientInterval mult( double d ) {
+        final GradientInterval result = new GradientInterval( this.dimension() );
+        result.setValue( this.minBound*d, this.maxBound*d );
+        for( int i=0; i<this.dimension(); i++ )
+            Rounding.set( result.minGradient, result.maxGradient, i, this.minGradient[i]*d, this.maxGradient[i]*d );
+        return result;
+    }
+
+    // ---------- divide ----------
+
+    @Override
+    public GradientInterval divide( Arithmetic other ) {
+        return this.divide( (GradientInterval)other, new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * @param other division
+     * @param result receives this ÷ other (may be this or other)
+     * @return result
+     * @throws ArithmeticException if zero is included in other's value
+     */
+    public GradientInterval divide( GradientInterval other, GradientInterval result ) {
+        checkDimension( this, other, result );
+        final double a = this.minBound, b = this.maxBound, c = other.minBound, d = other.maxBound;
+        if( c<=0. && d>=0. )
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        final double vMin = Rounding.down( Interval.divideMin( a, b, c, d ) );
+        final double vMax = Rounding.up( Interval.divideMax( a, b, c, d ) );
+        // 1/w (one division instead of four per derivative)
+        final double inverseMin = Rounding.down( 1./d ), inverseMax = Rounding.up( 1./c );
+        for( int i=0; i<this.dimension(); i++ ) {
+            // ( u'_i - v × w'_i ) × 1/w
+            final double r = other.minGradient[i], s = other.maxGradient[i];
+            final double p = Rounding.down( this.minGradient[i] - Rounding.up( productMax( vMin, vMax, r, s ) ) );
+            final double q = Rounding.up( this.maxGradient[i] - Rounding.down( productMin( vMin, vMax, r, s ) ) );
+            Rounding.set( result.minGradient, result.maxGradient, i,
+                          productMin( inverseMin, inverseMax, p, q ), productMax( inverseMin, inverseMax, p, q ) );
+        }
+        result.minBound = vMin;
+        result.maxBound = vMax;
+        return result;
+    }
+
+    /**
+     * @param d division
+     * @return this ÷ d
+     */
+    public GradientInterval divide( double d ) {
+        if( d == 0. )
+            throw new ArithmeticException( "Divide by zero exception.");
+        final GradientInterval result = new GradientInterval( this.dimension() );
+        result.setValue( this.minBound/d, this.maxBound/d );
+        for( int i=0; i<this.dimension(); i++ )
+            Rounding.set( result.minGradient, result.maxGradient, i, this.minGradient[i]/d, this.maxGradient[i]/d );
+        return result;
+    }
+
+    // ---------- sq, sqrt, pow ----------
+
+    /**
+     * Square function. (See Interval.sq())
+     *
+     * @return this²
+     */
+    public GradientInterval sq() {
+        return this.sq( new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * Square function. (See Interval.sq())
+     *
+     * @param result receives this² (may be this)
+     * @return result
+     */
+    public GradientInterval sq( GradientInterval result ) {
+        checkDimension( this, result );
+        // 2u × u'
+        this.scaleGradient( 2.*this.minBound, 2.*this.maxBound, result );
+        final double a = this.minBound, b = this.maxBound;
+        if( a<=0. && b>=0. ) {
+            result.minBound = 0.;
+            result.maxBound = Rounding.up( Math.max( a*a, b*b ) );
+        } else {
+            result.setValue( a*a, b*b );
+        }
+        return result;
+    }
+
+    /**
+     * Square root function. (The derivatives are [ -Infinity, Infinity ] when
+     * the value includes zero)
+     *
+     * @return √this
+     */
+    public GradientInterval sqrt() {
+        return this.sqrt( new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * Square root function.
+     *
+     * @param result receives √this (may be this)
+     * @return result
+     */
+    public GradientInterval sqrt( GradientInterval result ) {
+        checkDimension( this, result );
+        final double vMin = Rounding.down( Math.sqrt( this.minBound ) );
+        final double vMax = Rounding.up( Math.sqrt( this.maxBound ) );
+        if( vMin > 0. ) {
+            // u' × [ 1/2√b, 1/2√a ]
+            this.scaleGradient( Rounding.down( 0.5/vMax ), Rounding.up( 0.5/vMin ), result );
+        } else {
+            for( int i=0; i<this.dimension(); i++ ) {
+                final boolean constant = this.minGradient[i] == 0. && this.maxGradient[i] == 0.;
+                result.minGradient[i] = constant ? 0. : Double.NEGATIVE_INFINITY;
+                result.maxGradient[i] = constant ? 0. : Double.POSITIVE_INFINITY;
+            }
+        }
+        result.minBound = vMin;
+        result.maxBound = vMax;
+        return result;
+    }
+
+    /**
+     * Compute this^n with n integer. (See Interval.pow(int))
+     *
+     * @param n power
+     * @return this^n
+     */
+    @Override
+    public GradientInterval pow( int n ) {
+        return this.pow( n, new GradientInterval( this.dimension() ) );
+    }
+
+    /**
+     * Compute this^n with n integer.
+     *
+     * @param n power
+     * @param result receives this^n (may be this)
+     * @return result
+     * @throws ArithmeticException if n<0 and zero is included in the value
+     */
+    public GradientInterval pow( int n, GradientInterval result ) {
+        checkDimension( this, result );
+        final double a = this.minBound, b = this.maxBound;
+        if( n == 0 ) {
+            this.scaleGradient( 0., 0., result );
+        } else {
+            // n uⁿ⁻¹ × u', computed in result's value (this may be result)
+            result.setPow( a, b, n-1 );
+            result.setValue( result.minBound*n, result.maxBound*n );
+            this.scaleGradient( result.minBound, result.maxBound, result );
+        }
+        result.setPow( a, b, n );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + Double.hashCode( this.minBound );
+        hash = 41 * hash + Double.hashCode( this.maxBound );
+        hash = 41 * hash + java.util.Arrays.hashCode( this.minGradient );
+        hash = 41 * hash + java.util.Arrays.hashCode( this.maxGradient );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final GradientInterval other = (GradientInterval) obj;
+        if (Double.doubleToLongBits(this.minBound) != Double.doubleToLongBits(other.minBound)) return false;
+        if (Double.doubleToLongBits(this.maxBound) != Double.doubleToLongBits(other.maxBound)) return false;
+        if (!java.util.Arrays.equals(this.minGradient, other.minGradient)) return false;
+        if (!java.util.Arrays.equals(this.maxGradient, other.maxGradient)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation: value and gradient.
+     *
+     * @return the string representation
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "[ " ).append( this.minBound ).append( ", " ).append( this.maxBound ).append( " ], ∇ [ " );
+        for( int i=0; i<this.dimension(); i++ ) {
+            sb.append( "[ " ).append( this.minGradient[i] ).append( ", " ).append( this.maxGradient[i] ).append( " ]" );
+            if( i<this.dimension()-1 )
+                sb.append( ", " );
+        }
+        sb.append( " ]" );
+
+        return sb.toString();
+    }
+
+    /**
+     * Sets the value to [ a, b ] (swapped and rounded like Rounding.interval).
+     */
+    private void setValue( double a, double b ) {
+        if( b < a ) {
+            this.minBound = Rounding.down( b );
+            this.maxBound = Rounding.up( a );
+        } else {
+            this.minBound = Rounding.down( a );
+            this.maxBound = Rounding.up( b );
+        }
+    }
+
+    /**
+     * Sets the value to [ a, b ]^n. (See Interval.pow(int))
+     *
+     * @throws ArithmeticException if n<0 and zero is included in [ a, b ]
+     */
+    private void setPow( double a, double b, int n ) {
+        Interval.checkPow( a, b, n );
+        final double p = Math.pow( a, n ), q = Math.pow( b, n );
+        this.minBound = Interval.powMin( a, b, n, p, q );
+        this.maxBound = Interval.powMax( n, p, q );
+    }
+
+    /**
+     * result' = [ pMin, pMax ] × this'. (The zero derivatives stay zero)
+     */
+    private void scaleGradient( double pMin, double pMax, GradientInterval result ) {
+        for( int i=0; i<this.dimension(); i++ ) {
+            final double c = this.minGradient[i], d = this.maxGradient[i];
+            if( c == 0. && d == 0. ) {
+                result.minGradient[i] = 0.;
+                result.maxGradient[i] = 0.;
+            } else {
+                Rounding.set( result.minGradient, result.maxGradient, i,
+                              productMin( pMin, pMax, c, d ), productMax( pMin, pMax, c, d ) );
+            }
+        }
+    }
+
+    /**
+     * @return min( [ a, b ] × [ p, q ] ), faster when [ p, q ] is a point
+     * (the derivatives of the variables and of the constants)
+     */
+    private static double productMin( double a, double b, double p, double q ) {
+        if( p == q )
+            return p == 0. ? 0. : p > 0. ? a*p : b*p;
+        return Interval.multMin( a, b, p, q );
+    }
+
+    /**
+     * @return max( [ a, b ] × [ p, q ] ), faster when [ p, q ] is a point
+     */
+    private static double productMax( double a, double b, double p, double q ) {
+        if( p == q )
+            return p == 0. ? 0. : p > 0. ? b*p : a*p;
+        return Interval.multMax( a, b, p, q );
+    }
+
+    private static void checkDimension( GradientInterval x, GradientInterval y ) {
+        if( x.dimension() != y.dimension() )
+            throw new IllegalArgumentException( "gradients must have the same dimension" );
+    }
+
+    private static void checkDimension( GradientInterval x, GradientInterval y, GradientInterval z ) {
+        checkDimension( x, y );
+        checkDimension( x, z );
+    }
+}
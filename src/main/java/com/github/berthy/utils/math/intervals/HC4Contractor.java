@@ -0,0 +1,640 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constraint propagation with the HC4 algorithm (forward-backward contractor).
+ *
+ * Each constraint is an expression (see ExpressionBuilder) and the interval of
+ * its allowed values: f(x,y) = 0 is ( f, [ 0, 0 ] ), g(x,y) <= c is
+ * ( g, [ -inf, c ] ). A revision of a constraint (HC4-revise) evaluates its
+ * nodes from the variables to the root (forward), intersects the root with
+ * the allowed interval, then projects each node on its operands, from the
+ * root to the variables (backward):
+ * <pre>
+ *   z = x + y :   x ∩= z - y,  y ∩= z - x
+ *   z = x × y :   x ∩= z ÷ y,  y ∩= z ÷ x      (divisor without zero)
+ *   z = x²    :   x ∩= hull( -√z ∪ √z )
+ *   ...
+ * </pre>
+ * The domains of the variables only shrink. When a revision reduces the
+ * width of a variable by more than the tolerance (relative), the constraints
+ * of this variable are revised again: the propagation stops at this fixpoint,
+ * or when a domain is empty (the box contains no solution).
+ *
+ * The constraints are compiled into primitive arrays: the nodes (operator,
+ * operands), the nodes of each constraint, the constraints of each variable.
+ * The nodes shared by several constraints (common subexpressions) are one
+ * node. The propagation is run by a Propagator, which owns the domains of the
+ * nodes and the work list: it does not allocate. An HC4Contractor is
+ * immutable and can be shared by threads, each thread using its own
+ * Propagator.
+ *
+ * @author Bertrand COTE
+ */
+public final class HC4Contractor {
+
+    /**
+     * Maximum number of revisions of a propagation, per constraint.
+     * (The propagation of some systems converges very slowly)
+     */
+    public static final int MAX_REVISIONS = 100;
+
+    /**
+     * Operator codes of the nodes.
+     */
+    private static final int VARIABLE = 0, CONSTANT = 1, ADD = 2, SUBTRACT = 3, MULT = 4, DIVIDE = 5, SQ = 6, SQRT = 7, POW = 8;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Nodes: operator, operand nodes (-1 if none), exponent of POW, variable
+     * index of VARIABLE, bounds of CONSTANT.
+     */
+    private final int[] operators, lefts, rights, exponents, variables;
+    private final double[] constantMins, constantMaxs;
+
+    /**
+     * Constraints: root node, allowed interval, nodes (increasing order) from
+     * nodeStarts[c] to nodeStarts[c+1].
+     */
+    private final int[] roots, nodeStarts, constraintNodes;
+    private final double[] rangeMins, rangeMaxs;
+
+    /**
+     * Constraints of the variable v, from dependentStarts[v] to
+     * dependentStarts[v+1].
+     */
+    private final int[] dependentStarts, dependents;
+
+    /**
+     * Highest variable index + 1.
+     */
+    private final int variableCount;
+
+    private final double tolerance;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param constraints expressions of the constraints (same builder)
+     * @param ranges allowed interval of each expression
+     * @param tolerance a variable reduced by less than tolerance × width does
+     * not trigger new revisions (in [ 0, 1 [)
+     * @throws IllegalArgumentException if there are no constraints, if the
+     * arrays have different lengths, if the expressions come from different
+     * builders, or if tolerance is not in [ 0, 1 [
+     */
+    public HC4Contractor( Expression[] constraints, Interval[] ranges, double tolerance ) {
+        if( constraints.length == 0 )
+            throw new IllegalArgumentException( "no constraint" );
+        if( constraints.length != ranges.length )
+            throw new IllegalArgumentException( "arrays must have the same length" );
+        if( !( tolerance >= 0. && tolerance < 1. ) )
+            throw new IllegalArgumentException( "tolerance must be in [ 0, 1 [: " + tolerance );
+        final ExpressionBuilder builder = constraints[0].getBuilder();
+        int maxId = 0;
+        for( Expression constraint : constraints ) {
+            if( constraint.getBuilder() != builder )
+                throw new IllegalArgumentException( "expressions of different builders" );
+            maxId = Math.max( maxId, constraint.getId() );
+        }
+        this.tolerance = tolerance;
+
+        // nodes of each constraint (the ids are a topological order)
+        final int[][] reachable = new int[constraints.length][];
+        final Expression[] byId = new Expression[maxId+1];
+        final boolean[] used = new boolean[maxId+1];
+        final boolean[] mark = new boolean[maxId+1];
+        final List<Expression> stack = new ArrayList<>();
+        for( int c=0; c<constraints.length; c++ ) {
+            Arrays.fill( mark, false );
+            int count = 0;
+            stack.add( constraints[c] );
+            while( !stack.isEmpty() ) {
+                final Expression node = stack.remove( stack.size()-1 );
+                if( mark[node.getId()] )
+                    continue;
+                mark[node.getId()] = true;
+                byId[node.getId()] = node;
+                count++;
+                if( node.getLeft() != null )
+                    stack.add( node.getLeft() );
+                if( node.getRight() != null )
+                    stack.add( node.getRight() );
+            }
+            reachable[c] = new int[count];
+            for( int id=0, k=0; id<=maxId; id++ ) {
+                if( mark[id] ) {
+                    reachable[c][k++] = id;
+                    used[id] = true;
+                }
+            }
+        }
+
+        // compact node indices
+        final int[] index = new int[maxId+1];
+        int nodeCount = 0;
+        for( int id=0; id<=maxId; id++ )
+            index[id] = used[id] ? nodeCount++ : -1;
+        this.operators = new int[nodeCount];
+        this.lefts = new int[nodeCount];
+        this.rights = new int[nodeCount];
+        this.exponents = new int[nodeCount];
+        this.variables = new int[nodeCount];
+        this.constantMins = new double[nodeCount];
+        this.constantMaxs = new double[nodeCount];
+        int maxVariable = -1;
+        for( int id=0; id<=maxId; id++ ) {
+            if( !used[id] )
+                continue;
+            final Expression node = byId[id];
+            final int n = index[id];
+            this.operators[n] = code( node.getOperator() );
+            this.lefts[n] = node.getLeft() == null ? -1 : index[node.getLeft().getId()];
+            this.rights[n] = node.getRight() == null ? -1 : index[node.getRight().getId()];
+            this.exponents[n] = this.operators[n] == POW ? node.getExponent() : 0;
+            this.variables[n] = this.operators[n] == VARIABLE ? node.getIndex() : -1;
+            if( this.operators[n] == CONSTANT ) {
+                this.constantMins[n] = node.getConstant().getMinBound();
+                this.constantMaxs[n] = node.getConstant().getMaxBound();
+            }
+            maxVariable = Math.max( maxVariable, this.variables[n] );
+        }
+        this.variableCount = maxVariable+1;
+
+        this.roots = new int[constraints.length];
+        this.rangeMins = new double[constraints.length];
+        this.rangeMaxs = new double[constraints.length];
+        this.nodeStarts = new int[constraints.length+1];
+        for( int c=0; c<constraints.length; c++ ) {
+            this.roots[c] = index[constraints[c].getId()];
+            this.rangeMins[c] = ranges[c].getMinBound();
+            this.rangeMaxs[c] = ranges[c].getMaxBound();
+            this.nodeStarts[c+1] = this.nodeStarts[c] + reachable[c].length;
+        }
+        this.constraintNodes = new int[this.nodeStarts[constraints.length]];
+        final int[] dependentCounts = new int[this.variableCount];
+        for( int c=0; c<constraints.length; c++ ) {
+            for( int k=0; k<reachable[c].length; k++ ) {
+                final int n = index[reachable[c][k]];
+                this.constraintNodes[this.nodeStarts[c]+k] = n;
+                if( this.variables[n] >= 0 )
+                    dependentCounts[this.variables[n]]++;
+            }
+        }
+
+        // constraints of each variable
+        this.dependentStarts = new int[this.variableCount+1];
+        for( int v=0; v<this.variableCount; v++ )
+            this.dependentStarts[v+1] = this.dependentStarts[v] + dependentCounts[v];
+        this.dependents = new int[this.dependentStarts[this.variableCount]];
+        final int[] next = Arrays.copyOf( this.dependentStarts, this.variableCount );
+        for( int c=0; c<constraints.length; c++ ) {
+            for( int k=this.nodeStarts[c]; k<this.nodeStarts[c+1]; k++ ) {
+                final int v = this.variables[this.constraintNodes[k]];
+                if( v >= 0 )
+                    this.dependents[next[v]++] = c;
+            }
+        }
+    }
+
+    private static int code( Expression.Operator operator ) {
+        switch( operator ) {
+            case VARIABLE:  return VARIABLE;
+            case CONSTANT:  return CONSTANT;
+            case ADD:       return ADD;
+            case SUBTRACT:  return SUBTRACT;
+            case MULT:      return MULT;
+            case DIVIDE:    return DIVIDE;
+            case SQ:        return SQ;
+            case SQRT:      return SQRT;
+            default:        return POW;
+        }
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the number of variables (highest variable index + 1)
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public int getConstraintCount() {
+        return roots.length;
+    }
+
+    /**
+     * @return the number of distinct nodes of the constraints
+     */
+    public int getNodeCount() {
+        return operators.length;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    // =========================================================================
+    // ========== Propagation ==================================================
+    // =========================================================================
+
+    /**
+     * @return a new propagator of these constraints
+     */
+    public Propagator newPropagator() {
+        return new Propagator();
+    }
+
+    /**
+     * Contracts a box. (Allocates a Propagator: use newPropagator() for
+     * repeated contractions)
+     *
+     * @param box domains of the variables
+     * @return the contracted box, or null if box contains no solution
+     */
+    public IntervalBox contract( IntervalBox box ) {
+        return this.newPropagator().contract( box );
+    }
+
+    @Override
+    public String toString() {
+        return "HC4Contractor[ variables=" + this.variableCount + ", constraints=" + this.roots.length
+                + ", nodes=" + this.operators.length + ", tolerance=" + this.tolerance + " ]";
+    }
+
+    // =========================================================================
+    // ========== Propagator ===================================================
+    // =========================================================================
+
+    /**
+     * Runs the propagation of an HC4Contractor. (Not thread safe)
+     */
+    public final class Propagator {
+
+        /**
+         * Domains of the nodes.
+         */
+        private final double[] min, max;
+
+        /**
+         * Work list of the constraints to revise (circular).
+         */
+        private final int[] queue;
+        private final boolean[] queued;
+
+        private int revisions;
+
+        private Propagator() {
+            this.min = new double[operators.length];
+            this.max = new double[operators.length];
+            this.queue = new int[roots.length];
+            this.queued = new boolean[roots.length];
+        }
+
+        /**
+         * @return the number of revisions of the last contraction
+         */
+        public int getRevisionCount() {
+            return revisions;
+        }
+
+        /**
+         * Contracts the domains of the variables, in place.
+         *
+         * @param xMin minimum bounds of the variables
+         * @param xMax maximum bounds of the variables
+         * @return false if the box contains no solution (the bounds are then
+         * undefined)
+         * @throws IllegalArgumentException if there are less bounds than
+         * variables
+         */
+        public boolean contract( double[] xMin, double[] xMax ) {
+            if( xMin.length < variableCount || xMax.length < variableCount )
+                throw new IllegalArgumentException( "expected " + variableCount + " variables" );
+            final int constraintCount = roots.length;
+            for( int c=0; c<constraintCount; c++ ) {
+                this.queue[c] = c;
+                this.queued[c] = true;
+            }
+            int head = 0, size = constraintCount;
+            final long maxRevisions = (long)MAX_REVISIONS*constraintCount;
+            this.revisions = 0;
+            try {
+                while( size > 0 && this.revisions < maxRevisions ) {
+                    final int c = this.queue[head];
+                    head = head+1 == constraintCount ? 0 : head+1;
+                    size--;
+                    this.queued[c] = false;
+                    this.revisions++;
+                    if( !this.revise( c, xMin, xMax ) )
+                        return false;
+
+                    // new domains of the variables
+                    for( int k=nodeStarts[c]; k<nodeStarts[c+1]; k++ ) {
+                        final int n = constraintNodes[k];
+                        final int v = variables[n];
+                        if( v < 0 )
+                            continue;
+                        final double oldMin = xMin[v], oldMax = xMax[v];
+                        final double newMin = this.min[n], newMax = this.max[n];
+                        if( newMin <= oldMin && newMax >= oldMax )
+                            continue;
+                        xMin[v] = Math.max( newMin, oldMin );
+                        xMax[v] = Math.min( newMax, oldMax );
+                        final double width = oldMax - oldMin, newWidth = xMax[v] - xMin[v];
+                        if( newWidth < ( 1.-tolerance )*width || width == Double.POSITIVE_INFINITY ) {
+                            for( int d=dependentStarts[v]; d<dependentStarts[v+1]; d++ ) {
+                                final int other = dependents[d];
+                                if( other != c && !this.queued[other] ) {
+                                    this.queued[other] = true;
+                                    this.queue[( head+size ) % constraintCount] = other;
+                                    size++;
+                                }
+                            }
+                        }
+                    }
+                }
+            } finally {
+                for( int c=0; c<constraintCount; c++ )
+                    this.queued[c] = false;
+            }
+            return true;
+        }
+
+        /**
+         * Contracts a box.
+         *
+         * @param box domains of the variables
+         * @return the contracted box, or null if box contains no solution
+         * @throws IllegalArgumentException if box has less dimensions than
+         * variables
+         */
+        public IntervalBox contract( IntervalBox box ) {
+            final int dimension = box.dimension();
+            final double[] xMin = new double[dimension], xMax = new double[dimension];
+            for( int i=0; i<dimension; i++ ) {
+                xMin[i] = box.getMinBound( i );
+                xMax[i] = box.getMaxBound( i );
+            }
+            return this.contract( xMin, xMax ) ? new IntervalBox( xMin, xMax ) : null;
+        }
+
+        // ---------- HC4-revise ----------
+
+        /**
+         * @return false if a domain is empty
+         */
+        private boolean revise( int c, double[] xMin, double[] xMax ) {
+            final double[] min = this.min, max = this.max;
+            final int start = nodeStarts[c], end = nodeStarts[c+1];
+
+            // forward evaluation
+            for( int k=start; k<end; k++ ) {
+                final int n = constraintNodes[k];
+                final int l = lefts[n], r = rights[n];
+                switch( operators[n] ) {
+                    case VARIABLE:
+                        min[n] = xMin[variables[n]];
+                        max[n] = xMax[variables[n]];
+                        break;
+                    case CONSTANT:
+                        min[n] = constantMins[n];
+                        max[n] = constantMaxs[n];
+                        break;
+                    case ADD:
+                        min[n] = Rounding.down( min[l] + min[r] );
+                        max[n] = Rounding.up( max[l] + max[r] );
+                        break;
+                    case SUBTRACT:
+                        min[n] = Rounding.down( min[l] - max[r] );
+                        max[n] = Rounding.up( max[l] - min[r] );
+                        break;
+                    case MULT:
+                        min[n] = Rounding.down( multMin( min[l], max[l], min[r], max[r] ) );
+                        max[n] = Rounding.up( multMax( min[l], max[l], min[r], max[r] ) );
+                        break;
+                    case DIVIDE:
+                        if( min[r] <= 0. && max[r] >= 0. ) {
+                            min[n] = Double.NEGATIVE_INFINITY;
+                            max[n] = Double.POSITIVE_INFINITY;
+                        } else {
+                            min[n] = Rounding.down( divideMin( min[l], max[l], min[r], max[r] ) );
+                            max[n] = Rounding.up( divideMax( min[l], max[l], min[r], max[r] ) );
+                        }
+                        break;
+                    case SQ:
+                        IntervalArray.setSq( min[l], max[l], min, max, n );
+                        break;
+                    case SQRT:
+                        if( max[l] < 0. )
+                            return false;
+                        min[n] = Rounding.down( Math.sqrt( Math.max( min[l], 0. ) ) );
+                        max[n] = Rounding.up( Math.sqrt( max[l] ) );
+                        break;
+                    default:
+                        if( exponents[n] < 0 && min[l] <= 0. && max[l] >= 0. ) {
+                            min[n] = Double.NEGATIVE_INFINITY;
+                            max[n] = Double.POSITIVE_INFINITY;
+                        } else {
+                            IntervalArray.setPow( min[l], max[l], exponents[n], min, max, n );
+                        }
+                }
+            }
+            if( !intersect( min, max, roots[c], rangeMins[c], rangeMaxs[c] ) )
+                return false;
+
+            // backward projections
+            for( int k=end-1; k>=start; k-- ) {
+                final int n = constraintNodes[k];
+                final int l = lefts[n], r = rights[n];
+                final double zMin = min[n], zMax = max[n];
+                switch( operators[n] ) {
+                    case VARIABLE:
+                    case CONSTANT:
+                        break;
+                    case ADD:
+                        if( !intersect( min, max, l, Rounding.down( zMin - max[r] ), Rounding.up( zMax - min[r] ) )
+                         || !intersect( min, max, r, Rounding.down( zMin - max[l] ), Rounding.up( zMax - min[l] ) ) )
+                            return false;
+                        break;
+                    case SUBTRACT:
+                        if( !intersect( min, max, l, Rounding.down( zMin + min[r] ), Rounding.up( zMax + max[r] ) )
+                         || !intersect( min, max, r, Rounding.down( min[l] - zMax ), Rounding.up( max[l] - zMin ) ) )
+                            return false;
+                        break;
+                    case MULT:
+                        if( !divideInto( min, max, l, zMin, zMax, min[r], max[r] )
+                         || !divideInto( min, max, r, zMin, zMax, min[l], max[l] ) )
+                            return false;
+                        break;
+                    case DIVIDE:
+                        // x = z × y, y = x ÷ z
+                        if( !intersect( min, max, l, Rounding.down( multMin( zMin, zMax, min[r], max[r] ) ),
+                                                     Rounding.up( multMax( zMin, zMax, min[r], max[r] ) ) )
+                         || !divideInto( min, max, r, min[l], max[l], zMin, zMax ) )
+                            return false;
+                        break;
+                    case SQ:
+                        if( !rootInto( min, max, l, zMin, zMax, 2 ) )
+                            return false;
+                        break;
+                    case SQRT:
+                        if( zMax < 0. )
+                            return false;
+                        final double root = Math.max( zMin, 0. );
+                        if( !intersect( min, max, l, Rounding.down( root*root ), Rounding.up( zMax*zMax ) ) )
+                            return false;
+                        break;
+                    default:
+                        // negative powers are not projected
+                        if( exponents[n] > 0 && !rootInto( min, max, l, zMin, zMax, exponents[n] ) )
+                            return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // =========================================================================
+    // ========== Projections ==================================================
+    // =========================================================================
+
+    /**
+     * Domain of node n ∩= [ lo, hi ]. (NaN bounds are ignored)
+     *
+     * @return false if the domain is empty
+     */
+    private static boolean intersect( double[] min, double[] max, int n, double lo, double hi ) {
+        if( lo > min[n] )
+            min[n] = lo;
+        if( hi < max[n] )
+            max[n] = hi;
+        return min[n] <= max[n];
+    }
+
+    /**
+     * Domain of node n ∩= [ zMin, zMax ] ÷ [ yMin, yMax ]. (No contraction
+     * if the divisor includes zero)
+     *
+     * @return false if the domain is empty
+     */
+    private static boolean divideInto( double[] min, double[] max, int n, double zMin, double zMax, double yMin, double yMax ) {
+        if( yMin <= 0. && yMax >= 0. )
+            return true;
+        return intersect( min, max, n, Rounding.down( divideMin( zMin, zMax, yMin, yMax ) ),
+                                       Rounding.up( divideMax( zMin, zMax, yMin, yMax ) ) );
+    }
+
+    /**
+     * Domain of node n ∩= { x : x^p in [ zMin, zMax ] }, p > 0: the roots
+     * ±z^(1/p) for an even p (hull of both signs), sign( z )|z|^(1/p) for an
+     * odd p.
+     *
+     * @return false if the domain is empty
+     */
+    private static boolean rootInto( double[] min, double[] max, int n, double zMin, double zMax, int p ) {
+        if( p == 1 )
+            return intersect( min, max, n, zMin, zMax );
+        if( ( p&1 ) == 1 )
+            return intersect( min, max, n, rootDown( zMin, p ), rootUp( zMax, p ) );
+        if( zMax < 0. )
+            return false;
+        final double rMin = rootDown( Math.max( zMin, 0. ), p ), rMax = rootUp( zMax, p );
+        final double xMin = min[n], xMax = max[n];
+        // x ∩ [ rMin, rMax ] and x ∩ [ -rMax, -rMin ]
+        final double pMin = Math.max( xMin, rMin ), pMax = Math.min( xMax, rMax );
+        final double nMin = Math.max( xMin, -rMax ), nMax = Math.min( xMax, -rMin );
+        final boolean positive = pMin <= pMax, negative = nMin <= nMax;
+        if( !positive && !negative )
+            return false;
+        min[n] = negative ? nMin : pMin;
+        max[n] = positive ? pMax : nMax;
+        return true;
+    }
+
+    /**
+     * @return a lower bound of sign( z )|z|^(1/p)
+     */
+    private static double rootDown( double z, int p ) {
+        if( z < 0. )
+            return -rootUp( -z, p );
+        if( p <= 3 )
+            return Rounding.powDown( root( z, p ) );
+        // 1./p is rounded: the error of the root grows with |ln z|, so the
+        // root is checked by its p-th power and stepped down
+        double r = root( z, p );
+        while( r > 0. && Rounding.powUp( Math.pow( r, p ) ) > z )
+            r = Math.nextDown( r );
+        return r;
+    }
+
+    /**
+     * @return an upper bound of sign( z )|z|^(1/p)
+     */
+    private static double rootUp( double z, int p ) {
+        if( z < 0. )
+            return -rootDown( -z, p );
+        if( p <= 3 )
+            return Rounding.powUp( root( z, p ) );
+        // (See rootDown)
+        double r = root( z, p );
+        while( Rounding.powDown( Math.pow( r, p ) ) < z )
+            r = Math.nextUp( r );
+        return r;
+    }
+
+    /**
+     * @return sign( z )|z|^(1/p)
+     */
+    private static double root( double z, int p ) {
+        if( p == 2 )
+            return Math.sqrt( z );
+        if( p == 3 )
+            return Math.cbrt( z );
+        return Math.copySign( Math.pow( Math.abs( z ), 1./p ), z );
+    }
+
+    // ---------- products and quotients with infinite bounds ----------
+
+    /**
+     * @return a×b, with 0×inf = 0
+     */
+    private static double times( double a, double b ) {
+        return a == 0. || b == 0. ? 0. : a*b;
+    }
+
+    private static double multMin( double a, double b, double c, double d ) {
+        return Math.min( Math.min( times( a, c ), times( a, d ) ), Math.min( times( b, c ), times( b, d ) ) );
+    }
+
+    private static double multMax( double a, double b, double c, double d ) {
+        return Math.max( Math.max( times( a, c ), times( a, d ) ), Math.max( times( b, c ), times( b, d ) ) );
+    }
+
+    /**
+     * @return min( a÷c, a÷d, b÷c, b÷d ) (0 ∉ [ c, d ]), with inf÷inf = -inf
+     */
+    private static double divideMin( double a, double b, double c, double d ) {
+        final double m = Math.min( Math.min( a/c, a/d ), Math.min( b/c, b/d ) );
+        return Double.isNaN( m ) ? Double.NEGATIVE_INFINITY : m;
+    }
+
+    /**
+     * @return max( a÷c, a÷d, b÷c, b÷d ) (0 ∉ [ c, d ]), with inf÷inf = +inf
+     */
+    private static double divideMax( double a, double b, double c, double d ) {
+        final double m = Math.max( Math.max( a/c, a/d ), Math.max( b/c, b/d ) );
+        return Double.isNaN( m ) ? Double.POSITIVE_INFINITY : m;
+    }
+}
@@ -1,7 +1,6 @@
 package com.github.berthy.utils.math.intervals;
 
 import com.github.berthy.utils.math.Arithmetic;
-import com.github.berthy.utils.util.Arrays;
 
 /**
  * Interval arithmetic.
@@ -14,19 +13,21 @@ import com.github.berthy.utils.util.Arrays;
  * 
  * Here Intervals are unmutable objects.
  * 
+ * The computed bounds are rounded to nearest, or outward when the outward
+ * rounding is enabled. (See Rounding)
+ * 
  * @author Bertrand COTE
  */
 
 public class Interval implements Arithmetic {
     
     /**
-     * Margin of error on isZero and isOne methods
+     * Margin of error on isZero and isOne methods, null if they are exact.
+     * (Legacy global setting, see setEpsilon. Not volatile: the default exact
+     * comparisons only read a plain field, and Tolerance is immutable, readers
+     * never see a half updated one)
      */
-    private static double epsilon;
-    private static boolean epsilonIsSet;
-    static {
-        Interval.resetEpsilon();
-    }
+    private static Tolerance tolerance;
     
     // =========================================================================
     // ========== static constants =============================================
@@ -126,14 +127,27 @@ public class Interval implements Arithmetic {
         return ZERO;
     }
     
+    /**
+     * Checks if this is zero, with the global tolerance. (See setEpsilon)
+     * 
+     * @return true if both bounds are zero
+     */
     @Override
     public boolean isZero() { // Both min and max must be zero.
-        if( Interval.epsilonIsSet ) {
-            return     (this.minBound>=-Interval.epsilon && this.minBound<=Interval.epsilon) 
-                    && (this.maxBound>=-Interval.epsilon && this.maxBound<=Interval.epsilon);
-        } else {
-            return (this.minBound==0.) && (this.maxBound==0.);
-        }
+        final Tolerance tolerance = Interval.tolerance;
+        if( tolerance == null )
+            return this.minBound == 0. && this.maxBound == 0.;
+        return tolerance.isZero( this );
+    }
+    
+    /**
+     * Checks if this is zero, with the given tolerance.
+     * 
+     * @param tolerance margin of error
+     * @return true if both bounds are zero
+     */
+    public boolean isZero( Tolerance tolerance ) {
+        return tolerance.isZero( this );
     }
     
     // ---------- one ----------
@@ -143,14 +157,27 @@ public class Interval implements Arithmetic {
         return ONE;
     }
     
+    /**
+     * Checks if this is one, with the global tolerance. (See setEpsilon)
+     * 
+     * @return true if both bounds are one
+     */
     @Override
     public boolean isOne() { // Both min and max must be one.
-        if( Interval.epsilonIsSet ) {
-            return     (this.minBound>=1.-Interval.epsilon && this.minBound<=1.+Interval.epsilon) 
-                    && (this.maxBound>=1.-Interval.epsilon && this.maxBound<=1.+Interval.epsilon);
-        } else {
-            return (this.minBound==1.) && (this.maxBound==1.);
-        }
+        final Tolerance tolerance = Interval.tolerance;
+        if( tolerance == null )
+            return this.minBound == 1. && this.maxBound == 1.;
+        return tolerance.isOne( this );
+    }
+    
+    /**
+     * Checks if this is one, with the given tolerance.
+     * 
+     * @param tolerance margin of error
+     * @return true if both bounds are one
+     */
+    public boolean isOne( Tolerance tolerance ) {
+        return tolerance.isOne( this );
     }
     
     // ---------- width, rad, mid, mig ----------
@@ -213,7 +240,7 @@ public class Interval implements Arithmetic {
     @Override
     public Interval add( Arithmetic other ) {
         Interval otherInterval = (Interval)other;
-        return new Interval( this.getMinBound()+otherInterval.getMinBound(), this.getMaxBound()+otherInterval.getMaxBound() );
+        return Rounding.interval( this.getMinBound()+otherInterval.getMinBound(), this.getMaxBound()+otherInterval.getMaxBound() );
     }
     
     /**
@@ -223,7 +250,7 @@ public class Interval implements Arithmetic {
      * @return added interval
      */
     public Interval add( double d ) {
-        return new Interval( this.getMinBound()+d, this.getMaxBound()+d );
+        return Rounding.interval( this.getMinBound()+d, this.getMaxBound()+d );
     }
     
     // ---------- subtract ----------
@@ -239,7 +266,7 @@ public class Interval implements Arithmetic {
     @Override
     public Interval subtract( Arithmetic other ) {
         Interval otherInterval = (Interval)other;
-        return new Interval( this.getMinBound()-otherInterval.getMaxBound(), this.getMaxBound()-otherInterval.getMinBound() );
+        return Rounding.interval( this.getMinBound()-otherInterval.getMaxBound(), this.getMaxBound()-otherInterval.getMinBound() );
     }
     
     /**
@@ -249,7 +276,7 @@ public class Interval implements Arithmetic {
      * @return subtracted interval
      */
     public Interval subtract( double d ) {
-        return new Interval( this.getMinBound()-d, this.getMaxBound()-d );
+        return Rounding.interval( this.getMinBound()-d, this.getMaxBound()-d );
     }
     
     // ---------- mult ----------
@@ -268,11 +295,8 @@ public class Interval implements Arithmetic {
     @Override
     public Interval mult( Arithmetic other ) {
         Interval otherInterval = (Interval)other;
-        double[] bounds = new double[]{ this.getMinBound()*otherInterval.getMinBound(), 
-                                        this.getMinBound()*otherInterval.getMaxBound(), 
-                                        this.getMaxBound()*otherInterval.getMinBound(), 
-                                        this.getMaxBound()*otherInterval.getMaxBound() };
-        return new Interval( Arrays.min( bounds ), Arrays.max( bounds ) );
+        return Rounding.interval( multMin( this.minBound, this.maxBound, otherInterval.minBound, otherInterval.maxBound ), 
+                                  multMax( this.minBound, this.maxBound, otherInterval.minBound, otherInterval.maxBound ) );
     }
     
     /**
@@ -282,7 +306,7 @@ public class Interval implements Arithmetic {
      * @return multiplied interval
      */
     public Interval mult( double d ) {
-        return new Interval( this.getMinBound()*d, this.getMaxBound()*d );
+        return Rounding.interval( this.getMinBound()*d, this.getMaxBound()*d );
     }
     
     // ---------- divide ----------
@@ -300,11 +324,8 @@ public class Interval implements Arithmetic {
     public Interval divide( Arithmetic other ) {
         Interval otherInterval = (Interval)other;
         if( !otherInterval.zeroElementOfThis() ) {
-            double[] bounds = new double[]{ this.getMinBound()/otherInterval.getMinBound(), 
-                                            this.getMinBound()/otherInterval.getMaxBound(), 
-                                            this.getMaxBound()/otherInterval.getMinBound(), 
-                                            this.getMaxBound()/otherInterval.getMaxBound() };
-            return new Interval( Arrays.min( bounds ), Arrays.max( bounds ) );
+            return Rounding.interval( divideMin( this.minBound, this.maxBound, otherInterval.minBound, otherInterval.maxBound ), 
+                                      divideMax( this.minBound, this.maxBound, otherInterval.minBound, otherInterval.maxBound ) );
         } else {
             throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
         }
@@ -319,7 +340,7 @@ public class Interval implements Arithmetic {
     public Interval divide( double d ) {
         if( d == 0. )
             throw new ArithmeticException( "Divide by zero exception.");
-        return new Interval( this.getMinBound()/d, this.getMaxBound()/d );
+        return Rounding.interval( this.getMinBound()/d, this.getMaxBound()/d );
     }
     
     // ---------- sq, sqrt, pow ----------
@@ -334,9 +355,9 @@ public class Interval implements Arithmetic {
     public Interval sq() {
         
         if ( !zeroElementOfThis() ) {
-            return new Interval( this.minBound*this.minBound, this.maxBound*this.maxBound );
+            return Rounding.interval( this.minBound*this.minBound, this.maxBound*this.maxBound );
         } else {
-            return new Interval( 0., Math.max(this.minBound*this.minBound, this.maxBound*this.maxBound));
+            return new Interval( 0., Rounding.up( Math.max(this.minBound*this.minBound, this.maxBound*this.maxBound) ) );
         }
     }
     
@@ -346,7 +367,7 @@ public class Interval implements Arithmetic {
      * @return square interval
      */
     public Interval sqrt() {
-        return new Interval( Math.sqrt(this.minBound), Math.sqrt(this.maxBound) );
+        return Rounding.interval( Math.sqrt(this.minBound), Math.sqrt(this.maxBound) );
     }
     
     /**
@@ -358,25 +379,14 @@ public class Interval implements Arithmetic {
     @Override
     public Interval pow( int n ) {
         
-        if( n<0 && this.zeroElementOfThis() ) {
-            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
-        }
+        checkPow( this.minBound, this.maxBound, n );
         
         if( n==0 ) {
             return ONE;
         }
         
-        Interval result;
-        if( ((n&1) == 0) && this.zeroElementOfThis() ) { // (n is even) and (0 !∈ this)
-            result = new Interval( 0., 
-                                   Math.max(Math.pow(minBound, n), 
-                                             Math.pow(maxBound, n) )
-                                  );
-        } else {
-            result = new Interval( Math.pow(minBound, n), Math.pow(maxBound, n) );
-        }
-        
-        return result;
+        final double p = Math.pow(minBound, n), q = Math.pow(maxBound, n);
+        return new Interval( powMin( minBound, maxBound, n, p, q ), powMax( n, p, q ) );
     }
     
     // ---------- intersection and union ----------
@@ -460,28 +470,144 @@ public class Interval implements Arithmetic {
         return "[ " + this.minBound + ", " + this.maxBound + " ]";
     }
     
+    // =========================================================================
+    // ========== Bounds kernels ===============================================
+    // =========================================================================
+    
+    // The four following methods compute the bounds of [a, b] × [c, d] and of
+    // [a, b] ÷ [c, d] without allocation: the four products (or quotients) are
+    // kept in registers and reduced in the same order as util.Arrays.min/max,
+    // so that the results are the same, bit for bit, as before (signed zeros
+    // and NaNs included). When both bounds are needed, the JIT computes the
+    // products only once.
+    //
+    // A sign-case classification (nine cases for mult) was measured slower:
+    // its branches are unpredictable on mixed-sign data, and keeping it exact
+    // on signed zeros and NaNs requires extra tests on every call.
+    
+    /**
+     * @return min( a×c, a×d, b×c, b×d )
+     */
+    static double multMin( double a, double b, double c, double d ) {
+        return min( a*c, a*d, b*c, b*d );
+    }
+    
+    /**
+     * @return max( a×c, a×d, b×c, b×d )
+     */
+    static double multMax( double a, double b, double c, double d ) {
+        return max( a*c, a*d, b*c, b*d );
+    }
+    
+    /**
+     * @return min( a÷c, a÷d, b÷c, b÷d )
+     */
+    static double divideMin( double a, double b, double c, double d ) {
+        return min( a/c, a/d, b/c, b/d );
+    }
+    
+    /**
+     * @return max( a÷c, a÷d, b÷c, b÷d )
+     */
+    static double divideMax( double a, double b, double c, double d ) {
+        return max( a/c, a/d, b/c, b/d );
+    }
+    
+    // The three following methods compute the bounds of [a, b]^n (with the
+    // outward rounding of Math.pow) for pow, IntervalArray and
+    // GradientInterval. The caller passes p = Math.pow( a, n ) and
+    // q = Math.pow( b, n ): the JIT does not merge two calls of Math.pow, and
+    // computing the powers in each method was measured twice as slow.
+    
+    /**
+     * @throws ArithmeticException if n<0 and zero is included in [ a, b ]
+     */
+    static void checkPow( double a, double b, int n ) {
+        if( n<0 && a<=0. && b>=0. ) {
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        }
+    }
+    
+    /**
+     * @return the minimum bound of [ a, b ]^n (0 for an even n when zero is
+     * included in [ a, b ]), from p = a^n and q = b^n
+     */
+    static double powMin( double a, double b, int n, double p, double q ) {
+        if( n==0 )
+            return 1.;
+        if( ((n&1) == 0) && a<=0. && b>=0. )
+            return 0.;
+        return Rounding.powDown( q < p ? q : p );
+    }
+    
+    /**
+     * @return the maximum bound of [ a, b ]^n, from p = a^n and q = b^n
+     */
+    static double powMax( int n, double p, double q ) {
+        if( n==0 )
+            return 1.;
+        return Rounding.powUp( q < p ? p : q );
+    }
+    
+    /**
+     * Minimum of the four values, in the same order as util.Arrays.min.
+     */
+    private static double min( double p0, double p1, double p2, double p3 ) {
+        double min = p0;
+        if( min > p1 ) min = p1;
+        if( min > p2 ) min = p2;
+        if( min > p3 ) min = p3;
+        return min;
+    }
+    
+    /**
+     * Maximum of the four values, in the same order as util.Arrays.max.
+     */
+    private static double max( double p0, double p1, double p2, double p3 ) {
+        double max = p0;
+        if( max < p1 ) max = p1;
+        if( max < p2 ) max = p2;
+        if( max < p3 ) max = p3;
+        return max;
+    }
+    
     // =========================================================================
     // ========== Static methods ===============================================
     // =========================================================================
     
     
     /**
-     * Sets the margin of error on isZero and isOne methods
+     * Sets the margin of error on isZero and isOne methods, for all threads.
+     * The field is not volatile: a change made after other threads have
+     * started is not guaranteed to be visible to them. Set it before starting
+     * them.
+     * 
+     * Prefer isZero( Tolerance ) and isOne( Tolerance ), which do not depend
+     * on this global setting.
      * 
      * @param epsilon tolerance
      */
     public static void setEpsilon( double epsilon ) {
-        if( epsilon>=0.) {
-            Interval.epsilon = epsilon;
-        } else {
-            Interval.epsilon = -epsilon;
-        }
-        Interval.epsilonIsSet = true;
+        final Tolerance tolerance = Tolerance.of( epsilon );
+        Interval.tolerance = tolerance == Tolerance.EXACT ? null : tolerance;
     }
     
+    /**
+     * Resets the margin of error on isZero and isOne methods: exact
+     * comparisons. (Same visibility as setEpsilon)
+     */
     public static void resetEpsilon() {
-        Interval.epsilon = 0.;
-        Interval.epsilonIsSet = false;
+        Interval.tolerance = null;
+    }
+    
+    /**
+     * @return the margin of error on isZero and isOne methods, as seen by
+     * this thread: a change made by another thread after this thread has
+     * started is not guaranteed to be visible
+     */
+    public static Tolerance getTolerance() {
+        final Tolerance tolerance = Interval.tolerance;
+        return tolerance == null ? Tolerance.EXACT : tolerance;
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Mutable interval, for chained computations done in place.
+ *
+ * A loop like acc = acc.add( x.mult( y ) ) creates two Interval objects per
+ * iteration. With an accumulator the same loop, acc.fma( x, y ), creates none:
+ * each operation updates the accumulator's bounds with the same rules as the
+ * corresponding Interval method, and an immutable Interval is only created
+ * when toInterval() is called.
+ *
+ * An accumulator is not thread safe: it is meant to be confined to the thread
+ * that uses it.
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalAccumulator {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Accumulator's minimum and maximum bounds.
+     * The property this.min <= this.max is always true.
+     */
+    private double minBound, maxBound;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor for the [ 0., 0. ] accumulator.
+     */
+    public IntervalAccumulator() {
+        this( 0., 0. );
+    }
+
+    /**
+     * Constructor from an interval.
+     *
+     * @param interval initial value
+     */
+    public IntervalAccumulator( Interval interval ) {
+        this( interval.getMinBound(), interval.getMaxBound() );
+    }
+
+    /**
+     * Main constructor.
+     *
+     * @param minBound one bound of the initial value
+     * @param maxBound the other bound of the initial value
+     */
+    public IntervalAccumulator( double minBound, double maxBound ) {
+        this.set( minBound, maxBound );
+    }
+
+    // =========================================================================
+    // ========== Getters and setters ==========================================
+    // =========================================================================
+
+    /**
+     * @return the accumulator's minimum bound
+     */
+    public double getMinBound() {
+        return minBound;
+    }
+
+    /**
+     * @return the accumulator's maximum bound
+     */
+    public double getMaxBound() {
+        return maxBound;
+    }
+
+    /**
+     * Sets the accumulator's value.
+     *
+     * @param interval new value
+     * @return this
+     */
+    public IntervalAccumulator set( Interval interval ) {
+        this.minBound = interval.getMinBound();
+        this.maxBound = interval.getMaxBound();
+        return this;
+    }
+
+    /**
+     * Sets the accumulator's value. (Bounds are swapped like in Interval's constructor)
+     *
+     * @param minBound one bound of the new value
+     * @param maxBound the other bound of the new value
+     * @return this
+     */
+    public final IntervalAccumulator set( double minBound, double maxBound ) {
+        if( maxBound < minBound ) {
+            this.minBound = maxBound;
+            this.maxBound = minBound;
+        } else {
+            this.minBound = minBound;
+            this.maxBound = maxBound;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the accumulator's value to a computed result. (Bounds are swapped
+     * like in Interval's constructor, then rounded like Interval's arithmetic:
+     * see Rounding)
+     */
+    private IntervalAccumulator setRounded( double minBound, double maxBound ) {
+        if( maxBound < minBound ) {
+            this.minBound = Rounding.down( maxBound );
+            this.maxBound = Rounding.up( minBound );
+        } else {
+            this.minBound = Rounding.down( minBound );
+            this.maxBound = Rounding.up( maxBound );
+        }
+        return this;
+    }
+
+    /**
+     * Resets the accumulator to [ 0., 0. ].
+     *
+     * @return this
+     */
+    public IntervalAccumulator reset() {
+        return this.set( 0., 0. );
+    }
+
+    /**
+     * @return the accumulator's current value
+     */
+    public Interval toInterval() {
+        return new Interval( this.minBound, this.maxBound );
+    }
+
+    // =========================================================================
+    // ========== In place arithmetic ==========================================
+    // =========================================================================
+
+    // ---------- add ----------
+
+    /**
+     * this = this + other
+     *
+     * @param other addition
+     * @return this
+     */
+    public IntervalAccumulator add( Interval other ) {
+        return this.setRounded( this.minBound+other.getMinBound(), this.maxBound+other.getMaxBound() );
+    }
+
+    /**
+     * this = this + d
+     *
+     * @param d addition
+     * @return this
+     */
+    public IntervalAccumulator add( double d ) {
+        return this.setRounded( this.minBound+d, this.maxBound+d );
+    }
+
+    // ---------- subtract ----------
+
+    /**
+     * this = this - other
+     *
+     * @param other subtract
+     * @return this
+     */
+    public IntervalAccumulator subtract( Interval other ) {
+        return this.setRounded( this.minBound-other.getMaxBound(), this.maxBound-other.getMinBound() );
+    }
+
+    /**
+     * this = this - d
+     *
+     * @param d subtract
+     * @return this
+     */
+    public IntervalAccumulator subtract( double d ) {
+        return this.setRounded( this.minBound-d, this.maxBound-d );
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * this = this * other
+     *
+     * @param other multiplier
+     * @return this
+     */
+    public IntervalAccumulator mult( Interval other ) {
+        final double a = this.minBound, b = this.maxBound;
+        final double c = other.getMinBound(), d = other.getMaxBound();
+        return this.setRounded( Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+    }
+
+    /**
+     * this = this * d
+     *
+     * @param d multiplier
+     * @return this
+     */
+    public IntervalAccumulator mult( double d ) {
+        return this.setRounded( this.minBound*d, this.maxBound*d );
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * this = this / other
+     *
+     * @param other division
+     * @return this
+     * @throws ArithmeticException if zero is included in other (this is unchanged)
+     */
+    public IntervalAccumulator divide( Interval other ) {
+        if( other.zeroElementOfThis() )
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        final double a = this.minBound, b = this.maxBound;
+        final double c = other.getMinBound(), d = other.getMaxBound();
+        return this.setRounded( Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
+    }
+
+    /**
+     * this = this / d
+     *
+     * @param d division
+     * @return this
+     * @throws ArithmeticException if d is zero (this is unchanged)
+     */
+    public IntervalAccumulator divide( double d ) {
+        if( d == 0. )
+            throw new ArithmeticException( "Divide by zero exception.");
+        return this.setRounded( this.minBound/d, this.maxBound/d );
+    }
+
+    // ---------- sq, fma ----------
+
+    /**
+     * this = this² (See Interval.sq())
+     *
+     * @return this
+     */
+    public IntervalAccumulator sq() {
+        final double a = this.minBound, b = this.maxBound;
+        if( a<=0. && b>=0. ) {
+            return this.set( 0., Rounding.up( Math.max( a*a, b*b ) ) );
+        } else {
+            return this.setRounded( a*a, b*b );
+        }
+    }
+
+    /**
+     * Fused multiply-add: this = this + x * y
+     * (Same result as this.add( x.mult( y ) ), without creating x.mult( y ))
+     *
+     * @param x multiplicand
+     * @param y multiplier
+     * @return this
+     */
+    public IntervalAccumulator fma( Interval x, Interval y ) {
+        final double a = x.getMinBound(), b = x.getMaxBound();
+        final double c = y.getMinBound(), d = y.getMaxBound();
+        final double productMin = Interval.multMin( a, b, c, d );
+        final double productMax = Interval.multMax( a, b, c, d );
+        // x.mult( y ) would swap its bounds if needed
+        if( productMax < productMin ) {
+            return this.setRounded( this.minBound+Rounding.down( productMax ), this.maxBound+Rounding.up( productMin ) );
+        }
+        return this.setRounded( this.minBound+Rounding.down( productMin ), this.maxBound+Rounding.up( productMax ) );
+    }
+
+    /**
+     * Fused multiply-add: this = this + x * d
+     * (Same result as this.add( x.mult( d ) ), without creating x.mult( d ))
+     *
+     * @param x multiplicand
+     * @param d multiplier
+     * @return this
+     */
+    public IntervalAccumulator fma( Interval x, double d ) {
+        final double productMin = x.getMinBound()*d, productMax = x.getMaxBound()*d;
+        if( productMax < productMin ) {
+            return this.setRounded( this.minBound+Rounding.down( productMax ), this.maxBound+Rounding.up( productMin ) );
+        }
+        return this.setRounded( this.minBound+Rounding.down( productMin ), this.maxBound+Rounding.up( productMax ) );
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the accumulator's value.
+     *
+     * @return the string representation of the accumulator's value.
+     */
+    @Override
+    public String toString() {
+        return "[ " + this.minBound + ", " + this.maxBound + " ]";
+    }
+
+}
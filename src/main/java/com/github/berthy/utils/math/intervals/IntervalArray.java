@@ -0,0 +1,451 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Array of intervals stored as two parallel arrays of primitive bounds.
+ *
+ * An IntervalArray holds n intervals without allocating n Interval objects:
+ * the minimum bounds are stored in one double[] and the maximum bounds in
+ * another. The bulk operations (add, subtract, mult, divide, sq, sqrt, pow)
+ * apply the same rules as the scalar Interval methods, element by element.
+ *
+ * Unlike Interval, an IntervalArray is mutable: the bulk operations either
+ * return a new array or write into a caller supplied result array (which may
+ * be one of the operands).
+ *
+ * add, subtract, mult and divide use SIMD instructions when the
+ * jdk.incubator.vector module is available (see IntervalKernels).
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalArray {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Intervals' minimum and maximum bounds.
+     * The property minBounds[i] <= maxBounds[i] is always true.
+     */
+    private final double[] minBounds, maxBounds;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor for an array of size [ 0., 0. ] intervals.
+     *
+     * @param size number of intervals
+     */
+    public IntervalArray( int size ) {
+        if( size < 0 )
+            throw new IllegalArgumentException( "negative size" );
+        this.minBounds = new double[size];
+        this.maxBounds = new double[size];
+    }
+
+    /**
+     * Constructor from bounds arrays. (The arrays are copied)
+     *
+     * @param minBounds one bound of each interval
+     * @param maxBounds the other bound of each interval
+     */
+    public IntervalArray( double[] minBounds, double[] maxBounds ) {
+        this( checkLength( minBounds.length, maxBounds.length ) );
+        for( int i=0; i<minBounds.length; i++ )
+            this.set( i, minBounds[i], maxBounds[i] );
+    }
+
+    /**
+     * Constructor from intervals.
+     *
+     * @param intervals intervals to copy
+     */
+    public IntervalArray( Interval... intervals ) {
+        this( intervals.length );
+        for( int i=0; i<intervals.length; i++ )
+            this.set( i, intervals[i] );
+    }
+
+    // =========================================================================
+    // ========== Getters and setters ==========================================
+    // =========================================================================
+
+    /**
+     * @return the number of intervals
+     */
+    public int size() {
+        return this.minBounds.length;
+    }
+
+    /**
+     * @param i index
+     * @return the minimum bound of the i-th interval
+     */
+    public double getMinBound( int i ) {
+        return this.minBounds[i];
+    }
+
+    /**
+     * @param i index
+     * @return the maximum bound of the i-th interval
+     */
+    public double getMaxBound( int i ) {
+        return this.maxBounds[i];
+    }
+
+    /**
+     * @param i index
+     * @return the i-th interval
+     */
+    public Interval get( int i ) {
+        return new Interval( this.minBounds[i], this.maxBounds[i] );
+    }
+
+    /**
+     * Sets the i-th interval.
+     *
+     * @param i index
+     * @param interval new value
+     */
+    public void set( int i, Interval interval ) {
+        this.minBounds[i] = interval.getMinBound();
+        this.maxBounds[i] = interval.getMaxBound();
+    }
+
+    /**
+     * Sets the i-th interval. (Bounds are swapped like in Interval's constructor)
+     *
+     * @param i index
+     * @param minBound one bound of the interval
+     * @param maxBound the other bound of the interval
+     */
+    public void set( int i, double minBound, double maxBound ) {
+        if( maxBound < minBound ) {
+            this.minBounds[i] = maxBound;
+            this.maxBounds[i] = minBound;
+        } else {
+            this.minBounds[i] = minBound;
+            this.maxBounds[i] = maxBound;
+        }
+    }
+
+    /**
+     * Sets the i-th interval of rMin, rMax to [ a, b ]². (See Interval.sq())
+     */
+    static void setSq( double a, double b, double[] rMin, double[] rMax, int i ) {
+        if( a<=0. && b>=0. ) {
+            rMin[i] = 0.;
+            rMax[i] = Rounding.up( Math.max( a*a, b*b ) );
+        } else {
+            Rounding.set( rMin, rMax, i, a*a, b*b );
+        }
+    }
+
+    /**
+     * Sets the i-th interval of rMin, rMax to [ a, b ]^n. (See Interval.pow(int))
+     *
+     * @throws ArithmeticException if n<0 and zero is included in [ a, b ]
+     */
+    static void setPow( double a, double b, int n, double[] rMin, double[] rMax, int i ) {
+        Interval.checkPow( a, b, n );
+        final double p = Math.pow( a, n ), q = Math.pow( b, n );
+        rMin[i] = Interval.powMin( a, b, n, p, q );
+        rMax[i] = Interval.powMax( n, p, q );
+    }
+
+    /**
+     * @return the minimum bounds (not copied)
+     */
+    double[] minBounds() {
+        return this.minBounds;
+    }
+
+    /**
+     * @return the maximum bounds (not copied)
+     */
+    double[] maxBounds() {
+        return this.maxBounds;
+    }
+
+    /**
+     * @return a copy of the intervals
+     */
+    public Interval[] toArray() {
+        Interval[] result = new Interval[this.size()];
+        for( int i=0; i<result.length; i++ )
+            result[i] = this.get( i );
+        return result;
+    }
+
+    /**
+     * Read only list view of this array.
+     * The Interval objects are created on demand, when an element is read.
+     *
+     * @return a list view of this array
+     */
+    public List<Interval> asList() {
+        return new IntervalList();
+    }
+
+    // =========================================================================
+    // ========== Bulk arithmetic ==============================================
+    // =========================================================================
+
+    // ---------- add ----------
+
+    /**
+     * Element wise addition.
+     *
+     * @param other addition
+     * @return a new array with this[i] + other[i]
+     */
+    public IntervalArray add( IntervalArray other ) {
+        return this.add( other, new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise addition.
+     *
+     * @param other addition
+     * @param result array receiving this[i] + other[i] (may be this or other)
+     * @return result
+     */
+    public IntervalArray add( IntervalArray other, IntervalArray result ) {
+        checkLength( this.size(), other.size(), result.size() );
+        IntervalKernels.INSTANCE.add( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds, 
+                                      result.minBounds, result.maxBounds, 0, this.size() );
+        return result;
+    }
+
+    // ---------- subtract ----------
+
+    /**
+     * Element wise subtraction.
+     *
+     * @param other subtract
+     * @return a new array with this[i] - other[i]
+     */
+    public IntervalArray subtract( IntervalArray other ) {
+        return this.subtract( other, new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise subtraction.
+     *
+     * @param other subtract
+     * @param result array receiving this[i] - other[i] (may be this or other)
+     * @return result
+     */
+    public IntervalArray subtract( IntervalArray other, IntervalArray result ) {
+        checkLength( this.size(), other.size(), result.size() );
+        IntervalKernels.INSTANCE.subtract( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds, 
+                                           result.minBounds, result.maxBounds, 0, this.size() );
+        return result;
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * Element wise multiplication.
+     *
+     * @param other multiplier
+     * @return a new array with this[i] * other[i]
+     */
+    public IntervalArray mult( IntervalArray other ) {
+        return this.mult( other, new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise multiplication.
+     *
+     * @param other multiplier
+     * @param result array receiving this[i] * other[i] (may be this or other)
+     * @return result
+     */
+    public IntervalArray mult( IntervalArray other, IntervalArray result ) {
+        checkLength( this.size(), other.size(), result.size() );
+        IntervalKernels.INSTANCE.mult( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds, 
+                                       result.minBounds, result.maxBounds, 0, this.size() );
+        return result;
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * Element wise division.
+     *
+     * @param other division
+     * @return a new array with this[i] / other[i]
+     * @throws ArithmeticException if zero is included in one of other's intervals
+     */
+    public IntervalArray divide( IntervalArray other ) {
+        return this.divide( other, new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise division.
+     *
+     * If zero is included in other[i], an ArithmeticException is thrown and
+     * only the first i elements of result have been written.
+     *
+     * @param other division
+     * @param result array receiving this[i] / other[i] (may be this or other)
+     * @return result
+     * @throws ArithmeticException if zero is included in one of other's intervals
+     */
+    public IntervalArray divide( IntervalArray other, IntervalArray result ) {
+        checkLength( this.size(), other.size(), result.size() );
+        IntervalKernels.INSTANCE.divide( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds, 
+                                         result.minBounds, result.maxBounds, 0, this.size() );
+        return result;
+    }
+
+    // ---------- sq, sqrt, pow ----------
+
+    /**
+     * Element wise square function. (See Interval.sq())
+     *
+     * @return a new array with this[i]²
+     */
+    public IntervalArray sq() {
+        return this.sq( new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise square function. (See Interval.sq())
+     *
+     * @param result array receiving this[i]² (may be this)
+     * @return result
+     */
+    public IntervalArray sq( IntervalArray result ) {
+        checkLength( this.size(), result.size() );
+        for( int i=0; i<this.minBounds.length; i++ )
+            setSq( this.minBounds[i], this.maxBounds[i], result.minBounds, result.maxBounds, i );
+        return result;
+    }
+
+    /**
+     * Element wise square root function.
+     *
+     * @return a new array with sqrt(this[i])
+     */
+    public IntervalArray sqrt() {
+        return this.sqrt( new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise square root function.
+     *
+     * @param result array receiving sqrt(this[i]) (may be this)
+     * @return result
+     */
+    public IntervalArray sqrt( IntervalArray result ) {
+        checkLength( this.size(), result.size() );
+        for( int i=0; i<this.minBounds.length; i++ )
+            Rounding.set( result.minBounds, result.maxBounds, i, Math.sqrt( this.minBounds[i] ), Math.sqrt( this.maxBounds[i] ) );
+        return result;
+    }
+
+    /**
+     * Element wise power. (See Interval.pow(int))
+     *
+     * @param n power
+     * @return a new array with this[i]^n
+     * @throws ArithmeticException if n<0 and zero is included in one of the intervals
+     */
+    public IntervalArray pow( int n ) {
+        return this.pow( n, new IntervalArray( this.size() ) );
+    }
+
+    /**
+     * Element wise power. (See Interval.pow(int))
+     *
+     * @param n power
+     * @param result array receiving this[i]^n (may be this)
+     * @return result
+     * @throws ArithmeticException if n<0 and zero is included in one of the intervals
+     */
+    public IntervalArray pow( int n, IntervalArray result ) {
+        checkLength( this.size(), result.size() );
+        for( int i=0; i<this.minBounds.length; i++ )
+            setPow( this.minBounds[i], this.maxBounds[i], n, result.minBounds, result.maxBounds, i );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + java.util.Arrays.hashCode( this.minBounds );
+        hash = 41 * hash + java.util.Arrays.hashCode( this.maxBounds );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final IntervalArray other = (IntervalArray) obj;
+        if (!java.util.Arrays.equals(this.minBounds, other.minBounds)) return false;
+        if (!java.util.Arrays.equals(this.maxBounds, other.maxBounds)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the array.
+     *
+     * @return the array's string representation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "[ " );
+        for( int i=0; i<this.size(); i++ ) {
+            sb.append( "[ " ).append( this.minBounds[i] ).append( ", " ).append( this.maxBounds[i] ).append( " ]" );
+            if( i<this.size()-1 )
+                sb.append( ", " );
+        }
+        sb.append( " ]" );
+
+        return sb.toString();
+    }
+
+    static int checkLength( int length, int... others ) {
+        for( int other : others )
+            if( other != length )
+                throw new IllegalArgumentException( "arrays must have the same length" );
+        return length;
+    }
+
+    /**
+     * List view of the array.
+     */
+    private class IntervalList extends AbstractList<Interval> implements RandomAccess {
+
+        @Override
+        public Interval get( int index ) {
+            return IntervalArray.this.get( index );
+        }
+
+        @Override
+        public int size() {
+            return IntervalArray.this.size();
+        }
+    }
+
+}
@@ -0,0 +1,494 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Box of the n-dimensional space: one interval per dimension, stored as two
+ * arrays of primitive bounds.
+ *
+ * An IntervalBox is immutable, so boxes can share their bounds arrays: the
+ * two halves of a bisection along dimension k differ from the parent box
+ * only at index k, so each half copies one bounds array (the one with the new
+ * bound at k) and shares the other one with the parent.
+ *
+ * @author Bertrand COTE
+ */
+public final class IntervalBox {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Minimum and maximum bounds of each dimension. (Never modified, may be
+     * shared with other boxes)
+     * The property minBounds[i] <= maxBounds[i] is always true.
+     */
+    private final double[] minBounds, maxBounds;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor from intervals.
+     *
+     * @param intervals interval of each dimension
+     */
+    public IntervalBox( Interval... intervals ) {
+        this.minBounds = new double[intervals.length];
+        this.maxBounds = new double[intervals.length];
+        for( int i=0; i<intervals.length; i++ ) {
+            this.minBounds[i] = intervals[i].getMinBound();
+            this.maxBounds[i] = intervals[i].getMaxBound();
+        }
+    }
+
+    /**
+     * Constructor from bounds arrays. (The arrays are copied, and the bounds
+     * are swapped like in Interval's constructor)
+     *
+     * @param minBounds one bound of each dimension
+     * @param maxBounds the other bound of each dimension
+     */
+    public IntervalBox( double[] minBounds, double[] maxBounds ) {
+        if( minBounds.length != maxBounds.length )
+            throw new IllegalArgumentException( "arrays must have the same length" );
+        this.minBounds = new double[minBounds.length];
+        this.maxBounds = new double[minBounds.length];
+        for( int i=0; i<minBounds.length; i++ ) {
+            this.minBounds[i] = Math.min( minBounds[i], maxBounds[i] );
+            this.maxBounds[i] = Math.max( minBounds[i], maxBounds[i] );
+        }
+    }
+
+    /**
+     * Constructor from checked bounds arrays. (The arrays are not copied:
+     * shared only tells this constructor from the public one, see sharing)
+     */
+    private IntervalBox( double[] minBounds, double[] maxBounds, boolean shared ) {
+        this.minBounds = minBounds;
+        this.maxBounds = maxBounds;
+    }
+
+    /**
+     * Box over checked bounds arrays (minBounds[i] <= maxBounds[i]), which
+     * are not copied: they must not be modified afterwards.
+     */
+    private static IntervalBox sharing( double[] minBounds, double[] maxBounds ) {
+        return new IntervalBox( minBounds, maxBounds, true );
+    }
+
+    /**
+     * @param x coordinates
+     * @return the box { [ x[0], x[0] ], [ x[1], x[1] ], ... }
+     */
+    public static IntervalBox point( double... x ) {
+        return new IntervalBox( x, x );
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the number of dimensions
+     */
+    public int dimension() {
+        return this.minBounds.length;
+    }
+
+    /**
+     * @param i dimension
+     * @return the interval of the i-th dimension
+     */
+    public Interval get( int i ) {
+        return new Interval( this.minBounds[i], this.maxBounds[i] );
+    }
+
+    /**
+     * @param i dimension
+     * @return the minimum bound of the i-th dimension
+     */
+    public double getMinBound( int i ) {
+        return this.minBounds[i];
+    }
+
+    /**
+     * @param i dimension
+     * @return the maximum bound of the i-th dimension
+     */
+    public double getMaxBound( int i ) {
+        return this.maxBounds[i];
+    }
+
+    /**
+     * @return the intervals of the dimensions
+     */
+    public Interval[] toArray() {
+        final Interval[] result = new Interval[this.dimension()];
+        for( int i=0; i<result.length; i++ )
+            result[i] = this.get( i );
+        return result;
+    }
+
+    /**
+     * @param i dimension
+     * @return a new box, with the i-th interval replaced by interval
+     */
+    public IntervalBox with( int i, Interval interval ) {
+        return this.with( i, interval.getMinBound(), interval.getMaxBound() );
+    }
+
+    /**
+     * Copies only the bounds arrays which change.
+     */
+    private IntervalBox with( int i, double minBound, double maxBound ) {
+        double[] min = this.minBounds, max = this.maxBounds;
+        if( Double.doubleToLongBits( min[i] ) != Double.doubleToLongBits( minBound ) ) {
+            min = min.clone();
+            min[i] = minBound;
+        }
+        if( Double.doubleToLongBits( max[i] ) != Double.doubleToLongBits( maxBound ) ) {
+            max = max.clone();
+            max[i] = maxBound;
+        }
+        return sharing( min, max );
+    }
+
+    // =========================================================================
+    // ========== width, mid, volume ===========================================
+    // =========================================================================
+
+    /**
+     * @param i dimension
+     * @return the width of the i-th dimension
+     */
+    public double width( int i ) {
+        return this.maxBounds[i] - this.minBounds[i];
+    }
+
+    /**
+     * @return the greatest width of the dimensions (0 for a 0-dimension box)
+     */
+    public double width() {
+        final int widest = this.widestDimension();
+        return widest < 0 ? 0. : this.width( widest );
+    }
+
+    /**
+     * @return the dimension with the greatest width (the first one on ties,
+     * -1 for a 0-dimension box)
+     */
+    public int widestDimension() {
+        int widest = -1;
+        double width = Double.NEGATIVE_INFINITY;
+        for( int i=0; i<this.dimension(); i++ ) {
+            if( this.width( i ) > width ) {
+                widest = i;
+                width = this.width( i );
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * @param i dimension
+     * @return the middle of the i-th dimension
+     */
+    public double mid( int i ) {
+        return (this.minBounds[i]+this.maxBounds[i])/2.;
+    }
+
+    /**
+     * @return the coordinates of the middle of the box
+     */
+    public double[] mid() {
+        final double[] result = new double[this.dimension()];
+        for( int i=0; i<result.length; i++ )
+            result[i] = this.mid( i );
+        return result;
+    }
+
+    /**
+     * @return the middle of the box, as a point box
+     */
+    public IntervalBox midpoint() {
+        final double[] mid = this.mid();
+        return sharing( mid, mid );
+    }
+
+    /**
+     * @return the product of the widths (1 for a 0-dimension box)
+     */
+    public double volume() {
+        double result = 1.;
+        for( int i=0; i<this.dimension(); i++ )
+            result *= this.width( i );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Bisection ====================================================
+    // =========================================================================
+
+    /**
+     * Bisection at the middle of the widest dimension.
+     *
+     * @return { lower half, upper half }
+     * @throws IllegalArgumentException if the box has no dimension
+     */
+    public IntervalBox[] bisect() {
+        final int widest = this.widestDimension();
+        if( widest < 0 )
+            throw new IllegalArgumentException( "no dimension to bisect" );
+        return this.bisect( widest );
+    }
+
+    /**
+     * Bisection at the middle of the i-th dimension: the lower half shares
+     * the minimum bounds array of this box, the upper half shares the maximum
+     * bounds array.
+     *
+     * @param i dimension
+     * @return { lower half, upper half }
+     */
+    public IntervalBox[] bisect( int i ) {
+        return this.bisect( i, this.mid( i ) );
+    }
+
+    /**
+     * Bisection of the i-th dimension at a given point.
+     *
+     * @param i dimension
+     * @param x splitting point (clamped into the i-th interval)
+     * @return { lower half, upper half }
+     */
+    public IntervalBox[] bisect( int i, double x ) {
+        final double split = Math.min( Math.max( x, this.minBounds[i] ), this.maxBounds[i] );
+        final double[] lowerMax = this.maxBounds.clone();
+        lowerMax[i] = split;
+        final double[] upperMin = this.minBounds.clone();
+        upperMin[i] = split;
+        return new IntervalBox[]{ sharing( this.minBounds, lowerMax ),
+                                  sharing( upperMin, this.maxBounds ) };
+    }
+
+    // =========================================================================
+    // ========== Arithmetic ===================================================
+    // =========================================================================
+
+    // ---------- add ----------
+
+    /**
+     * Component-wise addition. (See Interval.add)
+     *
+     * @param other addition
+     * @return this + other
+     */
+    public IntervalBox add( IntervalBox other ) {
+        checkDimension( other );
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ )
+            Rounding.set( rMin, rMax, i, this.minBounds[i]+other.minBounds[i], this.maxBounds[i]+other.maxBounds[i] );
+        return sharing( rMin, rMax );
+    }
+
+    // ---------- subtract ----------
+
+    /**
+     * Component-wise subtraction. (See Interval.subtract)
+     *
+     * @param other subtract
+     * @return this - other
+     */
+    public IntervalBox subtract( IntervalBox other ) {
+        checkDimension( other );
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ )
+            Rounding.set( rMin, rMax, i, this.minBounds[i]-other.maxBounds[i], this.maxBounds[i]-other.minBounds[i] );
+        return sharing( rMin, rMax );
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * Component-wise multiplication. (See Interval.mult)
+     *
+     * @param other multiplier
+     * @return this * other
+     */
+    public IntervalBox mult( IntervalBox other ) {
+        checkDimension( other );
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ ) {
+            final double a = this.minBounds[i], b = this.maxBounds[i], c = other.minBounds[i], d = other.maxBounds[i];
+            Rounding.set( rMin, rMax, i, Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+        }
+        return sharing( rMin, rMax );
+    }
+
+    /**
+     * Multiplication of every dimension by a scalar.
+     *
+     * @param d multiplier
+     * @return this * d
+     */
+    public IntervalBox mult( double d ) {
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ )
+            Rounding.set( rMin, rMax, i, this.minBounds[i]*d, this.maxBounds[i]*d );
+        return sharing( rMin, rMax );
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * Component-wise division. (See Interval.divide)
+     *
+     * @param other division
+     * @return this / other
+     * @throws ArithmeticException if zero is included in one of the intervals of other
+     */
+    public IntervalBox divide( IntervalBox other ) {
+        checkDimension( other );
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ ) {
+            final double a = this.minBounds[i], b = this.maxBounds[i], c = other.minBounds[i], d = other.maxBounds[i];
+            if( c<=0. && d>=0. )
+                throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+            Rounding.set( rMin, rMax, i, Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
+        }
+        return sharing( rMin, rMax );
+    }
+
+    // =========================================================================
+    // ========== Set operations ===============================================
+    // =========================================================================
+
+    /**
+     * @param other
+     * @return true if each interval of this box is a subset of the one of other
+     */
+    public boolean isSubsetOf( IntervalBox other ) {
+        checkDimension( other );
+        for( int i=0; i<this.dimension(); i++ ) {
+            if( !( other.minBounds[i]<=this.minBounds[i] && other.maxBounds[i]>=this.maxBounds[i] ) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param x coordinates of a point
+     * @return true if the point is in the box
+     */
+    public boolean contains( double... x ) {
+        if( x.length != this.dimension() )
+            throw new IllegalArgumentException( "boxes must have the same dimension" );
+        for( int i=0; i<x.length; i++ ) {
+            if( !( this.minBounds[i]<=x[i] && x[i]<=this.maxBounds[i] ) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param other
+     * @return true if the boxes have a common point (Same test as Interval.intersects in each dimension)
+     */
+    public boolean intersects( IntervalBox other ) {
+        checkDimension( other );
+        for( int i=0; i<this.dimension(); i++ ) {
+            if( !( Math.max( this.minBounds[i], other.minBounds[i] ) <= Math.min( this.maxBounds[i], other.maxBounds[i] ) ) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param other
+     * @return this ∩ other, or null if the boxes do not intersect
+     */
+    public IntervalBox intersection( IntervalBox other ) {
+        if( !this.intersects( other ) )
+            return null;
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ ) {
+            rMin[i] = Math.max( this.minBounds[i], other.minBounds[i] );
+            rMax[i] = Math.min( this.maxBounds[i], other.maxBounds[i] );
+        }
+        return sharing( rMin, rMax );
+    }
+
+    /**
+     * @param other
+     * @return the smallest box containing this and other
+     */
+    public IntervalBox hull( IntervalBox other ) {
+        checkDimension( other );
+        final double[] rMin = new double[this.dimension()], rMax = new double[this.dimension()];
+        for( int i=0; i<rMin.length; i++ ) {
+            rMin[i] = Math.min( this.minBounds[i], other.minBounds[i] );
+            rMax[i] = Math.max( this.maxBounds[i], other.maxBounds[i] );
+        }
+        return sharing( rMin, rMax );
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + java.util.Arrays.hashCode( this.minBounds );
+        hash = 41 * hash + java.util.Arrays.hashCode( this.maxBounds );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final IntervalBox other = (IntervalBox) obj;
+        if (!java.util.Arrays.equals(this.minBounds, other.minBounds)) return false;
+        if (!java.util.Arrays.equals(this.maxBounds, other.maxBounds)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the box.
+     *
+     * @return the box's string representation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "[ " );
+        for( int i=0; i<this.dimension(); i++ ) {
+            sb.append( "[ " ).append( this.minBounds[i] ).append( ", " ).append( this.maxBounds[i] ).append( " ]" );
+            if( i<this.dimension()-1 )
+                sb.append( ", " );
+        }
+        sb.append( " ]" );
+
+        return sb.toString();
+    }
+
+    private void checkDimension( IntervalBox other ) {
+        if( other.dimension() != this.dimension() )
+            throw new IllegalArgumentException( "boxes must have the same dimension" );
+    }
+
+    /**
+     * @return true if this box and other share a bounds array (for the tests)
+     */
+    boolean sharesBounds( IntervalBox other ) {
+        return this.minBounds == other.minBounds || this.maxBounds == other.maxBounds;
+    }
+}
@@ -0,0 +1,629 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Binary encoding of Interval, GeneralizedInterval, IntervalArray and
+ * OffHeapIntervalArray.
+ *
+ * Each value is a record: an 8 bytes header, then its intervals.
+ * <pre>
+ *   byte    version    (VERSION)
+ *   byte    type       (INTERVAL, GENERALIZED_INTERVAL or INTERVAL_ARRAY)
+ *   short   reserved   (0)
+ *   int     count      number of intervals
+ *   count × { double minBound, double maxBound }
+ * </pre>
+ * Everything is little endian, whatever the order of the buffers: the
+ * intervals have the layout of OffHeapIntervalArray, and view() decodes them
+ * without copying.
+ *
+ * The static methods read and write one record at the position of a
+ * ByteBuffer (and advance it). Writer and Reader stream many records through
+ * a channel, with an internal buffer.
+ *
+ * Malformed records (unknown version or type, unsorted generalized interval)
+ * throw IllegalArgumentException.
+ *
+ * @author Bertrand COTE
+ */
+public final class IntervalCodec {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * Version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Record types.
+     */
+    public static final int INTERVAL = 1;
+    public static final int GENERALIZED_INTERVAL = 2;
+    public static final int INTERVAL_ARRAY = 3;
+
+    /**
+     * Number of bytes of a record's header.
+     */
+    public static final int HEADER_BYTES = 8;
+
+    private static final int BYTES = OffHeapIntervalArray.BYTES;
+
+    /**
+     * Size of the buffers of Writer and Reader.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private IntervalCodec() {
+    }
+
+    // =========================================================================
+    // ========== Sizes ========================================================
+    // =========================================================================
+
+    /**
+     * @param interval
+     * @return the number of bytes of the encoded interval
+     */
+    public static long encodedSize( Interval interval ) {
+        return HEADER_BYTES + BYTES;
+    }
+
+    /**
+     * @param interval
+     * @return the number of bytes of the encoded generalized interval
+     */
+    public static long encodedSize( GeneralizedInterval interval ) {
+        return HEADER_BYTES + (long)interval.size()*BYTES;
+    }
+
+    /**
+     * @param intervals
+     * @return the number of bytes of the encoded array
+     */
+    public static long encodedSize( IntervalArray intervals ) {
+        return HEADER_BYTES + (long)intervals.size()*BYTES;
+    }
+
+    /**
+     * @param intervals
+     * @return the number of bytes of the encoded array
+     */
+    public static long encodedSize( OffHeapIntervalArray intervals ) {
+        return HEADER_BYTES + intervals.size()*BYTES;
+    }
+
+    // =========================================================================
+    // ========== ByteBuffer encoding ==========================================
+    // =========================================================================
+
+    /**
+     * Writes interval at the position of buffer.
+     *
+     * @param buffer
+     * @param interval
+     * @throws BufferOverflowException if the buffer is too small (nothing is written)
+     */
+    public static void write( ByteBuffer buffer, Interval interval ) {
+        final ByteBuffer out = littleEndian( buffer, encodedSize( interval ) );
+        putHeader( out, INTERVAL, 1 );
+        out.putDouble( interval.getMinBound() ).putDouble( interval.getMaxBound() );
+        buffer.position( out.position() );
+    }
+
+    /**
+     * Writes interval at the position of buffer.
+     *
+     * @param buffer
+     * @param interval
+     * @throws BufferOverflowException if the buffer is too small (nothing is written)
+     */
+    public static void write( ByteBuffer buffer, GeneralizedInterval interval ) {
+        final ByteBuffer out = littleEndian( buffer, encodedSize( interval ) );
+        putHeader( out, GENERALIZED_INTERVAL, interval.size() );
+        out.asDoubleBuffer().put( interval.bounds() );
+        buffer.position( out.position() + interval.size()*BYTES );
+    }
+
+    /**
+     * Writes intervals at the position of buffer.
+     *
+     * @param buffer
+     * @param intervals
+     * @throws BufferOverflowException if the buffer is too small (nothing is written)
+     */
+    public static void write( ByteBuffer buffer, IntervalArray intervals ) {
+        final ByteBuffer out = littleEndian( buffer, encodedSize( intervals ) );
+        putHeader( out, INTERVAL_ARRAY, intervals.size() );
+        for( int i=0; i<intervals.size(); i++ )
+            out.putDouble( intervals.getMinBound( i ) ).putDouble( intervals.getMaxBound( i ) );
+        buffer.position( out.position() );
+    }
+
+    /**
+     * Writes intervals at the position of buffer.
+     *
+     * @param buffer
+     * @param intervals
+     * @throws BufferOverflowException if the buffer is too small (nothing is written)
+     * @throws IllegalArgumentException if there are more than Integer.MAX_VALUE intervals
+     */
+    public static void write( ByteBuffer buffer, OffHeapIntervalArray intervals ) {
+        final ByteBuffer out = littleEndian( buffer, encodedSize( intervals ) );
+        putHeader( out, INTERVAL_ARRAY, count( intervals ) );
+        for( int c=0; c<intervals.chunkCount(); c++ )
+            out.put( intervals.bytes( c ) );
+        buffer.position( out.position() );
+    }
+
+    // =========================================================================
+    // ========== ByteBuffer decoding ==========================================
+    // =========================================================================
+
+    /**
+     * @param buffer
+     * @return the type of the record at the position of buffer (not read)
+     * @throws IllegalArgumentException if the version is not supported
+     */
+    public static int peekType( ByteBuffer buffer ) {
+        if( buffer.remaining() < HEADER_BYTES )
+            throw new BufferUnderflowException();
+        final int version = buffer.get( buffer.position() ) & 0xFF;
+        if( version != VERSION )
+            throw new IllegalArgumentException( "unsupported version: " + version );
+        return buffer.get( buffer.position()+1 ) & 0xFF;
+    }
+
+    /**
+     * Reads an INTERVAL record at the position of buffer.
+     *
+     * @param buffer
+     * @return the interval
+     * @throws BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException if the record is not an INTERVAL
+     */
+    public static Interval readInterval( ByteBuffer buffer ) {
+        final ByteBuffer in = buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+        getHeader( in, INTERVAL );
+        final Interval result = new Interval( in.getDouble(), in.getDouble() );
+        buffer.position( in.position() );
+        return result;
+    }
+
+    /**
+     * Reads a GENERALIZED_INTERVAL record at the position of buffer.
+     *
+     * @param buffer
+     * @return the generalized interval
+     * @throws BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException if the record is not a GENERALIZED_INTERVAL,
+     * or if its intervals are not sorted and disjoint
+     */
+    public static GeneralizedInterval readGeneralizedInterval( ByteBuffer buffer ) {
+        final ByteBuffer in = buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+        final int count = getHeader( in, GENERALIZED_INTERVAL );
+        final double[] bounds = new double[2*count];
+        in.asDoubleBuffer().get( bounds );
+        final GeneralizedInterval result = GeneralizedInterval.ofBounds( bounds );
+        buffer.position( in.position() + count*BYTES );
+        return result;
+    }
+
+    /**
+     * Reads an INTERVAL_ARRAY record at the position of buffer, into the heap.
+     *
+     * @param buffer
+     * @return the intervals
+     * @throws BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException if the record is not an INTERVAL_ARRAY
+     */
+    public static IntervalArray readIntervalArray( ByteBuffer buffer ) {
+        final ByteBuffer in = buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+        final int count = getHeader( in, INTERVAL_ARRAY );
+        final IntervalArray result = new IntervalArray( count );
+        for( int i=0; i<count; i++ )
+            result.set( i, in.getDouble(), in.getDouble() );
+        buffer.position( in.position() );
+        return result;
+    }
+
+    /**
+     * Decodes the record at the position of buffer without copying it: the
+     * result is a view of the intervals of the buffer (read only if the
+     * buffer is). Any record type is accepted.
+     *
+     * @param buffer
+     * @return a view of the record's intervals
+     * @throws BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException if the version or the type is unknown
+     */
+    public static OffHeapIntervalArray view( ByteBuffer buffer ) {
+        final ByteBuffer in = buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+        final int count = getHeader( in, -1 );
+        in.limit( in.position() + count*BYTES );
+        final OffHeapIntervalArray result = OffHeapIntervalArray.wrap( in );
+        buffer.position( in.limit() );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Channel encoding =============================================
+    // =========================================================================
+
+    /**
+     * Writes records into a channel, through a buffer: many small values are
+     * written with few channel writes. (Call flush() or close())
+     */
+    public static final class Writer implements Closeable, Flushable {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * @param channel destination of the records
+         */
+        public Writer( WritableByteChannel channel ) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect( BUFFER_SIZE ).order( ByteOrder.LITTLE_ENDIAN );
+        }
+
+        /**
+         * @param interval
+         * @return this
+         * @throws IOException
+         */
+        public Writer write( Interval interval ) throws IOException {
+            this.reserve( HEADER_BYTES + BYTES );
+            putHeader( this.buffer, INTERVAL, 1 );
+            this.buffer.putDouble( interval.getMinBound() ).putDouble( interval.getMaxBound() );
+            return this;
+        }
+
+        /**
+         * @param interval
+         * @return this
+         * @throws IOException
+         */
+        public Writer write( GeneralizedInterval interval ) throws IOException {
+            this.reserve( HEADER_BYTES );
+            putHeader( this.buffer, GENERALIZED_INTERVAL, interval.size() );
+            final double[] bounds = interval.bounds();
+            for( int from=0; from<bounds.length; ) {
+                this.reserve( Double.BYTES );
+                final int n = Math.min( bounds.length-from, this.buffer.remaining()/Double.BYTES );
+                this.buffer.asDoubleBuffer().put( bounds, from, n );
+                this.buffer.position( this.buffer.position() + n*Double.BYTES );
+                from += n;
+            }
+            return this;
+        }
+
+        /**
+         * @param intervals
+         * @return this
+         * @throws IOException
+         */
+        public Writer write( IntervalArray intervals ) throws IOException {
+            this.reserve( HEADER_BYTES );
+            putHeader( this.buffer, INTERVAL_ARRAY, intervals.size() );
+            for( int i=0; i<intervals.size(); i++ ) {
+                this.reserve( BYTES );
+                this.buffer.putDouble( intervals.getMinBound( i ) ).putDouble( intervals.getMaxBound( i ) );
+            }
+            return this;
+        }
+
+        /**
+         * The intervals are written directly from their buffers into the
+         * channel.
+         *
+         * @param intervals
+         * @return this
+         * @throws IOException
+         * @throws IllegalArgumentException if there are more than Integer.MAX_VALUE intervals
+         */
+        public Writer write( OffHeapIntervalArray intervals ) throws IOException {
+            final int count = count( intervals );
+            this.reserve( HEADER_BYTES );
+            putHeader( this.buffer, INTERVAL_ARRAY, count );
+            this.flush();
+            for( int c=0; c<intervals.chunkCount(); c++ ) {
+                final ByteBuffer bytes = intervals.bytes( c );
+                while( bytes.hasRemaining() )
+                    this.channel.write( bytes );
+            }
+            return this;
+        }
+
+        /**
+         * Writes the buffered records into the channel.
+         *
+         * @throws IOException
+         */
+        @Override
+        public void flush() throws IOException {
+            this.buffer.flip();
+            while( this.buffer.hasRemaining() )
+                this.channel.write( this.buffer );
+            this.buffer.clear();
+        }
+
+        /**
+         * Flushes the buffered records, and closes the channel.
+         *
+         * @throws IOException
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                this.flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+
+        private void reserve( int bytes ) throws IOException {
+            if( this.buffer.remaining() < bytes )
+                this.flush();
+        }
+    }
+
+    // =========================================================================
+    // ========== Channel decoding =============================================
+    // =========================================================================
+
+    /**
+     * Reads records from a channel, through a buffer.
+     *
+     * The count of a record's header is not trusted: the intervals are stored
+     * into arrays grown as they arrive, so a truncated or corrupted record
+     * throws EOFException without allocating its announced size.
+     */
+    public static final class Reader implements Closeable {
+
+        private final ReadableByteChannel channel;
+
+        /**
+         * Read bytes: [ position, limit ) are not decoded yet.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * @param channel source of the records
+         */
+        public Reader( ReadableByteChannel channel ) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect( BUFFER_SIZE ).order( ByteOrder.LITTLE_ENDIAN );
+            this.buffer.limit( 0 );
+        }
+
+        /**
+         * @return true if there is another record, false at the end of the channel
+         * @throws IOException
+         * @throws EOFException if the channel ends inside a header
+         */
+        public boolean hasNext() throws IOException {
+            return this.fill( HEADER_BYTES, false );
+        }
+
+        /**
+         * @return the type of the next record (not read)
+         * @throws IOException
+         * @throws EOFException at the end of the channel
+         */
+        public int nextType() throws IOException {
+            this.fill( HEADER_BYTES, true );
+            return peekType( this.buffer );
+        }
+
+        /**
+         * @return the next record, an INTERVAL
+         * @throws IOException
+         * @throws EOFException if the channel ends before the record
+         * @throws IllegalArgumentException if the record is not an INTERVAL
+         */
+        public Interval readInterval() throws IOException {
+            this.header( INTERVAL );
+            this.fill( BYTES, true );
+            return new Interval( this.buffer.getDouble(), this.buffer.getDouble() );
+        }
+
+        /**
+         * @return the next record, a GENERALIZED_INTERVAL
+         * @throws IOException
+         * @throws EOFException if the channel ends before the record
+         * @throws IllegalArgumentException if the record is not a GENERALIZED_INTERVAL,
+         * or if its intervals are not sorted and disjoint
+         */
+        public GeneralizedInterval readGeneralizedInterval() throws IOException {
+            final int count = this.header( GENERALIZED_INTERVAL );
+            if( count > Integer.MAX_VALUE/2 )
+                throw new IllegalArgumentException( "bad count: " + count );
+            double[] bounds = new double[Math.min( 2*count, BUFFER_SIZE/Double.BYTES )];
+            int from = 0;
+            while( true ) {
+                this.readDoubles( bounds, from, bounds.length-from );
+                if( bounds.length == 2*count )
+                    return GeneralizedInterval.ofBounds( bounds );
+                from = bounds.length;
+                bounds = Arrays.copyOf( bounds, (int)Math.min( 2L*count, 2L*from ) );
+            }
+        }
+
+        /**
+         * @return the next record, an INTERVAL_ARRAY, into the heap
+         * @throws IOException
+         * @throws EOFException if the channel ends before the record
+         * @throws IllegalArgumentException if the record is not an INTERVAL_ARRAY
+         */
+        public IntervalArray readIntervalArray() throws IOException {
+            final int count = this.header( INTERVAL_ARRAY );
+            double[] minBounds = new double[Math.min( count, BUFFER_SIZE/BYTES )];
+            double[] maxBounds = new double[minBounds.length];
+            for( int i=0; i<count; i++ ) {
+                if( i == minBounds.length ) {
+                    minBounds = Arrays.copyOf( minBounds, (int)Math.min( count, 2L*i ) );
+                    maxBounds = Arrays.copyOf( maxBounds, minBounds.length );
+                }
+                this.fill( BYTES, true );
+                minBounds[i] = this.buffer.getDouble();
+                maxBounds[i] = this.buffer.getDouble();
+            }
+            return new IntervalArray( minBounds, maxBounds );
+        }
+
+        /**
+         * Reads the next record (any type) into a new direct array: the bytes
+         * are read directly from the channel into its buffers.
+         *
+         * @return the intervals of the next record
+         * @throws IOException
+         * @throws EOFException if the channel ends before the record
+         * @throws IllegalArgumentException if the version or the type is unknown
+         */
+        public OffHeapIntervalArray readOffHeapIntervalArray() throws IOException {
+            final int count = this.header( -1 );
+            final ByteBuffer[] chunks = new ByteBuffer[(int)( ( (long)count + OffHeapIntervalArray.CHUNK_SIZE - 1 ) / OffHeapIntervalArray.CHUNK_SIZE )];
+            for( int c=0; c<chunks.length; c++ ) {
+                final int length = (int)Math.min( OffHeapIntervalArray.CHUNK_SIZE, count - (long)c*OffHeapIntervalArray.CHUNK_SIZE );
+                chunks[c] = this.readBytes( length*BYTES );
+            }
+            return OffHeapIntervalArray.ofChunks( chunks );
+        }
+
+        /**
+         * Closes the channel.
+         *
+         * @throws IOException
+         */
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+
+        /**
+         * Reads the channel until at least bytes bytes are buffered.
+         *
+         * @return false if the channel ended before any byte (and not required)
+         */
+        private boolean fill( int bytes, boolean required ) throws IOException {
+            if( this.buffer.remaining() >= bytes )
+                return true;
+            this.buffer.compact();
+            try {
+                while( this.buffer.position() < bytes ) {
+                    if( this.channel.read( this.buffer ) < 0 ) {
+                        if( !required && this.buffer.position() == 0 )
+                            return false;
+                        throw new EOFException();
+                    }
+                }
+            } finally {
+                this.buffer.flip();
+            }
+            return true;
+        }
+
+        /**
+         * Reads length bytes into a new direct buffer, doubled as the bytes
+         * arrive. The bytes go directly from the channel into the buffer.
+         *
+         * @return the buffer, flipped
+         */
+        private ByteBuffer readBytes( int length ) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocateDirect( Math.min( length, BUFFER_SIZE ) );
+            while( true ) {
+                // buffered bytes first
+                final int n = Math.min( bytes.remaining(), this.buffer.remaining() );
+                bytes.put( this.buffer.duplicate().limit( this.buffer.position()+n ) );
+                this.buffer.position( this.buffer.position()+n );
+                while( bytes.hasRemaining() ) {
+                    if( this.channel.read( bytes ) < 0 )
+                        throw new EOFException();
+                }
+                if( bytes.capacity() == length )
+                    return bytes.flip();
+                bytes = ByteBuffer.allocateDirect( (int)Math.min( length, 2L*bytes.capacity() ) ).put( bytes.flip() );
+            }
+        }
+
+        private int header( int type ) throws IOException {
+            this.fill( HEADER_BYTES, true );
+            return getHeader( this.buffer, type, false );
+        }
+
+        private void readDoubles( double[] doubles, int from, int length ) throws IOException {
+            final int to = from+length;
+            while( from < to ) {
+                this.fill( Double.BYTES, true );
+                final int n = Math.min( to-from, this.buffer.remaining()/Double.BYTES );
+                this.buffer.asDoubleBuffer().get( doubles, from, n );
+                this.buffer.position( this.buffer.position() + n*Double.BYTES );
+                from += n;
+            }
+        }
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * @return a little endian duplicate of buffer, with at least bytes remaining
+     */
+    private static ByteBuffer littleEndian( ByteBuffer buffer, long bytes ) {
+        if( buffer.remaining() < bytes )
+            throw new BufferOverflowException();
+        return buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+    }
+
+    private static void putHeader( ByteBuffer out, int type, int count ) {
+        out.put( (byte)VERSION ).put( (byte)type ).putShort( (short)0 ).putInt( count );
+    }
+
+    private static int getHeader( ByteBuffer in, int type ) {
+        return getHeader( in, type, true );
+    }
+
+    /**
+     * Reads a header.
+     *
+     * @param in little endian buffer
+     * @param type expected type (-1: any)
+     * @param checkRemaining true to check that the record's intervals are in the buffer
+     * @return the number of intervals
+     */
+    private static int getHeader( ByteBuffer in, int type, boolean checkRemaining ) {
+        final int actualType = peekType( in );
+        if( actualType < INTERVAL || actualType > INTERVAL_ARRAY )
+            throw new IllegalArgumentException( "unknown type: " + actualType );
+        if( type != -1 && actualType != type )
+            throw new IllegalArgumentException( "expected type " + type + ", found " + actualType );
+        in.position( in.position() + 4 );
+        final int count = in.getInt();
+        if( count < 0 || ( actualType == INTERVAL && count != 1 ) )
+            throw new IllegalArgumentException( "bad count: " + count );
+        if( checkRemaining && in.remaining() < (long)count*BYTES )
+            throw new BufferUnderflowException();
+        return count;
+    }
+
+    private static int count( OffHeapIntervalArray intervals ) {
+        if( intervals.size() > Integer.MAX_VALUE )
+            throw new IllegalArgumentException( "too many intervals: " + intervals.size() );
+        return (int)intervals.size();
+    }
+}
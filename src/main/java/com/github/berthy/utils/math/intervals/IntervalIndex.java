@@ -0,0 +1,302 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.util.Arrays;
+
+/**
+ * Static index of intervals, for stabbing queries (which intervals contain x)
+ * and overlap queries (which intervals intersect [a, b]).
+ *
+ * The index is an implicit augmented interval tree in primitive arrays: the
+ * intervals are sorted by minimum bound, and the sorted array is read as a
+ * binary search tree where the node i has the level k = number of trailing 1
+ * bits of i, and the children i - 2^(k-1) and i + 2^(k-1). Each node stores
+ * the greatest maximum bound of its subtree, which prunes the subtrees that
+ * end before the query.
+ *
+ * Queries take O(log(n) + output) time. Each query allocates its traversal
+ * state (a stack of O(log(n)) nodes and a result buffer) besides the result;
+ * containing( double[] ) reuses one state for all its points. The index is
+ * built once, in O(n.log(n)), and is then read only: it can be shared between
+ * threads.
+ *
+ * Intervals are identified by their index in the constructor's argument (id).
+ * Intervals are closed: [1, 2] and [2, 3] intersect.
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalIndex {
+
+    /**
+     * Subtrees up to this level are scanned linearly.
+     */
+    private static final int SCAN_LEVEL = 3;
+
+    private static final int[] NONE = new int[0];
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Minimum and maximum bounds of the intervals, sorted by minimum bound.
+     */
+    private final double[] minBounds, maxBounds;
+
+    /**
+     * ids[i]: id of the i-th interval in minimum bound order.
+     */
+    private final int[] ids;
+
+    /**
+     * maxEnds[i]: greatest maximum bound of the subtree of node i. The tree is
+     * complete: nodes i >= size() are empty (maxEnds[i] is -Inf if the whole
+     * subtree is empty).
+     */
+    private final double[] maxEnds;
+
+    /**
+     * Level of the root node.
+     */
+    private final int rootLevel;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param intervals indexed intervals (the id of intervals[i] is i)
+     */
+    public IntervalIndex( Interval... intervals ) {
+        this( minBounds( intervals ), maxBounds( intervals ) );
+    }
+
+    /**
+     * @param intervals indexed intervals (the id of intervals.get( i ) is i)
+     */
+    public IntervalIndex( IntervalArray intervals ) {
+        this( minBounds( intervals ), maxBounds( intervals ) );
+    }
+
+    /**
+     * Main constructor. The id of [ minBounds[i], maxBounds[i] ] is i.
+     * (The arrays are not modified)
+     *
+     * @param minBounds intervals' minimum bounds
+     * @param maxBounds intervals' maximum bounds
+     * @throws IllegalArgumentException if the arrays' lengths differ, if a
+     * bound is NaN or if maxBounds[i] < minBounds[i]
+     */
+    public IntervalIndex( double[] minBounds, double[] maxBounds ) {
+
+        if( minBounds.length != maxBounds.length )
+            throw new IllegalArgumentException( "arrays must have the same length" );
+
+        final int n = minBounds.length;
+        for( int i=0; i<n; i++ ) {
+            if( !( minBounds[i] <= maxBounds[i] ) )
+                throw new IllegalArgumentException( "invalid interval " + i + ": [ " + minBounds[i] + ", " + maxBounds[i] + " ]" );
+        }
+
+        // sort by minimum bound
+        final int[] order = new int[n];
+        for( int i=0; i<n; i++ )
+            order[i] = i;
+        this.minBounds = minBounds.clone();
+        Arrays.sort( this.minBounds, order );
+
+        this.maxBounds = new double[n];
+        for( int i=0; i<n; i++ )
+            this.maxBounds[i] = maxBounds[order[i]];
+        this.ids = order;
+
+        // complete tree of 2^(rootLevel+1) - 1 >= n nodes
+        int level = 0;
+        while( ( 1 << (level+1) ) - 1 < n ) {
+            level++;
+            if( level == 30 )
+                throw new IllegalArgumentException( "too many intervals: " + n );
+        }
+        this.rootLevel = level;
+        this.maxEnds = new double[(1 << (level+1)) - 1];
+
+        for( int i=0; i<this.maxEnds.length; i+=2 )
+            this.maxEnds[i] = i < n ? this.maxBounds[i] : Double.NEGATIVE_INFINITY;
+        for( int k=1; k<=level; k++ ) {
+            final int half = 1 << (k-1);
+            for( int i=(1 << k)-1; i<this.maxEnds.length; i+=1 << (k+1) ) {
+                double maxEnd = i < n ? this.maxBounds[i] : Double.NEGATIVE_INFINITY;
+                maxEnd = Math.max( maxEnd, this.maxEnds[i-half] );
+                maxEnd = Math.max( maxEnd, this.maxEnds[i+half] );
+                this.maxEnds[i] = maxEnd;
+            }
+        }
+    }
+
+    private static double[] minBounds( Interval[] intervals ) {
+        final double[] result = new double[intervals.length];
+        for( int i=0; i<intervals.length; i++ )
+            result[i] = intervals[i].getMinBound();
+        return result;
+    }
+
+    private static double[] maxBounds( Interval[] intervals ) {
+        final double[] result = new double[intervals.length];
+        for( int i=0; i<intervals.length; i++ )
+            result[i] = intervals[i].getMaxBound();
+        return result;
+    }
+
+    private static double[] minBounds( IntervalArray intervals ) {
+        final double[] result = new double[intervals.size()];
+        for( int i=0; i<result.length; i++ )
+            result[i] = intervals.getMinBound( i );
+        return result;
+    }
+
+    private static double[] maxBounds( IntervalArray intervals ) {
+        final double[] result = new double[intervals.size()];
+        for( int i=0; i<result.length; i++ )
+            result[i] = intervals.getMaxBound( i );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the number of indexed intervals
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    // =========================================================================
+    // ========== Queries ======================================================
+    // =========================================================================
+
+    /**
+     * Stabbing query.
+     *
+     * @param x
+     * @return the ids of the intervals which contain x, in increasing minimum bound order
+     */
+    public int[] containing( double x ) {
+        return this.overlapping( x, x );
+    }
+
+    /**
+     * Stabbing queries for many points.
+     *
+     * @param points
+     * @return result[i]: the ids of the intervals which contain points[i]
+     */
+    public int[][] containing( double[] points ) {
+        final int[][] result = new int[points.length][];
+        final Query query = new Query();
+        for( int i=0; i<points.length; i++ )
+            result[i] = query.run( points[i], points[i] );
+        return result;
+    }
+
+    /**
+     * Overlap query.
+     *
+     * @param interval
+     * @return the ids of the intervals which intersect interval, in increasing minimum bound order
+     */
+    public int[] overlapping( Interval interval ) {
+        return this.overlapping( interval.getMinBound(), interval.getMaxBound() );
+    }
+
+    /**
+     * Overlap query. (Bounds are swapped like in Interval's constructor)
+     *
+     * @param minBound
+     * @param maxBound
+     * @return the ids of the intervals which intersect [ minBound, maxBound ], in increasing minimum bound order
+     */
+    public int[] overlapping( double minBound, double maxBound ) {
+        if( maxBound < minBound )
+            return new Query().run( maxBound, minBound );
+        return new Query().run( minBound, maxBound );
+    }
+
+    /**
+     * Traversal of the tree, with its stack and its result buffer (reused by
+     * the batch queries).
+     */
+    private final class Query {
+
+        private final int[] stackNodes = new int[2*(rootLevel+2)];
+        private final int[] stackLevels = new int[2*(rootLevel+2)];
+        private final boolean[] stackLeftDone = new boolean[2*(rootLevel+2)];
+
+        private int[] result = new int[16];
+        private int size;
+
+        /**
+         * @return the ids of the intervals which intersect [a, b]
+         */
+        int[] run( double a, double b ) {
+
+            final int n = ids.length;
+            this.size = 0;
+            if( n == 0 || !( maxEnds[(1 << rootLevel) - 1] >= a ) )
+                return NONE;
+
+            int top = 0;
+            this.push( top++, (1 << rootLevel) - 1, rootLevel, false );
+
+            while( top > 0 ) {
+
+                top--;
+                final int node = stackNodes[top];
+                final int level = stackLevels[top];
+
+                if( level <= SCAN_LEVEL ) {
+
+                    // linear scan of the subtree [node - 2^level + 1, node + 2^level - 1]
+                    final int from = node >> level << level;
+                    final int to = Math.min( n, from + (1 << (level+1)) - 1 );
+                    for( int i=from; i<to && minBounds[i] <= b; i++ ) {
+                        if( a <= maxBounds[i] )
+                            this.add( i );
+                    }
+
+                } else if( !stackLeftDone[top] ) {
+
+                    // node again, after its left subtree
+                    this.push( top++, node, level, true );
+                    final int left = node - (1 << (level-1));
+                    if( maxEnds[left] >= a )
+                        this.push( top++, left, level-1, false );
+
+                } else if( node < n && minBounds[node] <= b ) {
+
+                    // the node and its right subtree start after minBounds[node]
+                    if( a <= maxBounds[node] )
+                        this.add( node );
+                    final int right = node + (1 << (level-1));
+                    if( maxEnds[right] >= a )
+                        this.push( top++, right, level-1, false );
+                }
+            }
+
+            return java.util.Arrays.copyOf( this.result, this.size );
+        }
+
+        private void push( int top, int node, int level, boolean leftDone ) {
+            stackNodes[top] = node;
+            stackLevels[top] = level;
+            stackLeftDone[top] = leftDone;
+        }
+
+        private void add( int i ) {
+            if( this.size == this.result.length )
+                this.result = java.util.Arrays.copyOf( this.result, 2*this.size );
+            this.result[this.size++] = ids[i];
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Bulk interval arithmetic over primitive bound arrays.
+ *
+ * Each method computes r[i] = x[i] op y[i] for i in [from, to), where the
+ * intervals are given by their minimum and maximum bounds arrays, with the
+ * same rules (and the same results, bit for bit) as the Interval methods.
+ * The result arrays may be the operand arrays.
+ *
+ * The implementation is selected once, when this class is loaded:
+ * VectorIntervalKernels (jdk.incubator.vector) if the module is available
+ * (java --add-modules jdk.incubator.vector) and the CPU has SIMD registers
+ * of at least two doubles, ScalarIntervalKernels otherwise. The vector
+ * implementation can be disabled with -D{@value #VECTORIZE_PROPERTY}=false
+ *
+ * @author Bertrand COTE
+ */
+abstract class IntervalKernels {
+
+    /**
+     * System property to disable the vector implementation.
+     */
+    static final String VECTORIZE_PROPERTY = "com.github.berthy.utils.math.intervals.vectorize";
+
+    /**
+     * The selected implementation.
+     */
+    static final IntervalKernels INSTANCE = select();
+
+    /**
+     * @return the vector implementation if it is available, the scalar one otherwise.
+     */
+    private static IntervalKernels select() {
+        if( Boolean.parseBoolean( System.getProperty( VECTORIZE_PROPERTY, "true" ) ) ) {
+            IntervalKernels vector = vectorKernels();
+            if( vector != null )
+                return vector;
+        }
+        return ScalarIntervalKernels.INSTANCE;
+    }
+
+    /**
+     * @return the vector implementation, or null if it is not available.
+     */
+    static IntervalKernels vectorKernels() {
+        try {
+            // loaded by reflection: jdk.incubator.vector may not be in the module graph
+            Class<?> vectorClass = Class.forName( IntervalKernels.class.getPackage().getName() + ".VectorIntervalKernels" );
+            return (IntervalKernels)vectorClass.getDeclaredConstructor().newInstance();
+        } catch( ReflectiveOperationException | LinkageError | UnsupportedOperationException e ) {
+            return null;
+        }
+    }
+
+    /**
+     * @return a short name of the implementation.
+     */
+    abstract String getName();
+
+    /**
+     * r = x + y
+     */
+    abstract void add( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                       double[] rMin, double[] rMax, int from, int to );
+
+    /**
+     * r = x - y
+     */
+    abstract void subtract( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                            double[] rMin, double[] rMax, int from, int to );
+
+    /**
+     * r = x * y
+     */
+    abstract void mult( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                        double[] rMin, double[] rMax, int from, int to );
+
+    /**
+     * r = x / y
+     *
+     * If zero is included in y[i], an ArithmeticException is thrown and
+     * only the elements before i have been written.
+     */
+    abstract void divide( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                          double[] rMin, double[] rMax, int from, int to );
+
+    @Override
+    public String toString() {
+        return this.getName();
+    }
+}
@@ -0,0 +1,312 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Enclosure of the solutions of an interval linear system A x = b: the
+ * solutions of every point system in A, b are in the computed box.
+ *
+ * The system is preconditioned by C, the inverse of the midpoint matrix of
+ * A, and centered on the approximate solution x̃ = C mid( b ): with
+ * M = C A and z = C ( b - A x̃ ), the correction y = x - x̃ solves M y = z.
+ * If β = ‖ I - M ‖∞ < 1, every correction is in [ -r, r ]^n with
+ * r = ‖ z ‖∞ / ( 1 - β ), and this box is contracted by:
+ * <pre>
+ *   Krawczyk:      Y = ( z + ( I - M ) Y ) ∩ Y
+ *   Gauss-Seidel:  Y_i = ( ( z_i - Σ_{j≠i} M_ij Y_j ) / M_ii ) ∩ Y_i, for i = 1..n
+ * </pre>
+ * until no bound moves by more than the tolerance, or after maxIterations
+ * steps. (Gauss-Seidel uses the new Y_j as soon as they are computed: it
+ * converges in fewer steps, but its sweeps are sequential)
+ *
+ * The midpoint inverse, the preconditioning and the products of the
+ * Krawczyk steps are computed in a ForkJoinPool for large systems (see
+ * IntervalMatrix). The enclosure is rigorous with the outward rounding
+ * enabled (see Rounding).
+ *
+ * An IntervalLinearSolver is immutable: it can solve several systems
+ * concurrently.
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalLinearSolver {
+
+    /**
+     * Contraction of the initial box.
+     */
+    public enum Method { GAUSS_SEIDEL, KRAWCZYK }
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final Method method;
+
+    /**
+     * The iterations stop when no bound moves by more than tolerance.
+     */
+    private final double tolerance;
+
+    /**
+     * Maximum number of contraction steps.
+     */
+    private final int maxIterations;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param method contraction of the initial box
+     * @param tolerance the iterations stop when no bound moves by more than tolerance (>= 0)
+     * @param maxIterations maximum number of contraction steps (>= 0)
+     * @throws IllegalArgumentException if tolerance < 0 or maxIterations < 0
+     */
+    public IntervalLinearSolver( Method method, double tolerance, int maxIterations ) {
+        if( !( tolerance >= 0. ) )
+            throw new IllegalArgumentException( "tolerance must be >= 0: " + tolerance );
+        if( maxIterations < 0 )
+            throw new IllegalArgumentException( "maxIterations must be >= 0: " + maxIterations );
+        this.method = method;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    // =========================================================================
+    // ========== Solve ========================================================
+    // =========================================================================
+
+    /**
+     * Encloses the solutions of a x = b, on the common pool.
+     *
+     * @param a square matrix
+     * @param b right-hand side
+     * @return the enclosure of the solutions, or null if it cannot be
+     *         computed (singular midpoint matrix, or ‖ I - C A ‖∞ >= 1)
+     * @throws IllegalArgumentException if a is not square, or if the sizes differ
+     */
+    public IntervalArray solve( IntervalMatrix a, IntervalArray b ) {
+        return this.solve( a, b, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Encloses the solutions of a x = b.
+     *
+     * @param a square matrix
+     * @param b right-hand side
+     * @param pool pool computing the large products
+     * @return the enclosure of the solutions, or null if it cannot be
+     *         computed (singular midpoint matrix, or ‖ I - C A ‖∞ >= 1)
+     * @throws IllegalArgumentException if a is not square, or if the sizes differ
+     */
+    public IntervalArray solve( IntervalMatrix a, IntervalArray b, ForkJoinPool pool ) {
+        final int n = a.rows();
+        if( a.columns() != n )
+            throw new IllegalArgumentException( "not a square matrix: " + n + "x" + a.columns() );
+        IntervalArray.checkLength( n, b.size() );
+
+        final double[][] c = inverse( a.mid(), pool );
+        if( c == null )
+            return null;
+
+        // x̃ = C mid( b ), z = C ( b - A x̃ ), M = C A
+        final double[] center = new double[n];
+        for( int i=0; i<n; i++ ) {
+            double s = 0.;
+            for( int j=0; j<n; j++ )
+                s += c[i][j] * (b.getMinBound( j )+b.getMaxBound( j ))/2.;
+            center[i] = s;
+        }
+        final IntervalArray z = premult( c, b.subtract( a.parallelMult( new IntervalArray( center, center ), pool ) ) );
+        final IntervalMatrix m = a.parallelPremult( c, pool );
+
+        // initial box [ -r, r ]^n
+        final double beta = normOfIdentityMinus( m );
+        if( !( beta < 1. ) )
+            return null;
+        double zNorm = 0.;
+        for( int i=0; i<n; i++ )
+            zNorm = Math.max( zNorm, Math.max( -z.getMinBound( i ), z.getMaxBound( i ) ) );
+        final double r = Rounding.up( zNorm / Rounding.down( 1.-beta ) );
+        final double[] yMin = new double[n], yMax = new double[n];
+        Arrays.fill( yMin, -r );
+        Arrays.fill( yMax, r );
+
+        final boolean contracted = method == Method.KRAWCZYK
+                ? this.krawczyk( m, z, yMin, yMax, pool )
+                : this.gaussSeidel( m, z, yMin, yMax );
+        if( !contracted )
+            return null;
+
+        final IntervalArray x = new IntervalArray( center, center );
+        return x.add( new IntervalArray( yMin, yMax ), x );
+    }
+
+    /**
+     * Krawczyk steps on y.
+     *
+     * @return false if the box is empty
+     */
+    private boolean krawczyk( IntervalMatrix m, IntervalArray z, double[] yMin, double[] yMax, ForkJoinPool pool ) {
+        final IntervalMatrix r = IntervalMatrix.identity( m.rows() ).subtract( m );
+        for( int iteration=0; iteration<maxIterations; iteration++ ) {
+            final IntervalArray k = z.add( r.parallelMult( new IntervalArray( yMin, yMax ), pool ) );
+            double moved = 0.;
+            for( int i=0; i<yMin.length; i++ ) {
+                final double min = Math.max( yMin[i], k.getMinBound( i ) );
+                final double max = Math.min( yMax[i], k.getMaxBound( i ) );
+                if( min > max )
+                    return false;
+                moved = Math.max( moved, Math.max( min-yMin[i], yMax[i]-max ) );
+                yMin[i] = min;
+                yMax[i] = max;
+            }
+            if( moved <= tolerance )
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Gauss-Seidel sweeps on y. (A row whose diagonal element contains zero
+     * does not contract its variable)
+     *
+     * @return false if the box is empty
+     */
+    private boolean gaussSeidel( IntervalMatrix m, IntervalArray z, double[] yMin, double[] yMax ) {
+        final int n = m.rows();
+        final double[] mMin = m.minBounds(), mMax = m.maxBounds();
+        for( int iteration=0; iteration<maxIterations; iteration++ ) {
+            double moved = 0.;
+            for( int i=0; i<n; i++ ) {
+                final int row = i*n;
+                final double dMin = mMin[row+i], dMax = mMax[row+i];
+                if( dMin <= 0. && dMax >= 0. )
+                    continue;
+                double sMin = z.getMinBound( i ), sMax = z.getMaxBound( i );
+                for( int j=0; j<n; j++ ) {
+                    if( j == i )
+                        continue;
+                    sMin = Rounding.down( sMin - Rounding.up( Interval.multMax( mMin[row+j], mMax[row+j], yMin[j], yMax[j] ) ) );
+                    sMax = Rounding.up( sMax - Rounding.down( Interval.multMin( mMin[row+j], mMax[row+j], yMin[j], yMax[j] ) ) );
+                }
+                final double min = Math.max( yMin[i], Rounding.down( Interval.divideMin( sMin, sMax, dMin, dMax ) ) );
+                final double max = Math.min( yMax[i], Rounding.up( Interval.divideMax( sMin, sMax, dMin, dMax ) ) );
+                if( min > max )
+                    return false;
+                moved = Math.max( moved, Math.max( min-yMin[i], yMax[i]-max ) );
+                yMin[i] = min;
+                yMax[i] = max;
+            }
+            if( moved <= tolerance )
+                break;
+        }
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Point matrices ===============================================
+    // =========================================================================
+
+    /**
+     * Gauss-Jordan inversion with partial pivoting. (The eliminations of a
+     * pivot are computed in pool for large matrices)
+     *
+     * @return the inverse of a, or null if a pivot is zero or not finite
+     */
+    static double[][] inverse( double[][] a, ForkJoinPool pool ) {
+        final int n = a.length;
+        final double[][] rows = new double[n][2*n];
+        for( int i=0; i<n; i++ ) {
+            System.arraycopy( a[i], 0, rows[i], 0, n );
+            rows[i][n+i] = 1.;
+        }
+        for( int k=0; k<n; k++ ) {
+            int p = k;
+            for( int i=k+1; i<n; i++ )
+                if( Math.abs( rows[i][k] ) > Math.abs( rows[p][k] ) )
+                    p = i;
+            final double pivot = rows[p][k];
+            if( pivot == 0. || !Double.isFinite( pivot ) )
+                return null;
+            final double[] pivotRow = rows[p];
+            rows[p] = rows[k];
+            rows[k] = pivotRow;
+            for( int j=k; j<2*n; j++ )
+                pivotRow[j] /= pivot;
+
+            final int column = k;
+            IntervalMatrix.run( pool, n, 2*n-k, ( from, to ) -> {
+                for( int i=from; i<to; i++ ) {
+                    final double[] row = rows[i];
+                    final double f = row[column];
+                    if( i == column || f == 0. )
+                        continue;
+                    for( int j=column; j<2*n; j++ )
+                        row[j] -= f*pivotRow[j];
+                }
+            } );
+        }
+        final double[][] inverse = new double[n][];
+        for( int i=0; i<n; i++ )
+            inverse[i] = Arrays.copyOfRange( rows[i], n, 2*n );
+        return inverse;
+    }
+
+    /**
+     * @return c × x
+     */
+    private static IntervalArray premult( double[][] c, IntervalArray x ) {
+        final IntervalArray result = new IntervalArray( c.length );
+        for( int i=0; i<c.length; i++ ) {
+            double sMin = 0., sMax = 0.;
+            for( int j=0; j<x.size(); j++ ) {
+                final double v = c[i][j];
+                final double low = v >= 0. ? x.getMinBound( j ) : x.getMaxBound( j );
+                final double high = v >= 0. ? x.getMaxBound( j ) : x.getMinBound( j );
+                sMin = Rounding.down( sMin + Rounding.down( v*low ) );
+                sMax = Rounding.up( sMax + Rounding.up( v*high ) );
+            }
+            result.set( i, sMin, sMax );
+        }
+        return result;
+    }
+
+    /**
+     * @return an upper bound of ‖ I - m ‖∞ (maximum over the rows of the sum
+     *         of the magnitudes)
+     */
+    private static double normOfIdentityMinus( IntervalMatrix m ) {
+        final int n = m.rows();
+        final double[] mMin = m.minBounds(), mMax = m.maxBounds();
+        double norm = 0.;
+        for( int i=0; i<n; i++ ) {
+            double sum = 0.;
+            for( int j=0; j<n; j++ ) {
+                final double delta = i == j ? 1. : 0.;
+                final double magnitude = Rounding.up( Math.max( Math.abs( delta-mMin[i*n+j] ),
+                                                                Math.abs( delta-mMax[i*n+j] ) ) );
+                sum = Rounding.up( sum + magnitude );
+            }
+            norm = Math.max( norm, sum );
+        }
+        return norm;
+    }
+}
@@ -0,0 +1,621 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dense matrix of intervals stored as two row-major arrays of primitive
+ * bounds. (Like IntervalArray: no Interval object per element)
+ *
+ * The products (interval matrix × interval vector, interval matrix ×
+ * interval matrix, point matrix × interval matrix) are computed by blocks of
+ * BLOCK_SIZE rows and columns, so that the blocks of the operands stay in
+ * the cache. The parallel versions split the rows of the result among the
+ * tasks of a ForkJoinPool: every element is summed in the same order as in
+ * the sequential version, and the results are identical.
+ *
+ * An IntervalMatrix is mutable: the elements can be set, the operations
+ * return new matrices.
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalMatrix {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * Number of rows and columns of the blocks of the products.
+     */
+    static final int BLOCK_SIZE = 64;
+
+    /**
+     * Number of multiply-adds below which a product is computed by a single
+     * task.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final int rows, columns;
+
+    /**
+     * Elements' minimum and maximum bounds, row by row: element ( i, j ) is
+     * at index i*columns + j.
+     * The property minBounds[k] <= maxBounds[k] is always true.
+     */
+    private final double[] minBounds, maxBounds;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor for a matrix of [ 0., 0. ] intervals.
+     *
+     * @param rows number of rows
+     * @param columns number of columns
+     * @throws ArithmeticException if rows*columns overflows an int
+     */
+    public IntervalMatrix( int rows, int columns ) {
+        if( rows < 0 || columns < 0 )
+            throw new IllegalArgumentException( "negative size: " + rows + "x" + columns );
+        this.rows = rows;
+        this.columns = columns;
+        this.minBounds = new double[Math.multiplyExact( rows, columns )];
+        this.maxBounds = new double[this.minBounds.length];
+    }
+
+    /**
+     * Constructor from row-major bounds arrays. (The arrays are copied)
+     *
+     * @param rows number of rows
+     * @param columns number of columns
+     * @param minBounds one bound of each element
+     * @param maxBounds the other bound of each element
+     * @throws IllegalArgumentException if the arrays' length is not rows*columns
+     */
+    public IntervalMatrix( int rows, int columns, double[] minBounds, double[] maxBounds ) {
+        this( rows, columns );
+        IntervalArray.checkLength( this.minBounds.length, minBounds.length, maxBounds.length );
+        for( int k=0; k<minBounds.length; k++ )
+            this.set( k, minBounds[k], maxBounds[k] );
+    }
+
+    /**
+     * Constructor from intervals.
+     *
+     * @param intervals rows of intervals (with the same length)
+     * @throws IllegalArgumentException if the rows do not have the same length
+     */
+    public IntervalMatrix( Interval[][] intervals ) {
+        this( intervals.length, intervals.length == 0 ? 0 : intervals[0].length );
+        for( int i=0; i<rows; i++ ) {
+            IntervalArray.checkLength( columns, intervals[i].length );
+            for( int j=0; j<columns; j++ )
+                this.set( i, j, intervals[i][j] );
+        }
+    }
+
+    /**
+     * Constructor of a point matrix: element ( i, j ) is [ values[i][j], values[i][j] ].
+     *
+     * @param values rows of values (with the same length)
+     * @throws IllegalArgumentException if the rows do not have the same length
+     */
+    public IntervalMatrix( double[][] values ) {
+        this( values.length, values.length == 0 ? 0 : values[0].length );
+        for( int i=0; i<rows; i++ ) {
+            IntervalArray.checkLength( columns, values[i].length );
+            for( int j=0; j<columns; j++ )
+                this.set( i, j, values[i][j], values[i][j] );
+        }
+    }
+
+    /**
+     * @param n size
+     * @return the n×n identity matrix
+     */
+    public static IntervalMatrix identity( int n ) {
+        IntervalMatrix result = new IntervalMatrix( n, n );
+        for( int i=0; i<n; i++ )
+            result.set( i, i, 1., 1. );
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Getters and setters ==========================================
+    // =========================================================================
+
+    /**
+     * @return the number of rows
+     */
+    public int rows() {
+        return this.rows;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int columns() {
+        return this.columns;
+    }
+
+    /**
+     * @param i row
+     * @param j column
+     * @return the minimum bound of element ( i, j )
+     */
+    public double getMinBound( int i, int j ) {
+        return this.minBounds[this.index( i, j )];
+    }
+
+    /**
+     * @param i row
+     * @param j column
+     * @return the maximum bound of element ( i, j )
+     */
+    public double getMaxBound( int i, int j ) {
+        return this.maxBounds[this.index( i, j )];
+    }
+
+    /**
+     * @param i row
+     * @param j column
+     * @return element ( i, j )
+     */
+    public Interval get( int i, int j ) {
+        final int k = this.index( i, j );
+        return new Interval( this.minBounds[k], this.maxBounds[k] );
+    }
+
+    /**
+     * Sets element ( i, j ).
+     *
+     * @param i row
+     * @param j column
+     * @param interval new value
+     */
+    public void set( int i, int j, Interval interval ) {
+        final int k = this.index( i, j );
+        this.minBounds[k] = interval.getMinBound();
+        this.maxBounds[k] = interval.getMaxBound();
+    }
+
+    /**
+     * Sets element ( i, j ). (Bounds are swapped like in Interval's constructor)
+     *
+     * @param i row
+     * @param j column
+     * @param minBound one bound of the interval
+     * @param maxBound the other bound of the interval
+     */
+    public void set( int i, int j, double minBound, double maxBound ) {
+        this.set( this.index( i, j ), minBound, maxBound );
+    }
+
+    private void set( int k, double minBound, double maxBound ) {
+        if( maxBound < minBound ) {
+            this.minBounds[k] = maxBound;
+            this.maxBounds[k] = minBound;
+        } else {
+            this.minBounds[k] = minBound;
+            this.maxBounds[k] = maxBound;
+        }
+    }
+
+    private int index( int i, int j ) {
+        if( i < 0 || i >= rows || j < 0 || j >= columns )
+            throw new IndexOutOfBoundsException( "( " + i + ", " + j + " ) in a " + rows + "x" + columns + " matrix" );
+        return i*columns + j;
+    }
+
+    /**
+     * @return the minimum bounds, row by row (not copied)
+     */
+    double[] minBounds() {
+        return this.minBounds;
+    }
+
+    /**
+     * @return the maximum bounds, row by row (not copied)
+     */
+    double[] maxBounds() {
+        return this.maxBounds;
+    }
+
+    /**
+     * @return the midpoint matrix (see Interval.mid())
+     */
+    public double[][] mid() {
+        double[][] result = new double[rows][columns];
+        for( int i=0; i<rows; i++ )
+            for( int j=0; j<columns; j++ )
+                result[i][j] = (this.minBounds[i*columns+j]+this.maxBounds[i*columns+j])/2.;
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Element wise arithmetic ======================================
+    // =========================================================================
+
+    /**
+     * @param other matrix of the same size
+     * @return a new matrix with this[i][j] + other[i][j]
+     */
+    public IntervalMatrix add( IntervalMatrix other ) {
+        this.checkSameSize( other );
+        IntervalMatrix result = new IntervalMatrix( rows, columns );
+        IntervalKernels.INSTANCE.add( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds,
+                                      result.minBounds, result.maxBounds, 0, this.minBounds.length );
+        return result;
+    }
+
+    /**
+     * @param other matrix of the same size
+     * @return a new matrix with this[i][j] - other[i][j]
+     */
+    public IntervalMatrix subtract( IntervalMatrix other ) {
+        this.checkSameSize( other );
+        IntervalMatrix result = new IntervalMatrix( rows, columns );
+        IntervalKernels.INSTANCE.subtract( this.minBounds, this.maxBounds, other.minBounds, other.maxBounds,
+                                           result.minBounds, result.maxBounds, 0, this.minBounds.length );
+        return result;
+    }
+
+    private void checkSameSize( IntervalMatrix other ) {
+        if( other.rows != this.rows || other.columns != this.columns )
+            throw new IllegalArgumentException( "matrices must have the same size: " + rows + "x" + columns
+                                                + " and " + other.rows + "x" + other.columns );
+    }
+
+    // =========================================================================
+    // ========== Products =====================================================
+    // =========================================================================
+
+    // ---------- matrix × vector ----------
+
+    /**
+     * @param x vector of size columns()
+     * @return this × x (a vector of size rows())
+     */
+    public IntervalArray mult( IntervalArray x ) {
+        return this.mult( x, null );
+    }
+
+    /**
+     * this × x, computed in the common ForkJoinPool for large matrices.
+     * (Same result as mult)
+     *
+     * @param x vector of size columns()
+     * @return this × x
+     */
+    public IntervalArray parallelMult( IntervalArray x ) {
+        return this.parallelMult( x, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * this × x, computed in pool for large matrices. (Same result as mult)
+     *
+     * @param x vector of size columns()
+     * @param pool
+     * @return this × x
+     */
+    public IntervalArray parallelMult( IntervalArray x, ForkJoinPool pool ) {
+        return this.mult( x, pool );
+    }
+
+    private IntervalArray mult( IntervalArray x, ForkJoinPool pool ) {
+        if( x.size() != columns )
+            throw new IllegalArgumentException( "vector size " + x.size() + " for a " + rows + "x" + columns + " matrix" );
+        final IntervalArray result = new IntervalArray( rows );
+        final double[] xMin = x.minBounds(), xMax = x.maxBounds();
+        final double[] rMin = result.minBounds(), rMax = result.maxBounds();
+        run( pool, rows, columns, ( from, to ) -> this.multVector( xMin, xMax, rMin, rMax, from, to ) );
+        return result;
+    }
+
+    /**
+     * Rows [ from, to ) of this × x. The columns are read by blocks of
+     * BLOCK_SIZE² elements of x.
+     */
+    private void multVector( double[] xMin, double[] xMax, double[] rMin, double[] rMax, int from, int to ) {
+        final int block = BLOCK_SIZE*BLOCK_SIZE;
+        for( int jj=0; jj<columns; jj+=block ) {
+            final int jEnd = Math.min( jj+block, columns );
+            for( int i=from; i<to; i++ ) {
+                double sMin = rMin[i], sMax = rMax[i];
+                for( int j=jj, k=i*columns+jj; j<jEnd; j++, k++ ) {
+                    final double a = minBounds[k], b = maxBounds[k];
+                    sMin = Rounding.down( sMin + Rounding.down( Interval.multMin( a, b, xMin[j], xMax[j] ) ) );
+                    sMax = Rounding.up( sMax + Rounding.up( Interval.multMax( a, b, xMin[j], xMax[j] ) ) );
+                }
+                rMin[i] = sMin;
+                rMax[i] = sMax;
+            }
+        }
+    }
+
+    // ---------- matrix × matrix ----------
+
+    /**
+     * @param other matrix with columns() rows
+     * @return this × other
+     */
+    public IntervalMatrix mult( IntervalMatrix other ) {
+        return this.mult( other, null );
+    }
+
+    /**
+     * this × other, computed in the common ForkJoinPool for large matrices.
+     * (Same result as mult)
+     *
+     * @param other matrix with columns() rows
+     * @return this × other
+     */
+    public IntervalMatrix parallelMult( IntervalMatrix other ) {
+        return this.parallelMult( other, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * this × other, computed in pool for large matrices. (Same result as mult)
+     *
+     * @param other matrix with columns() rows
+     * @param pool
+     * @return this × other
+     */
+    public IntervalMatrix parallelMult( IntervalMatrix other, ForkJoinPool pool ) {
+        return this.mult( other, pool );
+    }
+
+    private IntervalMatrix mult( IntervalMatrix other, ForkJoinPool pool ) {
+        if( other.rows != columns )
+            throw new IllegalArgumentException( "cannot multiply a " + rows + "x" + columns
+                                                + " matrix by a " + other.rows + "x" + other.columns + " matrix" );
+        final IntervalMatrix result = new IntervalMatrix( rows, other.columns );
+        run( pool, rows, (long)columns*other.columns, ( from, to ) -> this.multMatrix( other, result, from, to ) );
+        return result;
+    }
+
+    /**
+     * Rows [ from, to ) of this × other, by blocks. (The sum of each element
+     * is computed in the order of k, like a naive product)
+     */
+    private void multMatrix( IntervalMatrix other, IntervalMatrix result, int from, int to ) {
+        final int n = columns, p = other.columns;
+        final double[] bMin = other.minBounds, bMax = other.maxBounds;
+        final double[] rMin = result.minBounds, rMax = result.maxBounds;
+        for( int ii=from; ii<to; ii+=BLOCK_SIZE ) {
+            final int iEnd = Math.min( ii+BLOCK_SIZE, to );
+            for( int kk=0; kk<n; kk+=BLOCK_SIZE ) {
+                final int kEnd = Math.min( kk+BLOCK_SIZE, n );
+                for( int jj=0; jj<p; jj+=BLOCK_SIZE ) {
+                    final int jEnd = Math.min( jj+BLOCK_SIZE, p );
+                    for( int i=ii; i<iEnd; i++ ) {
+                        for( int k=kk; k<kEnd; k++ ) {
+                            final double a = minBounds[i*n+k], b = maxBounds[i*n+k];
+                            multRow( a, b, bMin, bMax, k*p, rMin, rMax, i*p, jj, jEnd );
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * r[rRow+j] += [ a, b ] × y[yRow+j], for j in [ from, to ). (The sign of
+     * [ a, b ] is tested once for the whole row)
+     */
+    private static void multRow( double a, double b, double[] yMin, double[] yMax, int yRow,
+                                 double[] rMin, double[] rMax, int rRow, int from, int to ) {
+        if( a >= 0. ) {
+            for( int j=from; j<to; j++ ) {
+                final double c = yMin[yRow+j], d = yMax[yRow+j];
+                rMin[rRow+j] = Rounding.down( rMin[rRow+j] + Rounding.down( Math.min( a*c, b*c ) ) );
+                rMax[rRow+j] = Rounding.up( rMax[rRow+j] + Rounding.up( Math.max( a*d, b*d ) ) );
+            }
+        } else if( b <= 0. ) {
+            for( int j=from; j<to; j++ ) {
+                final double c = yMin[yRow+j], d = yMax[yRow+j];
+                rMin[rRow+j] = Rounding.down( rMin[rRow+j] + Rounding.down( Math.min( a*d, b*d ) ) );
+                rMax[rRow+j] = Rounding.up( rMax[rRow+j] + Rounding.up( Math.max( a*c, b*c ) ) );
+            }
+        } else {
+            for( int j=from; j<to; j++ ) {
+                final double c = yMin[yRow+j], d = yMax[yRow+j];
+                rMin[rRow+j] = Rounding.down( rMin[rRow+j] + Rounding.down( Interval.multMin( a, b, c, d ) ) );
+                rMax[rRow+j] = Rounding.up( rMax[rRow+j] + Rounding.up( Interval.multMax( a, b, c, d ) ) );
+            }
+        }
+    }
+
+    // ---------- point matrix × matrix ----------
+
+    /**
+     * Product by a point matrix on the left. (Cheaper than new
+     * IntervalMatrix( point ).mult( this ), with the same result)
+     *
+     * @param point matrix with rows() columns
+     * @return point × this
+     */
+    public IntervalMatrix premult( double[][] point ) {
+        return this.premult( point, null );
+    }
+
+    /**
+     * point × this, computed in the common ForkJoinPool for large matrices.
+     * (Same result as premult)
+     *
+     * @param point matrix with rows() columns
+     * @return point × this
+     */
+    public IntervalMatrix parallelPremult( double[][] point ) {
+        return this.parallelPremult( point, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * point × this, computed in pool for large matrices. (Same result as
+     * premult)
+     *
+     * @param point matrix with rows() columns
+     * @param pool
+     * @return point × this
+     */
+    public IntervalMatrix parallelPremult( double[][] point, ForkJoinPool pool ) {
+        return this.premult( point, pool );
+    }
+
+    private IntervalMatrix premult( double[][] point, ForkJoinPool pool ) {
+        for( double[] row : point )
+            if( row.length != rows )
+                throw new IllegalArgumentException( "cannot multiply a " + point.length + "x" + row.length
+                                                    + " matrix by a " + rows + "x" + columns + " matrix" );
+        final IntervalMatrix result = new IntervalMatrix( point.length, columns );
+        run( pool, point.length, (long)rows*columns, ( from, to ) -> this.premultRows( point, result, from, to ) );
+        return result;
+    }
+
+    /**
+     * Rows [ from, to ) of point × this, by blocks.
+     */
+    private void premultRows( double[][] point, IntervalMatrix result, int from, int to ) {
+        final int n = rows, p = columns;
+        final double[] rMin = result.minBounds, rMax = result.maxBounds;
+        for( int ii=from; ii<to; ii+=BLOCK_SIZE ) {
+            final int iEnd = Math.min( ii+BLOCK_SIZE, to );
+            for( int kk=0; kk<n; kk+=BLOCK_SIZE ) {
+                final int kEnd = Math.min( kk+BLOCK_SIZE, n );
+                for( int jj=0; jj<p; jj+=BLOCK_SIZE ) {
+                    final int jEnd = Math.min( jj+BLOCK_SIZE, p );
+                    for( int i=ii; i<iEnd; i++ ) {
+                        final int rRow = i*p;
+                        for( int k=kk; k<kEnd; k++ ) {
+                            final double c = point[i][k];
+                            final int yRow = k*p;
+                            // c × [ min, max ] = [ c×min, c×max ] if c >= 0, [ c×max, c×min ] else
+                            final double[] low = c >= 0. ? minBounds : maxBounds;
+                            final double[] high = c >= 0. ? maxBounds : minBounds;
+                            for( int j=jj; j<jEnd; j++ ) {
+                                rMin[rRow+j] = Rounding.down( rMin[rRow+j] + Rounding.down( c*low[yRow+j] ) );
+                                rMax[rRow+j] = Rounding.up( rMax[rRow+j] + Rounding.up( c*high[yRow+j] ) );
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------- parallel rows ----------
+
+    /**
+     * Computation of the rows [ from, to ) of a result.
+     */
+    @FunctionalInterface
+    interface Rows {
+        void compute( int from, int to );
+    }
+
+    /**
+     * Computes the rows [ 0, count ) sequentially if pool is null or if the
+     * work is small, else in pool.
+     *
+     * @param rowWork number of multiply-adds of a row
+     */
+    static void run( ForkJoinPool pool, int count, long rowWork, Rows rows ) {
+        if( pool == null || count*rowWork <= PARALLEL_THRESHOLD )
+            rows.compute( 0, count );
+        else
+            pool.invoke( new RowsTask( rows, 0, count, rowWork ) );
+    }
+
+    /**
+     * Splits the rows in two halves until a chunk has less than
+     * PARALLEL_THRESHOLD multiply-adds (or one block of rows).
+     */
+    private static final class RowsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Rows rows;
+        private final int from, to;
+        private final long rowWork;
+
+        RowsTask( Rows rows, int from, int to, long rowWork ) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.rowWork = rowWork;
+        }
+
+        @Override
+        protected void compute() {
+            if( to-from <= BLOCK_SIZE || (to-from)*rowWork <= PARALLEL_THRESHOLD ) {
+                rows.compute( from, to );
+                return;
+            }
+            final int middle = from + ((to-from)/2 + BLOCK_SIZE-1)/BLOCK_SIZE*BLOCK_SIZE;
+            invokeAll( new RowsTask( rows, from, middle, rowWork ), new RowsTask( rows, middle, to, rowWork ) );
+        }
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + this.rows;
+        hash = 41 * hash + java.util.Arrays.hashCode( this.minBounds );
+        hash = 41 * hash + java.util.Arrays.hashCode( this.maxBounds );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final IntervalMatrix other = (IntervalMatrix) obj;
+        if (this.rows != other.rows) return false;
+        if (this.columns != other.columns) return false;
+        if (!java.util.Arrays.equals(this.minBounds, other.minBounds)) return false;
+        if (!java.util.Arrays.equals(this.maxBounds, other.maxBounds)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the matrix, one row per line.
+     *
+     * @return the matrix's string representation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "[ " );
+        for( int i=0; i<rows; i++ ) {
+            sb.append( "[ " );
+            for( int j=0; j<columns; j++ ) {
+                final int k = i*columns + j;
+                sb.append( "[ " ).append( this.minBounds[k] ).append( ", " ).append( this.maxBounds[k] ).append( " ]" );
+                if( j<columns-1 )
+                    sb.append( ", " );
+            }
+            sb.append( " ]" );
+            if( i<rows-1 )
+                sb.append( ",\n  " );
+        }
+        sb.append( " ]" );
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,406 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Arrays;
+
+/**
+ * Polynomial with real coefficients, evaluated over intervals.
+ * <pre>
+ *   p( x ) = c0 + c1·x + c2·x² + ... + cn·x^n
+ * </pre>
+ * horner evaluates p with the interval Horner scheme: n products and n
+ * additions on primitive bounds, without intermediate Interval objects.
+ * Like every natural extension, it overestimates the range when x appears
+ * several times (the dependency problem).
+ *
+ * range computes a tight enclosure of the range: p is monotone where p'
+ * does not contain zero, and its range there is between the values at the
+ * ends. The domain is split in halves until p'( piece ) does not contain
+ * zero (one more Horner evaluation per piece: the value at the left end is
+ * shared with the previous piece). On a piece where p'' does not contain
+ * zero, p' has one root at most: interval Newton steps on p' narrow it to
+ * [ lo, hi ], p is monotone on both sides, and [ lo, hi ] is enclosed by the
+ * mean value form p( c ) + p'( [ lo, hi ] )·( [ lo, hi ] - c ), whose
+ * overestimation is quadratic in the width. (The Newton steps are rounded
+ * outward whatever the rounding mode: an empty [ lo, hi ] proves that p' has
+ * no root) Pieces where p'' contains zero are split until they are
+ * width( x )·2^-MAX_DEPTH wide, or cannot be split in floating point, then
+ * enclosed by the mean value form. When p' has no root in x, range costs
+ * three Horner evaluations.
+ *
+ * Both have a batch version over an IntervalArray, which does not allocate
+ * per element. The bounds are rounded like the Interval operations (see
+ * Rounding).
+ *
+ * An IntervalPolynomial is immutable.
+ *
+ * @author Bertrand COTE
+ */
+public final class IntervalPolynomial {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * Maximum number of halvings of the domain by range.
+     */
+    static final int MAX_DEPTH = 16;
+
+    /**
+     * Maximum number of interval Newton steps on a root of p'.
+     */
+    static final int NEWTON_STEPS = 8;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Coefficients, from c0 to cn. (cn != 0, unless p is the zero polynomial)
+     */
+    private final double[] coefficients;
+
+    /**
+     * Coefficients of p' and p''.
+     */
+    private final double[] derivative, secondDerivative;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor from the coefficients, from c0 to cn. (The array is copied,
+     * trailing zeros are removed)
+     *
+     * @param coefficients c0, c1, ..., cn
+     * @throws IllegalArgumentException if a coefficient is not finite
+     */
+    public IntervalPolynomial( double... coefficients ) {
+        int length = coefficients.length;
+        while( length > 1 && coefficients[length-1] == 0. )
+            length--;
+        this.coefficients = length == 0 ? new double[1] : Arrays.copyOf( coefficients, length );
+        for( double c : this.coefficients )
+            if( !Double.isFinite( c ) )
+                throw new IllegalArgumentException( "not finite coefficient: " + c );
+        this.derivative = new double[Math.max( 1, this.coefficients.length-1 )];
+        for( int i=1; i<this.coefficients.length; i++ )
+            this.derivative[i-1] = i*this.coefficients[i];
+        this.secondDerivative = new double[Math.max( 1, this.derivative.length-1 )];
+        for( int i=1; i<this.derivative.length; i++ )
+            this.secondDerivative[i-1] = i*this.derivative[i];
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the degree (0 for the constant and zero polynomials)
+     */
+    public int degree() {
+        return this.coefficients.length-1;
+    }
+
+    /**
+     * @param i power of x
+     * @return ci (0 if i > degree())
+     */
+    public double getCoefficient( int i ) {
+        return i < this.coefficients.length ? this.coefficients[i] : 0.;
+    }
+
+    /**
+     * @return p'
+     */
+    public IntervalPolynomial derivative() {
+        return new IntervalPolynomial( this.derivative );
+    }
+
+    // =========================================================================
+    // ========== Evaluation ===================================================
+    // =========================================================================
+
+    /**
+     * @param x
+     * @return p( x ), with the Horner scheme (rounded to nearest)
+     */
+    public double value( double x ) {
+        double s = this.coefficients[this.coefficients.length-1];
+        for( int k=this.coefficients.length-2; k>=0; k-- )
+            s = s*x + this.coefficients[k];
+        return s;
+    }
+
+    // ---------- horner ----------
+
+    /**
+     * @param x
+     * @return the interval Horner evaluation of p over x
+     */
+    public Interval horner( Interval x ) {
+        final double[] r = new double[2];
+        setHorner( this.coefficients, x.getMinBound(), x.getMaxBound(), r, 0 );
+        return new Interval( r[0], r[1] );
+    }
+
+    /**
+     * @param x
+     * @return a new array with the Horner evaluations of p over x[i]
+     */
+    public IntervalArray horner( IntervalArray x ) {
+        return this.horner( x, new IntervalArray( x.size() ) );
+    }
+
+    /**
+     * Horner evaluations of p over x[i]. (result may be x)
+     *
+     * @param x
+     * @param result array of the same size as x
+     * @return result
+     */
+    public IntervalArray horner( IntervalArray x, IntervalArray result ) {
+        IntervalArray.checkLength( x.size(), result.size() );
+        final double[] xMin = x.minBounds(), xMax = x.maxBounds();
+        final double[] rMin = result.minBounds(), rMax = result.maxBounds();
+        final double[] r = new double[2];
+        for( int i=0; i<xMin.length; i++ ) {
+            setHorner( this.coefficients, xMin[i], xMax[i], r, 0 );
+            rMin[i] = r[0];
+            rMax[i] = r[1];
+        }
+        return result;
+    }
+
+    /**
+     * Sets r[i], r[i+1] to the interval Horner evaluation of the polynomial c
+     * over [ a, b ].
+     */
+    static void setHorner( double[] c, double a, double b, double[] r, int i ) {
+        double sMin = c[c.length-1], sMax = sMin;
+        for( int k=c.length-2; k>=0; k-- ) {
+            final double pMin = Rounding.down( Interval.multMin( sMin, sMax, a, b ) );
+            final double pMax = Rounding.up( Interval.multMax( sMin, sMax, a, b ) );
+            sMin = Rounding.down( pMin + c[k] );
+            sMax = Rounding.up( pMax + c[k] );
+        }
+        r[i] = sMin;
+        r[i+1] = sMax;
+    }
+
+    /**
+     * Sets r[i], r[i+1] to the Horner evaluation of the polynomial c at x,
+     * with every bound moved one ulp outward whatever the rounding mode. (The
+     * interval Newton steps of range deduce that p' has no root from an
+     * empty intersection: this must not depend on a rounding to nearest)
+     */
+    static void setHornerOutward( double[] c, double x, double[] r, int i ) {
+        double sMin = c[c.length-1], sMax = sMin;
+        for( int k=c.length-2; k>=0; k-- ) {
+            final double pMin = Math.nextDown( Interval.multMin( sMin, sMax, x, x ) );
+            final double pMax = Math.nextUp( Interval.multMax( sMin, sMax, x, x ) );
+            sMin = Math.nextDown( pMin + c[k] );
+            sMax = Math.nextUp( pMax + c[k] );
+        }
+        r[i] = sMin;
+        r[i+1] = sMax;
+    }
+
+    // ---------- range ----------
+
+    /**
+     * @param x
+     * @return an enclosure of the range of p over x, by monotonicity
+     *         splitting (the Horner evaluation if x is unbounded)
+     */
+    public Interval range( Interval x ) {
+        final double[] r = new double[12];
+        this.setRange( x.getMinBound(), x.getMaxBound(), r );
+        return new Interval( r[0], r[1] );
+    }
+
+    /**
+     * @param x
+     * @return a new array with the enclosures of the ranges of p over x[i]
+     */
+    public IntervalArray range( IntervalArray x ) {
+        return this.range( x, new IntervalArray( x.size() ) );
+    }
+
+    /**
+     * Enclosures of the ranges of p over x[i]. (result may be x)
+     *
+     * @param x
+     * @param result array of the same size as x
+     * @return result
+     */
+    public IntervalArray range( IntervalArray x, IntervalArray result ) {
+        IntervalArray.checkLength( x.size(), result.size() );
+        final double[] xMin = x.minBounds(), xMax = x.maxBounds();
+        final double[] rMin = result.minBounds(), rMax = result.maxBounds();
+        final double[] r = new double[12];
+        for( int i=0; i<xMin.length; i++ ) {
+            this.setRange( xMin[i], xMax[i], r );
+            rMin[i] = r[0];
+            rMax[i] = r[1];
+        }
+        return result;
+    }
+
+    /**
+     * Sets r[0], r[1] to the range of p over [ a, b ]. (r[2..11] are used as
+     * scratch)
+     *
+     * The pieces are the dyadic subintervals of [ a, b ], visited from left
+     * to right without a stack: piece ( index, depth ) is
+     * [ point( index, depth ), point( index+1, depth ) ].
+     */
+    private void setRange( double a, double b, double[] r ) {
+        final double width = b - a;
+        if( this.coefficients.length <= 2 || a == b || !Double.isFinite( width ) ) {
+            // constant or linear (Horner is exact), point, or unbounded
+            setHorner( this.coefficients, a, b, r, 0 );
+            return;
+        }
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        long index = 0;
+        int depth = 0;
+        // r[4], r[5]: p( l ), shared with the previous piece (or the parent)
+        setHorner( this.coefficients, a, a, r, 4 );
+        while( true ) {
+            final double l = point( a, b, width, index, depth ), u = point( a, b, width, index+1, depth );
+            setHorner( this.derivative, l, u, r, 2 );
+            if( !( r[2] > 0. || r[3] < 0. ) ) {
+                setHorner( this.secondDerivative, l, u, r, 8 );
+                if( r[8] > 0. || r[9] < 0. ) {
+                    // p' is monotone: its root (if any) is in [ lo, hi ], and p is
+                    // monotone on [ l, lo ] and [ hi, u ]
+                    double lo = l, hi = u;
+                    for( int k=0; k<NEWTON_STEPS && lo <= hi; k++ ) {
+                        final double c = (lo+hi)/2., previous = hi-lo;
+                        setHornerOutward( this.derivative, c, r, 10 );
+                        lo = Math.max( lo, Math.nextDown( c - Math.nextUp( Interval.divideMax( r[10], r[11], r[8], r[9] ) ) ) );
+                        hi = Math.min( hi, Math.nextUp( c - Math.nextDown( Interval.divideMin( r[10], r[11], r[8], r[9] ) ) ) );
+                        if( !( hi-lo < previous/2. ) )
+                            break;
+                    }
+                    if( lo <= hi ) {
+                        setHorner( this.coefficients, lo, lo, r, 6 );
+                        min = Math.min( min, r[6] );
+                        max = Math.max( max, r[7] );
+                        setHorner( this.coefficients, hi, hi, r, 6 );
+                        min = Math.min( min, r[6] );
+                        max = Math.max( max, r[7] );
+                        setHorner( this.derivative, lo, hi, r, 2 );
+                        this.meanValue( lo, hi, r );
+                        min = Math.min( min, r[6] );
+                        max = Math.max( max, r[7] );
+                    }
+                } else if( depth == MAX_DEPTH || !isSplittable( l, point( a, b, width, 2*index+1, depth+1 ), u ) ) {
+                    this.meanValue( l, u, r );
+                    min = Math.min( min, r[6] );
+                    max = Math.max( max, r[7] );
+                } else {
+                    // split
+                    index *= 2;
+                    depth++;
+                    continue;
+                }
+            }
+            // the values at the ends
+            setHorner( this.coefficients, u, u, r, 6 );
+            min = Math.min( min, Math.min( r[4], r[6] ) );
+            max = Math.max( max, Math.max( r[5], r[7] ) );
+            r[4] = r[6];
+            r[5] = r[7];
+            // next piece: right sibling, or right sibling of the first left ancestor
+            index++;
+            while( (index & 1) == 0 && depth > 0 ) {
+                index >>= 1;
+                depth--;
+            }
+            if( depth == 0 )
+                break;
+        }
+        r[0] = min;
+        r[1] = max;
+    }
+
+    /**
+     * @return true if the middle m of a piece is strictly inside [ l, u ]
+     */
+    private static boolean isSplittable( double l, double m, double u ) {
+        return l < m && m < u;
+    }
+
+    /**
+     * Sets r[6], r[7] to the mean value form of p over [ l, u ], around the
+     * middle c: p( c ) + p'( [ l, u ] )·( [ l, u ] - c ). (p'( [ l, u ] ) is
+     * read in r[2], r[3])
+     */
+    private void meanValue( double l, double u, double[] r ) {
+        final double c = (l+u)/2.;
+        setHorner( this.coefficients, c, c, r, 6 );
+        final double dMin = Rounding.down( l-c ), dMax = Rounding.up( u-c );
+        r[6] = Rounding.down( r[6] + Rounding.down( Interval.multMin( r[2], r[3], dMin, dMax ) ) );
+        r[7] = Rounding.up( r[7] + Rounding.up( Interval.multMax( r[2], r[3], dMin, dMax ) ) );
+    }
+
+    /**
+     * @return a + ( b - a )·index / 2^depth (exactly a and b at the ends)
+     */
+    private static double point( double a, double b, double width, long index, int depth ) {
+        if( index == 0 )
+            return a;
+        if( index == 1L << depth )
+            return b;
+        return Math.min( b, a + width*Math.scalb( (double)index, -depth ) );
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + Arrays.hashCode( this.coefficients );
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final IntervalPolynomial other = (IntervalPolynomial) obj;
+        if (!Arrays.equals(this.coefficients, other.coefficients)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the polynomial, like "1.0 + -2.0·x + 3.0·x^2".
+     *
+     * @return the polynomial's string representation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( this.coefficients[0] );
+        for( int i=1; i<this.coefficients.length; i++ ) {
+            if( this.coefficients[i] == 0. )
+                continue;
+            sb.append( " + " ).append( this.coefficients[i] ).append( "·x" );
+            if( i > 1 )
+                sb.append( '^' ).append( i );
+        }
+
+        return sb.toString();
+    }
+}
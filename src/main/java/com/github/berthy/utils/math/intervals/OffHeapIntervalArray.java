@@ -0,0 +1,712 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Array of intervals stored outside of the Java heap, in direct or memory
+ * mapped buffers.
+ *
+ * Layout: 16 bytes per interval, the minimum bound then the maximum bound,
+ * as little endian doubles. A mapped file with this layout can be opened
+ * without reading it, and shared between processes.
+ *
+ * A ByteBuffer holds at most 2 GiB, so the intervals are split in chunks of
+ * CHUNK_SIZE intervals (1 GiB): an array can hold more than 2^31 intervals,
+ * and the indexes are longs.
+ *
+ * Like IntervalArray, the bulk operations apply the same rules as the scalar
+ * Interval methods, element by element, and write into a caller supplied
+ * result array (which may be one of the operands) or into a new direct array.
+ * An OffHeapIntervalArray is not thread safe.
+ *
+ * @author Bertrand COTE
+ */
+public final class OffHeapIntervalArray {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * Number of bytes of one interval.
+     */
+    public static final int BYTES = 2*Double.BYTES;
+
+    /**
+     * log2 of the number of intervals per chunk.
+     */
+    static final int CHUNK_SHIFT = 26;
+
+    /**
+     * Number of intervals per chunk (1 GiB).
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * Number of intervals copied to the heap at a time by mult and divide.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Number of intervals.
+     */
+    private final long size;
+
+    /**
+     * Chunks of bytes, and their double views: { min0, max0, min1, max1, ... }
+     * The property min(i) <= max(i) is true if the buffers are only written
+     * through this class.
+     */
+    private final ByteBuffer[] buffers;
+    private final DoubleBuffer[] chunks;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param buffers chunks: CHUNK_SIZE intervals each, except the last one
+     */
+    private OffHeapIntervalArray( ByteBuffer[] buffers ) {
+        this.buffers = buffers;
+        this.chunks = new DoubleBuffer[buffers.length];
+        long count = 0;
+        for( int c=0; c<buffers.length; c++ ) {
+            this.chunks[c] = buffers[c].order( ByteOrder.LITTLE_ENDIAN ).asDoubleBuffer();
+            count += this.chunks[c].capacity()/2;
+        }
+        this.size = count;
+    }
+
+    /**
+     * Allocates an array of size [ 0., 0. ] intervals, in direct buffers.
+     *
+     * @param size number of intervals
+     * @return the new array
+     */
+    public static OffHeapIntervalArray allocate( long size ) {
+        final ByteBuffer[] buffers = new ByteBuffer[chunkCount( size )];
+        for( int c=0; c<buffers.length; c++ )
+            buffers[c] = ByteBuffer.allocateDirect( chunkLength( size, c )*BYTES );
+        return new OffHeapIntervalArray( buffers );
+    }
+
+    /**
+     * Maps a file of intervals, read only.
+     *
+     * @param path file of 16 bytes intervals
+     * @return the mapped array
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file's size is not a multiple of 16 bytes
+     */
+    public static OffHeapIntervalArray map( Path path ) throws IOException {
+        try( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+            final long bytes = channel.size();
+            if( bytes % BYTES != 0 )
+                throw new IllegalArgumentException( "file size is not a multiple of " + BYTES + ": " + bytes );
+            return map( channel, FileChannel.MapMode.READ_ONLY, bytes / BYTES );
+        }
+    }
+
+    /**
+     * Maps a file of intervals, read and write: the changes are written to the
+     * file (see force()) and seen by the other processes which map it. The
+     * file is created or extended if needed.
+     *
+     * @param path file of 16 bytes intervals
+     * @param size number of intervals
+     * @return the mapped array
+     * @throws IOException if the file cannot be mapped
+     */
+    public static OffHeapIntervalArray map( Path path, long size ) throws IOException {
+        try( FileChannel channel = FileChannel.open( path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE ) ) {
+            return map( channel, FileChannel.MapMode.READ_WRITE, size );
+        }
+    }
+
+    private static OffHeapIntervalArray map( FileChannel channel, FileChannel.MapMode mode, long size ) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[chunkCount( size )];
+        for( int c=0; c<buffers.length; c++ )
+            buffers[c] = channel.map( mode, ((long)c << CHUNK_SHIFT)*BYTES, (long)chunkLength( size, c )*BYTES );
+        return new OffHeapIntervalArray( buffers );
+    }
+
+    /**
+     * View of the bytes between the position and the limit of buffer (not
+     * copied). The buffer's position and limit are not modified.
+     *
+     * @param buffer 16 bytes intervals
+     * @return the view
+     * @throws IllegalArgumentException if the remaining bytes are not a multiple of 16
+     */
+    static OffHeapIntervalArray wrap( ByteBuffer buffer ) {
+        final int bytes = buffer.remaining();
+        if( bytes % BYTES != 0 )
+            throw new IllegalArgumentException( "remaining bytes are not a multiple of " + BYTES + ": " + bytes );
+        final long size = bytes / BYTES;
+        final ByteBuffer[] buffers = new ByteBuffer[chunkCount( size )];
+        for( int c=0; c<buffers.length; c++ ) {
+            final int from = buffer.position() + (c << CHUNK_SHIFT)*BYTES;
+            buffers[c] = buffer.duplicate().position( from ).limit( from + chunkLength( size, c )*BYTES ).slice();
+        }
+        return new OffHeapIntervalArray( buffers );
+    }
+
+    /**
+     * Array over the given chunks (not copied).
+     *
+     * @param chunks CHUNK_SIZE intervals each, except the last one: 16 bytes
+     * intervals between position and limit
+     * @return the array
+     */
+    static OffHeapIntervalArray ofChunks( ByteBuffer... chunks ) {
+        for( int c=0; c<chunks.length; c++ ) {
+            final long expected = c < chunks.length-1 ? (long)CHUNK_SIZE*BYTES : chunks[c].remaining();
+            if( chunks[c].remaining() != expected || expected % BYTES != 0 )
+                throw new IllegalArgumentException( "bad chunk " + c + ": " + chunks[c].remaining() + " bytes" );
+        }
+        final ByteBuffer[] buffers = new ByteBuffer[chunks.length];
+        for( int c=0; c<chunks.length; c++ )
+            buffers[c] = chunks[c].slice();
+        return new OffHeapIntervalArray( buffers );
+    }
+
+    /**
+     * @param intervals
+     * @return a direct copy of intervals
+     */
+    public static OffHeapIntervalArray copyOf( IntervalArray intervals ) {
+        final OffHeapIntervalArray result = allocate( intervals.size() );
+        for( int i=0; i<intervals.size(); i++ )
+            result.set( i, intervals.getMinBound( i ), intervals.getMaxBound( i ) );
+        return result;
+    }
+
+    private static int chunkCount( long size ) {
+        if( size < 0 )
+            throw new IllegalArgumentException( "negative size" );
+        return Math.toIntExact( ( size + CHUNK_SIZE - 1 ) >>> CHUNK_SHIFT );
+    }
+
+    private static int chunkLength( long size, int c ) {
+        return (int)Math.min( CHUNK_SIZE, size - ((long)c << CHUNK_SHIFT) );
+    }
+
+    // =========================================================================
+    // ========== Getters and setters ==========================================
+    // =========================================================================
+
+    /**
+     * @return the number of intervals
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * @param i index
+     * @return the minimum bound of the i-th interval
+     */
+    public double getMinBound( long i ) {
+        return this.chunks[chunk( i )].get( 2*offset( i ) );
+    }
+
+    /**
+     * @param i index
+     * @return the maximum bound of the i-th interval
+     */
+    public double getMaxBound( long i ) {
+        return this.chunks[chunk( i )].get( 2*offset( i )+1 );
+    }
+
+    /**
+     * @param i index
+     * @return the i-th interval
+     */
+    public Interval get( long i ) {
+        final DoubleBuffer chunk = this.chunks[chunk( i )];
+        final int j = 2*offset( i );
+        return new Interval( chunk.get( j ), chunk.get( j+1 ) );
+    }
+
+    /**
+     * Sets the i-th interval.
+     *
+     * @param i index
+     * @param interval new value
+     */
+    public void set( long i, Interval interval ) {
+        final DoubleBuffer chunk = this.chunks[chunk( i )];
+        final int j = 2*offset( i );
+        chunk.put( j, interval.getMinBound() );
+        chunk.put( j+1, interval.getMaxBound() );
+    }
+
+    /**
+     * Sets the i-th interval. (Bounds are swapped like in Interval's constructor)
+     *
+     * @param i index
+     * @param minBound one bound of the interval
+     * @param maxBound the other bound of the interval
+     */
+    public void set( long i, double minBound, double maxBound ) {
+        final DoubleBuffer chunk = this.chunks[chunk( i )];
+        final int j = 2*offset( i );
+        if( maxBound < minBound ) {
+            chunk.put( j, maxBound );
+            chunk.put( j+1, minBound );
+        } else {
+            chunk.put( j, minBound );
+            chunk.put( j+1, maxBound );
+        }
+    }
+
+    /**
+     * @return a heap copy of the intervals (bulk read by blocks, without
+     * Interval objects)
+     * @throws ArithmeticException if there are more than Integer.MAX_VALUE intervals
+     */
+    public IntervalArray toIntervalArray() {
+        final IntervalArray result = new IntervalArray( Math.toIntExact( this.size ) );
+        final double[] minBounds = result.minBounds(), maxBounds = result.maxBounds();
+        final double[] buffer = new double[2*BLOCK_SIZE];
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer chunk = this.chunks[c];
+            final int length = chunk.capacity()/2, start = c << CHUNK_SHIFT;
+            for( int from=0; from<length; from+=BLOCK_SIZE ) {
+                final int n = Math.min( BLOCK_SIZE, length-from );
+                chunk.get( 2*from, buffer, 0, 2*n );
+                for( int i=0, k=start+from; i<n; i++, k++ ) {
+                    minBounds[k] = buffer[2*i];
+                    maxBounds[k] = buffer[2*i+1];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the intervals cannot be modified (file mapped read only)
+     */
+    public boolean isReadOnly() {
+        return this.buffers.length > 0 && this.buffers[0].isReadOnly();
+    }
+
+    /**
+     * Writes the changes of a mapped array to the file. (Does nothing for a
+     * direct array)
+     */
+    public void force() {
+        for( ByteBuffer buffer : this.buffers ) {
+            if( buffer instanceof MappedByteBuffer && !buffer.isReadOnly() )
+                ((MappedByteBuffer)buffer).force();
+        }
+    }
+
+    /**
+     * @param c chunk index
+     * @return the bytes of the c-th chunk (not copied), little endian
+     */
+    ByteBuffer bytes( int c ) {
+        return this.buffers[c].duplicate().order( ByteOrder.LITTLE_ENDIAN );
+    }
+
+    /**
+     * @return the number of chunks
+     */
+    int chunkCount() {
+        return this.buffers.length;
+    }
+
+    private static int chunk( long i ) {
+        return (int)( i >>> CHUNK_SHIFT );
+    }
+
+    private static int offset( long i ) {
+        return (int)i & (CHUNK_SIZE-1);
+    }
+
+    // =========================================================================
+    // ========== Bulk arithmetic ==============================================
+    // =========================================================================
+
+    // ---------- add ----------
+
+    /**
+     * Element wise addition. (See Interval.add)
+     *
+     * @param other addition
+     * @return a new direct array with this[i] + other[i]
+     */
+    public OffHeapIntervalArray add( OffHeapIntervalArray other ) {
+        return this.add( other, allocate( this.size ) );
+    }
+
+    /**
+     * Element wise addition. (See Interval.add)
+     *
+     * @param other addition
+     * @param result array receiving this[i] + other[i] (may be this or other)
+     * @return result
+     */
+    public OffHeapIntervalArray add( OffHeapIntervalArray other, OffHeapIntervalArray result ) {
+        checkSize( other, result );
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], y = other.chunks[c], r = result.chunks[c];
+            for( int j=0; j<x.capacity(); j+=2 )
+                put( r, j, x.get( j )+y.get( j ), x.get( j+1 )+y.get( j+1 ) );
+        }
+        return result;
+    }
+
+    // ---------- subtract ----------
+
+    /**
+     * Element wise subtraction. (See Interval.subtract)
+     *
+     * @param other subtract
+     * @return a new direct array with this[i] - other[i]
+     */
+    public OffHeapIntervalArray subtract( OffHeapIntervalArray other ) {
+        return this.subtract( other, allocate( this.size ) );
+    }
+
+    /**
+     * Element wise subtraction. (See Interval.subtract)
+     *
+     * @param other subtract
+     * @param result array receiving this[i] - other[i] (may be this or other)
+     * @return result
+     */
+    public OffHeapIntervalArray subtract( OffHeapIntervalArray other, OffHeapIntervalArray result ) {
+        checkSize( other, result );
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], y = other.chunks[c], r = result.chunks[c];
+            for( int j=0; j<x.capacity(); j+=2 )
+                put( r, j, x.get( j )-y.get( j+1 ), x.get( j+1 )-y.get( j ) );
+        }
+        return result;
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * Element wise multiplication. (See Interval.mult)
+     *
+     * @param other multiplier
+     * @return a new direct array with this[i] * other[i]
+     */
+    public OffHeapIntervalArray mult( OffHeapIntervalArray other ) {
+        return this.mult( other, allocate( this.size ) );
+    }
+
+    /**
+     * Element wise multiplication. (See Interval.mult)
+     *
+     * @param other multiplier
+     * @param result array receiving this[i] * other[i] (may be this or other)
+     * @return result
+     */
+    public OffHeapIntervalArray mult( OffHeapIntervalArray other, OffHeapIntervalArray result ) {
+        return this.apply( Operator.MULT, other, result );
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * Element wise division. (See Interval.divide)
+     *
+     * @param other division
+     * @return a new direct array with this[i] / other[i]
+     * @throws ArithmeticException if zero is included in one of the intervals of other
+     */
+    public OffHeapIntervalArray divide( OffHeapIntervalArray other ) {
+        return this.divide( other, allocate( this.size ) );
+    }
+
+    /**
+     * Element wise division. (See Interval.divide)
+     *
+     * @param other division
+     * @param result array receiving this[i] / other[i] (may be this or other)
+     * @return result
+     * @throws ArithmeticException if zero is included in one of the intervals
+     * of other (result is then partially written)
+     */
+    public OffHeapIntervalArray divide( OffHeapIntervalArray other, OffHeapIntervalArray result ) {
+        return this.apply( Operator.DIVIDE, other, result );
+    }
+
+    // ---------- mult and divide kernels ----------
+
+    private enum Operator { MULT, DIVIDE }
+
+    /**
+     * Multiplication or division, through IntervalKernels (vectorized when
+     * available): the intervals are copied by blocks of BLOCK_SIZE into heap
+     * arrays of minimum and maximum bounds, computed, and copied back into
+     * result. (The copies cost more than they save for add and subtract, which
+     * are computed directly in the buffers)
+     */
+    private OffHeapIntervalArray apply( Operator operator, OffHeapIntervalArray other, OffHeapIntervalArray result ) {
+        checkSize( other, result );
+        final IntervalKernels kernels = IntervalKernels.INSTANCE;
+        final double[] buffer = new double[2*BLOCK_SIZE];
+        final double[] xMin = new double[BLOCK_SIZE], xMax = new double[BLOCK_SIZE];
+        final double[] yMin = new double[BLOCK_SIZE], yMax = new double[BLOCK_SIZE];
+        final double[] rMin = new double[BLOCK_SIZE], rMax = new double[BLOCK_SIZE];
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], y = other.chunks[c], r = result.chunks[c];
+            final int length = x.capacity()/2;
+            for( int from=0; from<length; from+=BLOCK_SIZE ) {
+                final int n = Math.min( BLOCK_SIZE, length-from );
+                read( x, from, n, buffer, xMin, xMax );
+                read( y, from, n, buffer, yMin, yMax );
+                if( operator == Operator.MULT )
+                    kernels.mult( xMin, xMax, yMin, yMax, rMin, rMax, 0, n );
+                else
+                    kernels.divide( xMin, xMax, yMin, yMax, rMin, rMax, 0, n );
+                write( r, from, n, buffer, rMin, rMax );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies the intervals [ from, from+n ) of a chunk into minBounds and maxBounds.
+     */
+    private static void read( DoubleBuffer chunk, int from, int n, double[] buffer, double[] minBounds, double[] maxBounds ) {
+        chunk.get( 2*from, buffer, 0, 2*n );
+        for( int i=0; i<n; i++ ) {
+            minBounds[i] = buffer[2*i];
+            maxBounds[i] = buffer[2*i+1];
+        }
+    }
+
+    /**
+     * Copies minBounds and maxBounds into the intervals [ from, from+n ) of a chunk.
+     */
+    private static void write( DoubleBuffer chunk, int from, int n, double[] buffer, double[] minBounds, double[] maxBounds ) {
+        for( int i=0; i<n; i++ ) {
+            buffer[2*i] = minBounds[i];
+            buffer[2*i+1] = maxBounds[i];
+        }
+        chunk.put( 2*from, buffer, 0, 2*n );
+    }
+
+    // ---------- sq, sqrt, pow ----------
+
+    /**
+     * Element wise square function. (See Interval.sq())
+     *
+     * @return a new direct array with this[i]²
+     */
+    public OffHeapIntervalArray sq() {
+        return this.sq( allocate( this.size ) );
+    }
+
+    /**
+     * Element wise square function. (See Interval.sq())
+     *
+     * @param result array receiving this[i]² (may be this)
+     * @return result
+     */
+    public OffHeapIntervalArray sq( OffHeapIntervalArray result ) {
+        checkSize( result );
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], r = result.chunks[c];
+            for( int j=0; j<x.capacity(); j+=2 ) {
+                final double a = x.get( j ), b = x.get( j+1 );
+                if( a<=0. && b>=0. ) {
+                    r.put( j, 0. );
+                    r.put( j+1, Rounding.up( Math.max( a*a, b*b ) ) );
+                } else {
+                    put( r, j, a*a, b*b );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Element wise square root function. (See Interval.sqrt())
+     *
+     * @return a new direct array with sqrt(this[i])
+     */
+    public OffHeapIntervalArray sqrt() {
+        return this.sqrt( allocate( this.size ) );
+    }
+
+    /**
+     * Element wise square root function. (See Interval.sqrt())
+     *
+     * @param result array receiving sqrt(this[i]) (may be this)
+     * @return result
+     */
+    public OffHeapIntervalArray sqrt( OffHeapIntervalArray result ) {
+        checkSize( result );
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], r = result.chunks[c];
+            for( int j=0; j<x.capacity(); j+=2 )
+                put( r, j, Math.sqrt( x.get( j ) ), Math.sqrt( x.get( j+1 ) ) );
+        }
+        return result;
+    }
+
+    /**
+     * Element wise power. (See Interval.pow(int))
+     *
+     * @param n power
+     * @return a new direct array with this[i]^n
+     * @throws ArithmeticException if n<0 and zero is included in one of the intervals
+     */
+    public OffHeapIntervalArray pow( int n ) {
+        return this.pow( n, allocate( this.size ) );
+    }
+
+    /**
+     * Element wise power. (See Interval.pow(int))
+     *
+     * The intervals are copied by blocks into heap arrays, as for mult and
+     * divide, and computed by IntervalArray.setPow.
+     *
+     * @param n power
+     * @param result array receiving this[i]^n (may be this)
+     * @return result
+     * @throws ArithmeticException if n<0 and zero is included in one of the
+     * intervals (result is then partially written)
+     */
+    public OffHeapIntervalArray pow( int n, OffHeapIntervalArray result ) {
+        checkSize( result );
+        final double[] buffer = new double[2*BLOCK_SIZE];
+        final double[] xMin = new double[BLOCK_SIZE], xMax = new double[BLOCK_SIZE];
+        final double[] rMin = new double[BLOCK_SIZE], rMax = new double[BLOCK_SIZE];
+        for( int c=0; c<this.chunks.length; c++ ) {
+            final DoubleBuffer x = this.chunks[c], r = result.chunks[c];
+            final int length = x.capacity()/2;
+            for( int from=0; from<length; from+=BLOCK_SIZE ) {
+                final int m = Math.min( BLOCK_SIZE, length-from );
+                read( x, from, m, buffer, xMin, xMax );
+                for( int i=0; i<m; i++ )
+                    IntervalArray.setPow( xMin[i], xMax[i], n, rMin, rMax, i );
+                write( r, from, m, buffer, rMin, rMax );
+            }
+        }
+        return result;
+    }
+
+    // =========================================================================
+    // ========== Reductions ===================================================
+    // =========================================================================
+
+    /**
+     * Smallest minimum bound. (Same comparisons as util.Arrays.min)
+     *
+     * @return the minimum value of the intervals
+     * @throws IllegalArgumentException if the array is empty
+     */
+    public double min() {
+        checkNotEmpty();
+        double min = this.chunks[0].get( 0 );
+        for( DoubleBuffer chunk : this.chunks ) {
+            for( int j=0; j<chunk.capacity(); j+=2 ) {
+                final double x = chunk.get( j );
+                if( min > x )
+                    min = x;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Greatest maximum bound. (Same comparisons as util.Arrays.max)
+     *
+     * @return the maximum value of the intervals
+     * @throws IllegalArgumentException if the array is empty
+     */
+    public double max() {
+        checkNotEmpty();
+        double max = this.chunks[0].get( 1 );
+        for( DoubleBuffer chunk : this.chunks ) {
+            for( int j=1; j<chunk.capacity(); j+=2 ) {
+                final double x = chunk.get( j );
+                if( max < x )
+                    max = x;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Hull of the intervals: [ min(), max() ], in one pass.
+     *
+     * @return the smallest interval containing all the intervals
+     * @throws IllegalArgumentException if the array is empty
+     */
+    public Interval hull() {
+        checkNotEmpty();
+        double min = this.chunks[0].get( 0 );
+        double max = this.chunks[0].get( 1 );
+        for( DoubleBuffer chunk : this.chunks ) {
+            for( int j=0; j<chunk.capacity(); j+=2 ) {
+                final double a = chunk.get( j ), b = chunk.get( j+1 );
+                if( min > a )
+                    min = a;
+                if( max < b )
+                    max = b;
+            }
+        }
+        return new Interval( min, max );
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation of the array (its size only: it may be huge).
+     *
+     * @return the array's string representation.
+     */
+    @Override
+    public String toString() {
+        return "OffHeapIntervalArray[ size=" + this.size + " ]";
+    }
+
+    /**
+     * Sets the j/2-th interval of a chunk. (Bounds are swapped like in
+     * Interval's constructor, then rounded: see Rounding)
+     */
+    private static void put( DoubleBuffer r, int j, double a, double b ) {
+        if( b < a ) {
+            r.put( j, Rounding.down( b ) );
+            r.put( j+1, Rounding.up( a ) );
+        } else {
+            r.put( j, Rounding.down( a ) );
+            r.put( j+1, Rounding.up( b ) );
+        }
+    }
+
+    private void checkSize( OffHeapIntervalArray... others ) {
+        for( OffHeapIntervalArray other : others )
+            if( other.size != this.size )
+                throw new IllegalArgumentException( "arrays must have the same size" );
+    }
+
+    private void checkNotEmpty() {
+        if( this.size == 0 )
+            throw new IllegalArgumentException( "empty array" );
+    }
+
+}
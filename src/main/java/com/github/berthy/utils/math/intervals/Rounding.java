@@ -0,0 +1,98 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Outward rounding of the computed bounds.
+ *
+ * Java's floating point operations round to nearest: a computed bound can be
+ * one ulp inside the exact one, and the result is then not a guaranteed
+ * enclosure. With outward rounding enabled, every bound computed by the
+ * arithmetic (Interval, IntervalAccumulator, IntervalArray, GeneralizedInterval)
+ * is moved one ulp outward: Math.nextDown for minimum bounds, Math.nextUp for
+ * maximum bounds. (Two ulps for Math.pow, which is only accurate to one ulp)
+ *
+ * Enabled by -Dcom.github.berthy.utils.math.intervals.outwardRounding=true.
+ * The flag is a static final constant: when it is off, the JIT removes the
+ * rounding code and the arithmetic runs exactly as without this class.
+ *
+ * @author Bertrand COTE
+ */
+final class Rounding {
+
+    /**
+     * System property enabling the outward rounding.
+     */
+    static final String OUTWARD_PROPERTY = "com.github.berthy.utils.math.intervals.outwardRounding";
+
+    /**
+     * True if the bounds are rounded outward.
+     */
+    static final boolean OUTWARD = Boolean.getBoolean( OUTWARD_PROPERTY );
+
+    private Rounding() {
+    }
+
+    /**
+     * @param x computed minimum bound
+     * @return x rounded toward -Inf
+     */
+    static double down( double x ) {
+        return OUTWARD ? Math.nextDown( x ) : x;
+    }
+
+    /**
+     * @param x computed maximum bound
+     * @return x rounded toward +Inf
+     */
+    static double up( double x ) {
+        return OUTWARD ? Math.nextUp( x ) : x;
+    }
+
+    /**
+     * @param x minimum bound computed by Math.pow
+     * @return x rounded toward -Inf
+     */
+    static double powDown( double x ) {
+        return OUTWARD ? Math.nextDown( Math.nextDown( x ) ) : x;
+    }
+
+    /**
+     * @param x maximum bound computed by Math.pow
+     * @return x rounded toward +Inf
+     */
+    static double powUp( double x ) {
+        return OUTWARD ? Math.nextUp( Math.nextUp( x ) ) : x;
+    }
+
+    /**
+     * new Interval( a, b ), with outward rounding.
+     *
+     * @param a one computed bound
+     * @param b the other computed bound
+     * @return the rounded interval
+     */
+    static Interval interval( double a, double b ) {
+        if( !OUTWARD )
+            return new Interval( a, b );
+        return b < a ? new Interval( down( b ), up( a ) ) : new Interval( down( a ), up( b ) );
+    }
+
+    /**
+     * Sets the i-th interval. (Bounds are swapped like in Interval's
+     * constructor, then rounded outward)
+     *
+     * @param rMin minimum bounds
+     * @param rMax maximum bounds
+     * @param i index
+     * @param a one computed bound
+     * @param b the other computed bound
+     */
+    static void set( double[] rMin, double[] rMax, int i, double a, double b ) {
+        if( b < a ) {
+            rMin[i] = down( b );
+            rMax[i] = up( a );
+        } else {
+            rMin[i] = down( a );
+            rMax[i] = up( b );
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Scalar implementation of IntervalKernels (one interval at a time).
+ *
+ * @author Bertrand COTE
+ */
+final class ScalarIntervalKernels extends IntervalKernels {
+
+    static final ScalarIntervalKernels INSTANCE = new ScalarIntervalKernels();
+
+    private ScalarIntervalKernels() {
+    }
+
+    @Override
+    String getName() {
+        return "scalar";
+    }
+
+    @Override
+    void add( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+              double[] rMin, double[] rMax, int from, int to ) {
+        for( int i=from; i<to; i++ )
+            Rounding.set( rMin, rMax, i, xMin[i]+yMin[i], xMax[i]+yMax[i] );
+    }
+
+    @Override
+    void subtract( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                   double[] rMin, double[] rMax, int from, int to ) {
+        for( int i=from; i<to; i++ )
+            Rounding.set( rMin, rMax, i, xMin[i]-yMax[i], xMax[i]-yMin[i] );
+    }
+
+    @Override
+    void mult( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+               double[] rMin, double[] rMax, int from, int to ) {
+        for( int i=from; i<to; i++ ) {
+            final double a = xMin[i], b = xMax[i], c = yMin[i], d = yMax[i];
+            Rounding.set( rMin, rMax, i, Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+        }
+    }
+
+    @Override
+    void divide( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                 double[] rMin, double[] rMax, int from, int to ) {
+        for( int i=from; i<to; i++ ) {
+            final double a = xMin[i], b = xMax[i], c = yMin[i], d = yMax[i];
+            if( c<=0. && d>=0. )
+                throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+            Rounding.set( rMin, rMax, i, Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
+        }
+    }
+}
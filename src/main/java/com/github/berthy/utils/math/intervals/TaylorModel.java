@@ -0,0 +1,744 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.Arithmetic;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Taylor model arithmetic.
+ *
+ * A Taylor model of order k over a box X of center m is a pair ( P, I ): P is
+ * a polynomial of degree <= k in the deviations h = x - m, with double
+ * coefficients, and I is an Interval remainder. For all x in X, the modelled
+ * function f satisfies f(x) ∈ P(x - m) + I.
+ *
+ * The high order dependencies are kept in the polynomial: the remainder of a
+ * Taylor model of order k decreases like width^(k+1), so the enclosures
+ * converge much faster than with Interval (or with first order forms like
+ * AffineForm) when the boxes are bisected.
+ *
+ * The coefficients are stored densely: one double per monomial of degree <= k
+ * in graded order (the constant term, then the dimension monomials of degree
+ * 1, ...). The monomial products are precomputed once per dimension and order.
+ * The terms of degree > k of the products, and the rounding errors of the
+ * coefficients, are bounded over the box and added to the remainder.
+ *
+ * The polynomial part is bounded cheaply by toInterval(): the linear and
+ * square terms ai hi + bi hi² of each variable are bounded exactly, and each
+ * other monomial h^α by [ -r^α, r^α ], or [ 0, r^α ] when all its exponents
+ * are even (r is the radius of the box).
+ *
+ * The Taylor models combined by an operation must be built on the same
+ * domain: the ones returned by variables( box, order ) and their results.
+ *
+ * Here TaylorModels are unmutable objects.
+ *
+ * @author Bertrand COTE
+ */
+public class TaylorModel implements Arithmetic {
+
+    /**
+     * Maximum number of monomials of a Taylor model.
+     * (The product table has MAX_SIZE² entries)
+     */
+    public static final int MAX_SIZE = 2048;
+
+    /**
+     * Monomials of degree <= order in dimension variables, by dimension and
+     * order.
+     */
+    private static final Map<Long,Basis> BASES = new ConcurrentHashMap<>();
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final Space space;
+
+    /**
+     * Coefficients of the monomials (graded order).
+     */
+    private final double[] coefficients;
+
+    private final Interval remainder;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * Constructor from checked values. (The array is not copied)
+     */
+    private TaylorModel( Space space, double[] coefficients, Interval remainder ) {
+        this.space = space;
+        this.coefficients = coefficients;
+        this.remainder = remainder;
+    }
+
+    /**
+     * Creates the Taylor models of the variables x0, ..., xn-1 over box:
+     * xi = mi + hi with mi the center of the i-th interval of box.
+     *
+     * @param box domain of the variables
+     * @param order maximum degree of the polynomials (>= 1)
+     * @return the Taylor models of the variables
+     * @throws IllegalArgumentException if order < 1, or if box has more than
+     * 64 dimensions or too many monomials (more than MAX_SIZE)
+     */
+    public static TaylorModel[] variables( IntervalBox box, int order ) {
+        if( order < 1 )
+            throw new IllegalArgumentException( "order must be >= 1: " + order );
+        final Space space = new Space( box, order );
+        final TaylorModel[] variables = new TaylorModel[box.dimension()];
+        for( int i=0; i<variables.length; i++ ) {
+            final double[] coefficients = new double[space.basis.size];
+            coefficients[0] = space.center[i];
+            coefficients[1+i] = 1.;
+            variables[i] = new TaylorModel( space, coefficients, Interval.ZERO );
+        }
+        return variables;
+    }
+
+    /**
+     * @param value constant
+     * @return the Taylor model of value, on the domain of this
+     */
+    public TaylorModel constant( Interval value ) {
+        return this.zero().add( value );
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public int dimension() {
+        return this.space.basis.dimension;
+    }
+
+    public int getOrder() {
+        return this.space.basis.order;
+    }
+
+    /**
+     * @return the domain of the variables
+     */
+    public IntervalBox getDomain() {
+        return this.space.box;
+    }
+
+    public Interval getRemainder() {
+        return remainder;
+    }
+
+    /**
+     * @param exponents exponents of h0, ..., hn-1
+     * @return the coefficient of h0^exponents[0]...hn-1^exponents[n-1]
+     * (0 if the degree is greater than the order)
+     * @throws IllegalArgumentException if the number of exponents is not the
+     * dimension
+     */
+    public double getCoefficient( int... exponents ) {
+        if( exponents.length != this.dimension() )
+            throw new IllegalArgumentException( "exponents must have the dimension of the model" );
+        final int index = this.space.basis.index( exponents );
+        return index < 0 ? 0. : this.coefficients[index];
+    }
+
+    /**
+     * @return the bound of the polynomial part: the exact range of
+     * ai hi + bi hi² for each variable, plus the bounds of the other
+     * monomials
+     */
+    public Interval getPolynomialBound() {
+        final Basis basis = this.space.basis;
+        final double[] magnitudes = this.space.magnitudes;
+        final long[] parities = basis.parities;
+        double min = this.coefficients[0], max = this.coefficients[0];
+        for( int v=0; v<basis.dimension; v++ ) {
+            final double a = this.coefficients[1+v];
+            final double b = basis.squares[v] < 0 ? 0. : this.coefficients[basis.squares[v]];
+            if( a == 0. && b == 0. )
+                continue;
+            final double r = this.space.radius[v];
+            final double left = b*r*r - a*r, right = b*r*r + a*r;
+            double qMin = Math.min( left, right ), qMax = Math.max( left, right );
+            // vertex -a/(2b) of the parabola
+            if( b != 0. && Math.abs( a ) < 2.*Math.abs( b )*r ) {
+                final double vertex = -a*a/( 4.*b );
+                qMin = Math.min( qMin, vertex );
+                qMax = Math.max( qMax, vertex );
+            }
+            // rounding errors of the evaluations
+            final double slack = ( Math.abs( a )*r + Math.abs( b )*r*r )*0x1p-50;
+            min = Math.nextDown( min + ( qMin - slack ) );
+            max = Math.nextUp( max + ( qMax + slack ) );
+        }
+        for( int i=1; i<this.coefficients.length; i++ ) {
+            final double a = this.coefficients[i];
+            if( a == 0. || basis.diagonal[i] )
+                continue;
+            final double m = Math.nextUp( Math.abs( a )*magnitudes[i] );
+            // h^α is in [ 0, r^α ] if all the exponents are even
+            if( parities[i] != 0L || a < 0. )
+                min = Math.nextDown( min - m );
+            if( parities[i] != 0L || a > 0. )
+                max = Math.nextUp( max + m );
+        }
+        return new Interval( min, max );
+    }
+
+    /**
+     * @return an enclosure of the range of the model: the bound of the
+     * polynomial part plus the remainder
+     */
+    public Interval toInterval() {
+        return this.getPolynomialBound().add( this.remainder );
+    }
+
+    // =========================================================================
+    // ========== Arithmetic ===================================================
+    // =========================================================================
+
+    // ---------- zero, one ----------
+
+    @Override
+    public TaylorModel zero() {
+        return new TaylorModel( this.space, new double[this.coefficients.length], Interval.ZERO );
+    }
+
+    /**
+     * @return true if the polynomial and the remainder are zero
+     */
+    @Override
+    public boolean isZero() {
+        for( double a : this.coefficients ) {
+            if( a != 0. )
+                return false;
+        }
+        return this.remainder.isZero();
+    }
+
+    @Override
+    public TaylorModel one() {
+        final double[] coefficients = new double[this.coefficients.length];
+        coefficients[0] = 1.;
+        return new TaylorModel( this.space, coefficients, Interval.ZERO );
+    }
+
+    /**
+     * @return true if the polynomial is one and the remainder is zero
+     */
+    @Override
+    public boolean isOne() {
+        for( int i=1; i<this.coefficients.length; i++ ) {
+            if( this.coefficients[i] != 0. )
+                return false;
+        }
+        return this.coefficients[0] == 1. && this.remainder.isZero();
+    }
+
+    // ---------- add, subtract ----------
+
+    @Override
+    public TaylorModel add( Arithmetic other ) {
+        return this.linear( (TaylorModel)other, 1. );
+    }
+
+    public TaylorModel add( double d ) {
+        final double[] coefficients = this.coefficients.clone();
+        coefficients[0] = this.coefficients[0] + d;
+        final double error = Math.abs( twoSumError( this.coefficients[0], d, coefficients[0] ) );
+        return new TaylorModel( this.space, coefficients, withError( this.remainder, error ) );
+    }
+
+    /**
+     * @param value interval
+     * @return this + value (the midpoint of value is added to the polynomial,
+     * the rest to the remainder)
+     */
+    public TaylorModel add( Interval value ) {
+        final double min = value.getMinBound(), max = value.getMaxBound();
+        if( min == max )
+            return this.add( min );
+        final double mid = min + 0.5*( max - min );
+        final TaylorModel result = this.add( mid );
+        final Interval deviation = new Interval( Math.nextDown( min - mid ), Math.nextUp( max - mid ) );
+        return new TaylorModel( this.space, result.coefficients, result.remainder.add( deviation ) );
+    }
+
+    @Override
+    public TaylorModel subtract( Arithmetic other ) {
+        return this.linear( (TaylorModel)other, -1. );
+    }
+
+    public TaylorModel subtract( double d ) {
+        return this.add( -d );
+    }
+
+    // ---------- mult ----------
+
+    /**
+     * Multiplication: the terms of degree > order of the product are bounded
+     * over the domain and added to the remainder, with
+     * P1·I2 + P2·I1 + I1·I2.
+     *
+     * @param other multiplier
+     * @return this × other
+     */
+    @Override
+    public TaylorModel mult( Arithmetic other ) {
+        final TaylorModel y = (TaylorModel)other;
+        this.checkSpace( y );
+        final Basis basis = this.space.basis;
+        final double[] magnitudes = this.space.magnitudes;
+        final int size = basis.size;
+        final double[] a = this.coefficients, b = y.coefficients, c = new double[size];
+        double error = 0., min = 0., max = 0.;
+        for( int i=0; i<size; i++ ) {
+            final double ai = a[i];
+            if( ai == 0. )
+                continue;
+            final int row = i*size;
+            for( int j=0; j<size; j++ ) {
+                final double bj = b[j];
+                if( bj == 0. )
+                    continue;
+                final double p = ai*bj;
+                final int k = basis.products[row+j];
+                if( k >= 0 ) {
+                    final double s = c[k] + p;
+                    error += ( Math.abs( Math.fma( ai, bj, -p ) ) + Math.abs( twoSumError( c[k], p, s ) ) )*magnitudes[k];
+                    c[k] = s;
+                } else {
+                    // truncated term: p h^(αi+αj) over the domain
+                    final double m = Math.nextUp( Math.nextUp( Math.abs( p ) )*Math.nextUp( magnitudes[i]*magnitudes[j] ) );
+                    final boolean even = ( basis.parities[i] ^ basis.parities[j] ) == 0L;
+                    if( !even || p < 0. )
+                        min = Math.nextDown( min - m );
+                    if( !even || p > 0. )
+                        max = Math.nextUp( max + m );
+                }
+            }
+        }
+        Interval remainder = min == 0. && max == 0. ? Interval.ZERO : new Interval( min, max );
+        if( !y.remainder.isZero() )
+            remainder = remainder.add( this.getPolynomialBound().mult( y.remainder ) );
+        if( !this.remainder.isZero() )
+            remainder = remainder.add( y.getPolynomialBound().mult( this.remainder ) ).add( this.remainder.mult( y.remainder ) );
+        return new TaylorModel( this.space, c, withError( remainder, error ) );
+    }
+
+    public TaylorModel mult( double d ) {
+        final double[] magnitudes = this.space.magnitudes;
+        final double[] coefficients = new double[this.coefficients.length];
+        double error = 0.;
+        for( int i=0; i<coefficients.length; i++ ) {
+            coefficients[i] = this.coefficients[i]*d;
+            error += Math.abs( Math.fma( this.coefficients[i], d, -coefficients[i] ) )*magnitudes[i];
+        }
+        return new TaylorModel( this.space, coefficients, withError( this.remainder.mult( d ), error ) );
+    }
+
+    // ---------- divide ----------
+
+    /**
+     * Division: this × ( 1/other ).
+     *
+     * @param other division
+     * @return this ÷ other
+     * @throws ArithmeticException if zero is included in other's range
+     */
+    @Override
+    public TaylorModel divide( Arithmetic other ) {
+        return this.mult( ((TaylorModel)other).reciprocal() );
+    }
+
+    public TaylorModel divide( double d ) {
+        if( d == 0. )
+            throw new ArithmeticException( "Divide by zero exception.");
+        final double[] magnitudes = this.space.magnitudes;
+        final double[] coefficients = new double[this.coefficients.length];
+        double error = 0.;
+        for( int i=0; i<coefficients.length; i++ ) {
+            coefficients[i] = this.coefficients[i]/d;
+            // the residual of the division is exact
+            error += Math.nextUp( Math.abs( Math.fma( coefficients[i], d, -this.coefficients[i] ) )/Math.abs( d ) )*magnitudes[i];
+        }
+        return new TaylorModel( this.space, coefficients, withError( this.remainder.divide( d ), error ) );
+    }
+
+    /**
+     * Reciprocal: Taylor series of 1/x at the constant term c of the model,
+     * 1/(c+h) = Σ (-1)^k h^k/c^(k+1), with the Lagrange remainder.
+     *
+     * @return 1/this
+     * @throws ArithmeticException if zero is included in the range
+     */
+    public TaylorModel reciprocal() {
+        final Interval range = this.toInterval();
+        if( range.zeroElementOfThis() )
+            throw new ArithmeticException( "Divide by zero exception.(zero is included in the interval)");
+        final int order = this.getOrder();
+        final Interval c = new Interval( this.coefficients[0] );
+        final Interval[] series = new Interval[order+1];
+        for( int k=0; k<=order; k++ )
+            series[k] = c.pow( -( k+1 ) ).mult( ( k&1 ) == 0 ? 1. : -1. );
+        // f^(k+1)(ξ)/(k+1)! with ξ in the range
+        final Interval lagrange = range.pow( -( order+2 ) ).mult( ( order&1 ) == 0 ? -1. : 1. );
+        return this.series( series, lagrange );
+    }
+
+    // ---------- sq, sqrt, pow ----------
+
+    /**
+     * @return this²
+     */
+    public TaylorModel sq() {
+        return this.mult( this );
+    }
+
+    /**
+     * Square root: Taylor series of √x at the constant term c of the model,
+     * √(c+h) = Σ C(1/2,k) √c h^k/c^k, with the Lagrange remainder. (When the
+     * range includes zero or negative values, the polynomial is zero and the
+     * remainder is Interval.sqrt() of the non negative part of the range)
+     *
+     * @return √this
+     */
+    public TaylorModel sqrt() {
+        final Interval range = this.toInterval();
+        if( range.getMinBound() <= 0. ) {
+            // sqrt is defined on [ 0, +inf ]
+            final Interval domain = range.getMaxBound() < 0. ? range : new Interval( 0., range.getMaxBound() );
+            return new TaylorModel( this.space, new double[this.coefficients.length], domain.sqrt() );
+        }
+        final int order = this.getOrder();
+        final Interval c = new Interval( this.coefficients[0] );
+        final Interval sqrtC = c.sqrt();
+        final Interval[] series = new Interval[order+1];
+        Interval binomial = Interval.ONE;
+        for( int k=0; k<=order; k++ ) {
+            if( k > 0 )
+                binomial = binomial.mult( 0.5 - ( k-1 ) ).divide( k );
+            series[k] = sqrtC.divide( c.pow( k ) ).mult( binomial );
+        }
+        binomial = binomial.mult( 0.5 - order ).divide( order+1 );
+        final Interval lagrange = range.sqrt().divide( range.pow( order+1 ) ).mult( binomial );
+        return this.series( series, lagrange );
+    }
+
+    /**
+     * Compute this^n with n integer, by repeated squaring.
+     *
+     * @param n power
+     * @return this^n
+     * @throws ArithmeticException if n<0 and zero is included in the range
+     */
+    @Override
+    public TaylorModel pow( int n ) {
+        if( n < 0 )
+            return this.pow( -n ).reciprocal();
+        TaylorModel result = null, square = this;
+        for( int k=n; k>0; k>>=1 ) {
+            if( ( k&1 ) == 1 )
+                result = result == null ? square : result.mult( square );
+            if( k > 1 )
+                square = square.sq();
+        }
+        return result == null ? this.one() : result;
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 41 * hash + Arrays.hashCode( this.coefficients );
+        hash = 41 * hash + this.remainder.hashCode();
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        final TaylorModel other = (TaylorModel) obj;
+        if (this.space != other.space) return false;
+        if (!Arrays.equals(this.coefficients, other.coefficients)) return false;
+        if (!this.remainder.equals(other.remainder)) return false;
+        return true;
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    /**
+     * String representation: the non zero terms of the polynomial in the
+     * deviations h0, ..., hn-1, and the remainder.
+     *
+     * @return the string representation
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( this.coefficients[0] );
+        final int[][] exponents = this.space.basis.exponents;
+        for( int i=1; i<this.coefficients.length; i++ ) {
+            final double a = this.coefficients[i];
+            if( a == 0. )
+                continue;
+            sb.append( a < 0. ? " - " : " + " ).append( Math.abs( a ) );
+            for( int j=0; j<exponents[i].length; j++ ) {
+                if( exponents[i][j] > 0 )
+                    sb.append( "·h" ).append( j );
+                if( exponents[i][j] > 1 )
+                    sb.append( '^' ).append( exponents[i][j] );
+            }
+        }
+        sb.append( " + " ).append( this.remainder );
+
+        return sb.toString();
+    }
+
+    /**
+     * @return this + sign × other
+     */
+    private TaylorModel linear( TaylorModel other, double sign ) {
+        this.checkSpace( other );
+        final double[] magnitudes = this.space.magnitudes;
+        final double[] coefficients = new double[this.coefficients.length];
+        double error = 0.;
+        for( int i=0; i<coefficients.length; i++ ) {
+            final double b = sign*other.coefficients[i];
+            coefficients[i] = this.coefficients[i] + b;
+            error += Math.abs( twoSumError( this.coefficients[i], b, coefficients[i] ) )*magnitudes[i];
+        }
+        final Interval remainder = other.remainder.isZero() ? this.remainder
+                : sign > 0. ? this.remainder.add( other.remainder ) : this.remainder.subtract( other.remainder );
+        return new TaylorModel( this.space, coefficients, withError( remainder, error ) );
+    }
+
+    /**
+     * Evaluates Σ series[k] (this - c)^k + lagrange × B(this - c)^(order+1),
+     * with c the constant term and B(.) the range. (Horner scheme)
+     */
+    private TaylorModel series( Interval[] series, Interval lagrange ) {
+        final double[] coefficients = this.coefficients.clone();
+        coefficients[0] = 0.;
+        final TaylorModel deviation = new TaylorModel( this.space, coefficients, this.remainder );
+        final int order = series.length-1;
+
+        TaylorModel result = this.zero().add( series[order] );
+        for( int k=order-1; k>=0; k-- )
+            result = result.mult( deviation ).add( series[k] );
+
+        final Interval rest = lagrange.mult( deviation.toInterval().pow( order+1 ) );
+        return new TaylorModel( this.space, result.coefficients, result.remainder.add( rest ) );
+    }
+
+    private void checkSpace( TaylorModel other ) {
+        if( this.space != other.space )
+            throw new IllegalArgumentException( "taylor models must have the same domain" );
+    }
+
+    /**
+     * @return remainder + [ -error, error ]
+     */
+    private static Interval withError( Interval remainder, double error ) {
+        if( error == 0. )
+            return remainder;
+        final double e = Math.nextUp( error );
+        return remainder.add( new Interval( -e, e ) );
+    }
+
+    /**
+     * @return the rounding error of s = a + b: a + b - s (exact, TwoSum)
+     */
+    private static double twoSumError( double a, double b, double s ) {
+        final double bb = s - a;
+        return ( a - ( s - bb ) ) + ( b - bb );
+    }
+
+    // =========================================================================
+    // ========== Basis and Space ==============================================
+    // =========================================================================
+
+    /**
+     * Monomials of degree <= order in dimension variables, in graded order,
+     * and the table of their products.
+     */
+    private static final class Basis {
+
+        private final int dimension, order, size;
+
+        private final int[][] exponents;
+
+        /**
+         * Bit j is set if the exponent of hj is odd.
+         */
+        private final long[] parities;
+
+        /**
+         * Index of the product of the monomials i and j at i*size+j, or -1 if
+         * its degree is greater than the order.
+         */
+        private final int[] products;
+
+        /**
+         * Index of hv², or -1 if the order is 1.
+         */
+        private final int[] squares;
+
+        /**
+         * True for the monomials hv and hv².
+         */
+        private final boolean[] diagonal;
+
+        /**
+         * Number of monomials of degree <= d in m variables at [m][d], for
+         * m <= dimension and d <= order: C(m+d, d). (All <= size)
+         */
+        private final int[][] counts;
+
+        private static Basis of( int dimension, int order ) {
+            return BASES.computeIfAbsent( ( (long)dimension << 32 ) | order, key -> new Basis( dimension, order ) );
+        }
+
+        private Basis( int dimension, int order ) {
+            if( dimension < 1 || dimension > 64 )
+                throw new IllegalArgumentException( "dimension must be in [ 1, 64 ]: " + dimension );
+            // C(dimension+order, order) monomials
+            long size = 1;
+            for( int k=1; k<=order; k++ ) {
+                size = size*( dimension+k )/k;
+                if( size > MAX_SIZE )
+                    throw new IllegalArgumentException( "too many monomials: dimension " + dimension + ", order " + order );
+            }
+            this.dimension = dimension;
+            this.order = order;
+            this.size = (int)size;
+            this.counts = new int[dimension+1][order+1];
+            for( int m=0; m<=dimension; m++ ) {
+                for( int d=0; d<=order; d++ )
+                    this.counts[m][d] = m == 0 || d == 0 ? 1 : this.counts[m-1][d] + this.counts[m][d-1];
+            }
+            this.exponents = new int[this.size][];
+            int count = 0;
+            for( int degree=0; degree<=order; degree++ )
+                count = this.monomials( new int[dimension], 0, degree, count );
+
+            this.parities = new long[this.size];
+            for( int i=0; i<this.size; i++ ) {
+                for( int j=0; j<dimension; j++ ) {
+                    if( ( this.exponents[i][j]&1 ) == 1 )
+                        this.parities[i] |= 1L << j;
+                }
+            }
+
+            this.squares = new int[dimension];
+            this.diagonal = new boolean[this.size];
+            for( int v=0; v<dimension; v++ ) {
+                final int[] square = new int[dimension];
+                square[v] = 2;
+                this.squares[v] = this.index( square );
+                this.diagonal[1+v] = true;
+                if( this.squares[v] >= 0 )
+                    this.diagonal[this.squares[v]] = true;
+            }
+
+            this.products = new int[this.size*this.size];
+            final int[] sum = new int[dimension];
+            for( int i=0; i<this.size; i++ ) {
+                for( int j=0; j<this.size; j++ ) {
+                    for( int v=0; v<dimension; v++ )
+                        sum[v] = this.exponents[i][v] + this.exponents[j][v];
+                    this.products[i*this.size+j] = this.index( sum );
+                }
+            }
+        }
+
+        /**
+         * Rank of a monomial in the graded order: the monomials of lower
+         * degree, then, for each variable v, the monomials of the same degree
+         * with the same exponents before v and a greater exponent of v.
+         *
+         * @param exponent exponents of h0, ..., hn-1 (dimension of them)
+         * @return the index of the monomial, or -1 if an exponent is negative
+         * or if its degree is greater than the order
+         */
+        private int index( int[] exponent ) {
+            int degree = 0;
+            for( int e : exponent ) {
+                if( e < 0 || e > this.order-degree )
+                    return -1;
+                degree += e;
+            }
+            int index = degree == 0 ? 0 : this.counts[this.dimension][degree-1];
+            for( int v=0; v<this.dimension-1 && degree>0; v++ ) {
+                // greater exponents of v: the remaining variables have degree < degree-exponent[v]
+                if( exponent[v] < degree )
+                    index += this.counts[this.dimension-v-1][degree-exponent[v]-1];
+                degree -= exponent[v];
+            }
+            return index;
+        }
+
+        /**
+         * Adds the monomials of the given degree, with the exponents of the
+         * variables before variable fixed, in lexicographic decreasing order.
+         */
+        private int monomials( int[] exponent, int variable, int degree, int count ) {
+            if( variable == this.dimension-1 ) {
+                exponent[variable] = degree;
+                this.exponents[count] = exponent.clone();
+                return count+1;
+            }
+            for( int k=degree; k>=0; k-- ) {
+                exponent[variable] = k;
+                count = this.monomials( exponent, variable+1, degree-k, count );
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Domain of the Taylor models: the box, its center and the bounds r^α of
+     * the monomials of the deviations.
+     */
+    private static final class Space {
+
+        private final Basis basis;
+        private final IntervalBox box;
+        private final double[] center;
+        private final double[] radius;
+        private final double[] magnitudes;
+
+        private Space( IntervalBox box, int order ) {
+            this.basis = Basis.of( box.dimension(), order );
+            this.box = box;
+            this.center = new double[box.dimension()];
+            final double[] radius = this.radius = new double[box.dimension()];
+            for( int i=0; i<radius.length; i++ ) {
+                final double a = box.getMinBound( i ), b = box.getMaxBound( i );
+                this.center[i] = a + 0.5*( b - a );
+                // rounded up: [ center - radius, center + radius ] contains [ a, b ]
+                radius[i] = a == b ? 0. : Math.nextUp( Math.max( this.center[i] - a, b - this.center[i] ) );
+            }
+            this.magnitudes = new double[this.basis.size];
+            for( int i=0; i<this.magnitudes.length; i++ ) {
+                double m = 1.;
+                for( int j=0; j<radius.length; j++ ) {
+                    for( int k=0; k<this.basis.exponents[i][j]; k++ )
+                        m = Math.nextUp( m*radius[j] );
+                }
+                this.magnitudes[i] = m;
+            }
+        }
+    }
+}
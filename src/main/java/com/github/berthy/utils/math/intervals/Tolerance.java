@@ -0,0 +1,120 @@
+package com.github.berthy.utils.math.intervals;
+
+/**
+ * Margin of error on the comparisons of intervals with constants (isZero and
+ * isOne methods).
+ *
+ * A Tolerance is immutable: it can be shared between threads, and each user
+ * (thread, evaluation) can pass its own one to the comparisons, without any
+ * global state.
+ *
+ * @author Bertrand COTE
+ */
+public final class Tolerance {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * No margin of error: exact comparisons.
+     */
+    public static final Tolerance EXACT = new Tolerance( 0. );
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    /**
+     * Margin of error (>= 0)
+     */
+    private final double epsilon;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    private Tolerance( double epsilon ) {
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * @param epsilon margin of error (its absolute value is used)
+     * @return the tolerance
+     * @throws IllegalArgumentException if epsilon is NaN
+     */
+    public static Tolerance of( double epsilon ) {
+        if( Double.isNaN( epsilon ) )
+            throw new IllegalArgumentException( "epsilon is NaN" );
+        if( epsilon == 0. )
+            return EXACT;
+        return new Tolerance( Math.abs( epsilon ) );
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    /**
+     * @return the margin of error (>= 0)
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    // =========================================================================
+    // ========== Comparisons ==================================================
+    // =========================================================================
+
+    /**
+     * @param x
+     * @param value
+     * @return true if x is in [ value - epsilon, value + epsilon ]
+     */
+    public boolean matches( double x, double value ) {
+        return x>=value-this.epsilon && x<=value+this.epsilon;
+    }
+
+    /**
+     * @param interval
+     * @return true if both bounds of interval are equal to 0 (with this tolerance)
+     */
+    public boolean isZero( Interval interval ) {
+        return this.matches( interval.getMinBound(), 0. ) && this.matches( interval.getMaxBound(), 0. );
+    }
+
+    /**
+     * @param interval
+     * @return true if both bounds of interval are equal to 1 (with this tolerance)
+     */
+    public boolean isOne( Interval interval ) {
+        return this.matches( interval.getMinBound(), 1. ) && this.matches( interval.getMaxBound(), 1. );
+    }
+
+    // =========================================================================
+    // ========== hashCode and equals ==========================================
+    // =========================================================================
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode( this.epsilon );
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if( this == obj ) return true;
+        if( obj == null ) return false;
+        if( getClass() != obj.getClass() ) return false;
+        return Double.doubleToLongBits( this.epsilon ) == Double.doubleToLongBits( ((Tolerance)obj).epsilon );
+    }
+
+    // =========================================================================
+    // ========== Utils ========================================================
+    // =========================================================================
+
+    @Override
+    public String toString() {
+        return "Tolerance( " + this.epsilon + " )";
+    }
+
+}
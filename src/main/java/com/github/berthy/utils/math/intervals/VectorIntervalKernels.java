@@ -0,0 +1,145 @@
+package com.github.berthy.utils.math.intervals;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of IntervalKernels, using the Vector API
+ * (jdk.incubator.vector).
+ *
+ * The lanes follow exactly the scalar rules: the four products of mult (and
+ * quotients of divide) are reduced with the same comparisons, in the same
+ * order, as the scalar kernels, and the bounds are swapped when max < min.
+ * The elements which do not fill a whole vector are computed by the scalar
+ * kernels. With outward rounding (see Rounding), the bounds are rounded on
+ * the lanes with the same results as Math.nextDown and Math.nextUp.
+ *
+ * This class must only be loaded through IntervalKernels.vectorKernels().
+ *
+ * @author Bertrand COTE
+ */
+final class VectorIntervalKernels extends IntervalKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final ScalarIntervalKernels SCALAR = ScalarIntervalKernels.INSTANCE;
+
+    VectorIntervalKernels() {
+        if( SPECIES.length() < 2 )
+            throw new UnsupportedOperationException( "no SIMD registers for doubles" );
+    }
+
+    @Override
+    String getName() {
+        return "vector (" + SPECIES.length() + " doubles)";
+    }
+
+    @Override
+    void add( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+              double[] rMin, double[] rMax, int from, int to ) {
+        int i = from;
+        for( final int bound = from + SPECIES.loopBound( to-from ); i<bound; i+=SPECIES.length() ) {
+            DoubleVector min = DoubleVector.fromArray( SPECIES, xMin, i ).add( DoubleVector.fromArray( SPECIES, yMin, i ) );
+            DoubleVector max = DoubleVector.fromArray( SPECIES, xMax, i ).add( DoubleVector.fromArray( SPECIES, yMax, i ) );
+            store( min, max, rMin, rMax, i );
+        }
+        SCALAR.add( xMin, xMax, yMin, yMax, rMin, rMax, i, to );
+    }
+
+    @Override
+    void subtract( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                   double[] rMin, double[] rMax, int from, int to ) {
+        int i = from;
+        for( final int bound = from + SPECIES.loopBound( to-from ); i<bound; i+=SPECIES.length() ) {
+            DoubleVector min = DoubleVector.fromArray( SPECIES, xMin, i ).sub( DoubleVector.fromArray( SPECIES, yMax, i ) );
+            DoubleVector max = DoubleVector.fromArray( SPECIES, xMax, i ).sub( DoubleVector.fromArray( SPECIES, yMin, i ) );
+            store( min, max, rMin, rMax, i );
+        }
+        SCALAR.subtract( xMin, xMax, yMin, yMax, rMin, rMax, i, to );
+    }
+
+    @Override
+    void mult( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+               double[] rMin, double[] rMax, int from, int to ) {
+        int i = from;
+        for( final int bound = from + SPECIES.loopBound( to-from ); i<bound; i+=SPECIES.length() ) {
+            DoubleVector a = DoubleVector.fromArray( SPECIES, xMin, i );
+            DoubleVector b = DoubleVector.fromArray( SPECIES, xMax, i );
+            DoubleVector c = DoubleVector.fromArray( SPECIES, yMin, i );
+            DoubleVector d = DoubleVector.fromArray( SPECIES, yMax, i );
+            reduce( a.mul( c ), a.mul( d ), b.mul( c ), b.mul( d ), rMin, rMax, i );
+        }
+        SCALAR.mult( xMin, xMax, yMin, yMax, rMin, rMax, i, to );
+    }
+
+    @Override
+    void divide( double[] xMin, double[] xMax, double[] yMin, double[] yMax, 
+                 double[] rMin, double[] rMax, int from, int to ) {
+        int i = from;
+        for( final int bound = from + SPECIES.loopBound( to-from ); i<bound; i+=SPECIES.length() ) {
+            DoubleVector c = DoubleVector.fromArray( SPECIES, yMin, i );
+            DoubleVector d = DoubleVector.fromArray( SPECIES, yMax, i );
+            if( c.compare( VectorOperators.LE, 0. ).and( d.compare( VectorOperators.GE, 0. ) ).anyTrue() )
+                break; // the scalar kernel writes the elements before the zero and throws
+            DoubleVector a = DoubleVector.fromArray( SPECIES, xMin, i );
+            DoubleVector b = DoubleVector.fromArray( SPECIES, xMax, i );
+            reduce( a.div( c ), a.div( d ), b.div( c ), b.div( d ), rMin, rMax, i );
+        }
+        SCALAR.divide( xMin, xMax, yMin, yMax, rMin, rMax, i, to );
+    }
+
+    /**
+     * Stores [ min( p0, p1, p2, p3 ), max( p0, p1, p2, p3 ) ] at index i,
+     * with the comparisons of util.Arrays.min/max.
+     */
+    private static void reduce( DoubleVector p0, DoubleVector p1, DoubleVector p2, DoubleVector p3, 
+                                double[] rMin, double[] rMax, int i ) {
+        DoubleVector min = p0, max = p0;
+        min = min.blend( p1, min.compare( VectorOperators.GT, p1 ) );
+        max = max.blend( p1, max.compare( VectorOperators.LT, p1 ) );
+        min = min.blend( p2, min.compare( VectorOperators.GT, p2 ) );
+        max = max.blend( p2, max.compare( VectorOperators.LT, p2 ) );
+        min = min.blend( p3, min.compare( VectorOperators.GT, p3 ) );
+        max = max.blend( p3, max.compare( VectorOperators.LT, p3 ) );
+        store( min, max, rMin, rMax, i );
+    }
+
+    /**
+     * Stores [ min, max ] at index i, swapping the bounds where max < min
+     * (and rounding them outward if enabled, see Rounding).
+     */
+    private static void store( DoubleVector min, DoubleVector max, double[] rMin, double[] rMax, int i ) {
+        VectorMask<Double> swap = max.compare( VectorOperators.LT, min );
+        DoubleVector lo = min.blend( max, swap );
+        DoubleVector hi = max.blend( min, swap );
+        if( Rounding.OUTWARD ) {
+            lo = nextDown( lo );
+            hi = nextUp( hi );
+        }
+        lo.intoArray( rMin, i );
+        hi.intoArray( rMax, i );
+    }
+
+    /**
+     * Math.nextDown on each lane: -nextUp( -v ). (Negations on the sign bit)
+     */
+    static DoubleVector nextDown( DoubleVector v ) {
+        DoubleVector negated = v.reinterpretAsLongs().lanewise( VectorOperators.XOR, Long.MIN_VALUE ).reinterpretAsDoubles();
+        return nextUp( negated ).reinterpretAsLongs().lanewise( VectorOperators.XOR, Long.MIN_VALUE ).reinterpretAsDoubles();
+    }
+
+    /**
+     * Math.nextUp on each lane, without masks: one step on the bits of the
+     * double, toward +Inf (bits + 1 for positive doubles, bits - 1 for
+     * negative doubles). -0 is first changed to +0 (v + 0), and +Inf to
+     * Double.MAX_VALUE, whose next double is +Inf. NaN stays NaN.
+     */
+    static DoubleVector nextUp( DoubleVector v ) {
+        LongVector bits = v.add( 0. ).min( Double.MAX_VALUE ).reinterpretAsLongs();
+        LongVector sign = bits.lanewise( VectorOperators.ASHR, 63 ); // 0 or -1
+        return bits.add( 1L ).add( sign ).add( sign ).reinterpretAsDoubles();
+    }
+}
@@ -0,0 +1,317 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.Interval;
+import com.github.berthy.utils.math.intervals.IntervalBox;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Branch and bound global minimizer of a function evaluated with interval
+ * arithmetic.
+ *
+ * The boxes to explore are ordered by the lower bound of f over them. For
+ * each box, the value of f at its middle is an upper bound of the minimum:
+ * the best one found (the incumbent) prunes the boxes whose lower bound
+ * exceeds it. The other boxes are bisected along their widest variable,
+ * until they are narrower than the tolerance. (The halves of an IntervalBox
+ * share one bounds array with their parent: a bisection copies only two
+ * arrays)
+ *
+ * The search runs on a ForkJoinPool: the workers are CountedCompleters which
+ * explore the best box of a shared priority queue until it is empty. A
+ * worker forks another one when boxes are waiting and fewer workers than the
+ * pool's parallelism are running, and it ends (instead of waiting) when the
+ * queue is empty: the worker which pushed the last boxes explores them. The
+ * incumbent is a shared AtomicLong (the bits of a double).
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalBranchAndBound {
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final MultivariateIntervalFunction function;
+
+    /**
+     * Width under which a box is not bisected any more.
+     */
+    private final double tolerance;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param function the function to minimize (thread safe)
+     * @param tolerance width under which a box is not bisected any more (> 0)
+     * @throws IllegalArgumentException if tolerance <= 0
+     */
+    public IntervalBranchAndBound( MultivariateIntervalFunction function, double tolerance ) {
+        if( !( tolerance > 0. ) )
+            throw new IllegalArgumentException( "tolerance must be > 0: " + tolerance );
+        this.function = function;
+        this.tolerance = tolerance;
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public MultivariateIntervalFunction getFunction() {
+        return function;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    // =========================================================================
+    // ========== Minimize =====================================================
+    // =========================================================================
+
+    /**
+     * Minimizes the function over box, on the common pool.
+     *
+     * @param box bounded intervals of the variables
+     * @return the minimum
+     * @throws IllegalArgumentException if the box is empty or not bounded
+     */
+    public Minimum minimize( IntervalBox box ) {
+        return this.minimize( box, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Minimizes the function over box.
+     *
+     * @param box bounded intervals of the variables
+     * @param pool pool running the workers (at most pool.getParallelism())
+     * @return the minimum
+     * @throws IllegalArgumentException if the box is empty or not bounded
+     */
+    public Minimum minimize( IntervalBox box, ForkJoinPool pool ) {
+        if( box.dimension() == 0 )
+            throw new IllegalArgumentException( "empty box" );
+        for( int i=0; i<box.dimension(); i++ ) {
+            if( Double.isInfinite( box.getMinBound( i ) ) || Double.isInfinite( box.getMaxBound( i ) ) )
+                throw new IllegalArgumentException( "unbounded interval: " + box.get( i ) );
+        }
+
+        final Search search = new Search( pool.getParallelism() );
+        search.push( search.node( box ) );
+        search.active.set( 1 );
+        pool.invoke( search.new Worker( null ) );
+
+        final Throwable failure = search.failure.get();
+        if( failure instanceof RuntimeException )
+            throw (RuntimeException)failure;
+        if( failure instanceof Error )
+            throw (Error)failure;
+        if( failure != null )
+            throw new IllegalStateException( failure );
+        return search.result();
+    }
+
+    // =========================================================================
+    // ========== Search =======================================================
+    // =========================================================================
+
+    /**
+     * Box to explore, with the lower bound of f over it.
+     */
+    private static final class Node implements Comparable<Node> {
+
+        final IntervalBox box;
+        final double lowerBound;
+
+        Node( IntervalBox box, double lowerBound ) {
+            this.box = box;
+            this.lowerBound = lowerBound;
+        }
+
+        @Override
+        public int compareTo( Node other ) {
+            return Double.compare( this.lowerBound, other.lowerBound );
+        }
+    }
+
+    /**
+     * State of one minimization, shared by the workers.
+     */
+    private final class Search {
+
+        final PriorityBlockingQueue<Node> queue = new PriorityBlockingQueue<>();
+
+        /**
+         * Maximum number of workers.
+         */
+        final int parallelism;
+
+        /**
+         * Number of running workers.
+         */
+        final AtomicInteger active = new AtomicInteger();
+
+        /**
+         * Bits of the best upper bound of the minimum.
+         */
+        final AtomicLong incumbent = new AtomicLong( Double.doubleToLongBits( Double.POSITIVE_INFINITY ) );
+
+        /**
+         * Boxes narrower than the tolerance.
+         */
+        final ConcurrentLinkedQueue<Node> leaves = new ConcurrentLinkedQueue<>();
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Search( int parallelism ) {
+            this.parallelism = parallelism;
+        }
+
+        double incumbent() {
+            return Double.longBitsToDouble( this.incumbent.get() );
+        }
+
+        /**
+         * Evaluates f over box, and at its middle to update the incumbent.
+         * (A NaN lower bound is unknown: -Inf)
+         */
+        Node node( IntervalBox box ) {
+            final double upperBound = function.value( box.midpoint() ).getMaxBound();
+            this.incumbent.accumulateAndGet( Double.doubleToLongBits( upperBound ),
+                    ( a, b ) -> Double.longBitsToDouble( b ) < Double.longBitsToDouble( a ) ? b : a );
+            final double lowerBound = function.value( box ).getMinBound();
+            return new Node( box, Double.isNaN( lowerBound ) ? Double.NEGATIVE_INFINITY : lowerBound );
+        }
+
+        void push( Node node ) {
+            if( node.lowerBound <= this.incumbent() )
+                this.queue.add( node );
+        }
+
+        void explore( Node node ) {
+
+            if( node.lowerBound > this.incumbent() )
+                return;
+
+            final IntervalBox box = node.box;
+            final int widest = box.widestDimension();
+            final double m = box.mid( widest );
+            if( box.width( widest ) <= tolerance || !( m > box.getMinBound( widest ) && m < box.getMaxBound( widest ) ) ) {
+                this.leaves.add( node );
+                return;
+            }
+
+            final IntervalBox[] halves = box.bisect( widest );
+            this.push( this.node( halves[0] ) );
+            this.push( this.node( halves[1] ) );
+        }
+
+        /**
+         * Reserves a place for a new worker.
+         *
+         * @return false if parallelism workers are running
+         */
+        boolean reserveWorker() {
+            int n;
+            do {
+                n = this.active.get();
+                if( n >= this.parallelism )
+                    return false;
+            } while( !this.active.compareAndSet( n, n+1 ) );
+            return true;
+        }
+
+        /**
+         * Explores the best boxes until the queue is empty, forking a new
+         * worker while boxes are waiting and the pool has room for it.
+         */
+        final class Worker extends CountedCompleter<Void> {
+
+            private static final long serialVersionUID = 1L;
+
+            Worker( Worker parent ) {
+                super( parent );
+            }
+
+            @Override
+            public void compute() {
+                try {
+                    Node node;
+                    while( failure.get() == null && ( node = queue.poll() ) != null ) {
+                        explore( node );
+                        while( queue.size() > 1 && reserveWorker() ) {
+                            this.addToPendingCount( 1 );
+                            new Worker( this ).fork();
+                        }
+                    }
+                } catch( Throwable e ) {
+                    failure.compareAndSet( null, e );
+                } finally {
+                    active.decrementAndGet();
+                }
+                this.tryComplete();
+            }
+        }
+
+        Minimum result() {
+            final double upperBound = this.incumbent();
+            double lowerBound = Double.POSITIVE_INFINITY;
+            final List<IntervalBox> minimizers = new ArrayList<>();
+            for( Node leaf : this.leaves ) {
+                if( leaf.lowerBound <= upperBound ) {
+                    minimizers.add( leaf.box );
+                    lowerBound = Math.min( lowerBound, leaf.lowerBound );
+                }
+            }
+            return new Minimum( new Interval( Math.min( lowerBound, upperBound ), upperBound ), minimizers );
+        }
+    }
+
+    // =========================================================================
+    // ========== Minimum ======================================================
+    // =========================================================================
+
+    /**
+     * Result of a minimization: an enclosure of the minimum value, and the
+     * boxes which may contain a minimizer.
+     */
+    public static final class Minimum {
+
+        private final Interval value;
+        private final List<IntervalBox> minimizers;
+
+        Minimum( Interval value, List<IntervalBox> minimizers ) {
+            this.value = value;
+            this.minimizers = minimizers;
+        }
+
+        /**
+         * @return [ lower bound, upper bound ] of the minimum
+         */
+        public Interval getValue() {
+            return value;
+        }
+
+        /**
+         * @return the boxes (narrower than the tolerance) which may contain a
+         * global minimizer, in no particular order
+         */
+        public List<IntervalBox> getMinimizers() {
+            return minimizers;
+        }
+
+        @Override
+        public String toString() {
+            return "minimum: " + this.value + " (" + this.minimizers.size() + " boxes)";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.GradientInterval;
+import com.github.berthy.utils.math.intervals.Interval;
+import java.util.function.UnaryOperator;
+
+/**
+ * Real function of one variable, evaluated on intervals.
+ *
+ * Both methods must return enclosures: value( x ) contains f( t ) and
+ * derivative( x ) contains f'( t ) for every t in x.
+ *
+ * @author Bertrand COTE
+ */
+public interface IntervalFunction {
+
+    /**
+     * @param x interval
+     * @return an enclosure of f over x
+     */
+    Interval value( Interval x );
+
+    /**
+     * @param x interval
+     * @return an enclosure of f' over x
+     */
+    Interval derivative( Interval x );
+
+    /**
+     * @param value enclosure of f
+     * @param derivative enclosure of f'
+     * @return the function
+     */
+    static IntervalFunction of( UnaryOperator<Interval> value, UnaryOperator<Interval> derivative ) {
+        return new IntervalFunction() {
+            @Override
+            public Interval value( Interval x ) {
+                return value.apply( x );
+            }
+
+            @Override
+            public Interval derivative( Interval x ) {
+                return derivative.apply( x );
+            }
+        };
+    }
+
+    /**
+     * Function whose derivative is computed by automatic differentiation.
+     *
+     * @param function the function, applied to gradient intervals of
+     * dimension 1
+     * @return the function
+     */
+    static IntervalFunction differentiate( UnaryOperator<GradientInterval> function ) {
+        return new IntervalFunction() {
+            @Override
+            public Interval value( Interval x ) {
+                return function.apply( GradientInterval.variable( x, 0, 1 ) ).getValue();
+            }
+
+            @Override
+            public Interval derivative( Interval x ) {
+                return function.apply( GradientInterval.variable( x, 0, 1 ) ).getDerivative( 0 );
+            }
+        };
+    }
+}
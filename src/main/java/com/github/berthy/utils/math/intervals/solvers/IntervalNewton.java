@@ -0,0 +1,300 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.GeneralizedInterval;
+import com.github.berthy.utils.math.intervals.Interval;
+import com.github.berthy.utils.math.intervals.Tolerance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Interval Newton root finder: encloses every root of a function in a
+ * starting interval.
+ *
+ * Newton step on an interval X, with m the middle of X:
+ * <pre>
+ *   N( X ) = m - f( m ) / f'( X )
+ * </pre>
+ * Every root of f in X is in N( X ) ∩ X. The division is GeneralizedInterval's
+ * extended division: when f'( X ) contains zero, N( X ) has two components
+ * and the search splits. If N( X ) is in the interior of X, X contains exactly
+ * one root: it is verified. When a step does not contract X enough, X is
+ * bisected. (The proof is rigorous with the outward rounding enabled, see
+ * the outwardRounding property of the intervals package)
+ *
+ * A branch stops when its interval is narrower than the width tolerance, or
+ * after maxIterationsPerBranch Newton steps (counted from the starting
+ * interval along the branch, not over the whole search: the result does not
+ * depend on the scheduling of the branches): its interval is then a verified
+ * root, or a possible root (not excluded, but not proven). The branches are computed
+ * as RecursiveTasks on a ForkJoinPool: the idle workers steal the pending
+ * subintervals.
+ *
+ * An IntervalNewton is immutable: it can solve several intervals
+ * concurrently.
+ *
+ * @author Bertrand COTE
+ */
+public class IntervalNewton {
+
+    // =========================================================================
+    // ========== static constants =============================================
+    // =========================================================================
+
+    /**
+     * A step is kept if it divides the width by at least 1 / CONTRACTION,
+     * else the interval is bisected.
+     */
+    static final double CONTRACTION = 0.75;
+
+    // =========================================================================
+    // ========== class variables ==============================================
+    // =========================================================================
+
+    private final IntervalFunction function;
+
+    /**
+     * Width under which a branch stops.
+     */
+    private final double tolerance;
+
+    /**
+     * Maximum number of Newton steps of a branch, from the starting interval.
+     */
+    private final int maxIterationsPerBranch;
+
+    // =========================================================================
+    // ========== Constructors =================================================
+    // =========================================================================
+
+    /**
+     * @param function the function and its derivative
+     * @param tolerance width under which a branch stops (>= 0)
+     * @param maxIterationsPerBranch maximum number of Newton steps of a branch,
+     * from the starting interval (>= 1)
+     * @throws IllegalArgumentException if tolerance < 0 or maxIterationsPerBranch < 1
+     */
+    public IntervalNewton( IntervalFunction function, double tolerance, int maxIterationsPerBranch ) {
+        if( !( tolerance >= 0. ) )
+            throw new IllegalArgumentException( "tolerance must be >= 0: " + tolerance );
+        if( maxIterationsPerBranch < 1 )
+            throw new IllegalArgumentException( "maxIterationsPerBranch must be >= 1: " + maxIterationsPerBranch );
+        this.function = function;
+        this.tolerance = tolerance;
+        this.maxIterationsPerBranch = maxIterationsPerBranch;
+    }
+
+    // =========================================================================
+    // ========== Getters ======================================================
+    // =========================================================================
+
+    public IntervalFunction getFunction() {
+        return function;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getMaxIterationsPerBranch() {
+        return maxIterationsPerBranch;
+    }
+
+    // =========================================================================
+    // ========== Solve ========================================================
+    // =========================================================================
+
+    /**
+     * Encloses the roots of the function in x, on the common pool.
+     *
+     * @param x bounded interval
+     * @return the roots' enclosures
+     * @throws IllegalArgumentException if x is not bounded
+     */
+    public Roots solve( Interval x ) {
+        return this.solve( x, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Encloses the roots of the function in x.
+     *
+     * @param x bounded interval
+     * @param pool pool computing the branches
+     * @return the roots' enclosures
+     * @throws IllegalArgumentException if x is not bounded
+     */
+    public Roots solve( Interval x, ForkJoinPool pool ) {
+        if( Double.isInfinite( x.getMinBound() ) || Double.isInfinite( x.getMaxBound() ) )
+            throw new IllegalArgumentException( "unbounded interval: " + x );
+        return pool.invoke( new NewtonTask( x, 0, false ) );
+    }
+
+    /**
+     * Newton step, inflated by one ulp on each side: with the default
+     * rounding to nearest, N( X ) can collapse next to a root without
+     * containing it.
+     *
+     * @return N( x ), or null if f'( x ) is zero
+     */
+    private GeneralizedInterval newton( Interval x ) {
+        final double m = x.mid();
+        final Interval derivative = this.function.derivative( x );
+        if( derivative.isZero( Tolerance.EXACT ) )
+            return null;
+        final GeneralizedInterval quotient = (GeneralizedInterval)new GeneralizedInterval( this.function.value( new Interval( m ) ) ).divide( derivative );
+        final GeneralizedInterval n = (GeneralizedInterval)new GeneralizedInterval( m, m ).subtract( quotient );
+        final List<Interval> inflated = new ArrayList<>( n.size() );
+        for( int i=0; i<n.size(); i++ )
+            inflated.add( new Interval( Math.nextDown( n.getMinBound( i ) ), Math.nextUp( n.getMaxBound( i ) ) ) );
+        return new GeneralizedInterval( inflated );
+    }
+
+    /**
+     * Branch of the search, from one interval.
+     */
+    private final class NewtonTask extends RecursiveTask<Roots> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Interval x;
+
+        /**
+         * Number of Newton steps of the branch before x.
+         */
+        private final int iterations;
+
+        /**
+         * True if x is known to contain exactly one root.
+         */
+        private final boolean verified;
+
+        NewtonTask( Interval x, int iterations, boolean verified ) {
+            this.x = x;
+            this.iterations = iterations;
+            this.verified = verified;
+        }
+
+        @Override
+        protected Roots compute() {
+
+            Interval x = this.x;
+            int iterations = this.iterations;
+            boolean verified = this.verified;
+
+            while( true ) {
+
+                if( !function.value( x ).zeroElementOfThis() )
+                    return Roots.NONE;
+
+                if( x.width() <= tolerance || iterations >= maxIterationsPerBranch )
+                    return verified ? Roots.verified( x ) : Roots.possible( x );
+
+                iterations++;
+                final GeneralizedInterval n = newton( x );
+                if( n == null )
+                    return this.bisect( x, iterations );
+
+                final GeneralizedInterval next = n.intersection( new GeneralizedInterval( x ) );
+                if( next.size() == 0 )
+                    return Roots.NONE;
+                if( n.size() == 1 && n.getMinBound( 0 ) > x.getMinBound() && n.getMaxBound( 0 ) < x.getMaxBound() )
+                    verified = true;
+
+                if( next.size() > 1 ) {
+                    // f' contains zero: one branch per component
+                    final NewtonTask[] tasks = new NewtonTask[next.size()];
+                    for( int i=0; i<tasks.length; i++ )
+                        tasks[i] = new NewtonTask( next.getInterval( i ), iterations, false );
+                    return unite( tasks );
+                }
+
+                final Interval contracted = next.getInterval( 0 );
+                if( contracted.width() <= CONTRACTION*x.width() ) {
+                    x = contracted;
+                } else if( verified ) {
+                    // no more progress at this precision
+                    return Roots.verified( contracted );
+                } else {
+                    return this.bisect( contracted, iterations );
+                }
+            }
+        }
+
+        private Roots bisect( Interval x, int iterations ) {
+            final double m = x.mid();
+            if( !( m > x.getMinBound() && m < x.getMaxBound() ) )
+                return Roots.possible( x );
+            return unite( new NewtonTask( new Interval( x.getMinBound(), m ), iterations, false ),
+                         new NewtonTask( new Interval( m, x.getMaxBound() ), iterations, false ) );
+        }
+
+        private Roots unite( NewtonTask... tasks ) {
+            invokeAll( tasks );
+            Roots result = Roots.NONE;
+            for( NewtonTask task : tasks )
+                result = result.union( task.join() );
+            return result;
+        }
+    }
+
+    // =========================================================================
+    // ========== Roots ========================================================
+    // =========================================================================
+
+    /**
+     * Enclosures of the roots: each component of the verified generalized
+     * interval contains a root, proven by a Newton step. The possible roots
+     * could not be excluded nor proven. There is no root outside of all().
+     */
+    public static final class Roots {
+
+        static final Roots NONE = new Roots( new GeneralizedInterval(), new GeneralizedInterval() );
+
+        private final GeneralizedInterval verified;
+        private final GeneralizedInterval possible;
+
+        private Roots( GeneralizedInterval verified, GeneralizedInterval possible ) {
+            this.verified = verified;
+            this.possible = possible;
+        }
+
+        static Roots verified( Interval x ) {
+            return new Roots( new GeneralizedInterval( x ), new GeneralizedInterval() );
+        }
+
+        static Roots possible( Interval x ) {
+            return new Roots( new GeneralizedInterval(), new GeneralizedInterval( x ) );
+        }
+
+        Roots union( Roots other ) {
+            return new Roots( this.verified.union( other.verified ), this.possible.union( other.possible ) );
+        }
+
+        /**
+         * @return the enclosures of the verified roots
+         */
+        public GeneralizedInterval getVerified() {
+            return verified;
+        }
+
+        /**
+         * @return the enclosures of the possible roots
+         */
+        public GeneralizedInterval getPossible() {
+            return possible;
+        }
+
+        /**
+         * @return the enclosures of all the roots (verified or possible)
+         */
+        public GeneralizedInterval all() {
+            return this.verified.union( this.possible );
+        }
+
+        @Override
+        public String toString() {
+            return "verified: " + this.verified + ", possible: " + this.possible;
+        }
+    }
+}
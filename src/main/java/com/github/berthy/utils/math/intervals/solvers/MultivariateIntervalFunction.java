@@ -0,0 +1,22 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.Interval;
+import com.github.berthy.utils.math.intervals.IntervalBox;
+
+/**
+ * Real function of several variables, evaluated on boxes.
+ *
+ * value( x ) must contain f( t ) for every point t of the box x. It is called
+ * concurrently by the solvers: it must be thread safe.
+ *
+ * @author Bertrand COTE
+ */
+@FunctionalInterface
+public interface MultivariateIntervalFunction {
+
+    /**
+     * @param x box: x.get( i ) is the interval of the i-th variable
+     * @return an enclosure of f over x
+     */
+    Interval value( IntervalBox x );
+}
@@ -42,4 +42,74 @@ public class Arrays {
         return max;
     }
     
+    /**
+     * Sorts keys in ascending order (Double.compare order), and applies the
+     * same permutation to values. The sort is stable: values of equal keys
+     * keep their relative order.
+     * 
+     * Merge sort: O(n.log(n)), with one temporary copy of each array.
+     * 
+     * @param keys
+     * @param values same length as keys
+     */
+    public static void sort( double[] keys, int[] values ) {
+        
+        if( keys.length != values.length )
+            throw new IllegalArgumentException( "keys and values must have the same length" );
+        
+        final int n = keys.length;
+        
+        // runs of RUN elements sorted by insertion
+        for( int from=0; from<n; from+=RUN ) {
+            final int to = Math.min( from+RUN, n );
+            for( int i=from+1; i<to; i++ ) {
+                final double key = keys[i];
+                final int value = values[i];
+                int j = i-1;
+                while( j >= from && Double.compare( keys[j], key ) > 0 ) {
+                    keys[j+1] = keys[j];
+                    values[j+1] = values[j];
+                    j--;
+                }
+                keys[j+1] = key;
+                values[j+1] = value;
+            }
+        }
+        if( n <= RUN )
+            return;
+        
+        // merges of the runs, back and forth between the arrays and the buffers
+        double[] srcKeys = keys, dstKeys = new double[n];
+        int[] srcValues = values, dstValues = new int[n];
+        for( int width=RUN; width<n; width*=2 ) {
+            for( int from=0; from<n; from+=2*width ) {
+                final int middle = Math.min( from+width, n );
+                final int to = Math.min( from+2*width, n );
+                int i = from, j = middle, k = from;
+                while( i < middle && j < to ) {
+                    if( Double.compare( srcKeys[j], srcKeys[i] ) < 0 ) {
+                        dstKeys[k] = srcKeys[j];
+                        dstValues[k++] = srcValues[j++];
+                    } else {
+                        dstKeys[k] = srcKeys[i];
+                        dstValues[k++] = srcValues[i++];
+                    }
+                }
+                System.arraycopy( srcKeys, i, dstKeys, k, middle-i );
+                System.arraycopy( srcValues, i, dstValues, k, middle-i );
+                k += middle-i;
+                System.arraycopy( srcKeys, j, dstKeys, k, to-j );
+                System.arraycopy( srcValues, j, dstValues, k, to-j );
+            }
+            double[] tmpKeys = srcKeys; srcKeys = dstKeys; dstKeys = tmpKeys;
+            int[] tmpValues = srcValues; srcValues = dstValues; dstValues = tmpValues;
+        }
+        if( srcKeys != keys ) {
+            System.arraycopy( srcKeys, 0, keys, 0, n );
+            System.arraycopy( srcValues, 0, values, 0, n );
+        }
+    }
+    
+    private static final int RUN = 32;
+    
 }
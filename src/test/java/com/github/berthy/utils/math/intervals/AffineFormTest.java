@@ -0,0 +1,165 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class AffineFormTest {
+
+    public AffineFormTest() {
+    }
+
+    /**
+     * f(x,y) = x·y + x² - sqrt(y)/(x+3) + (x-y)^3
+     */
+    private static AffineForm f( AffineForm x, AffineForm y ) {
+        return x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( 3. ) ) ).add( x.subtract( y ).pow( 3 ) );
+    }
+
+    private static double f( double x, double y ) {
+        return x*y + x*x - Math.sqrt( y )/( x+3. ) + (x-y)*(x-y)*(x-y);
+    }
+
+    /**
+     * Test of the arithmetic methods, of class AffineForm: the range encloses
+     * the values of the function.
+     */
+    @Test
+    public void testArithmetic() {
+        System.out.println("add/subtract/mult/divide/sq/sqrt/pow");
+
+        Random random = new Random( 21 );
+        for( int k=0; k<100; k++ ) {
+            Interval x = new Interval( random.nextDouble()*2.-1., random.nextDouble()*2.-1. );
+            Interval y = new Interval( 0.5+random.nextDouble(), 0.5+random.nextDouble() );
+            Interval result = f( AffineForm.of( x ), AffineForm.of( y ) ).toInterval();
+
+            for( int j=0; j<100; j++ ) {
+                double a = x.getMinBound() + random.nextDouble()*x.width();
+                double b = y.getMinBound() + random.nextDouble()*y.width();
+                assertTrue( result.getMinBound() <= f( a, b ) );
+                assertTrue( f( a, b ) <= result.getMaxBound() );
+            }
+            assertTrue( result.getMinBound() <= f( x.getMinBound(), y.getMaxBound() ) );
+            assertTrue( f( x.getMaxBound(), y.getMinBound() ) <= result.getMaxBound() );
+        }
+
+        AffineForm x = AffineForm.of( new Interval( 1., 2. ) );
+        Interval linear = x.divide( 2. ).add( x ).subtract( x.mult( 0.5 ) ).toInterval();
+        assertTrue( new Interval( 1., 2. ).isSubsetOf( linear ) );
+        assertEquals( 1., linear.width(), 1e-14 );
+        assertTrue( new Interval( 1., 2. ).isSubsetOf( x.toInterval() ) );
+        assertEquals( 1.5, x.getCenter(), 0. );
+        assertEquals( 0.5, x.radius(), 1e-15 );
+    }
+
+    /**
+     * Test of the dependency problem: the affine forms are tighter than the
+     * intervals.
+     */
+    @Test
+    public void testDependency() {
+        System.out.println("dependency");
+
+        Interval i = new Interval( -1., 2. );
+        AffineForm x = AffineForm.of( i );
+
+        // x - x
+        assertTrue( x.subtract( x ).isZero() );
+        assertTrue( new Interval( -3., 3. ).isSubsetOf( i.subtract( i ) ) );
+
+        // x·x: the interval [ -2, 4 ] vs the affine form [ -1.25, 4 ]
+        Interval product = x.mult( x ).toInterval();
+        assertEquals( -1.25, product.getMinBound(), 1e-14 );
+        assertEquals( 4., product.getMaxBound(), 1e-14 );
+        assertTrue( new Interval( -2., 4. ).isSubsetOf( i.mult( i ) ) );
+
+        // x·(1-x): [ -2, 2 ]·... vs the affine form
+        AffineForm y = x.mult( x.one().subtract( x ) );
+        Interval expected = i.mult( Interval.ONE.subtract( i ) );
+        assertTrue( y.toInterval().width() < expected.width() );
+        assertTrue( y.toInterval().getMaxBound() >= 0.25 );
+        assertTrue( y.toInterval().getMinBound() <= -2. );
+
+        // (t+1)/(t+3) on [ 1, 2 ]: the interval [ 0.4, 0.75 ] vs [ 0.475, 0.65 ]
+        Interval j = new Interval( 1., 2. );
+        AffineForm t = AffineForm.of( j );
+        Interval quotient = t.add( 1. ).divide( t.add( 3. ) ).toInterval();
+        assertTrue( new Interval( 0.5, 0.6 ).isSubsetOf( quotient ) );
+        assertTrue( quotient.width() < 0.5*j.add( Interval.ONE ).divide( j.add( new Interval( 3. ) ) ).width() + 1e-14 );
+    }
+
+    /**
+     * Test of the maximum number of terms, of class AffineForm.
+     */
+    @Test
+    public void testMaxTerms() {
+        System.out.println("maxTerms");
+
+        Random random = new Random( 21 );
+        AffineForm sum = new AffineForm( 0. ).withMaxTerms( 4 );
+        double min = 0., max = 0.;
+        for( int k=0; k<20; k++ ) {
+            Interval x = new Interval( random.nextDouble(), 1.+random.nextDouble() );
+            sum = sum.add( AffineForm.of( x, 4 ).mult( AffineForm.of( x, 4 ) ) );
+            min += x.getMinBound()*x.getMinBound();
+            max += x.getMaxBound()*x.getMaxBound();
+            assertTrue( sum.size() <= 4 );
+        }
+        assertTrue( sum.toInterval().getMinBound() <= min );
+        assertTrue( max <= sum.toInterval().getMaxBound() );
+        assertEquals( 4, sum.getMaxTerms() );
+
+        AffineForm x = AffineForm.of( new Interval( 1., 3. ) ), y = AffineForm.of( new Interval( 2., 5. ) );
+        AffineForm condensed = x.add( y ).withMaxTerms( 1 );
+        assertEquals( 1, condensed.size() );
+        assertTrue( new Interval( 3., 8. ).isSubsetOf( condensed.toInterval() ) );
+        assertEquals( 2, x.add( y ).size() );
+
+        try {
+            AffineForm.of( Interval.ONE, 0 );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of the special cases, of class AffineForm.
+     */
+    @Test
+    public void testSpecialCases() {
+        System.out.println("special cases");
+
+        AffineForm x = AffineForm.of( new Interval( -1., 1. ) );
+        assertTrue( x.pow( 0 ).isOne() );
+        assertTrue( x.mult( x.zero() ).isZero() );
+        assertTrue( AffineForm.of( new Interval( 2. ) ).divide( new AffineForm( 2. ) ).isOne() );
+        assertEquals( new Interval( 0.25 ), new AffineForm( 4. ).reciprocal().toInterval() );
+        assertTrue( new Interval( 1./3. ).isSubsetOf( new AffineForm( 3. ).reciprocal().toInterval() ) );
+        assertEquals( new AffineForm( 8. ), new AffineForm( 2. ).pow( 3 ) );
+        assertEquals( "0.0 + 1.0000000000000002ε", x.toString().replaceAll( "ε[0-9]+", "ε" ) );
+
+        // sqrt of ranges starting at 0 (the rounded lower bound is slightly negative)
+        Interval root = AffineForm.of( new Interval( 0., 1. ) ).sqrt().toInterval();
+        assertTrue( new Interval( 0., 1. ).isSubsetOf( root ) );
+        assertTrue( root.isSubsetOf( new Interval( -1e-9, 1.+1e-9 ) ) );
+        root = x.sq().sqrt().toInterval();
+        assertFalse( Double.isNaN( root.getMinBound() ) || Double.isNaN( root.getMaxBound() ) );
+        assertTrue( new Interval( 0., 1. ).isSubsetOf( root ) );
+        assertTrue( new AffineForm( 0. ).sqrt().isZero() );
+
+        try {
+            x.one().divide( x );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            x.pow( -2 );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class ExpressionTest {
+
+    public ExpressionTest() {
+    }
+
+    /**
+     * f(x,y) = (x+y)²·(x+y)^3 - sqrt(x²+2)/(y²+1) + x·y - 0.5
+     */
+    private static Interval f( Interval x, Interval y ) {
+        final Interval s = x.add( y );
+        return s.sq().mult( s.pow( 3 ) )
+                .subtract( x.sq().add( new Interval( 2. ) ).sqrt().divide( y.sq().add( new Interval( 1. ) ) ) )
+                .add( x.mult( y ) ).subtract( new Interval( 0.5 ) );
+    }
+
+    private static Expression f( Expression x, Expression y ) {
+        final Expression s = x.add( y );
+        return s.sq().mult( s.pow( 3 ) )
+                .subtract( x.sq().add( 2. ).sqrt().divide( y.sq().add( 1. ) ) )
+                .add( x.mult( y ) ).subtract( 0.5 );
+    }
+
+    /**
+     * Test of the common subexpressions, of class ExpressionBuilder.
+     */
+    @Test
+    public void testBuilder() {
+        System.out.println("builder");
+
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression x = builder.variable( 0 ), y = builder.variable( 1 );
+        assertSame( x, builder.variable( 0 ) );
+        assertSame( x.add( y ), y.add( x ) );
+        assertSame( x.mult( y ).sq(), y.mult( x ).sq() );
+        assertNotSame( x.subtract( y ), y.subtract( x ) );
+        assertSame( builder.constant( 2. ), builder.constant( new Interval( 2. ) ) );
+        assertNotSame( x.pow( 2 ), x.pow( 3 ) );
+
+        // x, y, x+y, x*y, sq(x*y), x-y, y-x, 2, x^2, x^3
+        assertEquals( 10, builder.size() );
+        assertEquals( Expression.Operator.ADD, x.add( y ).getOperator() );
+        assertEquals( 3, x.pow( 3 ).getExponent() );
+        assertEquals( "(sq((x0 * x1)) - 2.0)", x.mult( y ).sq().subtract( 2. ).toString() );
+
+        try {
+            x.add( new ExpressionBuilder().variable( 0 ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of evaluate methods, of class CompiledExpression: same results as
+     * the Interval methods.
+     */
+    @Test
+    public void testEvaluate() {
+        System.out.println("evaluate");
+
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression x = builder.variable( 0 ), y = builder.variable( 1 );
+        CompiledExpression compiled = builder.compile( f( x, y ), x.mult( y ) );
+        assertEquals( 2, compiled.getVariableCount() );
+        assertEquals( 2, compiled.getOutputCount() );
+        assertTrue( compiled.getRegisterCount() < builder.size() );
+
+        Random random = new Random( 19 );
+        CompiledExpression.Evaluator evaluator = compiled.newEvaluator();
+        for( int k=0; k<200; k++ ) {
+            Interval a = new Interval( random.nextGaussian(), random.nextGaussian() );
+            Interval b = new Interval( random.nextGaussian(), random.nextGaussian() );
+            evaluator.evaluate( new double[]{ a.getMinBound(), b.getMinBound() }, new double[]{ a.getMaxBound(), b.getMaxBound() } );
+            assertEquals( f( a, b ), evaluator.get( 0 ) );
+            assertEquals( a.mult( b ), evaluator.get( 1 ) );
+            assertEquals( f( a, b ), compiled.evaluate( a, b ) );
+            evaluator.evaluate( new IntervalBox( a, b ) );
+            assertEquals( f( a, b ), evaluator.get( 0 ) );
+        }
+
+        try {
+            builder.compile( x.divide( y ) ).evaluate( Interval.ONE, new Interval( -1., 1. ) );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            evaluator.evaluate( new double[1], new double[1] );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of the batch evaluate method, of class CompiledExpression.Evaluator:
+     * same results as the evaluation of each point, over several blocks.
+     */
+    @Test
+    public void testEvaluate_batch() {
+        System.out.println("evaluate: batch");
+
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression x = builder.variable( 0 ), y = builder.variable( 1 );
+        CompiledExpression compiled = builder.compile( f( x, y ), builder.constant( 3. ), y.sqrt() );
+
+        final int size = 2*CompiledExpression.BLOCK_SIZE + 17;
+        Random random = new Random( 23 );
+        IntervalArray xs = new IntervalArray( size ), ys = new IntervalArray( size );
+        for( int j=0; j<size; j++ ) {
+            xs.set( j, random.nextGaussian(), random.nextGaussian() );
+            ys.set( j, random.nextDouble(), random.nextDouble() );
+        }
+        IntervalArray[] outputs = { new IntervalArray( size ), new IntervalArray( size ), new IntervalArray( ys.toArray() ) };
+        CompiledExpression.Evaluator evaluator = compiled.newEvaluator();
+        evaluator.evaluate( new IntervalArray[]{ xs, outputs[2] }, outputs );
+        for( int j=0; j<size; j++ ) {
+            assertEquals( f( xs.get( j ), ys.get( j ) ), outputs[0].get( j ) );
+            assertEquals( new Interval( 3. ), outputs[1].get( j ) );
+            assertEquals( ys.get( j ).sqrt(), outputs[2].get( j ) );
+        }
+
+        try {
+            evaluator.evaluate( new IntervalArray[]{ xs, new IntervalArray( 1 ) }, outputs );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+}
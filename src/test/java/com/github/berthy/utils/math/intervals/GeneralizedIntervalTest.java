@@ -2,6 +2,7 @@ package com.github.berthy.utils.math.intervals;
 
 import com.github.berthy.utils.math.Arithmetic;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -713,4 +714,235 @@ public class GeneralizedIntervalTest {
             
         }
     }
+
+    /**
+     * Test of union and intersection methods, of class GeneralizedInterval,
+     * against the pairwise definitions, on random generalized intervals.
+     */
+    @Test
+    public void testUnionIntersection_random() {
+        System.out.println("union/intersection random");
+        
+        java.util.Random random = new java.util.Random( 11 );
+        for( int test=0; test<500; test++ ) {
+            
+            GeneralizedInterval instance = randomGeneralizedInterval( random );
+            GeneralizedInterval other = randomGeneralizedInterval( random );
+            
+            // union: all the components, compacted
+            List<Interval> listUnion = new ArrayList<>();
+            listUnion.addAll( toList( instance ) );
+            listUnion.addAll( toList( other ) );
+            assertEquals( new GeneralizedInterval( listUnion ), instance.union( other ) );
+            
+            // intersection: all the pairwise intersections, compacted
+            List<Interval> listIntersection = new ArrayList<>();
+            for( Interval intervalThis : toList( instance ) ) {
+                for( Interval intervalOther : toList( other ) ) {
+                    Interval inter = intervalThis.intersection( intervalOther );
+                    if( inter != null )
+                        listIntersection.add( inter );
+                }
+            }
+            assertEquals( new GeneralizedInterval( listIntersection ), instance.intersection( other ) );
+        }
+    }
+    
+    /**
+     * Test of compactIntervals method, of class GeneralizedInterval: same
+     * result as sorting the intervals and uniting the ones which intersect.
+     */
+    @Test
+    public void testCompactIntervals_random() {
+        System.out.println("compactIntervals random");
+        
+        java.util.Random random = new java.util.Random( 13 );
+        for( int test=0; test<500; test++ ) {
+            
+            List<Interval> list = new ArrayList<>();
+            int n = random.nextInt( 20 );
+            for( int i=0; i<n; i++ ) {
+                double min = random.nextInt( 40 ) - 20;
+                list.add( new Interval( random.nextBoolean() ? min : 0.1*min, min + random.nextInt( 5 ) ) );
+            }
+            
+            List<Interval> expResult = new ArrayList<>( list );
+            expResult.sort( (Interval o1, Interval o2) -> Double.compare( o1.getMinBound(), o2.getMinBound() ) );
+            int i = 0;
+            while( i<expResult.size()-1 ) {
+                if( expResult.get( i ).intersects( expResult.get( i+1 ) ) ) {
+                    expResult.set( i, expResult.get( i ).union( expResult.get( i+1 ) ) );
+                    expResult.remove( i+1 );
+                } else {
+                    i++;
+                }
+            }
+            
+            GeneralizedInterval.compactIntervals( list );
+            assertEquals( expResult, list );
+        }
+    }
+    
+    /**
+     * Test of divide method, of class GeneralizedInterval, with an Interval.
+     */
+    @Test
+    public void testDivide_Interval() {
+        System.out.println("divide Interval");
+        
+        GeneralizedInterval instance = new GeneralizedInterval( Arrays.asList( new Interval( 1., 2. ), new Interval( 4., 8. ) ) );
+        GeneralizedInterval expResult = new GeneralizedInterval( Arrays.asList( new Interval( 0.25, 1. ), new Interval( 1., 4. ) ) );
+        assertEquals( expResult, instance.divide( new Interval( 2., 4. ) ) );
+        
+        expResult = new GeneralizedInterval( Arrays.asList( new Interval( Double.NEGATIVE_INFINITY, -0.5 ), new Interval( 1., Double.POSITIVE_INFINITY ) ) );
+        assertEquals( expResult, new GeneralizedInterval( 1., 2. ).divide( new Interval( -2., 1. ) ) );
+    }
+    
+    /**
+     * Test of reduce method, of class GeneralizedInterval.
+     */
+    @Test
+    public void testReduce() {
+        System.out.println("reduce");
+        
+        GeneralizedInterval instance = new GeneralizedInterval( Arrays.asList(
+                new Interval( 0., 1. ), new Interval( 3., 4. ), new Interval( 5., 6. ),
+                new Interval( 8., 9. ), new Interval( 10., 11. ) ) );
+        
+        assertSame( instance, instance.reduce( 5 ) );
+        assertEquals( new GeneralizedInterval( Arrays.asList(
+                new Interval( 0., 1. ), new Interval( 3., 6. ), new Interval( 8., 11. ) ) ), instance.reduce( 3 ) );
+        // gaps 2 and 2: the leftmost one is closed first
+        assertEquals( new GeneralizedInterval( Arrays.asList(
+                new Interval( 0., 6. ), new Interval( 8., 11. ) ) ), instance.reduce( 2 ) );
+        assertEquals( new GeneralizedInterval( 0., 11. ), instance.reduce( 1 ) );
+        
+        try {
+            instance.reduce( 0 );
+            fail( "IllegalArgumentException not thrown." );
+        } catch( IllegalArgumentException expected ) {
+        }
+    }
+    
+    /**
+     * Test of the bounded arithmetic, of class GeneralizedInterval: the result
+     * has at most maxComponents intervals and contains the exact result.
+     */
+    @Test
+    public void testBoundedArithmetic_random() {
+        System.out.println("bounded arithmetic random");
+        
+        java.util.Random random = new java.util.Random( 17 );
+        for( int test=0; test<500; test++ ) {
+            
+            GeneralizedInterval instance = randomGeneralizedInterval( random );
+            GeneralizedInterval other = randomGeneralizedInterval( random );
+            int maxComponents = 1 + random.nextInt( 4 );
+            
+            GeneralizedInterval[][] results = {
+                { (GeneralizedInterval)instance.add( other ), instance.add( other, maxComponents ) },
+                { (GeneralizedInterval)instance.subtract( other ), instance.subtract( other, maxComponents ) },
+                { (GeneralizedInterval)instance.mult( other ), instance.mult( other, maxComponents ) }
+            };
+            for( GeneralizedInterval[] result : results ) {
+                assertTrue( result[1].size() <= maxComponents );
+                assertEquals( Math.min( result[0].size(), maxComponents ), result[1].size() );
+                assertEquals( result[1], result[1].union( result[0] ) );
+            }
+        }
+    }
+    
+    /**
+     * Test of add and subtract methods, of class GeneralizedInterval: same
+     * result as the compaction of all the pairwise sums and differences.
+     */
+    @Test
+    public void testAddSubtract_random() {
+        System.out.println("add/subtract random");
+        
+        double[] bounds = { Double.NEGATIVE_INFINITY, -1e300, -3., -0.5, -0., 0., 0.25, 1., 2., 1e300, Double.POSITIVE_INFINITY };
+        java.util.Random random = new java.util.Random( 19 );
+        for( int test=0; test<2000; test++ ) {
+            
+            GeneralizedInterval instance, other;
+            if( test%2 == 0 ) {
+                instance = randomGeneralizedInterval( random );
+                other = randomGeneralizedInterval( random );
+            } else {
+                instance = new GeneralizedInterval();
+                other = new GeneralizedInterval();
+                for( int i=random.nextInt( 4 ); i>0; i-- )
+                    instance = instance.put( new Interval( bounds[random.nextInt( bounds.length )], bounds[random.nextInt( bounds.length )] ) );
+                for( int i=random.nextInt( 4 ); i>0; i-- )
+                    other = other.put( new Interval( bounds[random.nextInt( bounds.length )], bounds[random.nextInt( bounds.length )] ) );
+            }
+            
+            List<Interval> listAdd = new ArrayList<>();
+            List<Interval> listSubtract = new ArrayList<>();
+            for( Interval intervalThis : toList( instance ) ) {
+                for( Interval intervalOther : toList( other ) ) {
+                    listAdd.add( intervalThis.add( intervalOther ) );
+                    listSubtract.add( intervalThis.subtract( intervalOther ) );
+                }
+            }
+            if( !other.isZero() ) {
+                assertEquals( new GeneralizedInterval( listAdd ), instance.add( other ) );
+                assertEquals( new GeneralizedInterval( listSubtract ), instance.subtract( other ) );
+            }
+        }
+    }
+    
+    /**
+     * Test of the parallel arithmetic, of class GeneralizedInterval: same
+     * results as the sequential arithmetic.
+     */
+    @Test
+    public void testParallelArithmetic() {
+        System.out.println("parallel arithmetic");
+        
+        java.util.Random random = new java.util.Random( 23 );
+        List<Interval> list = new ArrayList<>();
+        List<Interval> listOther = new ArrayList<>();
+        for( int i=0; i<300; i++ ) {
+            double min = 1000.*random.nextDouble();
+            list.add( new Interval( min, min + random.nextDouble() ) );
+            min = 1. + 1000.*random.nextDouble();
+            listOther.add( new Interval( min, min + random.nextDouble() ) );
+        }
+        listOther.add( new Interval( -2., -1. ) );
+        GeneralizedInterval instance = new GeneralizedInterval( list );
+        GeneralizedInterval other = new GeneralizedInterval( listOther );
+        assertTrue( (long)instance.size()*other.size() > GeneralizedInterval.PARALLEL_THRESHOLD );
+        
+        assertEquals( instance.add( other ), instance.parallelAdd( other ) );
+        assertEquals( instance.subtract( other ), instance.parallelSubtract( other ) );
+        assertEquals( instance.mult( other ), instance.parallelMult( other ) );
+        assertEquals( instance.divide( other ), instance.parallelDivide( other ) );
+        
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool( 3 );
+        try {
+            assertEquals( instance.mult( other ), instance.parallelMult( other, pool ) );
+            assertEquals( instance.divide( new Interval( -1., 1. ) ), instance.parallelDivide( new Interval( -1., 1. ), pool ) );
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private static GeneralizedInterval randomGeneralizedInterval( java.util.Random random ) {
+        List<Interval> list = new ArrayList<>();
+        int n = random.nextInt( 8 );
+        for( int i=0; i<n; i++ ) {
+            // small integers: many common bounds
+            double min = random.nextInt( 20 ) - 10;
+            list.add( new Interval( min, min + random.nextInt( 4 ) ) );
+        }
+        return new GeneralizedInterval( list );
+    }
+    
+    private static List<Interval> toList( GeneralizedInterval generalizedInterval ) {
+        List<Interval> list = new ArrayList<>();
+        for( int i=0; i<generalizedInterval.size(); i++ )
+            list.add( generalizedInterval.getInterval( i ) );
+        return list;
+    }
 }
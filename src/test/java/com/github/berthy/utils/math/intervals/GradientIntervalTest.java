@@ -0,0 +1,139 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class GradientIntervalTest {
+
+    public GradientIntervalTest() {
+    }
+
+    /**
+     * f(x,y) = x·y + x² - sqrt(y)/(x+3) + (x-y)^3
+     */
+    private static GradientInterval f( GradientInterval x, GradientInterval y ) {
+        final GradientInterval three = GradientInterval.constant( new Interval( 3. ), x.dimension() );
+        return x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( three ) ) ).add( x.subtract( y ).pow( 3 ) );
+    }
+
+    private static Interval f( Interval x, Interval y ) {
+        return x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( new Interval( 3. ) ) ) ).add( x.subtract( y ).pow( 3 ) );
+    }
+
+    /**
+     * ∂f/∂x = y + 2x + sqrt(y)/(x+3)² + 3(x-y)²
+     * ∂f/∂y = x - 1/(2 sqrt(y)(x+3)) - 3(x-y)²
+     */
+    private static double[] gradient( double x, double y ) {
+        return new double[]{ y + 2.*x + Math.sqrt( y )/( (x+3.)*(x+3.) ) + 3.*(x-y)*(x-y),
+                             x - 1./( 2.*Math.sqrt( y )*(x+3.) ) - 3.*(x-y)*(x-y) };
+    }
+
+    /**
+     * Test of the arithmetic methods, of class GradientInterval: the value is
+     * the one of Interval, the gradient encloses the derivatives.
+     */
+    @Test
+    public void testArithmetic() {
+        System.out.println("add/subtract/mult/divide/sq/sqrt/pow");
+
+        Random random = new Random( 20 );
+        for( int k=0; k<100; k++ ) {
+            Interval x = new Interval( random.nextDouble()*2.-1., random.nextDouble()*2.-1. );
+            Interval y = new Interval( 0.5+random.nextDouble(), 0.5+random.nextDouble() );
+            GradientInterval result = f( GradientInterval.variable( x, 0, 2 ), GradientInterval.variable( y, 1, 2 ) );
+            assertEquals( f( x, y ), result.getValue() );
+
+            for( int j=0; j<10; j++ ) {
+                double a = x.getMinBound() + random.nextDouble()*x.width();
+                double b = y.getMinBound() + random.nextDouble()*y.width();
+                double[] expResult = gradient( a, b );
+                for( int i=0; i<2; i++ ) {
+                    assertTrue( result.getDerivativeMinBound( i ) <= expResult[i] + 1e-12 );
+                    assertTrue( expResult[i] - 1e-12 <= result.getDerivativeMaxBound( i ) );
+                }
+            }
+
+            // point: tight derivatives
+            GradientInterval point = f( GradientInterval.variable( new Interval( x.mid() ), 0, 2 ),
+                                        GradientInterval.variable( new Interval( y.mid() ), 1, 2 ) );
+            double[] expResult = gradient( x.mid(), y.mid() );
+            assertEquals( expResult[0], point.getDerivative( 0 ).mid(), 1e-12 );
+            assertEquals( expResult[1], point.getDerivative( 1 ).mid(), 1e-12 );
+            assertTrue( point.getDerivative( 0 ).width() < 1e-12 );
+        }
+    }
+
+    /**
+     * Test of the methods with a result parameter, of class GradientInterval:
+     * same results as the allocating methods when the result is an operand.
+     */
+    @Test
+    public void testInPlace() {
+        System.out.println("in place");
+
+        GradientInterval x = GradientInterval.variable( new Interval( 1., 2. ), 0, 2 );
+        GradientInterval y = GradientInterval.variable( new Interval( -3., -1. ), 1, 2 );
+        GradientInterval result = new GradientInterval( 2 ).set( x );
+
+        assertEquals( x.mult( y ), result.mult( y, result ) );
+        assertEquals( x.mult( y ).divide( x ), result.divide( x, result ) );
+        assertEquals( x.mult( y ).divide( x ).sq(), result.sq( result ) );
+        assertEquals( x.mult( y ).divide( x ).sq().pow( 3 ), result.pow( 3, result ) );
+        assertEquals( x.mult( y ).divide( x ).sq().pow( 3 ).sqrt(), result.sqrt( result ) );
+        assertEquals( x.add( y.subtract( x ) ), x.add( y.subtract( x, result ), result ) );
+
+        assertEquals( x.mult( 3. ), x.mult( GradientInterval.constant( new Interval( 3. ), 2 ) ) );
+        assertEquals( x.add( 3. ).getValue(), new Interval( 4., 5. ) );
+        assertEquals( x.divide( 2. ).getDerivative( 0 ), new Interval( 0.5 ) );
+        assertEquals( x.subtract( 1. ).getDerivative( 0 ), Interval.ONE );
+    }
+
+    /**
+     * Test of the special cases, of class GradientInterval.
+     */
+    @Test
+    public void testSpecialCases() {
+        System.out.println("special cases");
+
+        GradientInterval x = GradientInterval.variable( new Interval( 0., 4. ), 0, 2 );
+        GradientInterval sqrt = x.sqrt();
+        assertEquals( new Interval( 0., 2. ), sqrt.getValue() );
+        assertEquals( new Interval( Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY ), sqrt.getDerivative( 0 ) );
+        assertEquals( Interval.ZERO, sqrt.getDerivative( 1 ) );
+
+        assertEquals( Interval.ZERO, x.pow( 0 ).getDerivative( 0 ) );
+        assertTrue( x.pow( 0 ).isOne() );
+        // negative powers: n uⁿ⁻¹ × u'
+        GradientInterval y = GradientInterval.variable( new Interval( -3., -1. ), 1, 2 );
+        assertEquals( y.getValue().pow( -2 ), y.pow( -2 ).getValue() );
+        assertEquals( y.getValue().pow( -3 ).mult( -2. ), y.pow( -2 ).getDerivative( 1 ) );
+        assertEquals( y.getValue(), y.pow( 1 ).getValue() );
+        assertEquals( Interval.ONE, y.pow( 1 ).getDerivative( 1 ) );
+        assertTrue( x.subtract( x ).getValue().getMinBound() < 0. );
+        assertTrue( x.mult( x.zero() ).isZero() );
+        assertEquals( new IntervalBox( new Interval( 1. ), Interval.ZERO ), x.getGradient() );
+        assertEquals( "[ 0.0, 4.0 ], ∇ [ [ 1.0, 1.0 ], [ 0.0, 0.0 ] ]", x.toString() );
+
+        try {
+            GradientInterval.constant( Interval.ONE, 2 ).divide( x );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            x.pow( -1, x );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+            assertEquals( new Interval( 0., 4. ), x.getValue() );
+        }
+        try {
+            x.add( new GradientInterval( 3 ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+}
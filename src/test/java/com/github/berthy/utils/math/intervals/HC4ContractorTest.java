@@ -0,0 +1,147 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.math.BigDecimal;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class HC4ContractorTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    public HC4ContractorTest() {
+    }
+
+    private static HC4Contractor contractor( Expression constraint, Interval range ) {
+        return new HC4Contractor( new Expression[]{ constraint }, new Interval[]{ range }, 0.01 );
+    }
+
+    /**
+     * Test of the projections of the operators, of class HC4Contractor.
+     */
+    @Test
+    public void testProjections() {
+        System.out.println("projections");
+
+        ExpressionBuilder b = new ExpressionBuilder();
+        Expression x = b.variable( 0 ), y = b.variable( 1 );
+        IntervalBox box = new IntervalBox( new Interval( -10., 10. ), new Interval( 2., 3. ) );
+
+        // x + y = 5, x - y = 5
+        assertEquals( new Interval( 2., 3. ), contractor( x.add( y ), new Interval( 5. ) ).contract( box ).get( 0 ) );
+        assertEquals( new Interval( 7., 8. ), contractor( x.subtract( y ), new Interval( 5. ) ).contract( box ).get( 0 ) );
+        // x·y = 6, x/y = 2
+        assertEquals( new Interval( 2., 3. ), contractor( x.mult( y ), new Interval( 6. ) ).contract( box ).get( 0 ) );
+        assertEquals( new Interval( 4., 6. ), contractor( x.divide( y ), new Interval( 2. ) ).contract( box ).get( 0 ) );
+        // 6/x = y: x in [ 2, 3 ]
+        Interval inverse = contractor( b.constant( 6. ).divide( x ), new Interval( 2., 3. ) ).contract( box.with( 0, new Interval( 1., 10. ) ) ).get( 0 );
+        assertEquals( new Interval( 2., 3. ), inverse );
+        // x² = 4, sqrt(x) = 2, x³ = -8, x^4 <= 16
+        assertEquals( new Interval( -2., 2. ), contractor( x.sq(), new Interval( 4. ) ).contract( box ).get( 0 ) );
+        assertEquals( new Interval( 2., 2. ), contractor( x.sq(), new Interval( 4. ) ).contract( box.with( 0, new Interval( 0., 10. ) ) ).get( 0 ) );
+        assertEquals( new Interval( 4., 4. ), contractor( x.sqrt(), new Interval( 2. ) ).contract( box ).get( 0 ) );
+        assertEquals( new Interval( -2., -2. ), contractor( x.pow( 3 ), new Interval( -8. ) ).contract( box ).get( 0 ) );
+        assertEquals( new Interval( -2., 2. ), contractor( x.pow( 4 ), new Interval( -INF, 16. ) ).contract( box ).get( 0 ) );
+        // x^5 >= 1e300, x^7 <= -1e300: the rounding of 1/p must not cut the roots off
+        for( int p : new int[]{ 5, 7 } ) {
+            Interval upper = contractor( x.pow( p ), new Interval( 1e300, INF ) ).contract( box.with( 0, new Interval( 0., INF ) ) ).get( 0 );
+            assertTrue( new BigDecimal( upper.getMinBound() ).pow( p ).compareTo( new BigDecimal( 1e300 ) ) <= 0 );
+            assertEquals( Math.pow( 1e300, 1./p ), upper.getMinBound(), 1e-12*upper.getMinBound() );
+            Interval lower = contractor( x.pow( p ), new Interval( -INF, -1e300 ) ).contract( box.with( 0, new Interval( -INF, 0. ) ) ).get( 0 );
+            assertTrue( new BigDecimal( lower.getMaxBound() ).pow( p ).compareTo( new BigDecimal( -1e300 ) ) >= 0 );
+            assertEquals( -upper.getMinBound(), lower.getMaxBound(), 0. );
+        }
+        // the other variable is not changed
+        assertEquals( box.get( 1 ), contractor( x.sq(), new Interval( 4. ) ).contract( box ).get( 1 ) );
+    }
+
+    /**
+     * Test of the propagation over several constraints, of class
+     * HC4Contractor.
+     */
+    @Test
+    public void testPropagation() {
+        System.out.println("propagation");
+
+        ExpressionBuilder b = new ExpressionBuilder();
+        Expression x = b.variable( 0 ), y = b.variable( 1 );
+
+        // x² + y² = 1, x = y, on [ 0, 10 ]²: around ( √2/2, √2/2 )
+        HC4Contractor circle = new HC4Contractor( new Expression[]{ x.sq().add( y.sq() ), x.subtract( y ) },
+                                                  new Interval[]{ Interval.ONE, Interval.ZERO }, 0.001 );
+        IntervalBox result = circle.contract( new IntervalBox( new Interval( 0., 10. ), new Interval( 0., 10. ) ) );
+        assertTrue( result.contains( Math.sqrt( 0.5 ), Math.sqrt( 0.5 ) ) );
+        assertTrue( result.isSubsetOf( new IntervalBox( new Interval( 0., 1.+1e-12 ), new Interval( 0., 1.+1e-12 ) ) ) );
+
+        // x + y = 3, x - y = 1: HC4 is local, its fixpoint is [ 1, 3 ]x[ 0, 2 ]
+        HC4Contractor linear = new HC4Contractor( new Expression[]{ x.add( y ), x.subtract( y ) },
+                                                  new Interval[]{ new Interval( 3. ), new Interval( 1. ) }, 0. );
+        HC4Contractor.Propagator propagator = linear.newPropagator();
+        double[] xMin = { 0., 0. }, xMax = { 10., 10. };
+        assertTrue( propagator.contract( xMin, xMax ) );
+        assertArrayEquals( new double[]{ 1., 0. }, xMin, 0. );
+        assertArrayEquals( new double[]{ 3., 2. }, xMax, 0. );
+        assertTrue( propagator.getRevisionCount() >= 3 );
+        assertTrue( propagator.contract( xMin, xMax ) );
+        assertArrayEquals( new double[]{ 1., 0. }, xMin, 0. );
+        assertEquals( 2, propagator.getRevisionCount() );
+
+        // unbounded domains
+        result = circle.contract( new IntervalBox( new Interval( -INF, INF ), new Interval( 0., INF ) ) );
+        assertTrue( result.isSubsetOf( new IntervalBox( new Interval( 0., 1.+1e-12 ), new Interval( 0., 1.+1e-12 ) ) ) );
+        assertEquals( 2, circle.getVariableCount() );
+        assertEquals( 2, circle.getConstraintCount() );
+        assertEquals( 6, circle.getNodeCount() );
+    }
+
+    /**
+     * Test of the boxes without solution, of class HC4Contractor.
+     */
+    @Test
+    public void testEmpty() {
+        System.out.println("empty");
+
+        ExpressionBuilder b = new ExpressionBuilder();
+        Expression x = b.variable( 0 ), y = b.variable( 1 );
+        IntervalBox box = new IntervalBox( new Interval( 0., 1. ), new Interval( 0., 1. ) );
+
+        assertNull( contractor( x.sq().add( y.sq() ), new Interval( -1. ) ).contract( box ) );
+        assertNull( contractor( x.add( y ), new Interval( 5. ) ).contract( box ) );
+        assertNull( contractor( x.subtract( 2. ).sqrt(), Interval.ONE ).contract( box ) );
+        assertNull( new HC4Contractor( new Expression[]{ x.add( y ), x.subtract( y ) },
+                                       new Interval[]{ Interval.ONE, new Interval( 2. ) }, 0. ).contract( box ) );
+    }
+
+    /**
+     * Test of the errors, of class HC4Contractor.
+     */
+    @Test
+    public void testErrors() {
+        System.out.println("errors");
+
+        ExpressionBuilder b = new ExpressionBuilder();
+        Expression x = b.variable( 0 ), y = b.variable( 1 );
+        try {
+            new HC4Contractor( new Expression[]{ x, y }, new Interval[]{ Interval.ONE }, 0. );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            new HC4Contractor( new Expression[]{ x, new ExpressionBuilder().variable( 0 ) }, new Interval[]{ Interval.ONE, Interval.ONE }, 0. );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            contractor( x.add( y ), Interval.ONE ).contract( new IntervalBox( Interval.ONE ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            new HC4Contractor( new Expression[]{ x }, new Interval[]{ Interval.ONE }, 1. );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalAccumulatorTest {
+
+    public IntervalAccumulatorTest() {
+    }
+
+    /**
+     * Test of the in place operations, of class IntervalAccumulator: a chain of
+     * operations must give the same result as the same chain on Interval.
+     */
+    @Test
+    public void testChainedOperations() {
+        System.out.println("chained operations");
+
+        Random random = new Random( 7 );
+        for( int test=0; test<100; test++ ) {
+
+            Interval expResult = new Interval( random.nextGaussian(), random.nextGaussian() );
+            IntervalAccumulator instance = new IntervalAccumulator( expResult );
+
+            for( int step=0; step<50; step++ ) {
+                Interval x = new Interval( random.nextGaussian(), random.nextGaussian() );
+                Interval y = new Interval( random.nextGaussian(), random.nextGaussian() );
+                double d = random.nextGaussian();
+
+                switch( random.nextInt( 10 ) ) {
+                    case 0: expResult = expResult.add( x );       instance.add( x );       break;
+                    case 1: expResult = expResult.add( d );       instance.add( d );       break;
+                    case 2: expResult = expResult.subtract( x );  instance.subtract( x );  break;
+                    case 3: expResult = expResult.subtract( d );  instance.subtract( d );  break;
+                    case 4: expResult = expResult.mult( x );      instance.mult( x );      break;
+                    case 5: expResult = expResult.mult( d );      instance.mult( d );      break;
+                    case 6: expResult = expResult.sq();           instance.sq();           break;
+                    case 7: expResult = expResult.add( x.mult( y ) ); instance.fma( x, y ); break;
+                    case 8: expResult = expResult.add( x.mult( d ) ); instance.fma( x, d ); break;
+                    default:
+                        if( !y.zeroElementOfThis() ) {
+                            expResult = expResult.divide( y );
+                            instance.divide( y );
+                        } else {
+                            expResult = expResult.divide( d );
+                            instance.divide( d );
+                        }
+                }
+                assertEquals( expResult, instance.toInterval() );
+            }
+        }
+    }
+
+    /**
+     * Test of divide method, of class IntervalAccumulator.
+     */
+    @Test
+    public void testDivideByZero() {
+        System.out.println("divide by zero");
+
+        IntervalAccumulator instance = new IntervalAccumulator( 1., 2. );
+        try {
+            instance.divide( new Interval( -1., 1. ) );
+            fail( "ArithmeticException not thrown." );
+        } catch( ArithmeticException expected ) {
+        }
+        try {
+            instance.divide( 0. );
+            fail( "ArithmeticException not thrown." );
+        } catch( ArithmeticException expected ) {
+        }
+        assertEquals( new Interval( 1., 2. ), instance.toInterval() );
+    }
+
+    /**
+     * Test of set and reset methods, of class IntervalAccumulator.
+     */
+    @Test
+    public void testSetReset() {
+        System.out.println("set/reset");
+
+        IntervalAccumulator instance = new IntervalAccumulator();
+        instance.set( 3., -1. );
+        assertEquals( -1., instance.getMinBound(), 0. );
+        assertEquals( 3., instance.getMaxBound(), 0. );
+        assertEquals( Interval.ZERO, instance.reset().toInterval() );
+    }
+}
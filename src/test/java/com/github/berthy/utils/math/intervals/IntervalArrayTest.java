@@ -0,0 +1,157 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalArrayTest {
+
+    private final static double[] BOUNDS = { Double.NEGATIVE_INFINITY, -1e300, -7., -2.5, -1., -1e-300, -0.,
+                                             0., 1e-300, 0.5, 1., 3., 1e300, Double.POSITIVE_INFINITY };
+
+    private final static IntervalArray X, Y;
+
+    static {
+        // all pairs of intervals built from BOUNDS, plus random ones
+        Random random = new Random( 42 );
+        int n = BOUNDS.length*BOUNDS.length;
+        Interval[] x = new Interval[n*n+1000];
+        Interval[] y = new Interval[n*n+1000];
+        int k = 0;
+        for( int i=0; i<n; i++ ) {
+            for( int j=0; j<n; j++ ) {
+                x[k] = new Interval( BOUNDS[i/BOUNDS.length], BOUNDS[i%BOUNDS.length] );
+                y[k] = new Interval( BOUNDS[j/BOUNDS.length], BOUNDS[j%BOUNDS.length] );
+                k++;
+            }
+        }
+        for( ; k<x.length; k++ ) {
+            x[k] = new Interval( 10.*random.nextGaussian(), 10.*random.nextGaussian() );
+            y[k] = new Interval( 10.*random.nextGaussian(), 10.*random.nextGaussian() );
+        }
+        X = new IntervalArray( x );
+        Y = new IntervalArray( y );
+    }
+
+    public IntervalArrayTest() {
+    }
+
+    /**
+     * Test of constructors, get and set methods, of class IntervalArray.
+     */
+    @Test
+    public void testGetSet() {
+        System.out.println("get/set");
+
+        IntervalArray instance = new IntervalArray( new double[]{ 1., 5., -2. }, new double[]{ 2., 3., -2. } );
+        assertEquals( 3, instance.size() );
+        assertEquals( new Interval( 1., 2. ), instance.get( 0 ) );
+        assertEquals( new Interval( 3., 5. ), instance.get( 1 ) );
+        assertEquals( new Interval( -2. ), instance.get( 2 ) );
+
+        instance.set( 1, new Interval( -4., 4. ) );
+        assertEquals( -4., instance.getMinBound( 1 ), 0. );
+        assertEquals( 4., instance.getMaxBound( 1 ), 0. );
+
+        List<Interval> list = instance.asList();
+        assertEquals( 3, list.size() );
+        assertEquals( new Interval( -4., 4. ), list.get( 1 ) );
+        assertArrayEquals( list.toArray(), instance.toArray() );
+    }
+
+    /**
+     * Test of add, subtract, mult and divide methods, of class IntervalArray.
+     */
+    @Test
+    public void testBinaryOperators() {
+        System.out.println("add/subtract/mult/divide");
+
+        IntervalArray sum = X.add( Y );
+        IntervalArray difference = X.subtract( Y );
+        IntervalArray product = X.mult( Y );
+        for( int i=0; i<X.size(); i++ ) {
+            assertEquals( X.get( i ).add( Y.get( i ) ), sum.get( i ) );
+            assertEquals( X.get( i ).subtract( Y.get( i ) ), difference.get( i ) );
+            assertEquals( X.get( i ).mult( Y.get( i ) ), product.get( i ) );
+        }
+
+        IntervalArray quotient = new IntervalArray( 1 );
+        for( int i=0; i<X.size(); i++ ) {
+            IntervalArray x = new IntervalArray( X.get( i ) );
+            IntervalArray y = new IntervalArray( Y.get( i ) );
+            try {
+                Interval expResult = X.get( i ).divide( Y.get( i ) );
+                assertEquals( expResult, x.divide( y, quotient ).get( 0 ) );
+            } catch( ArithmeticException ae ) {
+                try {
+                    x.divide( y, quotient );
+                    fail( "ArithmeticException not thrown." );
+                } catch( ArithmeticException expected ) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of in place operations, of class IntervalArray.
+     */
+    @Test
+    public void testInPlace() {
+        System.out.println("in place");
+
+        IntervalArray expResult = X.mult( Y );
+        IntervalArray result = new IntervalArray( X.toArray() );
+        assertSame( result, result.mult( Y, result ) );
+        assertEquals( expResult, result );
+
+        expResult = X.subtract( Y );
+        result = new IntervalArray( Y.toArray() );
+        X.subtract( result, result );
+        assertEquals( expResult, result );
+    }
+
+    /**
+     * Test of sq, sqrt and pow methods, of class IntervalArray.
+     */
+    @Test
+    public void testUnaryOperators() {
+        System.out.println("sq/sqrt/pow");
+
+        IntervalArray sq = X.sq();
+        IntervalArray sqrt = X.sqrt();
+        for( int i=0; i<X.size(); i++ ) {
+            assertEquals( X.get( i ).sq(), sq.get( i ) );
+            assertEquals( X.get( i ).sqrt(), sqrt.get( i ) );
+        }
+
+        for( int n=-3; n<=5; n++ ) {
+            IntervalArray result = new IntervalArray( 1 );
+            for( int i=0; i<X.size(); i++ ) {
+                IntervalArray x = new IntervalArray( X.get( i ) );
+                if( n<0 && X.get( i ).zeroElementOfThis() ) {
+                    try {
+                        x.pow( n, result );
+                        fail( "ArithmeticException not thrown." );
+                    } catch( ArithmeticException expected ) {
+                    }
+                } else {
+                    assertEquals( X.get( i ).pow( n ), x.pow( n, result ).get( 0 ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of length checks, of class IntervalArray.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testLengthMismatch() {
+        System.out.println("length mismatch");
+
+        X.add( new IntervalArray( 3 ) );
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalBoxTest {
+
+    public IntervalBoxTest() {
+    }
+
+    /**
+     * Test of constructors and getters, of class IntervalBox.
+     */
+    @Test
+    public void testGetters() {
+        System.out.println("constructors/getters");
+
+        IntervalBox instance = new IntervalBox( new double[]{ 1., 5., -2. }, new double[]{ 2., 3., -2. } );
+        assertEquals( 3, instance.dimension() );
+        assertEquals( new Interval( 1., 2. ), instance.get( 0 ) );
+        assertEquals( new Interval( 3., 5. ), instance.get( 1 ) );
+        assertEquals( -2., instance.getMinBound( 2 ), 0. );
+        assertEquals( instance, new IntervalBox( instance.toArray() ) );
+        assertEquals( instance.hashCode(), new IntervalBox( instance.toArray() ).hashCode() );
+
+        assertEquals( 2., instance.width( 1 ), 0. );
+        assertEquals( 2., instance.width(), 0. );
+        assertEquals( 1, instance.widestDimension() );
+        assertArrayEquals( new double[]{ 1.5, 4., -2. }, instance.mid(), 0. );
+        assertEquals( IntervalBox.point( 1.5, 4., -2. ), instance.midpoint() );
+        assertEquals( 0., instance.volume(), 0. );
+        assertEquals( 2., new IntervalBox( new Interval( 0., 1. ), new Interval( 3., 5. ) ).volume(), 0. );
+
+        assertEquals( new Interval( -1., 1. ), instance.with( 2, new Interval( -1., 1. ) ).get( 2 ) );
+        assertEquals( new Interval( -2. ), instance.get( 2 ) );
+        assertEquals( "[ [ 1.0, 2.0 ], [ 3.0, 5.0 ], [ -2.0, -2.0 ] ]", instance.toString() );
+    }
+
+    /**
+     * Test of bisect methods, of class IntervalBox: each half shares one
+     * bounds array with the box.
+     */
+    @Test
+    public void testBisect() {
+        System.out.println("bisect");
+
+        IntervalBox instance = new IntervalBox( new Interval( 0., 1. ), new Interval( -4., 4. ), new Interval( 2., 3. ) );
+        IntervalBox[] halves = instance.bisect();
+        assertEquals( new IntervalBox( new Interval( 0., 1. ), new Interval( -4., 0. ), new Interval( 2., 3. ) ), halves[0] );
+        assertEquals( new IntervalBox( new Interval( 0., 1. ), new Interval( 0., 4. ), new Interval( 2., 3. ) ), halves[1] );
+        assertTrue( halves[0].sharesBounds( instance ) );
+        assertTrue( halves[1].sharesBounds( instance ) );
+        assertEquals( instance, halves[0].hull( halves[1] ) );
+
+        halves = instance.bisect( 0, 10. );
+        assertEquals( instance, halves[0] );
+        assertEquals( 0., halves[1].width( 0 ), 0. );
+    }
+
+    /**
+     * Test of add, subtract, mult and divide methods, of class IntervalBox:
+     * same results as Interval.
+     */
+    @Test
+    public void testArithmetic() {
+        System.out.println("add/subtract/mult/divide");
+
+        Random random = new Random( 71 );
+        Interval[] x = new Interval[20], y = new Interval[20], z = new Interval[20];
+        for( int i=0; i<x.length; i++ ) {
+            x[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            y[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            z[i] = new Interval( 1. + random.nextDouble(), 1. + random.nextDouble() );
+        }
+        IntervalBox boxX = new IntervalBox( x ), boxY = new IntervalBox( y ), boxZ = new IntervalBox( z );
+        IntervalBox sum = boxX.add( boxY );
+        IntervalBox difference = boxX.subtract( boxY );
+        IntervalBox product = boxX.mult( boxY );
+        IntervalBox scaled = boxX.mult( -3. );
+        IntervalBox quotient = boxX.divide( boxZ );
+        for( int i=0; i<x.length; i++ ) {
+            assertEquals( x[i].add( y[i] ), sum.get( i ) );
+            assertEquals( x[i].subtract( y[i] ), difference.get( i ) );
+            assertEquals( x[i].mult( y[i] ), product.get( i ) );
+            assertEquals( x[i].mult( -3. ), scaled.get( i ) );
+            assertEquals( x[i].divide( z[i] ), quotient.get( i ) );
+        }
+
+        try {
+            boxX.divide( boxY.hull( IntervalBox.point( new double[20] ) ) );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            boxX.add( IntervalBox.point( 1. ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of intersection, hull, isSubsetOf and contains methods, of class
+     * IntervalBox.
+     */
+    @Test
+    public void testSetOperations() {
+        System.out.println("intersection/hull/isSubsetOf/contains");
+
+        IntervalBox a = new IntervalBox( new Interval( 0., 2. ), new Interval( 0., 2. ) );
+        IntervalBox b = new IntervalBox( new Interval( 1., 3. ), new Interval( -1., 1. ) );
+        IntervalBox c = new IntervalBox( new Interval( 5., 6. ), new Interval( 0., 1. ) );
+
+        assertEquals( new IntervalBox( new Interval( 1., 2. ), new Interval( 0., 1. ) ), a.intersection( b ) );
+        assertNull( a.intersection( c ) );
+        assertFalse( a.intersects( c ) );
+        assertEquals( new IntervalBox( new Interval( 0., 6. ), new Interval( 0., 2. ) ), a.hull( c ) );
+        assertTrue( a.intersection( b ).isSubsetOf( a ) );
+        assertFalse( b.isSubsetOf( a ) );
+        assertTrue( a.contains( 2., 0. ) );
+        assertFalse( a.contains( 2.5, 0. ) );
+    }
+}
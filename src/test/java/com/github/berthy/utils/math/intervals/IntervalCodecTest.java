@@ -0,0 +1,219 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalCodecTest {
+
+    public IntervalCodecTest() {
+    }
+
+    /**
+     * Test of write and read methods on a ByteBuffer, of class IntervalCodec.
+     */
+    @Test
+    public void testByteBuffer() {
+        System.out.println("ByteBuffer");
+
+        Interval interval = new Interval( -1.5, Double.POSITIVE_INFINITY );
+        GeneralizedInterval generalized = randomGeneralizedInterval( new Random( 53 ), 100 );
+        IntervalArray array = randomArray( new Random( 59 ), 100 );
+
+        // big endian heap buffer: the encoding is little endian anyway
+        ByteBuffer buffer = ByteBuffer.allocate( 10000 );
+        IntervalCodec.write( buffer, interval );
+        IntervalCodec.write( buffer, generalized );
+        IntervalCodec.write( buffer, array );
+        IntervalCodec.write( buffer, GeneralizedInterval.ofBounds( new double[0] ) );
+        assertEquals( IntervalCodec.encodedSize( interval ) + IntervalCodec.encodedSize( generalized )
+                      + IntervalCodec.encodedSize( array ) + IntervalCodec.HEADER_BYTES, buffer.position() );
+        assertEquals( ByteOrder.BIG_ENDIAN, buffer.order() );
+        assertEquals( -1.5, buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN ).getDouble( IntervalCodec.HEADER_BYTES ), 0. );
+
+        buffer.flip();
+        assertEquals( IntervalCodec.INTERVAL, IntervalCodec.peekType( buffer ) );
+        assertEquals( interval, IntervalCodec.readInterval( buffer ) );
+        assertEquals( IntervalCodec.GENERALIZED_INTERVAL, IntervalCodec.peekType( buffer ) );
+        assertEquals( generalized, IntervalCodec.readGeneralizedInterval( buffer ) );
+        assertEquals( array.asList(), IntervalCodec.readIntervalArray( buffer ).asList() );
+        assertEquals( 0, IntervalCodec.readGeneralizedInterval( buffer ).size() );
+        assertFalse( buffer.hasRemaining() );
+
+        try {
+            IntervalCodec.write( ByteBuffer.allocate( 20 ), interval );
+            fail( "BufferOverflowException expected" );
+        } catch( BufferOverflowException e ) {
+        }
+    }
+
+    /**
+     * Test of view method, of class IntervalCodec: the intervals are not
+     * copied.
+     */
+    @Test
+    public void testView() {
+        System.out.println("view");
+
+        IntervalArray array = randomArray( new Random( 61 ), 1000 );
+        ByteBuffer buffer = ByteBuffer.allocateDirect( 4 + (int)IntervalCodec.encodedSize( array ) + 24 );
+        buffer.position( 4 );
+        IntervalCodec.write( buffer, array );
+        IntervalCodec.write( buffer, new Interval( 7. ) );
+        buffer.flip().position( 4 );
+
+        OffHeapIntervalArray view = IntervalCodec.view( buffer );
+        assertEquals( array.size(), view.size() );
+        for( int i=0; i<array.size(); i++ )
+            assertEquals( array.get( i ), view.get( i ) );
+        assertEquals( new Interval( 7. ), IntervalCodec.view( buffer ).get( 0 ) );
+        assertFalse( buffer.hasRemaining() );
+
+        // same memory
+        view.set( 3, -5., 5. );
+        buffer.position( 4 );
+        assertEquals( new Interval( -5., 5. ), IntervalCodec.readIntervalArray( buffer ).get( 3 ) );
+        assertTrue( IntervalCodec.view( buffer.asReadOnlyBuffer().position( 4 ) ).isReadOnly() );
+    }
+
+    /**
+     * Test of Writer and Reader, of class IntervalCodec: many records, larger
+     * than the buffers.
+     */
+    @Test
+    public void testWriterReader() throws IOException {
+        System.out.println("Writer/Reader");
+
+        Random random = new Random( 67 );
+        List<Object> values = new ArrayList<>();
+        for( int i=0; i<10000; i++ )
+            values.add( new Interval( random.nextGaussian(), random.nextGaussian() ) );
+        values.add( randomGeneralizedInterval( random, 10000 ) );
+        values.add( randomArray( random, 10000 ) );
+        values.add( new Interval( 1. ) );
+        values.add( OffHeapIntervalArray.copyOf( randomArray( random, 10000 ) ) );
+        values.add( new Interval( 2. ) );
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try( IntervalCodec.Writer writer = new IntervalCodec.Writer( Channels.newChannel( output ) ) ) {
+            for( Object value : values ) {
+                if( value instanceof Interval )
+                    writer.write( (Interval)value );
+                else if( value instanceof GeneralizedInterval )
+                    writer.write( (GeneralizedInterval)value );
+                else if( value instanceof IntervalArray )
+                    writer.write( (IntervalArray)value );
+                else
+                    writer.write( (OffHeapIntervalArray)value );
+            }
+        }
+
+        try( IntervalCodec.Reader reader = new IntervalCodec.Reader( Channels.newChannel( new ByteArrayInputStream( output.toByteArray() ) ) ) ) {
+            for( Object value : values ) {
+                assertTrue( reader.hasNext() );
+                if( value instanceof Interval ) {
+                    assertEquals( IntervalCodec.INTERVAL, reader.nextType() );
+                    assertEquals( value, reader.readInterval() );
+                } else if( value instanceof GeneralizedInterval ) {
+                    assertEquals( value, reader.readGeneralizedInterval() );
+                } else if( value instanceof IntervalArray ) {
+                    assertEquals( ((IntervalArray)value).asList(), reader.readIntervalArray().asList() );
+                } else {
+                    assertEquals( ((OffHeapIntervalArray)value).toIntervalArray().asList(), reader.readOffHeapIntervalArray().toIntervalArray().asList() );
+                }
+            }
+            assertFalse( reader.hasNext() );
+        }
+    }
+
+    /**
+     * Test of the errors, of class IntervalCodec.
+     */
+    @Test
+    public void testMalformed() throws IOException {
+        System.out.println("malformed records");
+
+        ByteBuffer buffer = ByteBuffer.allocate( 100 );
+        IntervalCodec.write( buffer, new Interval( 1., 2. ) );
+        buffer.flip();
+        // wrong type
+        try {
+            IntervalCodec.readGeneralizedInterval( buffer.duplicate() );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        // unknown version
+        try {
+            IntervalCodec.readInterval( buffer.duplicate().put( 0, (byte)2 ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+
+        // unsorted generalized interval
+        buffer.clear();
+        IntervalCodec.write( buffer, new GeneralizedInterval( Arrays.asList( new Interval( 1., 2. ), new Interval( 3., 4. ) ) ) );
+        buffer.flip();
+        buffer.duplicate().order( ByteOrder.LITTLE_ENDIAN ).putDouble( IntervalCodec.HEADER_BYTES + 16, 1.5 );
+        try {
+            IntervalCodec.readGeneralizedInterval( buffer );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        assertEquals( 0, buffer.position() );
+
+        // truncated stream
+        byte[] truncated = Arrays.copyOf( buffer.array(), buffer.limit()-1 );
+        try( IntervalCodec.Reader reader = new IntervalCodec.Reader( Channels.newChannel( new ByteArrayInputStream( truncated ) ) ) ) {
+            reader.readGeneralizedInterval();
+            fail( "EOFException expected" );
+        } catch( EOFException e ) {
+        }
+
+        // huge count in the header of a short stream: no allocation of the count
+        for( int read=0; read<3; read++ ) {
+            ByteBuffer corrupted = ByteBuffer.allocate( IntervalCodec.HEADER_BYTES + 3*16 ).order( ByteOrder.LITTLE_ENDIAN );
+            corrupted.put( (byte)IntervalCodec.VERSION ).put( (byte)( read == 0 ? IntervalCodec.GENERALIZED_INTERVAL : IntervalCodec.INTERVAL_ARRAY ) )
+                     .putShort( (short)0 ).putInt( Integer.MAX_VALUE/2 );
+            try( IntervalCodec.Reader reader = new IntervalCodec.Reader( Channels.newChannel( new ByteArrayInputStream( corrupted.array() ) ) ) ) {
+                if( read == 0 )
+                    reader.readGeneralizedInterval();
+                else if( read == 1 )
+                    reader.readIntervalArray();
+                else
+                    reader.readOffHeapIntervalArray();
+                fail( "EOFException expected" );
+            } catch( EOFException e ) {
+            }
+        }
+    }
+
+    private static GeneralizedInterval randomGeneralizedInterval( Random random, int size ) {
+        List<Interval> intervals = new ArrayList<>();
+        for( int i=0; i<size; i++ ) {
+            double min = 1000.*random.nextGaussian();
+            intervals.add( new Interval( min, min + random.nextDouble() ) );
+        }
+        return new GeneralizedInterval( intervals );
+    }
+
+    private static IntervalArray randomArray( Random random, int size ) {
+        IntervalArray result = new IntervalArray( size );
+        for( int i=0; i<size; i++ )
+            result.set( i, random.nextGaussian(), random.nextGaussian() );
+        return result;
+    }
+}
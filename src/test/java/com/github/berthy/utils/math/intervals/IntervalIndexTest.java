@@ -0,0 +1,93 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalIndexTest {
+
+    public IntervalIndexTest() {
+    }
+
+    /**
+     * Test of overlapping and containing methods, of class IntervalIndex: same
+     * ids as a linear scan with Interval.intersects.
+     */
+    @Test
+    public void testQueries_random() {
+        System.out.println("queries random");
+
+        Random random = new Random( 29 );
+        for( int n : new int[]{ 0, 1, 2, 7, 15, 16, 17, 100, 1000, 5000 } ) {
+
+            Interval[] intervals = new Interval[n];
+            for( int i=0; i<n; i++ ) {
+                // small integers: many common bounds
+                double min = random.nextInt( 200 );
+                intervals[i] = new Interval( min, min + ( random.nextInt( 10 ) == 0 ? random.nextInt( 100 ) : random.nextInt( 5 ) ) );
+            }
+            IntervalIndex instance = new IntervalIndex( intervals );
+            assertEquals( n, instance.size() );
+
+            double[] points = new double[50];
+            for( int test=0; test<points.length; test++ ) {
+                double a = random.nextInt( 220 ) - 10;
+                double b = a + random.nextInt( 10 );
+                points[test] = a;
+
+                Interval query = new Interval( a, b );
+                assertArrayEquals( scan( intervals, query ), sorted( instance.overlapping( query ) ) );
+                assertArrayEquals( scan( intervals, new Interval( a ) ), sorted( instance.containing( a ) ) );
+            }
+
+            int[][] result = instance.containing( points );
+            for( int i=0; i<points.length; i++ )
+                assertArrayEquals( scan( intervals, new Interval( points[i] ) ), sorted( result[i] ) );
+        }
+    }
+
+    /**
+     * Test of the results' order, of class IntervalIndex: increasing minimum bound.
+     */
+    @Test
+    public void testOrder() {
+        System.out.println("order");
+
+        IntervalIndex instance = new IntervalIndex(
+                new Interval( 5., 6. ), new Interval( 0., 10. ), new Interval( 2., 3. ), new Interval( 3., 4. ), new Interval( 11., 12. ) );
+        assertArrayEquals( new int[]{ 1, 2, 3 }, instance.containing( 3. ) );
+        assertArrayEquals( new int[]{ 1, 2, 3, 0 }, instance.overlapping( 6., 2.5 ) );
+        assertArrayEquals( new int[]{}, instance.containing( 10.5 ) );
+        assertArrayEquals( new int[]{ 4 }, instance.overlapping( new Interval( 12., 20. ) ) );
+    }
+
+    /**
+     * Test of the constructor, of class IntervalIndex.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testInvalidInterval() {
+        System.out.println("invalid interval");
+
+        new IntervalIndex( new double[]{ 0., Double.NaN }, new double[]{ 1., 2. } );
+    }
+
+    private static int[] scan( Interval[] intervals, Interval query ) {
+        List<Integer> list = new ArrayList<>();
+        for( int i=0; i<intervals.length; i++ ) {
+            if( intervals[i].intersects( query ) )
+                list.add( i );
+        }
+        return list.stream().mapToInt( Integer::intValue ).toArray();
+    }
+
+    private static int[] sorted( int[] ids ) {
+        int[] result = ids.clone();
+        java.util.Arrays.sort( result );
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalKernelsTest {
+
+    private final static double[] BOUNDS = { Double.NEGATIVE_INFINITY, -1e300, -3., -1e-300, -0.,
+                                             0., 1e-300, 0.5, 2., 1e300, Double.POSITIVE_INFINITY, Double.NaN };
+
+    private final static int SIZE = 1000;
+
+    private final double[] xMin = new double[SIZE], xMax = new double[SIZE];
+    private final double[] yMin = new double[SIZE], yMax = new double[SIZE];
+
+    public IntervalKernelsTest() {
+        Random random = new Random( 3 );
+        for( int i=0; i<SIZE; i++ ) {
+            if( random.nextBoolean() ) {
+                set( xMin, xMax, i, BOUNDS[random.nextInt( BOUNDS.length )], BOUNDS[random.nextInt( BOUNDS.length )] );
+                set( yMin, yMax, i, BOUNDS[random.nextInt( BOUNDS.length )], BOUNDS[random.nextInt( BOUNDS.length )] );
+            } else {
+                set( xMin, xMax, i, random.nextGaussian(), random.nextGaussian() );
+                set( yMin, yMax, i, random.nextGaussian(), random.nextGaussian() );
+            }
+        }
+    }
+
+    private static void set( double[] min, double[] max, int i, double a, double b ) {
+        Interval interval = new Interval( a, b );
+        min[i] = interval.getMinBound();
+        max[i] = interval.getMaxBound();
+    }
+
+    /**
+     * Test of the vector kernels: same results as the scalar kernels, bit for bit.
+     */
+    @Test
+    public void testVectorKernels() {
+        System.out.println("vector kernels");
+
+        IntervalKernels vector = IntervalKernels.vectorKernels();
+        Assume.assumeNotNull( vector );
+        IntervalKernels scalar = ScalarIntervalKernels.INSTANCE;
+
+        for( int from=0; from<3; from++ ) {
+            for( int to=from; to<40; to++ ) {
+                check( scalar, vector, 0, from, to );
+                check( scalar, vector, 1, from, to );
+                check( scalar, vector, 2, from, to );
+            }
+            check( scalar, vector, 0, from, SIZE );
+            check( scalar, vector, 1, from, SIZE );
+            check( scalar, vector, 2, from, SIZE );
+        }
+    }
+
+    /**
+     * Test of the vector divide kernel: same results as the scalar kernel, bit
+     * for bit, including the elements written before an ArithmeticException.
+     */
+    @Test
+    public void testVectorDivide() {
+        System.out.println("vector divide");
+
+        IntervalKernels vector = IntervalKernels.vectorKernels();
+        Assume.assumeNotNull( vector );
+        IntervalKernels scalar = ScalarIntervalKernels.INSTANCE;
+
+        for( int from=0; from<3; from++ ) {
+            for( int to=from; to<SIZE; to+=7 ) {
+                double[][] expResult = divide( scalar, from, to );
+                double[][] result = divide( vector, from, to );
+                assertArrayEquals( expResult[0], result[0], 0. );
+                assertArrayEquals( expResult[1], result[1], 0. );
+                assertTrue( Arrays.equals( expResult[2], result[2] ) );
+            }
+        }
+    }
+
+    /**
+     * Test of the selected implementation.
+     */
+    @Test
+    public void testInstance() {
+        System.out.println("instance: " + IntervalKernels.INSTANCE);
+
+        assertNotNull( IntervalKernels.INSTANCE );
+    }
+
+    private void check( IntervalKernels expected, IntervalKernels actual, int operator, int from, int to ) {
+        double[] expMin = new double[SIZE], expMax = new double[SIZE];
+        double[] resMin = new double[SIZE], resMax = new double[SIZE];
+        switch( operator ) {
+            case 0:
+                expected.add( xMin, xMax, yMin, yMax, expMin, expMax, from, to );
+                actual.add( xMin, xMax, yMin, yMax, resMin, resMax, from, to );
+                break;
+            case 1:
+                expected.subtract( xMin, xMax, yMin, yMax, expMin, expMax, from, to );
+                actual.subtract( xMin, xMax, yMin, yMax, resMin, resMax, from, to );
+                break;
+            default:
+                expected.mult( xMin, xMax, yMin, yMax, expMin, expMax, from, to );
+                actual.mult( xMin, xMax, yMin, yMax, resMin, resMax, from, to );
+        }
+        // Arrays.equals compares the bits of the doubles (signed zeros, NaN)
+        assertTrue( "operator " + operator + " [" + from + ", " + to + ")", Arrays.equals( expMin, resMin ) );
+        assertTrue( "operator " + operator + " [" + from + ", " + to + ")", Arrays.equals( expMax, resMax ) );
+    }
+
+    /**
+     * @return { { exception index or -1 }, { exception thrown: 1 or 0 }, result bounds }
+     */
+    private double[][] divide( IntervalKernels kernels, int from, int to ) {
+        double[] resMin = new double[SIZE], resMax = new double[SIZE];
+        boolean thrown = false;
+        try {
+            kernels.divide( xMin, xMax, yMin, yMax, resMin, resMax, from, to );
+        } catch( ArithmeticException ae ) {
+            thrown = true;
+        }
+        double[] bounds = new double[2*SIZE];
+        System.arraycopy( resMin, 0, bounds, 0, SIZE );
+        System.arraycopy( resMax, 0, bounds, SIZE, SIZE );
+        return new double[][] { { from }, { thrown ? 1. : 0. }, bounds };
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.berthy.utils.math.intervals;
+
+import com.github.berthy.utils.math.intervals.IntervalLinearSolver.Method;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalLinearSolverTest {
+
+    public IntervalLinearSolverTest() {
+    }
+
+    private static boolean contains( IntervalArray x, double[] point ) {
+        for( int i=0; i<point.length; i++ )
+            if( !( x.getMinBound( i ) <= point[i] && point[i] <= x.getMaxBound( i ) ) )
+                return false;
+        return true;
+    }
+
+    /**
+     * Random diagonally dominant interval matrix.
+     */
+    private static IntervalMatrix dominant( Random random, int n, double radius ) {
+        IntervalMatrix a = new IntervalMatrix( n, n );
+        for( int i=0; i<n; i++ ) {
+            for( int j=0; j<n; j++ ) {
+                final double m = i == j ? n : random.nextDouble()*2.-1.;
+                a.set( i, j, m-radius, m+radius );
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Test of a point system, of class IntervalLinearSolver.
+     */
+    @Test
+    public void testPointSystem() {
+        System.out.println("pointSystem");
+
+        // solution ( 1, -2, 3 )
+        IntervalMatrix a = new IntervalMatrix( new double[][]{ { 4., 1., -1. }, { 2., 7., 1. }, { 1., -3., 12. } } );
+        IntervalArray b = new IntervalArray( new Interval( -1. ), new Interval( -9. ), new Interval( 43. ) );
+        double[] solution = { 1., -2., 3. };
+        for( Method method : Method.values() ) {
+            IntervalArray x = new IntervalLinearSolver( method, 0., 20 ).solve( a, b );
+            assertTrue( method.toString(), contains( x, solution ) );
+            for( int i=0; i<3; i++ )
+                assertEquals( method.toString(), 0., x.getMaxBound( i )-x.getMinBound( i ), 1e-12 );
+        }
+    }
+
+    /**
+     * Test of an interval system, of class IntervalLinearSolver: the
+     * solutions of point systems in [ A ], [ b ] are enclosed.
+     */
+    @Test
+    public void testIntervalSystem() {
+        System.out.println("intervalSystem");
+
+        Random random = new Random( 241 );
+        int n = 12;
+        IntervalMatrix a = dominant( random, n, 0.05 );
+        IntervalArray b = new IntervalArray( n );
+        for( int i=0; i<n; i++ )
+            b.set( i, random.nextDouble()-0.1, random.nextDouble()+0.1 );
+
+        IntervalArray gaussSeidel = new IntervalLinearSolver( Method.GAUSS_SEIDEL, 0., 50 ).solve( a, b );
+        IntervalArray krawczyk = new IntervalLinearSolver( Method.KRAWCZYK, 0., 50 ).solve( a, b );
+        IntervalArray initial = new IntervalLinearSolver( Method.KRAWCZYK, 0., 0 ).solve( a, b );
+
+        for( int sample=0; sample<200; sample++ ) {
+            double[][] point = new double[n][n];
+            double[] rhs = new double[n];
+            for( int i=0; i<n; i++ ) {
+                for( int j=0; j<n; j++ )
+                    point[i][j] = a.getMinBound( i, j ) + random.nextDouble()*( a.getMaxBound( i, j )-a.getMinBound( i, j ) );
+                rhs[i] = b.getMinBound( i ) + random.nextDouble()*( b.getMaxBound( i )-b.getMinBound( i ) );
+            }
+            double[][] inverse = IntervalLinearSolver.inverse( point, null );
+            double[] x = new double[n];
+            for( int i=0; i<n; i++ )
+                for( int j=0; j<n; j++ )
+                    x[i] += inverse[i][j]*rhs[j];
+            assertTrue( contains( gaussSeidel, x ) );
+            assertTrue( contains( krawczyk, x ) );
+        }
+        for( int i=0; i<n; i++ ) {
+            assertTrue( gaussSeidel.get( i ).isSubsetOf( initial.get( i ) ) );
+            assertTrue( krawczyk.get( i ).isSubsetOf( initial.get( i ) ) );
+        }
+    }
+
+    /**
+     * Test of a large system solved in parallel, of class
+     * IntervalLinearSolver.
+     */
+    @Test
+    public void testParallel() {
+        System.out.println("parallel");
+
+        Random random = new Random( 2410 );
+        int n = 300;
+        IntervalMatrix a = dominant( random, n, 0.001 );
+        IntervalArray b = new IntervalArray( n );
+        for( int i=0; i<n; i++ )
+            b.set( i, random.nextDouble(), random.nextDouble() );
+
+        ForkJoinPool pool = new ForkJoinPool( 4 ), single = new ForkJoinPool( 1 );
+        try {
+            for( Method method : Method.values() ) {
+                IntervalLinearSolver solver = new IntervalLinearSolver( method, 1e-12, 20 );
+                IntervalArray x = solver.solve( a, b, pool );
+                assertNotNull( x );
+                assertEquals( x, solver.solve( a, b, single ) );
+            }
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+
+    /**
+     * Test of the systems without enclosure and of the errors, of class
+     * IntervalLinearSolver.
+     */
+    @Test
+    public void testFailures() {
+        System.out.println("failures");
+
+        IntervalLinearSolver solver = new IntervalLinearSolver( Method.GAUSS_SEIDEL, 0., 10 );
+        IntervalArray b = new IntervalArray( Interval.ONE, Interval.ONE );
+        // singular midpoint matrix
+        assertNull( solver.solve( new IntervalMatrix( new double[][]{ { 1., 2. }, { 2., 4. } } ), b ) );
+        // too wide: ‖ I - C A ‖∞ >= 1
+        IntervalMatrix wide = new IntervalMatrix( new Interval[][]{ { new Interval( 0., 2. ), Interval.ZERO },
+                                                                    { Interval.ZERO, Interval.ONE } } );
+        assertNull( solver.solve( wide, b ) );
+
+        try {
+            solver.solve( new IntervalMatrix( 2, 3 ), b );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            solver.solve( IntervalMatrix.identity( 3 ), b );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            new IntervalLinearSolver( Method.KRAWCZYK, -1., 10 );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalMatrixTest {
+
+    public IntervalMatrixTest() {
+    }
+
+    private static IntervalMatrix random( Random random, int rows, int columns ) {
+        IntervalMatrix result = new IntervalMatrix( rows, columns );
+        for( int i=0; i<rows; i++ )
+            for( int j=0; j<columns; j++ )
+                result.set( i, j, random.nextGaussian(), random.nextGaussian() );
+        return result;
+    }
+
+    /**
+     * Naive product with Interval's operations.
+     */
+    private static IntervalMatrix naiveMult( IntervalMatrix a, IntervalMatrix b ) {
+        IntervalMatrix result = new IntervalMatrix( a.rows(), b.columns() );
+        for( int i=0; i<a.rows(); i++ ) {
+            for( int j=0; j<b.columns(); j++ ) {
+                Interval s = Interval.ZERO;
+                for( int k=0; k<a.columns(); k++ )
+                    s = s.add( a.get( i, k ).mult( b.get( k, j ) ) );
+                result.set( i, j, s );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Test of the constructors and accessors, of class IntervalMatrix.
+     */
+    @Test
+    public void testAccessors() {
+        System.out.println("accessors");
+
+        IntervalMatrix m = new IntervalMatrix( new Interval[][]{ { Interval.ONE, new Interval( -1., 2. ) },
+                                                                 { Interval.ZERO, new Interval( 3. ) },
+                                                                 { new Interval( 4., 5. ), Interval.ONE } } );
+        assertEquals( 3, m.rows() );
+        assertEquals( 2, m.columns() );
+        assertEquals( new Interval( -1., 2. ), m.get( 0, 1 ) );
+        assertEquals( 4., m.getMinBound( 2, 0 ), 0. );
+        assertEquals( 5., m.getMaxBound( 2, 0 ), 0. );
+        m.set( 1, 0, 7., 6. );
+        assertEquals( new Interval( 6., 7. ), m.get( 1, 0 ) );
+        assertArrayEquals( new double[]{ 4.5, 1. }, m.mid()[2], 0. );
+
+        assertEquals( m, new IntervalMatrix( 3, 2, new double[]{ 1., -1., 6., 3., 4., 1. }, new double[]{ 1., 2., 7., 3., 5., 1. } ) );
+        assertEquals( new IntervalMatrix( new double[][]{ { 1., 0. }, { 0., 1. } } ), IntervalMatrix.identity( 2 ) );
+        assertEquals( new Interval( 2., 4. ), m.add( m ).get( 0, 0 ).add( new Interval( 0., 2. ) ) );
+        assertEquals( new Interval( -3., 3. ), m.subtract( m ).get( 0, 1 ) );
+
+        try {
+            m.get( 3, 0 );
+            fail( "IndexOutOfBoundsException expected" );
+        } catch( IndexOutOfBoundsException e ) {
+        }
+        try {
+            new IntervalMatrix( new double[][]{ { 1., 2. }, { 3. } } );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        // rows*columns overflows
+        for( int[] size : new int[][]{ { 50000, 50000 }, { 65536, 65537 } } ) {
+            try {
+                new IntervalMatrix( size[0], size[1] );
+                fail( "ArithmeticException expected" );
+            } catch( ArithmeticException e ) {
+            }
+        }
+        try {
+            m.add( IntervalMatrix.identity( 2 ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of the products, of class IntervalMatrix.
+     */
+    @Test
+    public void testProducts() {
+        System.out.println("products");
+
+        // [ 1, 2 ]·[ -1, 1 ] + [ -1, 0 ]·2 = [ -4, 2 ]
+        IntervalMatrix a = new IntervalMatrix( new Interval[][]{ { new Interval( 1., 2. ), new Interval( -1., 0. ) } } );
+        assertEquals( new Interval( -4., 2. ), a.mult( new IntervalArray( new Interval( -1., 1. ), new Interval( 2. ) ) ).get( 0 ) );
+
+        // blocked products (sizes not multiple of BLOCK_SIZE) == naive products
+        Random random = new Random( 24 );
+        IntervalMatrix x = random( random, 70, 150 ), y = random( random, 150, 65 );
+        assertEquals( naiveMult( x, y ), x.mult( y ) );
+
+        IntervalMatrix column = random( random, 150, 1 );
+        IntervalArray vector = new IntervalArray( column.minBounds(), column.maxBounds() );
+        IntervalMatrix product = naiveMult( x, column );
+        assertEquals( new IntervalArray( product.minBounds(), product.maxBounds() ), x.mult( vector ) );
+
+        double[][] point = new double[40][70];
+        for( double[] row : point )
+            for( int j=0; j<row.length; j++ )
+                row[j] = random.nextGaussian();
+        assertEquals( naiveMult( new IntervalMatrix( point ), x ), x.premult( point ) );
+
+        try {
+            x.mult( x );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of the parallel products, of class IntervalMatrix.
+     */
+    @Test
+    public void testParallelProducts() {
+        System.out.println("parallelProducts");
+
+        Random random = new Random( 124 );
+        IntervalMatrix x = random( random, 200, 180 ), y = random( random, 180, 190 );
+        IntervalMatrix vector = random( random, 180, 1 );
+        IntervalArray v = new IntervalArray( vector.minBounds(), vector.maxBounds() );
+        double[][] point = x.mid();
+
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try {
+            assertEquals( x.mult( y ), x.parallelMult( y, pool ) );
+            assertEquals( x.mult( v ), x.parallelMult( v, pool ) );
+            assertEquals( y.premult( point ), y.parallelPremult( point, pool ) );
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals( x.mult( y ), x.parallelMult( y ) );
+    }
+}
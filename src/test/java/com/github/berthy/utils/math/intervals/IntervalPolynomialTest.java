@@ -0,0 +1,173 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalPolynomialTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    public IntervalPolynomialTest() {
+    }
+
+    /**
+     * ( x - r0 )( x - r1 )...
+     */
+    private static IntervalPolynomial fromRoots( double... roots ) {
+        double[] c = { 1. };
+        for( double root : roots ) {
+            double[] next = new double[c.length+1];
+            for( int i=0; i<c.length; i++ ) {
+                next[i+1] += c[i];
+                next[i] -= root*c[i];
+            }
+            c = next;
+        }
+        return new IntervalPolynomial( c );
+    }
+
+    /**
+     * Range of p over x from 10001 samples.
+     */
+    private static Interval sampled( IntervalPolynomial p, Interval x ) {
+        double min = INF, max = -INF;
+        for( int k=0; k<=10000; k++ ) {
+            double v = p.value( x.getMinBound() + k*x.width()/10000. );
+            min = Math.min( min, v );
+            max = Math.max( max, v );
+        }
+        return new Interval( min, max );
+    }
+
+    /**
+     * Test of the constructor and getters, of class IntervalPolynomial.
+     */
+    @Test
+    public void testGetters() {
+        System.out.println("getters");
+
+        IntervalPolynomial p = new IntervalPolynomial( 1., -2., 3., 0., 0. );
+        assertEquals( 2, p.degree() );
+        assertEquals( 3., p.getCoefficient( 2 ), 0. );
+        assertEquals( 0., p.getCoefficient( 5 ), 0. );
+        assertEquals( new IntervalPolynomial( -2., 6. ), p.derivative() );
+        assertEquals( new IntervalPolynomial( 0. ), new IntervalPolynomial( 7. ).derivative() );
+        assertEquals( 0, new IntervalPolynomial().degree() );
+        assertEquals( 2., p.value( 1. ), 0. );
+        assertEquals( "1.0 + -2.0·x + 3.0·x^2", p.toString() );
+        assertEquals( fromRoots( 1., 2. ), new IntervalPolynomial( 2., -3., 1. ) );
+
+        try {
+            new IntervalPolynomial( 1., Double.NaN );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of horner, of class IntervalPolynomial.
+     */
+    @Test
+    public void testHorner() {
+        System.out.println("horner");
+
+        // x² - 2x over [ 0, 3 ]: ( x - 2 )·x = [ -2, 1 ]·[ 0, 3 ] = [ -6, 3 ]
+        IntervalPolynomial p = new IntervalPolynomial( 0., -2., 1. );
+        assertEquals( new Interval( -6., 3. ), p.horner( new Interval( 0., 3. ) ) );
+        assertEquals( new Interval( 3. ), p.horner( new Interval( 3. ) ) );
+        assertEquals( new Interval( 5. ), new IntervalPolynomial( 5. ).horner( new Interval( -INF, INF ) ) );
+
+        // same result as Interval's operations
+        Random random = new Random( 25 );
+        IntervalPolynomial q = new IntervalPolynomial( 0.5, -1., 2., 0.25, -3. );
+        IntervalArray x = new IntervalArray( 100 );
+        for( int i=0; i<x.size(); i++ ) {
+            x.set( i, random.nextGaussian(), random.nextGaussian() );
+            Interval expected = new Interval( -3. );
+            for( int k=3; k>=0; k-- )
+                expected = expected.mult( x.get( i ) ).add( q.getCoefficient( k ) );
+            assertEquals( expected, q.horner( x.get( i ) ) );
+        }
+        assertEquals( q.horner( x.get( 7 ) ), q.horner( x ).get( 7 ) );
+    }
+
+    /**
+     * Test of range, of class IntervalPolynomial.
+     */
+    @Test
+    public void testRange() {
+        System.out.println("range");
+
+        // x² - 2x over [ 0, 3 ]: [ -1, 3 ]
+        IntervalPolynomial p = new IntervalPolynomial( 0., -2., 1. );
+        Interval range = p.range( new Interval( 0., 3. ) );
+        assertTrue( new Interval( -1., 3. ).isSubsetOf( range ) );
+        assertEquals( 4., range.width(), 1e-12 );
+        // monotone: the values at the ends
+        assertEquals( new Interval( 0., 3. ), p.range( new Interval( 2., 3. ) ) );
+
+        // high degree with several extrema
+        IntervalPolynomial q = fromRoots( -0.9, -0.7, -0.4, -0.1, 0.2, 0.3, 0.55, 0.8, 0.95, 1.0 );
+        for( Interval x : new Interval[]{ new Interval( -1., 1. ), new Interval( -0.5, 0.25 ), new Interval( 0.1, 0.12 ) } ) {
+            Interval expected = sampled( q, x );
+            range = q.range( x );
+            assertTrue( expected.isSubsetOf( range ) );
+            assertEquals( expected.width(), range.width(), 1e-6*( 1.+expected.width() ) );
+            assertTrue( range.isSubsetOf( q.horner( x ) ) );
+            assertTrue( range.width() < q.horner( x ).width() );
+        }
+
+        // batch
+        IntervalArray x = new IntervalArray( new Interval( -1., 0. ), new Interval( 0., 1. ) );
+        IntervalArray r = q.range( x );
+        assertEquals( q.range( x.get( 1 ) ), r.get( 1 ) );
+        assertSame( x, q.range( x, x ) );
+        assertEquals( r, x );
+
+        // unbounded: Horner, constant and linear: exact
+        assertEquals( p.horner( new Interval( 1., INF ) ), p.range( new Interval( 1., INF ) ) );
+        assertEquals( new Interval( -1., 5. ), new IntervalPolynomial( 2., 3. ).range( new Interval( -1., 1. ) ) );
+    }
+
+    /**
+     * Test of range against sampling on random polynomials, of class
+     * IntervalPolynomial. (In the default rounding mode)
+     */
+    @Test
+    public void testRangeRandom() {
+        System.out.println("rangeRandom");
+
+        // the Newton steps must not conclude that there is no extremum from a rounding to nearest
+        IntervalPolynomial p = new IntervalPolynomial( -0.6815603881121733, 0.07683057812281543, -1.0559080065704634 );
+        Interval x = new Interval( -0.9548339045974923, 0.7634851518433421 );
+        assertTrue( sampled( p, x ).isSubsetOf( p.range( x ) ) );
+
+        Random random = new Random( 2525 );
+        for( int test=0; test<3000; test++ ) {
+            double[] c = new double[3+random.nextInt( 8 )];
+            for( int i=0; i<c.length; i++ )
+                c[i] = random.nextGaussian();
+            p = new IntervalPolynomial( c );
+            double a = random.nextDouble()*2.-1., b = random.nextDouble()*2.-1.;
+            x = new Interval( a, b );
+            Interval range = p.range( x );
+            for( int k=0; k<=200; k++ ) {
+                double v = p.value( x.getMinBound() + k*x.width()/200. );
+                double slack = 1e-12*( 1.+Math.abs( v ) );
+                assertTrue( p + " over " + x + ": " + v + " not in " + range,
+                            range.getMinBound() <= v+slack && v-slack <= range.getMaxBound() );
+            }
+        }
+
+        // points: Horner, even at an inflection point where p' and p'' contain 0
+        p = new IntervalPolynomial( 0., 0., 0., 1. );
+        assertEquals( p.horner( Interval.ZERO ), p.range( Interval.ZERO ) );
+        assertEquals( p.horner( new Interval( 0.5 ) ), p.range( new Interval( 0.5 ) ) );
+        // a few floating point numbers wide: the pieces cannot be split down to MAX_DEPTH
+        assertTrue( p.range( new Interval( -4.*Double.MIN_VALUE, 4.*Double.MIN_VALUE ) ).zeroElementOfThis() );
+    }
+}
@@ -820,6 +820,34 @@ public class IntervalTest {
         // TODO review the generated test code and remove the default call to fail.
         fail("The test case is a prototype.");
     }
-}
-
 
+    /**
+     * Test of mult and divide methods, of class Interval: the results must be
+     * the same, bit for bit, as the min/max of the four products (or quotients).
+     */
+    @Test
+    public void testMultDivide_signCases() {
+        double[] bounds = { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -3., -1e-200, -Double.MIN_VALUE, -0., 
+                            0., Double.MIN_VALUE, 1e-200, 2., 1e200, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN };
+        
+        for( double a : bounds ) for( double b : bounds ) {
+            Interval x = new Interval( a, b );
+            for( double c : bounds ) for( double d : bounds ) {
+                Interval y = new Interval( c, d );
+                double xa = x.getMinBound(), xb = x.getMaxBound(), yc = y.getMinBound(), yd = y.getMaxBound();
+                
+                double[] products = { xa*yc, xa*yd, xb*yc, xb*yd };
+                Interval expResult = new Interval( com.github.berthy.utils.util.Arrays.min( products ), 
+                                                   com.github.berthy.utils.util.Arrays.max( products ) );
+                assertEquals( x + " * " + y, expResult, x.mult( y ) );
+                
+                if( !y.zeroElementOfThis() ) {
+                    double[] quotients = { xa/yc, xa/yd, xb/yc, xb/yd };
+                    expResult = new Interval( com.github.berthy.utils.util.Arrays.min( quotients ), 
+                                              com.github.berthy.utils.util.Arrays.max( quotients ) );
+                    assertEquals( x + " / " + y, expResult, x.divide( y ) );
+                }
+            }
+        }
+    }
+}
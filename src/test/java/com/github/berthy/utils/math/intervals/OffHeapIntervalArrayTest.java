@@ -0,0 +1,210 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class OffHeapIntervalArrayTest {
+
+    private final static double[] BOUNDS = { Double.NEGATIVE_INFINITY, -1e300, -7., -2.5, -1., -0.,
+                                             0., 0.5, 1., 3., 1e300, Double.POSITIVE_INFINITY };
+
+    private final static IntervalArray X, Y;
+
+    static {
+        // all pairs of intervals built from BOUNDS, plus random ones
+        Random random = new Random( 43 );
+        int n = BOUNDS.length*BOUNDS.length;
+        Interval[] x = new Interval[n*n+1000];
+        Interval[] y = new Interval[n*n+1000];
+        int k = 0;
+        for( int i=0; i<n; i++ ) {
+            for( int j=0; j<n; j++ ) {
+                x[k] = new Interval( BOUNDS[i/BOUNDS.length], BOUNDS[i%BOUNDS.length] );
+                y[k] = new Interval( BOUNDS[j/BOUNDS.length], BOUNDS[j%BOUNDS.length] );
+                k++;
+            }
+        }
+        for( ; k<x.length; k++ ) {
+            x[k] = new Interval( 10.*random.nextGaussian(), 10.*random.nextGaussian() );
+            y[k] = new Interval( 10.*random.nextGaussian(), 10.*random.nextGaussian() );
+        }
+        X = new IntervalArray( x );
+        Y = new IntervalArray( y );
+    }
+
+    public OffHeapIntervalArrayTest() {
+    }
+
+    /**
+     * Test of allocate, get and set methods, of class OffHeapIntervalArray.
+     */
+    @Test
+    public void testGetSet() {
+        System.out.println("get/set");
+
+        OffHeapIntervalArray instance = OffHeapIntervalArray.allocate( 3 );
+        assertEquals( 3L, instance.size() );
+        assertEquals( new Interval( 0. ), instance.get( 2 ) );
+
+        instance.set( 0, new Interval( 1., 2. ) );
+        instance.set( 1, 5., 3. );
+        instance.set( 2, -2., -2. );
+        assertEquals( new Interval( 1., 2. ), instance.get( 0 ) );
+        assertEquals( 3., instance.getMinBound( 1 ), 0. );
+        assertEquals( 5., instance.getMaxBound( 1 ), 0. );
+        assertEquals( new Interval( -2. ), instance.get( 2 ) );
+        assertFalse( instance.isReadOnly() );
+
+        assertEquals( X.asList(), OffHeapIntervalArray.copyOf( X ).toIntervalArray().asList() );
+    }
+
+    /**
+     * Test of add, subtract, mult, divide, sq, sqrt and pow methods, of class
+     * OffHeapIntervalArray: same results as IntervalArray.
+     */
+    @Test
+    public void testArithmetic() {
+        System.out.println("add/subtract/mult/divide/sq/sqrt/pow");
+
+        OffHeapIntervalArray x = OffHeapIntervalArray.copyOf( X );
+        OffHeapIntervalArray y = OffHeapIntervalArray.copyOf( Y );
+        OffHeapIntervalArray result = OffHeapIntervalArray.allocate( x.size() );
+
+        assertBoundsEquals( X.add( Y ), x.add( y ) );
+        assertBoundsEquals( X.subtract( Y ), x.subtract( y ) );
+        assertBoundsEquals( X.mult( Y ), x.mult( y, result ) );
+        assertBoundsEquals( X.sq(), x.sq( result ) );
+        assertBoundsEquals( X.sqrt(), x.sqrt( result ) );
+        assertBoundsEquals( X.sq(), x.sq() );
+        assertBoundsEquals( X.sqrt(), x.sqrt() );
+        for( int n : new int[]{ 0, 1, 2, 3, 6, 7 } ) {
+            assertBoundsEquals( X.pow( n ), x.pow( n ) );
+            assertBoundsEquals( X.pow( n ), x.pow( n, result ) );
+        }
+
+        // divide: divisors without zero
+        IntervalArray divisors = new IntervalArray( X.size() );
+        for( int i=0; i<X.size(); i++ )
+            divisors.set( i, Y.get( i ).zeroElementOfThis() ? new Interval( 0.5, 3. ) : Y.get( i ) );
+        assertBoundsEquals( X.divide( divisors ), x.divide( OffHeapIntervalArray.copyOf( divisors ) ) );
+        assertBoundsEquals( divisors.pow( -3 ), OffHeapIntervalArray.copyOf( divisors ).pow( -3 ) );
+
+        // in place
+        x.add( y, x );
+        assertBoundsEquals( X.add( Y ), x );
+
+        try {
+            x.divide( y );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            y.pow( -1 );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            x.add( OffHeapIntervalArray.allocate( 2 ) );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of min, max and hull methods, of class OffHeapIntervalArray.
+     */
+    @Test
+    public void testReductions() {
+        System.out.println("min/max/hull");
+
+        IntervalArray random = new IntervalArray( 1000 );
+        Random generator = new Random( 47 );
+        for( int i=0; i<random.size(); i++ )
+            random.set( i, generator.nextGaussian(), generator.nextGaussian() );
+        OffHeapIntervalArray instance = OffHeapIntervalArray.copyOf( random );
+
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for( int i=0; i<random.size(); i++ ) {
+            min = Math.min( min, random.getMinBound( i ) );
+            max = Math.max( max, random.getMaxBound( i ) );
+        }
+        assertEquals( min, instance.min(), 0. );
+        assertEquals( max, instance.max(), 0. );
+        assertEquals( new Interval( min, max ), instance.hull() );
+
+        try {
+            OffHeapIntervalArray.allocate( 0 ).hull();
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+
+    /**
+     * Test of map methods, of class OffHeapIntervalArray: written intervals
+     * are read back from the file, little endian.
+     */
+    @Test
+    public void testMap() throws IOException {
+        System.out.println("map");
+
+        Path file = Files.createTempFile( "intervals", ".bin" );
+        try {
+            OffHeapIntervalArray written = OffHeapIntervalArray.map( file, X.size() );
+            for( int i=0; i<X.size(); i++ )
+                written.set( i, X.get( i ) );
+            written.force();
+            assertEquals( (long)X.size()*OffHeapIntervalArray.BYTES, Files.size( file ) );
+
+            OffHeapIntervalArray read = OffHeapIntervalArray.map( file );
+            assertTrue( read.isReadOnly() );
+            assertBoundsEquals( X, read );
+
+            ByteBuffer bytes = ByteBuffer.wrap( Files.readAllBytes( file ) ).order( ByteOrder.LITTLE_ENDIAN );
+            assertEquals( X.getMinBound( 5 ), bytes.getDouble( 5*16 ), 0. );
+            assertEquals( X.getMaxBound( 5 ), bytes.getDouble( 5*16+8 ), 0. );
+
+            // wrap: view from the position
+            bytes.position( 16 );
+            OffHeapIntervalArray view = OffHeapIntervalArray.wrap( bytes );
+            assertEquals( X.size()-1L, view.size() );
+            assertEquals( X.get( 1 ), view.get( 0 ) );
+            assertEquals( 16, bytes.position() );
+        } finally {
+            Files.delete( file );
+        }
+    }
+
+    /**
+     * Test of map method, of class OffHeapIntervalArray: the file size must be
+     * a multiple of 16 bytes.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testMap_badSize() throws IOException {
+        System.out.println("map: bad size");
+
+        Path file = Files.createTempFile( "intervals", ".bin" );
+        try {
+            Files.write( file, new byte[20] );
+            OffHeapIntervalArray.map( file );
+        } finally {
+            Files.delete( file );
+        }
+    }
+
+    private static void assertBoundsEquals( IntervalArray expResult, OffHeapIntervalArray result ) {
+        assertEquals( expResult.size(), result.size() );
+        for( int i=0; i<expResult.size(); i++ ) {
+            assertEquals( "min " + i, expResult.getMinBound( i ), result.getMinBound( i ), 0. );
+            assertEquals( "max " + i, expResult.getMaxBound( i ), result.getMaxBound( i ), 0. );
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import jdk.incubator.vector.DoubleVector;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the outward rounding.
+ *
+ * The tests which need the rounding enabled are skipped in the default test
+ * run: the build runs this class a second time with
+ * -Dcom.github.berthy.utils.math.intervals.outwardRounding=true.
+ *
+ * @author Bertrand COTE
+ */
+public class RoundingTest {
+
+    private final static double[] SPECIAL = { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1e300, -3., -1., -Double.MIN_NORMAL,
+                                              -Double.MIN_VALUE, -0., 0., Double.MIN_VALUE, Double.MIN_NORMAL, 1., 3., 1e300,
+                                              Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN };
+
+    public RoundingTest() {
+    }
+
+    /**
+     * Test of the default mode: round to nearest.
+     */
+    @Test
+    public void testDisabled() {
+        System.out.println("rounding disabled");
+        Assume.assumeFalse( Rounding.OUTWARD );
+
+        Interval x = new Interval( 0.1, 0.2 );
+        Interval y = new Interval( 0.3, 0.7 );
+        assertEquals( new Interval( 0.1+0.3, 0.2+0.7 ), x.add( y ) );
+        assertEquals( new Interval( 0.1*0.3, 0.2*0.7 ), x.mult( y ) );
+        assertEquals( 0.1, Rounding.down( 0.1 ), 0. );
+        assertEquals( 0.1, Rounding.up( 0.1 ), 0. );
+    }
+
+    /**
+     * Test of Interval's arithmetic with outward rounding: each bound is one
+     * ulp outside the round to nearest bound, and the exact results are
+     * enclosed.
+     */
+    @Test
+    public void testInterval() {
+        System.out.println("outward rounding: Interval");
+        Assume.assumeTrue( Rounding.OUTWARD );
+
+        Random random = new Random( 31 );
+        for( int test=0; test<10000; test++ ) {
+            final double a = random.nextGaussian(), b = a + random.nextDouble();
+            final double c = random.nextGaussian(), d = c + random.nextDouble();
+            final Interval x = new Interval( a, b );
+            final Interval y = new Interval( c, d );
+
+            check( x.add( y ), a+c, b+d );
+            check( x.subtract( y ), a-d, b-c );
+            check( x.mult( y ), Interval.multMin( a, b, c, d ), Interval.multMax( a, b, c, d ) );
+            check( x.mult( -3. ), b*-3., a*-3. );
+            if( !y.zeroElementOfThis() )
+                check( x.divide( y ), Interval.divideMin( a, b, c, d ), Interval.divideMax( a, b, c, d ) );
+            if( a > 0. ) {
+                check( x.sq(), a*a, b*b );
+                check( x.sqrt(), Math.sqrt( a ), Math.sqrt( b ) );
+                Interval pow = x.pow( 5 );
+                assertEquals( Math.nextDown( Math.nextDown( Math.pow( a, 5 ) ) ), pow.getMinBound(), 0. );
+                assertEquals( Math.nextUp( Math.nextUp( Math.pow( b, 5 ) ) ), pow.getMaxBound(), 0. );
+            }
+
+            // exact results
+            BigDecimal exactMin = new BigDecimal( a ).add( new BigDecimal( c ) );
+            BigDecimal exactMax = new BigDecimal( b ).add( new BigDecimal( d ) );
+            assertTrue( new BigDecimal( x.add( y ).getMinBound() ).compareTo( exactMin ) < 0 );
+            assertTrue( new BigDecimal( x.add( y ).getMaxBound() ).compareTo( exactMax ) > 0 );
+            BigDecimal[] products = { new BigDecimal( a ).multiply( new BigDecimal( c ) ), new BigDecimal( a ).multiply( new BigDecimal( d ) ),
+                                      new BigDecimal( b ).multiply( new BigDecimal( c ) ), new BigDecimal( b ).multiply( new BigDecimal( d ) ) };
+            for( BigDecimal product : products ) {
+                assertTrue( new BigDecimal( x.mult( y ).getMinBound() ).compareTo( product ) <= 0 );
+                assertTrue( new BigDecimal( x.mult( y ).getMaxBound() ).compareTo( product ) >= 0 );
+            }
+        }
+
+        // exact zero of sq
+        assertEquals( 0., new Interval( -1., 2. ).sq().getMinBound(), 0. );
+    }
+
+    /**
+     * Test of IntervalArray, OffHeapIntervalArray, IntervalAccumulator and
+     * GeneralizedInterval with outward rounding: same results as Interval's
+     * arithmetic.
+     */
+    @Test
+    public void testBulkAndAccumulator() {
+        System.out.println("outward rounding: IntervalArray, OffHeapIntervalArray, CompiledExpression, IntervalAccumulator, GeneralizedInterval");
+        Assume.assumeTrue( Rounding.OUTWARD );
+
+        Random random = new Random( 37 );
+        Interval[] x = new Interval[1000];
+        Interval[] y = new Interval[1000];
+        for( int i=0; i<x.length; i++ ) {
+            x[i] = new Interval( random.nextGaussian(), random.nextGaussian() );
+            y[i] = new Interval( 1. + random.nextDouble(), 1. + random.nextDouble() );
+        }
+        IntervalArray xArray = new IntervalArray( x );
+        IntervalArray yArray = new IntervalArray( y );
+        IntervalArray sum = xArray.add( yArray );
+        IntervalArray product = xArray.mult( yArray );
+        IntervalArray quotient = xArray.divide( yArray );
+        IntervalArray sq = xArray.sq();
+        IntervalArray pow = xArray.pow( 3 );
+        OffHeapIntervalArray offHeapSum = OffHeapIntervalArray.copyOf( xArray ).add( OffHeapIntervalArray.copyOf( yArray ) );
+        OffHeapIntervalArray offHeapProduct = OffHeapIntervalArray.copyOf( xArray ).mult( OffHeapIntervalArray.copyOf( yArray ) );
+        OffHeapIntervalArray offHeapPow = OffHeapIntervalArray.copyOf( xArray ).pow( 3 );
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression expression = builder.variable( 0 ).sq().subtract( builder.variable( 1 ).sqrt() ).divide( builder.variable( 1 ) );
+        IntervalArray compiled = new IntervalArray( x.length );
+        builder.compile( expression ).newEvaluator().evaluate( new IntervalArray[]{ xArray, yArray }, new IntervalArray[]{ compiled } );
+
+        IntervalAccumulator accumulator = new IntervalAccumulator();
+        Interval expResult = Interval.ZERO;
+        for( int i=0; i<x.length; i++ ) {
+            assertEquals( x[i].add( y[i] ), sum.get( i ) );
+            assertEquals( x[i].mult( y[i] ), product.get( i ) );
+            assertEquals( x[i].divide( y[i] ), quotient.get( i ) );
+            assertEquals( x[i].sq(), sq.get( i ) );
+            assertEquals( x[i].pow( 3 ), pow.get( i ) );
+            assertEquals( x[i].add( y[i] ), offHeapSum.get( i ) );
+            assertEquals( x[i].mult( y[i] ), offHeapProduct.get( i ) );
+            assertEquals( x[i].pow( 3 ), offHeapPow.get( i ) );
+            assertEquals( x[i].sq().subtract( y[i].sqrt() ).divide( y[i] ), compiled.get( i ) );
+
+            accumulator.fma( x[i], y[i] );
+            expResult = expResult.add( x[i].mult( y[i] ) );
+            assertEquals( expResult, accumulator.toInterval() );
+        }
+
+        GeneralizedInterval generalized = new GeneralizedInterval( Arrays.asList( x ).subList( 0, 20 ) );
+        GeneralizedInterval other = new GeneralizedInterval( Arrays.asList( y ).subList( 0, 20 ) );
+        List<Interval> listAdd = new ArrayList<>();
+        List<Interval> listMult = new ArrayList<>();
+        for( int i=0; i<generalized.size(); i++ ) {
+            for( int j=0; j<other.size(); j++ ) {
+                listAdd.add( generalized.getInterval( i ).add( other.getInterval( j ) ) );
+                listMult.add( generalized.getInterval( i ).mult( other.getInterval( j ) ) );
+            }
+        }
+        assertEquals( new GeneralizedInterval( listAdd ), generalized.add( other ) );
+        assertEquals( new GeneralizedInterval( listMult ), generalized.mult( other ) );
+    }
+
+    /**
+     * Test of the roots of HC4Contractor's backward projection of x^p with
+     * outward rounding: the exact roots are enclosed, even for large |ln z|.
+     */
+    @Test
+    public void testRoots() {
+        System.out.println("outward rounding: HC4 roots");
+        Assume.assumeTrue( Rounding.OUTWARD );
+
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression x = builder.variable( 0 );
+        IntervalBox box = new IntervalBox( new Interval( 0., Double.POSITIVE_INFINITY ) );
+        for( int p=4; p<=9; p++ ) {
+            for( double z : new double[]{ 1e300, 1e-300, 3., 1e150 } ) {
+                HC4Contractor contractor = new HC4Contractor( new Expression[]{ x.pow( p ) }, new Interval[]{ new Interval( z ) }, 0. );
+                Interval root = contractor.contract( box ).get( 0 );
+                assertTrue( p + ", " + z, new BigDecimal( root.getMinBound() ).pow( p ).compareTo( new BigDecimal( z ) ) <= 0 );
+                assertTrue( p + ", " + z, new BigDecimal( root.getMaxBound() ).pow( p ).compareTo( new BigDecimal( z ) ) >= 0 );
+            }
+        }
+    }
+
+    /**
+     * Test of the vector kernels with outward rounding: same results as the
+     * scalar kernels, bit for bit.
+     */
+    @Test
+    public void testVectorKernels() {
+        System.out.println("outward rounding: vector kernels");
+        Assume.assumeTrue( Rounding.OUTWARD );
+        IntervalKernels vector = IntervalKernels.vectorKernels();
+        Assume.assumeNotNull( vector );
+
+        Random random = new Random( 41 );
+        final int size = 1003;
+        double[] xMin = new double[size], xMax = new double[size], yMin = new double[size], yMax = new double[size];
+        for( int i=0; i<size; i++ ) {
+            Interval x = new Interval( SPECIAL[random.nextInt( SPECIAL.length )], random.nextBoolean() ? random.nextGaussian() : SPECIAL[random.nextInt( SPECIAL.length )] );
+            Interval y = new Interval( SPECIAL[random.nextInt( SPECIAL.length )], random.nextBoolean() ? random.nextGaussian() : SPECIAL[random.nextInt( SPECIAL.length )] );
+            xMin[i] = x.getMinBound(); xMax[i] = x.getMaxBound();
+            yMin[i] = y.getMinBound(); yMax[i] = y.getMaxBound();
+        }
+
+        for( int operator=0; operator<3; operator++ ) {
+            double[] expMin = new double[size], expMax = new double[size];
+            double[] resMin = new double[size], resMax = new double[size];
+            IntervalKernels[] kernels = { ScalarIntervalKernels.INSTANCE, vector };
+            for( int k=0; k<2; k++ ) {
+                double[] rMin = k == 0 ? expMin : resMin;
+                double[] rMax = k == 0 ? expMax : resMax;
+                switch( operator ) {
+                    case 0:  kernels[k].add( xMin, xMax, yMin, yMax, rMin, rMax, 0, size ); break;
+                    case 1:  kernels[k].subtract( xMin, xMax, yMin, yMax, rMin, rMax, 0, size ); break;
+                    default: kernels[k].mult( xMin, xMax, yMin, yMax, rMin, rMax, 0, size );
+                }
+            }
+            assertTrue( "operator " + operator, Arrays.equals( expMin, resMin ) );
+            assertTrue( "operator " + operator, Arrays.equals( expMax, resMax ) );
+        }
+    }
+
+    /**
+     * Test of VectorIntervalKernels.nextDown and nextUp: same results as
+     * Math.nextDown and Math.nextUp on each lane.
+     */
+    @Test
+    public void testVectorNextDownNextUp() {
+        System.out.println("vector nextDown/nextUp");
+        Assume.assumeNotNull( IntervalKernels.vectorKernels() );
+
+        final int length = DoubleVector.SPECIES_PREFERRED.length();
+        double[] values = Arrays.copyOf( SPECIAL, (SPECIAL.length + length - 1)/length*length );
+        double[] down = new double[values.length], up = new double[values.length];
+        for( int i=0; i<values.length; i+=length ) {
+            DoubleVector v = DoubleVector.fromArray( DoubleVector.SPECIES_PREFERRED, values, i );
+            VectorIntervalKernels.nextDown( v ).intoArray( down, i );
+            VectorIntervalKernels.nextUp( v ).intoArray( up, i );
+        }
+        for( int i=0; i<values.length; i++ ) {
+            assertEquals( "nextDown( " + values[i] + " )", Double.doubleToLongBits( Math.nextDown( values[i] ) ), Double.doubleToLongBits( down[i] ) );
+            assertEquals( "nextUp( " + values[i] + " )", Double.doubleToLongBits( Math.nextUp( values[i] ) ), Double.doubleToLongBits( up[i] ) );
+        }
+    }
+
+    private static void check( Interval result, double nearestMin, double nearestMax ) {
+        assertEquals( Math.nextDown( nearestMin ), result.getMinBound(), 0. );
+        assertEquals( Math.nextUp( nearestMax ), result.getMaxBound(), 0. );
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.berthy.utils.math.intervals;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class TaylorModelTest {
+
+    public TaylorModelTest() {
+    }
+
+    /**
+     * f(x,y) = x·y + x² - sqrt(y)/(x+3) + (x-y)^3
+     */
+    private static TaylorModel f( TaylorModel x, TaylorModel y ) {
+        return x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( 3. ) ) ).add( x.subtract( y ).pow( 3 ) );
+    }
+
+    private static Interval f( Interval x, Interval y ) {
+        return x.mult( y ).add( x.sq() ).subtract( y.sqrt().divide( x.add( new Interval( 3. ) ) ) ).add( x.subtract( y ).pow( 3 ) );
+    }
+
+    private static double f( double x, double y ) {
+        return x*y + x*x - Math.sqrt( y )/( x+3. ) + (x-y)*(x-y)*(x-y);
+    }
+
+    /**
+     * Test of the arithmetic methods, of class TaylorModel: the range encloses
+     * the values of the function.
+     */
+    @Test
+    public void testArithmetic() {
+        System.out.println("add/subtract/mult/divide/sq/sqrt/pow");
+
+        Random random = new Random( 22 );
+        for( int k=0; k<50; k++ ) {
+            IntervalBox box = new IntervalBox( new Interval( random.nextDouble()*2.-1., random.nextDouble()*2.-1. ),
+                                               new Interval( 0.5+random.nextDouble(), 0.5+random.nextDouble() ) );
+            for( int order=1; order<=6; order+=5 ) {
+                TaylorModel[] v = TaylorModel.variables( box, order );
+                Interval result = f( v[0], v[1] ).toInterval();
+
+                for( int j=0; j<100; j++ ) {
+                    double a = box.getMinBound( 0 ) + random.nextDouble()*box.width( 0 );
+                    double b = box.getMinBound( 1 ) + random.nextDouble()*box.width( 1 );
+                    assertTrue( result.getMinBound() <= f( a, b ) );
+                    assertTrue( f( a, b ) <= result.getMaxBound() );
+                }
+            }
+        }
+
+        // polynomials of degree <= order are exact
+        TaylorModel[] v = TaylorModel.variables( new IntervalBox( new Interval( 1., 3. ), new Interval( -1., 1. ) ), 3 );
+        TaylorModel p = v[0].sq().mult( v[1] ).subtract( v[1].mult( 2. ) ).add( 1. );
+        assertTrue( p.getRemainder().isZero() );
+        assertEquals( 1., p.getCoefficient( 0, 0 ), 0. );
+        assertEquals( 2., p.getCoefficient( 0, 1 ), 0. );   // 4y - 2y
+        assertEquals( 4., p.getCoefficient( 1, 1 ), 0. );   // 2·2·h0·y
+        assertEquals( 1., p.getCoefficient( 2, 1 ), 0. );
+        assertEquals( 0., p.getCoefficient( 3, 1 ), 0. );
+        assertEquals( 0., p.getCoefficient( -1, 2 ), 0. );
+        TaylorModel[] w = TaylorModel.variables( new IntervalBox( new Interval( -1., 1. ), new Interval( -1., 1. ), new Interval( -1., 1. ) ), 4 );
+        TaylorModel q = w[0].mult( w[1] ).mult( w[2].sq() ).add( w[2].mult( 3. ) );
+        assertEquals( 1., q.getCoefficient( 1, 1, 2 ), 0. );
+        assertEquals( 3., q.getCoefficient( 0, 0, 1 ), 0. );
+        assertEquals( 0., q.getCoefficient( 1, 1, 1 ), 0. );
+        assertEquals( 0., q.getCoefficient( 0, 2, 2 ), 0. );
+        assertEquals( 0., q.getCoefficient( 5, 0, 0 ), 0. );
+        assertEquals( 0., q.getCoefficient( Integer.MAX_VALUE, 1, 0 ), 0. );
+        assertEquals( 2, v[0].dimension() );
+        assertEquals( 3, v[0].getOrder() );
+    }
+
+    /**
+     * Test of the enclosures over wide boxes: the Taylor models are tighter
+     * than the intervals, and the remainder decreases with the order.
+     */
+    @Test
+    public void testTightness() {
+        System.out.println("tightness");
+
+        // x·(1-x) on [ 0, 1 ]: 0.25 - h², [ 0, 0.25 ] instead of [ 0, 1 ]
+        IntervalBox unit = new IntervalBox( new Interval( 0., 1. ) );
+        TaylorModel x = TaylorModel.variables( unit, 2 )[0];
+        Interval range = x.mult( x.one().subtract( x ) ).toInterval();
+        assertEquals( 0., range.getMinBound(), 1e-15 );
+        assertEquals( 0.25, range.getMaxBound(), 1e-15 );
+
+        // x/(1+x) on [ 0, 1 ] is [ 0, 0.5 ]: the interval gives [ 0, 1 ]
+        Interval i = unit.get( 0 );
+        assertTrue( i.divide( i.add( Interval.ONE ) ).width() >= 1. );
+        double previous = Double.POSITIVE_INFINITY;
+        for( int order=2; order<=12; order+=2 ) {
+            x = TaylorModel.variables( unit, order )[0];
+            range = x.divide( x.add( 1. ) ).toInterval();
+            assertTrue( new Interval( 0., 0.5 ).isSubsetOf( range ) );
+            assertTrue( range.width() < previous );
+            previous = range.width();
+        }
+        // the remainder is negligible: the rest is the cheap polynomial bound
+        assertTrue( previous < 0.6 );
+        assertTrue( x.divide( x.add( 1. ) ).getRemainder().width() < 1e-3 );
+
+        // f on [ 0.19, 0.21 ]x[ 0.99, 1.01 ], order 4: overestimation of the
+        // range (sampled) by the Taylor model and by the interval
+        IntervalBox box = new IntervalBox( new Interval( 0.19, 0.21 ), new Interval( 0.99, 1.01 ) );
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for( int j=0; j<=100; j++ ) {
+            for( int k=0; k<=100; k++ ) {
+                double value = f( 0.19 + 0.0002*j, 0.99 + 0.0002*k );
+                min = Math.min( min, value );
+                max = Math.max( max, value );
+            }
+        }
+        TaylorModel[] v = TaylorModel.variables( box, 4 );
+        double taylor = f( v[0], v[1] ).toInterval().width() - ( max - min );
+        double interval = f( box.get( 0 ), box.get( 1 ) ).width() - ( max - min );
+        assertTrue( taylor < 0.25*interval );
+    }
+
+    /**
+     * Test of the special cases, of class TaylorModel.
+     */
+    @Test
+    public void testSpecialCases() {
+        System.out.println("special cases");
+
+        IntervalBox box = new IntervalBox( new Interval( -1., 1. ), new Interval( 2., 4. ) );
+        TaylorModel[] v = TaylorModel.variables( box, 4 );
+        assertTrue( v[0].pow( 0 ).isOne() );
+        assertTrue( v[0].subtract( v[0] ).isZero() );
+        assertTrue( v[0].mult( v[0].zero() ).isZero() );
+        assertEquals( new Interval( 0.25 ), v[0].constant( new Interval( 4. ) ).reciprocal().toInterval() );
+        assertEquals( box, v[0].getDomain() );
+        assertEquals( "0.0 + 1.0·h0 + [ 0.0, 0.0 ]", v[0].toString() );
+        assertEquals( "3.0 + 1.0·h1 + [ 0.0, 0.0 ]", v[1].toString() );
+        assertEquals( "9.0 + 6.0·h1 + 1.0·h1^2 + [ 0.0, 0.0 ]", v[1].sq().toString() );
+        assertTrue( new Interval( 0., 1. ).isSubsetOf( v[0].sq().sqrt().toInterval() ) );
+
+        try {
+            v[0].one().divide( v[0] );
+            fail( "ArithmeticException expected" );
+        } catch( ArithmeticException e ) {
+        }
+        try {
+            v[0].add( TaylorModel.variables( box, 4 )[0] );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            TaylorModel.variables( new IntervalBox( new Interval( 0., 1. ) ), 0 );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+        try {
+            TaylorModel.variables( new IntervalBox( new double[20], new double[20] ), 10 );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException e ) {
+        }
+    }
+}
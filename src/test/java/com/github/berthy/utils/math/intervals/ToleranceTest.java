@@ -0,0 +1,78 @@
+package com.github.berthy.utils.math.intervals;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class ToleranceTest {
+
+    public ToleranceTest() {
+    }
+
+    /**
+     * Test of isZero and isOne methods, of class Tolerance.
+     */
+    @Test
+    public void testIsZeroIsOne() {
+        System.out.println("isZero/isOne");
+
+        double[][] tests = {
+            // { epsilon, minBound, maxBound, isZero, isOne }
+            { 0.,    0.,    0.,    1., 0. },
+            { 0.,   -0.,    0.,    1., 0. },
+            { 0.,    1.,    1.,    0., 1. },
+            { 0.,    0.,    1e-300, 0., 0. },
+            { 0.1,  -0.1,   0.05,  1., 0. },
+            { 0.1,  -0.2,   0.,    0., 0. },
+            { 0.1,   0.95,  1.05,  0., 1. },
+            { -0.1,  0.95,  1.05,  0., 1. },
+            { 0.1,   0.95,  1.2,   0., 0. },
+            { 10.,  -1.,    2.,    1., 1. },
+        };
+
+        for( double[] test : tests ) {
+            Tolerance instance = Tolerance.of( test[0] );
+            Interval interval = new Interval( test[1], test[2] );
+            assertEquals( test[3] == 1., instance.isZero( interval ) );
+            assertEquals( test[4] == 1., instance.isOne( interval ) );
+            assertEquals( test[3] == 1., interval.isZero( instance ) );
+            assertEquals( test[4] == 1., interval.isOne( instance ) );
+        }
+        assertSame( Tolerance.EXACT, Tolerance.of( -0. ) );
+        assertEquals( Tolerance.of( 0.5 ), Tolerance.of( -0.5 ) );
+        assertTrue( Tolerance.of( 0.5 ).matches( 1.5, 1. ) );
+        assertFalse( Tolerance.of( 0.5 ).matches( 1.6, 1. ) );
+        assertFalse( Tolerance.EXACT.matches( Math.nextUp( 1. ), 1. ) );
+    }
+
+    /**
+     * Test of the legacy global epsilon, of class Interval: it is one Tolerance.
+     */
+    @Test
+    public void testGlobalTolerance() {
+        System.out.println("global tolerance");
+
+        try {
+            Interval.setEpsilon( -1e-3 );
+            assertEquals( Tolerance.of( 1e-3 ), Interval.getTolerance() );
+            assertTrue( new Interval( -1e-4, 1e-4 ).isZero() );
+            assertFalse( new Interval( -1e-4, 1e-4 ).isZero( Tolerance.EXACT ) );
+        } finally {
+            Interval.resetEpsilon();
+        }
+        assertSame( Tolerance.EXACT, Interval.getTolerance() );
+        assertFalse( new Interval( -1e-4, 1e-4 ).isZero() );
+    }
+
+    /**
+     * Test of of method, of class Tolerance.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testNaN() {
+        System.out.println("NaN");
+
+        Tolerance.of( Double.NaN );
+    }
+}
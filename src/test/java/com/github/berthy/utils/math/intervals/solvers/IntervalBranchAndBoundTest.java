@@ -0,0 +1,107 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.Interval;
+import com.github.berthy.utils.math.intervals.IntervalBox;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalBranchAndBoundTest {
+
+    /**
+     * Six-hump camel function: 4x² - 2.1x⁴ + x⁶/3 + xy - 4y² + 4y⁴, two global
+     * minima at ±( 0.0898, -0.7126 ).
+     */
+    private final static MultivariateIntervalFunction CAMEL = box -> {
+        final Interval x = box.get( 0 ), y = box.get( 1 );
+        return x.sq().mult( 4. ).add( x.pow( 4 ).mult( -2.1 ) ).add( x.pow( 6 ).divide( 3. ) )
+                .add( x.mult( y ) ).add( y.sq().mult( -4. ) ).add( y.pow( 4 ).mult( 4. ) );
+    };
+
+    private final static double CAMEL_MINIMUM = -1.0316284534898774;
+
+    public IntervalBranchAndBoundTest() {
+    }
+
+    /**
+     * Test of minimize method, of class IntervalBranchAndBound: one minimum.
+     */
+    @Test
+    public void testMinimize_sphere() {
+        System.out.println("minimize: sphere");
+
+        MultivariateIntervalFunction sphere = x -> x.get( 0 ).add( -1. ).sq().add( x.get( 1 ).add( 2. ).sq() );
+        IntervalBranchAndBound instance = new IntervalBranchAndBound( sphere, 1e-6 );
+        IntervalBranchAndBound.Minimum minimum = instance.minimize( new IntervalBox( new Interval( -5., 5. ), new Interval( -5., 5. ) ) );
+
+        assertTrue( minimum.getValue().getMinBound() <= 0. && 0. <= minimum.getValue().getMaxBound() );
+        assertTrue( minimum.getValue().getMaxBound() < 1e-10 );
+        assertFalse( minimum.getMinimizers().isEmpty() );
+        for( IntervalBox box : minimum.getMinimizers() ) {
+            assertEquals( 1., box.mid( 0 ), 1e-4 );
+            assertEquals( -2., box.mid( 1 ), 1e-4 );
+        }
+    }
+
+    /**
+     * Test of minimize method, of class IntervalBranchAndBound: two global
+     * minima, several workers.
+     */
+    @Test
+    public void testMinimize_camel() {
+        System.out.println("minimize: six-hump camel");
+
+        IntervalBranchAndBound instance = new IntervalBranchAndBound( CAMEL, 1e-4 );
+        IntervalBox box = new IntervalBox( new Interval( -3., 3. ), new Interval( -2., 2. ) );
+        for( int threads : new int[]{ 1, 4 } ) {
+            ForkJoinPool pool = new ForkJoinPool( threads );
+            IntervalBranchAndBound.Minimum minimum;
+            try {
+                minimum = instance.minimize( box, pool );
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue( minimum.getValue().getMinBound() <= CAMEL_MINIMUM && CAMEL_MINIMUM <= minimum.getValue().getMaxBound() );
+            assertTrue( minimum.getValue().width() < 1e-3 );
+
+            boolean positive = false, negative = false;
+            for( IntervalBox minimizer : minimum.getMinimizers() ) {
+                assertEquals( 0.0898, Math.abs( minimizer.mid( 0 ) ), 0.05 );
+                assertEquals( 0.7126, Math.abs( minimizer.mid( 1 ) ), 0.05 );
+                positive |= minimizer.mid( 0 ) > 0.;
+                negative |= minimizer.mid( 0 ) < 0.;
+            }
+            assertTrue( positive && negative );
+        }
+    }
+
+    /**
+     * Test of minimize method, of class IntervalBranchAndBound: the exceptions
+     * of the function are thrown by minimize.
+     */
+    @Test( expected = ArithmeticException.class )
+    public void testMinimize_failure() {
+        System.out.println("minimize: failure");
+
+        MultivariateIntervalFunction inverse = x -> Interval.ONE.divide( x.get( 0 ) );
+        ForkJoinPool pool = new ForkJoinPool( 2 );
+        try {
+            new IntervalBranchAndBound( inverse, 1e-3 ).minimize( new IntervalBox( new Interval( -1., 1. ) ), pool );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of the constructor, of class IntervalBranchAndBound.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testConstructor() {
+        System.out.println("constructor");
+
+        new IntervalBranchAndBound( CAMEL, 0. );
+    }
+}
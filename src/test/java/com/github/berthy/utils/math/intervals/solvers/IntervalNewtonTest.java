@@ -0,0 +1,131 @@
+package com.github.berthy.utils.math.intervals.solvers;
+
+import com.github.berthy.utils.math.intervals.GeneralizedInterval;
+import com.github.berthy.utils.math.intervals.Interval;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bertrand COTE
+ */
+public class IntervalNewtonTest {
+
+    /**
+     * x² - 2
+     */
+    private final static IntervalFunction SQUARE = IntervalFunction.of( x -> x.sq().add( -2. ), x -> x.mult( 2. ) );
+
+    /**
+     * (x-1)(x-2)(x-3) = x³ - 6x² + 11x - 6
+     */
+    private final static IntervalFunction CUBIC = IntervalFunction.of(
+            x -> x.add( -1. ).mult( x.add( -2. ) ).mult( x.add( -3. ) ),
+            x -> x.sq().mult( 3. ).add( x.mult( -12. ) ).add( 11. ) );
+
+    public IntervalNewtonTest() {
+    }
+
+    /**
+     * Test of solve method, of class IntervalNewton: simple roots are verified.
+     */
+    @Test
+    public void testSolve_simpleRoots() {
+        System.out.println("solve: simple roots");
+
+        IntervalNewton instance = new IntervalNewton( SQUARE, 1e-12, 100 );
+        IntervalNewton.Roots roots = instance.solve( new Interval( -3., 3. ) );
+        assertEquals( 0, roots.getPossible().size() );
+        GeneralizedInterval verified = roots.getVerified();
+        assertEquals( 2, verified.size() );
+        assertTrue( verified.getMinBound( 0 ) <= -Math.sqrt( 2. ) && -Math.sqrt( 2. ) <= verified.getMaxBound( 0 ) );
+        assertTrue( verified.getMinBound( 1 ) <= Math.sqrt( 2. ) && Math.sqrt( 2. ) <= verified.getMaxBound( 1 ) );
+        assertTrue( verified.getInterval( 1 ).width() <= 1e-12 );
+
+        ForkJoinPool pool = new ForkJoinPool( 2 );
+        try {
+            roots = new IntervalNewton( CUBIC, 1e-10, 100 ).solve( new Interval( -10., 10. ), pool );
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals( 0, roots.getPossible().size() );
+        assertEquals( 3, roots.getVerified().size() );
+        for( int i=0; i<3; i++ ) {
+            assertTrue( roots.getVerified().getMinBound( i ) <= i+1. && i+1. <= roots.getVerified().getMaxBound( i ) );
+            assertTrue( roots.getVerified().getInterval( i ).width() <= 1e-10 );
+        }
+        assertEquals( roots.getVerified(), roots.all() );
+
+        // derivative by automatic differentiation
+        IntervalFunction differentiated = IntervalFunction.differentiate( x -> x.sq().subtract( 2. ) );
+        assertEquals( SQUARE.value( new Interval( 1., 2. ) ), differentiated.value( new Interval( 1., 2. ) ) );
+        assertEquals( 2., differentiated.derivative( new Interval( 1., 2. ) ).getMinBound(), 1e-12 );
+        assertEquals( 4., differentiated.derivative( new Interval( 1., 2. ) ).getMaxBound(), 1e-12 );
+        assertEquals( instance.solve( new Interval( -3., 3. ) ).getVerified(),
+                      new IntervalNewton( differentiated, 1e-12, 100 ).solve( new Interval( -3., 3. ) ).getVerified() );
+    }
+
+    /**
+     * Test of solve method, of class IntervalNewton: no roots, double root.
+     */
+    @Test
+    public void testSolve_noVerification() {
+        System.out.println("solve: no root, double root");
+
+        // x² + 1
+        IntervalFunction noRoot = IntervalFunction.of( x -> x.sq().add( 1. ), x -> x.mult( 2. ) );
+        assertEquals( 0, new IntervalNewton( noRoot, 1e-10, 100 ).solve( new Interval( -5., 5. ) ).all().size() );
+
+        // (x-1)²: the root is not simple, it cannot be verified
+        IntervalFunction doubleRoot = IntervalFunction.of( x -> x.add( -1. ).sq(), x -> x.add( -1. ).mult( 2. ) );
+        IntervalNewton.Roots roots = new IntervalNewton( doubleRoot, 1e-6, 100 ).solve( new Interval( -2., 3. ) );
+        assertEquals( 0, roots.getVerified().size() );
+        assertTrue( roots.getPossible().size() > 0 );
+        assertTrue( roots.getPossible().getMinBound( 0 ) <= 1. && 1. <= roots.getPossible().getMaxBound( roots.getPossible().size()-1 ) );
+
+        // constant zero function: f' = 0, bisection only
+        IntervalFunction zero = IntervalFunction.of( x -> Interval.ZERO, x -> Interval.ZERO );
+        roots = new IntervalNewton( zero, 0.1, 100 ).solve( new Interval( 0., 1. ) );
+        assertEquals( new GeneralizedInterval( 0., 1. ), roots.getPossible() );
+    }
+
+    /**
+     * Test of solve method, of class IntervalNewton: the iteration budget
+     * stops the branches (each one, whatever the scheduling).
+     */
+    @Test
+    public void testSolve_budget() {
+        System.out.println("solve: iteration budget");
+
+        IntervalNewton.Roots roots = new IntervalNewton( CUBIC, 0., 1 ).solve( new Interval( -10., 10. ) );
+        GeneralizedInterval all = roots.all();
+        for( double root = 1.; root <= 3.; root++ ) {
+            boolean found = false;
+            for( int i=0; i<all.size(); i++ )
+                found |= all.getMinBound( i ) <= root && root <= all.getMaxBound( i );
+            assertTrue( found );
+        }
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try {
+            assertEquals( roots.all(), new IntervalNewton( CUBIC, 0., 1 ).solve( new Interval( -10., 10. ), pool ).all() );
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals( 1, new IntervalNewton( CUBIC, 0., 1 ).getMaxIterationsPerBranch() );
+
+        // no tolerance: stops at the floating point precision
+        roots = new IntervalNewton( SQUARE, 0., Integer.MAX_VALUE ).solve( new Interval( 0., 3. ) );
+        assertEquals( 1, roots.getVerified().size() );
+        assertTrue( roots.getVerified().getInterval( 0 ).width() <= 8.*Math.ulp( Math.sqrt( 2. ) ) );
+    }
+
+    /**
+     * Test of the constructor, of class IntervalNewton.
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testConstructor() {
+        System.out.println("constructor");
+
+        new IntervalNewton( SQUARE, 1e-10, 0 );
+    }
+}